@@ -0,0 +1,62 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.scheduling.TwinDispatchScheduler;
+import io.github.wldt.demo.shadowing.IngestAdmissionController;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to test the admission control of a twin flooded by its device: the dispatch queue stays bounded
+ * since the temperature updates are coalesced while the overheating events are always applied
+ */
+public class DemoAdmissionControlDigitalTwin {
+
+    private static final int FLOOD_SAMPLE_COUNT = 200000;
+
+    private static final int REPORT_COUNT = 8;
+
+    private static final long REPORT_PERIOD_MS = 5000;
+
+    public static void main(String[] args)  {
+        try{
+
+            TwinDispatchScheduler dispatchScheduler = new TwinDispatchScheduler(1, TwinDispatchScheduler.DEFAULT_QUANTUM_NANOS);
+            dispatchScheduler.start();
+
+            IngestAdmissionController admissionController = new IngestAdmissionController();
+
+            DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+            shadowingFunctionConfiguration.setDispatchScheduler(dispatchScheduler);
+            shadowingFunctionConfiguration.setAdmissionController(admissionController);
+
+            //The device publishes without any pause
+            DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+            physicalAdapterConfiguration.setMessageUpdateTime(0);
+            physicalAdapterConfiguration.setMessageUpdateNumber(FLOOD_SAMPLE_COUNT);
+
+            DigitalTwin digitalTwin = new DigitalTwin("test-dt-id", new DemoShadowingFunction("test-shadowing-function", shadowingFunctionConfiguration));
+            digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", physicalAdapterConfiguration));
+            digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", new DemoDigitalAdapterConfiguration()));
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+            digitalTwinEngine.addDigitalTwin(digitalTwin);
+            digitalTwinEngine.startAll();
+
+            for(int i = 0; i < REPORT_COUNT; i++) {
+                Thread.sleep(REPORT_PERIOD_MS);
+                System.out.println("[DemoAdmissionControlDigitalTwin] -> " + admissionController);
+                dispatchScheduler.getStats("test-dt-id").ifPresent(twinDispatchStats -> System.out.println("[DemoAdmissionControlDigitalTwin] -> " + twinDispatchStats));
+            }
+
+            digitalTwinEngine.removeAll();
+            dispatchScheduler.stop();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.aggregate.*;
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.digital.StateSubscription;
+import io.github.wldt.demo.logger.DemoEventLogger;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.utils.GlobalKeywords;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.core.event.WldtEventBus;
+
+/**
+ * Main class to test room, floor and building aggregate twins maintained incrementally from the demo device twins
+ */
+public class DemoAggregateDigitalTwin {
+
+    private static final int FLOOR_COUNT = 2;
+
+    private static final int ROOM_COUNT = 2;
+
+    private static final int DEVICES_PER_ROOM = 2;
+
+    public static void main(String[] args)  {
+        try{
+
+            AggregateTwinManager aggregateTwinManager = new AggregateTwinManager();
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            String building = GlobalKeywords.DEFAULT_BUILDING;
+            addAggregateTwin(digitalTwinEngine, aggregateTwinManager.getOrCreateAggregateNode(AggregateLevel.BUILDING, building, null, null));
+
+            for(int f = 0; f < FLOOR_COUNT; f++) {
+
+                String floor = String.format("f%d", f);
+                addAggregateTwin(digitalTwinEngine, aggregateTwinManager.getOrCreateAggregateNode(AggregateLevel.FLOOR, building, floor, null));
+
+                for(int r = 0; r < ROOM_COUNT; r++) {
+
+                    String room = String.format("r%d", r);
+                    addAggregateTwin(digitalTwinEngine, aggregateTwinManager.getOrCreateAggregateNode(AggregateLevel.ROOM, building, floor, room));
+
+                    for(int d = 0; d < DEVICES_PER_ROOM; d++)
+                        addDeviceTwin(digitalTwinEngine, aggregateTwinManager, String.format("test-dt-id-%s-%s-%d", floor, room, d), building, floor, room);
+                }
+            }
+
+            // Set a new Event-Logger to a Custom One that we created with the class 'DemoEventLogger'
+            WldtEventBus.getInstance().setEventLogger(new DemoEventLogger());
+
+            digitalTwinEngine.startAll();
+
+            Thread.sleep(40000);
+
+            for(AggregateLevel aggregateLevel : AggregateLevel.values())
+                aggregateTwinManager.getAggregateNodes(aggregateLevel).forEach(aggregateNode ->
+                        System.out.println("[DemoAggregateDigitalTwin] -> " + aggregateNode));
+
+            digitalTwinEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    private static void addDeviceTwin(DigitalTwinEngine digitalTwinEngine, AggregateTwinManager aggregateTwinManager,
+                                      String digitalTwinId, String building, String floor, String room) throws Exception {
+
+        DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+        physicalAdapterConfiguration.setBuilding(building);
+        physicalAdapterConfiguration.setFloor(floor);
+        physicalAdapterConfiguration.setRoom(room);
+
+        // The Digital Adapter feeds the aggregates with the committed changes and the event notifications
+        DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+        digitalAdapterConfiguration.addStateChangeListener(aggregateTwinManager, StateSubscription.create()
+                .onProperties(GlobalKeywords.TEMPERATURE_PROPERTY_KEY)
+                .onRelationships(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME));
+        digitalAdapterConfiguration.addEventNotificationListener(aggregateTwinManager);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function")));
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), physicalAdapterConfiguration));
+        digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), digitalAdapterConfiguration));
+
+        digitalTwinEngine.addDigitalTwin(digitalTwin);
+    }
+
+    private static void addAggregateTwin(DigitalTwinEngine digitalTwinEngine, AggregateNode aggregateNode) throws Exception {
+
+        String digitalTwinId = String.format("aggregate-%s", aggregateNode.getAggregateId().replace('/', '-'));
+
+        // Aggregates do not expose any action to emulate
+        DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+        digitalAdapterConfiguration.setEmulatedActionCount(0);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "aggregate-shadowing-function")));
+        digitalTwin.addPhysicalAdapter(new AggregatePhysicalAdapter(String.format("%s-%s", digitalTwinId, "aggregate-physical-adapter"), new AggregatePhysicalAdapterConfiguration(aggregateNode)));
+        digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "aggregate-digital-adapter"), digitalAdapterConfiguration));
+
+        digitalTwinEngine.addDigitalTwin(digitalTwin);
+    }
+}
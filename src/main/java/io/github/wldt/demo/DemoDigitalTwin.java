@@ -5,6 +5,7 @@ import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
 import io.github.wldt.demo.logger.DemoEventLogger;
 import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
 import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.startup.ParallelTwinStarter;
 import it.wldt.core.engine.DigitalTwin;
 import it.wldt.core.engine.DigitalTwinEngine;
 import it.wldt.core.event.WldtEventBus;
@@ -16,22 +17,33 @@ import it.wldt.core.event.WldtEventBus;
  */
 public class DemoDigitalTwin {
 
+    private static final long FIRST_UPDATE_TIMEOUT_MS = 30000;
+
     public static void main(String[] args)  {
         try{
 
+            DemoShadowingFunction shadowingFunction = new DemoShadowingFunction("test-shadowing-function");
+
             // Create the new Digital Twin
             DigitalTwin digitalTwin = new DigitalTwin(
                     "test-dt-id",
-                    new DemoShadowingFunction("test-shadowing-function")
+                    shadowingFunction
             );
 
+            // The adapters start emulating as soon as the Shadowing Function is synchronized instead of fixed delays
+            DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+            physicalAdapterConfiguration.setReadinessSignal(shadowingFunction.getSynchronizedFuture());
+
+            DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+            digitalAdapterConfiguration.setReadinessSignal(shadowingFunction.getSynchronizedFuture());
+
             //Default Physical and Digital Adapter
             //digitalTwin.addPhysicalAdapter(new DemoPhysicalAdapter("test-physical-adapter"));
             //digitalTwin.addDigitalAdapter(new DemoDigitalAdapter("test-digital-adapter"));
 
             //Physical and Digital Adapters with Configuration
-            digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", new DemoPhysicalAdapterConfiguration()));
-            digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", new DemoDigitalAdapterConfiguration()));
+            digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", physicalAdapterConfiguration));
+            digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", digitalAdapterConfiguration));
 
             // Create the Digital Twin Engine
             DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
@@ -42,8 +54,15 @@ public class DemoDigitalTwin {
             // Set a new Event-Logger to a Custom One that we created with the class 'DemoEventLogger'
             WldtEventBus.getInstance().setEventLogger(new DemoEventLogger());
 
-            // Start all the DTs registered on the engine
-            digitalTwinEngine.startAll();
+            // Alternatively profile the Event Bus dispatch cost with a sampling logger wrapping the custom one
+            //ProfilingEventLogger profilingEventLogger = new ProfilingEventLogger(new DemoEventLogger(), new ProfilingEventLoggerConfiguration());
+            //profilingEventLogger.startReporting();
+            //WldtEventBus.getInstance().setEventLogger(profilingEventLogger);
+
+            // Start the DTs registered on the engine through their readiness and report the time spent in each phase
+            ParallelTwinStarter parallelTwinStarter = new ParallelTwinStarter(digitalTwinEngine);
+            parallelTwinStarter.register(digitalTwin, digitalAdapterConfiguration);
+            System.out.println("[DemoDigitalTwin] -> " + parallelTwinStarter.startAll(FIRST_UPDATE_TIMEOUT_MS));
 
         }catch (Exception e){
             e.printStackTrace();
@@ -0,0 +1,52 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.engine.DigitalTwinActivityListener;
+import io.github.wldt.demo.engine.DigitalTwinFactory;
+import io.github.wldt.demo.engine.ManagedDigitalTwin;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+import it.wldt.core.engine.DigitalTwin;
+
+/**
+ * Factory creating demo Digital Twins with the configurable physical and digital adapters
+ */
+public class DemoDigitalTwinFactory implements DigitalTwinFactory {
+
+    private DigitalTwinActivityListener activityListener = null;
+
+    public DemoDigitalTwinFactory() {
+    }
+
+    public DemoDigitalTwinFactory(DigitalTwinActivityListener activityListener) {
+        this.activityListener = activityListener;
+    }
+
+    @Override
+    public ManagedDigitalTwin createDigitalTwin(String digitalTwinId, DigitalTwinStateSnapshot initialStateSnapshot) throws Exception {
+
+        DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+        shadowingFunctionConfiguration.setInitialStateSnapshot(initialStateSnapshot);
+        shadowingFunctionConfiguration.setActivityListener(this.activityListener);
+
+        DemoShadowingFunction shadowingFunction = new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function"), shadowingFunctionConfiguration);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, shadowingFunction);
+
+        //Physical and Digital Adapters with Configuration
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), new DemoPhysicalAdapterConfiguration()));
+        digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), new DemoDigitalAdapterConfiguration()));
+
+        return new ManagedDigitalTwin(digitalTwin, shadowingFunction);
+    }
+
+    public DigitalTwinActivityListener getActivityListener() {
+        return activityListener;
+    }
+
+    public void setActivityListener(DigitalTwinActivityListener activityListener) {
+        this.activityListener = activityListener;
+    }
+}
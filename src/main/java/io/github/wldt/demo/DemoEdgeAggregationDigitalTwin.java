@@ -0,0 +1,67 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.clock.VirtualClock;
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.physical.SampleAggregationMode;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to run the demo Digital Twin with a 1 kHz emulated sensor whose samples are pre-aggregated by the
+ * Physical Adapter over 1 second windows, so a single event per second reaches the Shadowing Function
+ */
+public class DemoEdgeAggregationDigitalTwin {
+
+    private static final int SAMPLE_PERIOD_MS = 1;
+
+    private static final int EMULATED_SAMPLE_COUNT = 60 * 1000;
+
+    private static final long SAMPLE_WINDOW_MS = 1000;
+
+    public static void main(String[] args)  {
+        try{
+
+            // Clock shared by the adapters and the Shadowing Function
+            VirtualClock virtualClock = new VirtualClock();
+
+            DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+            shadowingFunctionConfiguration.setClock(virtualClock);
+
+            DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+            physicalAdapterConfiguration.setMessageUpdateTime(SAMPLE_PERIOD_MS);
+            physicalAdapterConfiguration.setMessageUpdateNumber(EMULATED_SAMPLE_COUNT);
+            physicalAdapterConfiguration.setClock(virtualClock);
+
+            // Publish count, min, max, mean and last value once per window (BATCH ships the raw samples instead)
+            physicalAdapterConfiguration.setSampleAggregationMode(SampleAggregationMode.AGGREGATE);
+            physicalAdapterConfiguration.setSampleWindowMs(SAMPLE_WINDOW_MS);
+
+            DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+            digitalAdapterConfiguration.setClock(virtualClock);
+
+            // Create the new Digital Twin
+            DigitalTwin digitalTwin = new DigitalTwin(
+                    "test-dt-id",
+                    new DemoShadowingFunction("test-shadowing-function", shadowingFunctionConfiguration)
+            );
+
+            digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", physicalAdapterConfiguration));
+            digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", digitalAdapterConfiguration));
+
+            // Create the Digital Twin Engine
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            // Add the Digital Twin to the Engine
+            digitalTwinEngine.addDigitalTwin(digitalTwin);
+
+            // Start all the DTs registered on the engine
+            digitalTwinEngine.startAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.shadowing.EventStormSuppressor;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Main class to test the event storm suppression, with two devices stuck in alarm repeating the same 'critical'
+ * overheating event: the suppressed twin notifies it once per hold-off window while the other one notifies every
+ * event, and both Digital Adapters deliver the received notifications in batches
+ */
+public class DemoEventStormDigitalTwin {
+
+    private static final int ALARM_SAMPLE_COUNT = 10000;
+
+    private static final int ALARM_SAMPLE_PERIOD_MS = 1;
+
+    private static final long HOLD_OFF_MS = 1000;
+
+    private static final int EVENT_BATCH_SIZE = 128;
+
+    private static final long EVENT_BATCH_MAX_DELAY_MS = 250;
+
+    private static final int REPORT_COUNT = 12;
+
+    private static final long REPORT_PERIOD_MS = 2500;
+
+    public static void main(String[] args)  {
+        try{
+
+            EventStormSuppressor eventStormSuppressor = new EventStormSuppressor(HOLD_OFF_MS);
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            DemoConfDigitalAdapter suppressedDigitalAdapter = addDigitalTwin(digitalTwinEngine, "suppressed-dt-id", eventStormSuppressor);
+            DemoConfDigitalAdapter floodedDigitalAdapter = addDigitalTwin(digitalTwinEngine, "flooded-dt-id", null);
+
+            //Count the notifications received through the batch listeners
+            LongAdder suppressedEvents = new LongAdder();
+            LongAdder floodedEvents = new LongAdder();
+            suppressedDigitalAdapter.getConfiguration().addEventNotificationBatchListener((digitalTwinId, eventNotificationList) -> suppressedEvents.add(eventNotificationList.size()));
+            floodedDigitalAdapter.getConfiguration().addEventNotificationBatchListener((digitalTwinId, eventNotificationList) -> floodedEvents.add(eventNotificationList.size()));
+
+            digitalTwinEngine.startAll();
+
+            for(int i = 0; i < REPORT_COUNT; i++) {
+                Thread.sleep(REPORT_PERIOD_MS);
+                System.out.println(String.format("[DemoEventStormDigitalTwin] -> suppressed-dt-id Events: %d Batches: %d %s",
+                        suppressedEvents.sum(), suppressedDigitalAdapter.getDeliveredEventBatches(), eventStormSuppressor.getStats()));
+                System.out.println(String.format("[DemoEventStormDigitalTwin] -> flooded-dt-id Events: %d Batches: %d",
+                        floodedEvents.sum(), floodedDigitalAdapter.getDeliveredEventBatches()));
+            }
+
+            digitalTwinEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    private static DemoConfDigitalAdapter addDigitalTwin(DigitalTwinEngine digitalTwinEngine, String digitalTwinId, EventStormSuppressor eventStormSuppressor) throws Exception {
+
+        DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+        shadowingFunctionConfiguration.setEventStormSuppressor(eventStormSuppressor);
+
+        //Every sample is followed by the same 'critical' overheating event
+        DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+        physicalAdapterConfiguration.setMessageUpdateTime(ALARM_SAMPLE_PERIOD_MS);
+        physicalAdapterConfiguration.setMessageUpdateNumber(ALARM_SAMPLE_COUNT);
+        physicalAdapterConfiguration.setAlarmPeriod(1);
+
+        DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+        digitalAdapterConfiguration.setEventBatchSize(EVENT_BATCH_SIZE);
+        digitalAdapterConfiguration.setEventBatchMaxDelayMs(EVENT_BATCH_MAX_DELAY_MS);
+
+        DemoConfDigitalAdapter digitalAdapter = new DemoConfDigitalAdapter(String.format("%s-digital-adapter", digitalTwinId), digitalAdapterConfiguration);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-shadowing-function", digitalTwinId), shadowingFunctionConfiguration));
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-physical-adapter", digitalTwinId), physicalAdapterConfiguration));
+        digitalTwin.addDigitalAdapter(digitalAdapter);
+
+        digitalTwinEngine.addDigitalTwin(digitalTwin);
+
+        return digitalAdapter;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.scheduling.TwinDispatchScheduler;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to test the weighted fair dispatch of the events of several twins sharing the same engine, with a
+ * noisy device flooding its twin while quiet devices publish a sample every 100 ms
+ */
+public class DemoFairSchedulingDigitalTwin {
+
+    private static final int QUIET_TWIN_COUNT = 4;
+
+    private static final int NOISY_SAMPLE_COUNT = 200000;
+
+    private static final int QUIET_SAMPLE_PERIOD_MS = 100;
+
+    private static final int QUIET_SAMPLE_COUNT = 300;
+
+    private static final int WORKER_COUNT = 2;
+
+    private static final int REPORT_COUNT = 10;
+
+    private static final long REPORT_PERIOD_MS = 5000;
+
+    public static void main(String[] args)  {
+        try{
+
+            TwinDispatchScheduler dispatchScheduler = new TwinDispatchScheduler(WORKER_COUNT, TwinDispatchScheduler.DEFAULT_QUANTUM_NANOS);
+            dispatchScheduler.start();
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            //The noisy device publishes without any pause
+            digitalTwinEngine.addDigitalTwin(createDigitalTwin("noisy-dt-id", dispatchScheduler, TwinDispatchScheduler.DEFAULT_WEIGHT, 0, NOISY_SAMPLE_COUNT));
+
+            //Quiet devices get a higher weight to keep their dispatch latency low
+            for(int i = 0; i < QUIET_TWIN_COUNT; i++)
+                digitalTwinEngine.addDigitalTwin(createDigitalTwin(String.format("quiet-dt-id-%d", i), dispatchScheduler, 2, QUIET_SAMPLE_PERIOD_MS, QUIET_SAMPLE_COUNT));
+
+            digitalTwinEngine.startAll();
+
+            for(int i = 0; i < REPORT_COUNT; i++) {
+                Thread.sleep(REPORT_PERIOD_MS);
+                dispatchScheduler.getStats().forEach(twinDispatchStats -> System.out.println("[DemoFairSchedulingDigitalTwin] -> " + twinDispatchStats));
+            }
+
+            digitalTwinEngine.removeAll();
+            dispatchScheduler.stop();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    private static DigitalTwin createDigitalTwin(String digitalTwinId, TwinDispatchScheduler dispatchScheduler, int weight,
+                                                 int messageUpdateTime, int messageUpdateNumber) throws Exception {
+
+        DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+        shadowingFunctionConfiguration.setDispatchScheduler(dispatchScheduler);
+        shadowingFunctionConfiguration.setDispatchWeight(weight);
+
+        DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+        physicalAdapterConfiguration.setMessageUpdateTime(messageUpdateTime);
+        physicalAdapterConfiguration.setMessageUpdateNumber(messageUpdateNumber);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function"), shadowingFunctionConfiguration));
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), physicalAdapterConfiguration));
+        digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), new DemoDigitalAdapterConfiguration()));
+
+        return digitalTwin;
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.logger.DemoEventLogger;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.query.FleetQuery;
+import io.github.wldt.demo.query.FleetQueryEngine;
+import io.github.wldt.demo.utils.GlobalKeywords;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.core.event.WldtEventBus;
+
+import java.util.Random;
+
+/**
+ * Main class to test the fleet query engine: first on a synthetic fleet measuring the query time, then on
+ * demo Digital Twins updating the indexes through their Digital Adapters
+ */
+public class DemoFleetQueryDigitalTwin {
+
+    private static final int SYNTHETIC_TWIN_COUNT = 100000;
+
+    private static final int BUILDING_COUNT = 20;
+
+    private static final int QUERY_RUN_COUNT = 10000;
+
+    private static final int DIGITAL_TWIN_COUNT = 4;
+
+    public static void main(String[] args)  {
+        try{
+
+            runSyntheticFleetBenchmark();
+
+            FleetQueryEngine queryEngine = new FleetQueryEngine(GlobalKeywords.TEMPERATURE_PROPERTY_KEY);
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            for(int i = 0; i < DIGITAL_TWIN_COUNT; i++){
+
+                String digitalTwinId = String.format("test-dt-id-%d", i);
+
+                // The Digital Adapter feeds the query engine with the committed changes
+                DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+                digitalAdapterConfiguration.addStateChangeListener(queryEngine);
+
+                DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function")));
+                digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), new DemoPhysicalAdapterConfiguration()));
+                digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), digitalAdapterConfiguration));
+
+                digitalTwinEngine.addDigitalTwin(digitalTwin);
+            }
+
+            // Set a new Event-Logger to a Custom One that we created with the class 'DemoEventLogger'
+            WldtEventBus.getInstance().setEventLogger(new DemoEventLogger());
+
+            digitalTwinEngine.startAll();
+
+            Thread.sleep(30000);
+
+            System.out.println("[DemoFleetQueryDigitalTwin] -> Twins above 25: " + queryEngine.execute(
+                    FleetQuery.onProperty(GlobalKeywords.TEMPERATURE_PROPERTY_KEY).greaterThan(25)));
+
+            System.out.println("[DemoFleetQueryDigitalTwin] -> Top 2 in building-hq: " + queryEngine.execute(
+                    FleetQuery.onProperty(GlobalKeywords.TEMPERATURE_PROPERTY_KEY).relatedTo(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME, "building-hq").top(2)));
+
+            digitalTwinEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    private static void runSyntheticFleetBenchmark() {
+
+        FleetQueryEngine queryEngine = new FleetQueryEngine(GlobalKeywords.TEMPERATURE_PROPERTY_KEY);
+        Random random = new Random(42);
+
+        for(int i = 0; i < SYNTHETIC_TWIN_COUNT; i++){
+            String digitalTwinId = String.format("synthetic-dt-id-%d", i);
+            String building = (i % BUILDING_COUNT == 0) ? "building-hq" : String.format("building-%d", i % BUILDING_COUNT);
+            queryEngine.getRelationshipIndex().addInstance(digitalTwinId, GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME, "rel-" + i, building);
+            queryEngine.updatePropertyValue(digitalTwinId, GlobalKeywords.TEMPERATURE_PROPERTY_KEY,
+                    GlobalKeywords.TEMPERATURE_MIN_VALUE + (GlobalKeywords.TEMPERATURE_MAX_VALUE - GlobalKeywords.TEMPERATURE_MIN_VALUE) * random.nextDouble());
+        }
+
+        FleetQuery aboveThresholdQuery = FleetQuery.onProperty(GlobalKeywords.TEMPERATURE_PROPERTY_KEY).greaterThan(29.99);
+        FleetQuery hottestInBuildingQuery = FleetQuery.onProperty(GlobalKeywords.TEMPERATURE_PROPERTY_KEY).relatedTo(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME, "building-hq").top(10);
+
+        System.out.println("[DemoFleetQueryDigitalTwin] -> Synthetic Fleet: " + queryEngine);
+        System.out.println(String.format("[DemoFleetQueryDigitalTwin] -> %s -> Results: %d Average Time: %.2f us",
+                aboveThresholdQuery, queryEngine.execute(aboveThresholdQuery).size(), measureQueryTimeUs(queryEngine, aboveThresholdQuery)));
+        System.out.println(String.format("[DemoFleetQueryDigitalTwin] -> %s -> Results: %d Average Time: %.2f us",
+                hottestInBuildingQuery, queryEngine.execute(hottestInBuildingQuery).size(), measureQueryTimeUs(queryEngine, hottestInBuildingQuery)));
+
+        // Incremental update cost of a single twin value
+        long updateStartNs = System.nanoTime();
+        for(int i = 0; i < QUERY_RUN_COUNT; i++)
+            queryEngine.updatePropertyValue(String.format("synthetic-dt-id-%d", i), GlobalKeywords.TEMPERATURE_PROPERTY_KEY, 20 + random.nextDouble() * 10);
+        System.out.println(String.format("[DemoFleetQueryDigitalTwin] -> Average Index Update Time: %.2f us", (System.nanoTime() - updateStartNs) / 1000.0 / QUERY_RUN_COUNT));
+    }
+
+    private static double measureQueryTimeUs(FleetQueryEngine queryEngine, FleetQuery query) {
+        //Warm up the query path before measuring
+        for(int i = 0; i < QUERY_RUN_COUNT; i++)
+            queryEngine.execute(query);
+        long startNs = System.nanoTime();
+        for(int i = 0; i < QUERY_RUN_COUNT; i++)
+            queryEngine.execute(query);
+        return (System.nanoTime() - startNs) / 1000.0 / QUERY_RUN_COUNT;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.freshness.FreshnessWatchdog;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.scheduling.TwinDispatchScheduler;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to test the end-to-end freshness watchdog, with a noisy device whose backlog on the shared dispatch
+ * scheduler delays the commit of its samples while quiet devices keep their DT State fresh
+ */
+public class DemoFreshnessDigitalTwin {
+
+    private static final int QUIET_TWIN_COUNT = 3;
+
+    private static final int NOISY_SAMPLE_COUNT = 100000;
+
+    private static final int QUIET_SAMPLE_PERIOD_MS = 100;
+
+    private static final int QUIET_SAMPLE_COUNT = 200;
+
+    private static final int WORKER_COUNT = 2;
+
+    private static final long LAG_THRESHOLD_MS = 500;
+
+    private static final long CHECK_PERIOD_MS = 1000;
+
+    private static final int REPORT_COUNT = 16;
+
+    private static final long REPORT_PERIOD_MS = 2500;
+
+    public static void main(String[] args)  {
+        try{
+
+            TwinDispatchScheduler dispatchScheduler = new TwinDispatchScheduler(WORKER_COUNT, TwinDispatchScheduler.DEFAULT_QUANTUM_NANOS);
+            dispatchScheduler.start();
+
+            FreshnessWatchdog freshnessWatchdog = new FreshnessWatchdog(LAG_THRESHOLD_MS, CHECK_PERIOD_MS);
+            freshnessWatchdog.start();
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            digitalTwinEngine.addDigitalTwin(createDigitalTwin("noisy-dt-id", dispatchScheduler, freshnessWatchdog, 0, NOISY_SAMPLE_COUNT));
+
+            for(int i = 0; i < QUIET_TWIN_COUNT; i++)
+                digitalTwinEngine.addDigitalTwin(createDigitalTwin(String.format("quiet-dt-id-%d", i), dispatchScheduler, freshnessWatchdog, QUIET_SAMPLE_PERIOD_MS, QUIET_SAMPLE_COUNT));
+
+            digitalTwinEngine.startAll();
+
+            for(int i = 0; i < REPORT_COUNT; i++) {
+                Thread.sleep(REPORT_PERIOD_MS);
+                freshnessWatchdog.getStats().forEach(freshnessStats -> System.out.println("[DemoFreshnessDigitalTwin] -> " + freshnessStats));
+                System.out.println("[DemoFreshnessDigitalTwin] -> Lagging Twins: " + freshnessWatchdog.getLaggingTwins());
+            }
+
+            freshnessWatchdog.getKeyStats("noisy-dt-id").forEach(freshnessStats -> System.out.println("[DemoFreshnessDigitalTwin] -> " + freshnessStats));
+
+            digitalTwinEngine.removeAll();
+            freshnessWatchdog.stop();
+            dispatchScheduler.stop();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    private static DigitalTwin createDigitalTwin(String digitalTwinId, TwinDispatchScheduler dispatchScheduler, FreshnessWatchdog freshnessWatchdog,
+                                                 int messageUpdateTime, int messageUpdateNumber) throws Exception {
+
+        DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+        shadowingFunctionConfiguration.setDispatchScheduler(dispatchScheduler);
+        shadowingFunctionConfiguration.setFreshnessWatchdog(freshnessWatchdog);
+
+        DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+        physicalAdapterConfiguration.setMessageUpdateTime(messageUpdateTime);
+        physicalAdapterConfiguration.setMessageUpdateNumber(messageUpdateNumber);
+
+        DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+        digitalAdapterConfiguration.setFreshnessWatchdog(freshnessWatchdog);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function"), shadowingFunctionConfiguration));
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), physicalAdapterConfiguration));
+        digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), digitalAdapterConfiguration));
+
+        return digitalTwin;
+    }
+}
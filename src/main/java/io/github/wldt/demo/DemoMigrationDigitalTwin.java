@@ -0,0 +1,48 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.engine.ManagedDigitalTwin;
+import io.github.wldt.demo.logger.DemoEventLogger;
+import io.github.wldt.demo.migration.LoopbackSocketMigrationTransport;
+import io.github.wldt.demo.migration.TwinMigrationManager;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.core.event.WldtEventBus;
+
+/**
+ * Main class to test the live migration of a demo Digital Twin between two engines through a loopback socket
+ */
+public class DemoMigrationDigitalTwin {
+
+    private static final String DIGITAL_TWIN_ID = "test-dt-id";
+
+    public static void main(String[] args)  {
+        try (LoopbackSocketMigrationTransport migrationTransport = new LoopbackSocketMigrationTransport()) {
+
+            DigitalTwinEngine sourceEngine = new DigitalTwinEngine();
+            DigitalTwinEngine targetEngine = new DigitalTwinEngine();
+
+            DemoDigitalTwinFactory digitalTwinFactory = new DemoDigitalTwinFactory();
+
+            TwinMigrationManager migrationManager = new TwinMigrationManager(digitalTwinFactory, migrationTransport);
+
+            // Set a new Event-Logger to a Custom One that we created with the class 'DemoEventLogger'
+            WldtEventBus.getInstance().setEventLogger(new DemoEventLogger());
+
+            ManagedDigitalTwin managedDigitalTwin = digitalTwinFactory.createDigitalTwin(DIGITAL_TWIN_ID, null);
+            sourceEngine.addDigitalTwin(managedDigitalTwin.getDigitalTwin());
+            sourceEngine.startDigitalTwin(DIGITAL_TWIN_ID);
+
+            // Let the twin apply part of the emulated samples before moving it
+            Thread.sleep(20000);
+            System.out.println("[DemoMigrationDigitalTwin] -> State Before Migration: " + managedDigitalTwin.getShadowingFunction().getDigitalTwinStateSnapshot());
+
+            managedDigitalTwin = migrationManager.migrate(managedDigitalTwin, sourceEngine, targetEngine);
+            System.out.println("[DemoMigrationDigitalTwin] -> State After Migration: " + managedDigitalTwin.getShadowingFunction().getDigitalTwinStateSnapshot());
+
+            Thread.sleep(30000);
+            targetEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
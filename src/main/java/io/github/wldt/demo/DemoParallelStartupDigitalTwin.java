@@ -0,0 +1,75 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.startup.ParallelTwinStarter;
+import io.github.wldt.demo.startup.StartupReport;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to measure the time-to-first-update of a large number of twins started through their readiness:
+ * adapters publish the PAD at start, the emulations begin as soon as the Shadowing Function is synchronized and
+ * the twins bind in parallel with bounded concurrency. The number of twins can be passed as first argument.
+ */
+public class DemoParallelStartupDigitalTwin {
+
+    private static final int DEFAULT_TWIN_COUNT = 1000;
+
+    private static final int MAX_CONCURRENT_BINDS = 64;
+
+    private static final int SAMPLE_PERIOD_MS = 100;
+
+    private static final int SAMPLE_COUNT = 10;
+
+    private static final long FIRST_UPDATE_TIMEOUT_MS = 120000;
+
+    public static void main(String[] args)  {
+        try{
+
+            int twinCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TWIN_COUNT;
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            ParallelTwinStarter parallelTwinStarter = new ParallelTwinStarter(digitalTwinEngine, MAX_CONCURRENT_BINDS, ParallelTwinStarter.DEFAULT_BIND_TIMEOUT_MS);
+
+            long createStartMs = System.currentTimeMillis();
+
+            for(int i = 0; i < twinCount; i++)
+                createDigitalTwin(String.format("startup-dt-id-%d", i), digitalTwinEngine, parallelTwinStarter);
+
+            System.out.println(String.format("[DemoParallelStartupDigitalTwin] -> Created %d Digital Twins in %d ms", twinCount, System.currentTimeMillis() - createStartMs));
+
+            StartupReport startupReport = parallelTwinStarter.startAll(FIRST_UPDATE_TIMEOUT_MS);
+            System.out.println("[DemoParallelStartupDigitalTwin] -> " + startupReport);
+
+            digitalTwinEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    private static void createDigitalTwin(String digitalTwinId, DigitalTwinEngine digitalTwinEngine, ParallelTwinStarter parallelTwinStarter) throws Exception {
+
+        DemoShadowingFunction shadowingFunction = new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function"), new DemoShadowingFunctionConfiguration());
+
+        // The adapters start their emulation as soon as the Shadowing Function is synchronized
+        DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+        physicalAdapterConfiguration.setMessageUpdateTime(SAMPLE_PERIOD_MS);
+        physicalAdapterConfiguration.setMessageUpdateNumber(SAMPLE_COUNT);
+        physicalAdapterConfiguration.setReadinessSignal(shadowingFunction.getSynchronizedFuture());
+
+        DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+        digitalAdapterConfiguration.setReadinessSignal(shadowingFunction.getSynchronizedFuture());
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, shadowingFunction);
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), physicalAdapterConfiguration));
+        digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), digitalAdapterConfiguration));
+
+        digitalTwinEngine.addDigitalTwin(digitalTwin);
+        parallelTwinStarter.register(digitalTwin, digitalAdapterConfiguration);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.engine.TwinPassivationManager;
+import io.github.wldt.demo.logger.DemoEventLogger;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.core.event.WldtEventBus;
+
+import java.nio.file.Files;
+
+/**
+ * Main class to test the passivation of idle demo Digital Twins and their reactivation from the stored snapshot
+ */
+public class DemoPassivationDigitalTwin {
+
+    private static final int DIGITAL_TWIN_COUNT = 4;
+
+    private static final long IDLE_TIMEOUT_MS = 20000;
+
+    public static void main(String[] args)  {
+        try{
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            DemoDigitalTwinFactory digitalTwinFactory = new DemoDigitalTwinFactory();
+
+            TwinPassivationManager passivationManager = new TwinPassivationManager(
+                    digitalTwinEngine,
+                    digitalTwinFactory,
+                    Files.createTempDirectory("wldt-passivated-twins"),
+                    IDLE_TIMEOUT_MS);
+
+            // The Shadowing Functions report their activity to the manager to reset the idle timer
+            digitalTwinFactory.setActivityListener(passivationManager);
+
+            // Set a new Event-Logger to a Custom One that we created with the class 'DemoEventLogger'
+            WldtEventBus.getInstance().setEventLogger(new DemoEventLogger());
+
+            for(int i = 0; i < DIGITAL_TWIN_COUNT; i++)
+                passivationManager.createAndStart(String.format("test-dt-id-%d", i));
+
+            passivationManager.startIdleCheck();
+
+            // Wait for the emulation to end and the twins to be passivated
+            Thread.sleep(90000);
+            System.out.println("[DemoPassivationDigitalTwin] -> Active: " + passivationManager.getActiveTwinCount() + " Passivated: " + passivationManager.getPassivatedTwinCount());
+
+            // New traffic for a passivated twin transparently reactivates it
+            passivationManager.ensureActive("test-dt-id-0");
+            System.out.println("[DemoPassivationDigitalTwin] -> Active: " + passivationManager.getActiveTwinCount() + " Passivated: " + passivationManager.getPassivatedTwinCount());
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
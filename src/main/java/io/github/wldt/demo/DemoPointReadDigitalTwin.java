@@ -0,0 +1,105 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.keys.DemoKeyIds;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.state.CurrentValueCache;
+import io.github.wldt.demo.state.CurrentValueSnapshot;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Main class to test the current value cache, with several threads polling the temperature of a twin while its
+ * device publishes at full speed: the reads never lock and each reader always observes increasing commit versions
+ */
+public class DemoPointReadDigitalTwin {
+
+    private static final String DIGITAL_TWIN_ID = "test-dt-id";
+
+    private static final int READER_COUNT = 4;
+
+    private static final int SAMPLE_COUNT = 50000;
+
+    private static final int REPORT_COUNT = 12;
+
+    private static final long REPORT_PERIOD_MS = 2500;
+
+    private static volatile boolean reading = true;
+
+    public static void main(String[] args)  {
+        try{
+
+            CurrentValueCache currentValueCache = new CurrentValueCache();
+
+            DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+            physicalAdapterConfiguration.setMessageUpdateTime(0);
+            physicalAdapterConfiguration.setMessageUpdateNumber(SAMPLE_COUNT);
+
+            DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+            digitalAdapterConfiguration.addStateChangeListener(currentValueCache, CurrentValueCache.newSubscription());
+
+            DigitalTwin digitalTwin = new DigitalTwin(DIGITAL_TWIN_ID, new DemoShadowingFunction("test-shadowing-function"));
+            digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", physicalAdapterConfiguration));
+            digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", digitalAdapterConfiguration));
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+            digitalTwinEngine.addDigitalTwin(digitalTwin);
+            digitalTwinEngine.startAll();
+
+            //Readers polling the current temperature as fast as possible
+            LongAdder reads = new LongAdder();
+            LongAdder versionRegressions = new LongAdder();
+            List<Thread> readerThreadList = new ArrayList<>();
+            for(int i = 0; i < READER_COUNT; i++) {
+                Thread readerThread = new Thread(() -> {
+                    long lastVersion = 0;
+                    long readCount = 0;
+                    while (reading) {
+                        CurrentValueSnapshot snapshot = currentValueCache.getSnapshot(DIGITAL_TWIN_ID);
+                        snapshot.getValue(DemoKeyIds.TEMPERATURE_PROPERTY_ID);
+                        if(snapshot.getVersion() < lastVersion)
+                            versionRegressions.increment();
+                        lastVersion = snapshot.getVersion();
+                        if(++readCount % 1024 == 0)
+                            reads.add(1024);
+                    }
+                }, String.format("point-reader-%d", i));
+                readerThread.setDaemon(true);
+                readerThread.start();
+                readerThreadList.add(readerThread);
+            }
+
+            long lastReads = 0;
+            for(int i = 0; i < REPORT_COUNT; i++) {
+
+                Thread.sleep(REPORT_PERIOD_MS);
+
+                long currentReads = reads.sum();
+                long readsPerSecond = (currentReads - lastReads) * 1000 / REPORT_PERIOD_MS;
+                lastReads = currentReads;
+
+                System.out.println(String.format("[DemoPointReadDigitalTwin] -> Temperature: %s Reads/s: %d (%.1f ns/read per reader) Version Regressions: %d %s",
+                        currentValueCache.getValue(DIGITAL_TWIN_ID, DemoKeyIds.TEMPERATURE_PROPERTY_ID),
+                        readsPerSecond,
+                        readsPerSecond > 0 ? READER_COUNT * 1e9 / readsPerSecond : 0.0,
+                        versionRegressions.sum(),
+                        currentValueCache.getSnapshot(DIGITAL_TWIN_ID)));
+            }
+
+            reading = false;
+            for(Thread readerThread : readerThreadList)
+                readerThread.join();
+
+            digitalTwinEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
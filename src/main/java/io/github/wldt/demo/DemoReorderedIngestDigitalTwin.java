@@ -0,0 +1,97 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.freshness.FreshnessWatchdog;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.scheduling.TwinDispatchScheduler;
+import io.github.wldt.demo.shadowing.PropertyReorderBuffer;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Main class to test the timestamp-ordered ingest, with two devices whose samples are forwarded by concurrent
+ * relays with a random delay: the reordered twin applies them by sampling time in batched commits, discarding the
+ * late ones, while the other twin serializes them on a dispatch worker and applies them in arrival order
+ */
+public class DemoReorderedIngestDigitalTwin {
+
+    private static final int SAMPLE_COUNT = 5000;
+
+    private static final int SAMPLE_PERIOD_MS = 2;
+
+    private static final int RELAY_COUNT = 16;
+
+    private static final long RELAY_MAX_DELAY_MS = 20;
+
+    private static final long ALLOWED_LATENESS_MS = 40;
+
+    private static final long MAX_HOLD_MS = 200;
+
+    private static final int REPORT_COUNT = 12;
+
+    private static final long REPORT_PERIOD_MS = 2500;
+
+    public static void main(String[] args)  {
+        try{
+
+            PropertyReorderBuffer reorderBuffer = new PropertyReorderBuffer(ALLOWED_LATENESS_MS, PropertyReorderBuffer.DEFAULT_MAX_BUFFERED_PER_KEY,
+                    MAX_HOLD_MS, PropertyReorderBuffer.DEFAULT_MAX_BATCH_SIZE);
+
+            //Late samples are only counted, a real deployment could archive them
+            LongAdder lateSamples = new LongAdder();
+            reorderBuffer.setLateSampleListener((digitalTwinId, propertyEvent, sampleTimestampMs, watermarkMs) -> lateSamples.increment());
+
+            FreshnessWatchdog freshnessWatchdog = new FreshnessWatchdog();
+
+            //Single worker serializing the samples of the twin without reordering
+            TwinDispatchScheduler dispatchScheduler = new TwinDispatchScheduler(1, TwinDispatchScheduler.DEFAULT_QUANTUM_NANOS);
+            dispatchScheduler.start();
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+            digitalTwinEngine.addDigitalTwin(createDigitalTwin("reordered-dt-id", reorderBuffer, null, freshnessWatchdog));
+            digitalTwinEngine.addDigitalTwin(createDigitalTwin("unordered-dt-id", null, dispatchScheduler, freshnessWatchdog));
+            digitalTwinEngine.startAll();
+
+            for(int i = 0; i < REPORT_COUNT; i++) {
+                Thread.sleep(REPORT_PERIOD_MS);
+                System.out.println(String.format("[DemoReorderedIngestDigitalTwin] -> reordered-dt-id %s Routed Late Samples: %d", reorderBuffer.getStats(), lateSamples.sum()));
+                freshnessWatchdog.getStats().forEach(freshnessStats -> System.out.println("[DemoReorderedIngestDigitalTwin] -> " + freshnessStats));
+            }
+
+            digitalTwinEngine.removeAll();
+            dispatchScheduler.stop();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    private static DigitalTwin createDigitalTwin(String digitalTwinId, PropertyReorderBuffer reorderBuffer, TwinDispatchScheduler dispatchScheduler,
+                                                 FreshnessWatchdog freshnessWatchdog) throws Exception {
+
+        DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+        shadowingFunctionConfiguration.setReorderBuffer(reorderBuffer);
+        shadowingFunctionConfiguration.setDispatchScheduler(dispatchScheduler);
+        shadowingFunctionConfiguration.setFreshnessWatchdog(freshnessWatchdog);
+
+        //The samples are timestamped by the device and delivered by concurrent relays
+        DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+        physicalAdapterConfiguration.setMessageUpdateTime(SAMPLE_PERIOD_MS);
+        physicalAdapterConfiguration.setMessageUpdateNumber(SAMPLE_COUNT);
+        physicalAdapterConfiguration.setRelayCount(RELAY_COUNT);
+        physicalAdapterConfiguration.setRelayMaxDelayMs(RELAY_MAX_DELAY_MS);
+
+        DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+        digitalAdapterConfiguration.setFreshnessWatchdog(freshnessWatchdog);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-shadowing-function", digitalTwinId), shadowingFunctionConfiguration));
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-physical-adapter", digitalTwinId), physicalAdapterConfiguration));
+        digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-digital-adapter", digitalTwinId), digitalAdapterConfiguration));
+
+        return digitalTwin;
+    }
+}
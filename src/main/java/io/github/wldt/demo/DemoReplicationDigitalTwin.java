@@ -0,0 +1,79 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.logger.DemoEventLogger;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.replication.LoopbackSocketReplicationChannel;
+import io.github.wldt.demo.replication.ReplicationPublisher;
+import io.github.wldt.demo.replication.StandbyReplica;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.core.event.WldtEventBus;
+
+/**
+ * Main class to test a primary demo Digital Twin replicated through its change log on a hot-standby twin
+ * running on a second engine, and the promotion of the standby twin when the primary one fails
+ */
+public class DemoReplicationDigitalTwin {
+
+    private static final String PRIMARY_DIGITAL_TWIN_ID = "test-dt-id";
+
+    private static final String STANDBY_DIGITAL_TWIN_ID = "test-dt-id-standby";
+
+    public static void main(String[] args)  {
+        try{
+
+            // Create the standby twin ignoring its physical variations until promoted
+            DemoShadowingFunctionConfiguration standbyConfiguration = new DemoShadowingFunctionConfiguration();
+            standbyConfiguration.setStandby(true);
+            DemoShadowingFunction standbyShadowingFunction = new DemoShadowingFunction("test-standby-shadowing-function", standbyConfiguration);
+
+            DigitalTwin standbyDigitalTwin = new DigitalTwin(STANDBY_DIGITAL_TWIN_ID, standbyShadowingFunction);
+            standbyDigitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-standby-physical-adapter", new DemoPhysicalAdapterConfiguration()));
+            standbyDigitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-standby-digital-adapter", new DemoDigitalAdapterConfiguration()));
+
+            StandbyReplica standbyReplica = new StandbyReplica(standbyShadowingFunction);
+
+            // Ship the change log of the primary twin to the replica over a loopback connection
+            LoopbackSocketReplicationChannel replicationChannel = new LoopbackSocketReplicationChannel(standbyReplica);
+            ReplicationPublisher replicationPublisher = new ReplicationPublisher(replicationChannel);
+
+            DemoDigitalAdapterConfiguration primaryDigitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+            primaryDigitalAdapterConfiguration.addStateChangeListener(replicationPublisher);
+
+            DigitalTwin primaryDigitalTwin = new DigitalTwin(PRIMARY_DIGITAL_TWIN_ID, new DemoShadowingFunction("test-shadowing-function"));
+            primaryDigitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", new DemoPhysicalAdapterConfiguration()));
+            primaryDigitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", primaryDigitalAdapterConfiguration));
+
+            DigitalTwinEngine primaryEngine = new DigitalTwinEngine();
+            primaryEngine.addDigitalTwin(primaryDigitalTwin);
+
+            DigitalTwinEngine standbyEngine = new DigitalTwinEngine();
+            standbyEngine.addDigitalTwin(standbyDigitalTwin);
+
+            // Set a new Event-Logger to a Custom One that we created with the class 'DemoEventLogger'
+            WldtEventBus.getInstance().setEventLogger(new DemoEventLogger());
+
+            standbyEngine.startAll();
+            standbyReplica.start();
+            primaryEngine.startAll();
+
+            // Let the primary twin apply part of the emulated samples
+            Thread.sleep(30000);
+            System.out.println("[DemoReplicationDigitalTwin] -> " + replicationPublisher);
+            System.out.println("[DemoReplicationDigitalTwin] -> " + standbyReplica);
+
+            // Emulate the failure of the primary twin and promote the standby one
+            primaryEngine.removeAll();
+            replicationChannel.close();
+            standbyReplica.promote();
+
+            System.out.println("[DemoReplicationDigitalTwin] -> Promoted State: " + standbyShadowingFunction.getDigitalTwinStateSnapshot());
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
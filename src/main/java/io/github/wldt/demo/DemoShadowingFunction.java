@@ -1,17 +1,48 @@
 package io.github.wldt.demo;
 
+import io.github.wldt.demo.jfr.DigitalTwinBoundJfrEvent;
+import io.github.wldt.demo.jfr.StateTransactionJfrEvent;
+import io.github.wldt.demo.keys.DemoKeyIds;
+import io.github.wldt.demo.keys.KeyCounterArray;
+import io.github.wldt.demo.keys.KeyIndexedArray;
+import io.github.wldt.demo.keys.KeyRegistry;
+import io.github.wldt.demo.migration.InFlightPhysicalEvent;
+import io.github.wldt.demo.physical.PropertySampleWindow;
+import io.github.wldt.demo.replication.ReplicatedStateChange;
+import io.github.wldt.demo.scheduling.TwinDispatchScheduler;
+import io.github.wldt.demo.shadowing.AdmissionDecision;
+import io.github.wldt.demo.shadowing.EventStormSuppressor;
+import io.github.wldt.demo.shadowing.IngestAdmissionController;
+import io.github.wldt.demo.shadowing.ObservationDecision;
+import io.github.wldt.demo.shadowing.ObservationPolicy;
+import io.github.wldt.demo.shadowing.ObservationPriority;
+import io.github.wldt.demo.shadowing.PhysicalAssetDescriptionDiff;
+import io.github.wldt.demo.shadowing.PropertyReorderBuffer;
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+import io.github.wldt.demo.template.DigitalTwinTemplate;
+import io.github.wldt.demo.trace.TraceRecordType;
 import io.github.wldt.demo.utils.GlobalKeywords;
 import it.wldt.adapter.digital.event.DigitalActionWldtEvent;
-import it.wldt.adapter.physical.PhysicalAssetDescription;
-import it.wldt.adapter.physical.PhysicalAssetRelationshipInstance;
+import it.wldt.adapter.physical.*;
 import it.wldt.adapter.physical.event.PhysicalAssetEventWldtEvent;
 import it.wldt.adapter.physical.event.PhysicalAssetPropertyWldtEvent;
 import it.wldt.adapter.physical.event.PhysicalAssetRelationshipInstanceCreatedWldtEvent;
 import it.wldt.adapter.physical.event.PhysicalAssetRelationshipInstanceDeletedWldtEvent;
 import it.wldt.core.model.ShadowingFunction;
+import it.wldt.core.event.WldtEvent;
 import it.wldt.core.state.*;
-
-import java.util.Map;
+import it.wldt.exception.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Authors:
@@ -21,8 +52,186 @@ import java.util.Map;
  */
 public class DemoShadowingFunction extends ShadowingFunction {
 
+    //Single daemon thread shared by all the twins to release the reordered samples whose hold time expired
+    private static final ScheduledExecutorService REORDER_FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wldt-reorder-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DemoShadowingFunctionConfiguration configuration;
+
+    //Keys observed at bind time, stored in the DT State Snapshot to re-establish the same subscriptions
+    private final Set<String> observedKeySet = ConcurrentHashMap.newKeySet();
+
+    //Last PAD applied to the DT State for each bound Physical Adapter
+    private final Map<String, PhysicalAssetDescription> boundPadMap = new ConcurrentHashMap<>();
+
+    //PAD of the Physical Adapters currently unbound whose resources are still available in the DT State
+    private final Map<String, PhysicalAssetDescription> unboundPadMap = new ConcurrentHashMap<>();
+
+    //Dense key ids used on the hot path instead of string lookups
+    private final KeyRegistry keyRegistry = KeyRegistry.getInstance();
+
+    //Observation decisions resolved at bind time indexed by key id
+    private final KeyIndexedArray<ObservationDecision> observationDecisionArray = new KeyIndexedArray<>();
+
+    //Number of applied variations (properties and events) for each key id
+    private final KeyCounterArray appliedVariationCounters = new KeyCounterArray(KeyRegistry.getInstance());
+
+    //Migration support: a frozen twin buffers the incoming physical variations instead of applying them
+    private final ReentrantReadWriteLock migrationLock = new ReentrantReadWriteLock();
+
+    private volatile boolean frozen = false;
+
+    private final List<InFlightPhysicalEvent> inFlightEventList = Collections.synchronizedList(new ArrayList<>());
+
+    //Replication support: a standby twin ignores the physical variations and applies the primary change log
+    private volatile boolean standby;
+
+    //Completed when the DT State has been built and the twin is synchronized with the physical asset
+    private final CompletableFuture<Void> synchronizedFuture = new CompletableFuture<>();
+
+    //Latest property update of each key waiting to be applied while the admission controller coalesces updates
+    private final Map<String, PhysicalAssetPropertyWldtEvent<?>> coalescedPropertyEventMap = new ConcurrentHashMap<>();
+
+    //Reordered ingest: a single drain of the reorder buffer is queued at a time and batches are applied in order
+    private final AtomicBoolean reorderDrainPending = new AtomicBoolean(false);
+
+    private final ReentrantLock reorderDrainLock = new ReentrantLock();
+
+    //The DT State Manager handles a single transaction at a time: the lock is held from its start to its commit or
+    //rollback, since the physical callbacks, the reorder flush and the replication apply run on different threads
+    private final ReentrantLock stateTransactionLock = new ReentrantLock();
+
+    private ScheduledFuture<?> reorderFlushFuture = null;
+
     public DemoShadowingFunction(String id) {
+        this(id, new DemoShadowingFunctionConfiguration());
+    }
+
+    public DemoShadowingFunction(String id, DemoShadowingFunctionConfiguration configuration) {
         super(id);
+        this.configuration = configuration;
+        this.standby = configuration.isStandby();
+    }
+
+    public DemoShadowingFunctionConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @return the number of physical variations applied to the DT State for each property and event key
+     */
+    public KeyCounterArray getAppliedVariationCounters() {
+        return appliedVariationCounters;
+    }
+
+    /**
+     * Capture the current DT State together with the observed keys in order to rebuild the twin later
+     *
+     * @return the DT State Snapshot
+     * @throws WldtDigitalTwinStateException if the DT State can not be read
+     */
+    public DigitalTwinStateSnapshot getDigitalTwinStateSnapshot() throws WldtDigitalTwinStateException {
+        return DigitalTwinStateSnapshot.from(this.digitalTwinStateManager.getDigitalTwinId(),
+                this.digitalTwinStateManager.getDigitalTwinState(),
+                this.observedKeySet);
+    }
+
+    /**
+     * Freeze the twin for a migration: once the method returns the DT State is no longer modified by physical
+     * variations, which are buffered as in-flight events to be shipped together with the DT State Snapshot
+     */
+    public void freeze() {
+        this.migrationLock.writeLock().lock();
+        try {
+            this.frozen = true;
+        } finally {
+            this.migrationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resume a frozen twin whose migration failed before it was stopped: the in-flight events buffered since the
+     * freeze are applied before the physical variations are applied again, so none of them is lost or reordered
+     */
+    public void unfreeze() {
+        this.migrationLock.writeLock().lock();
+        try {
+
+            if(!this.frozen)
+                return;
+
+            this.configuration.setPendingPhysicalEvents(drainInFlightEvents());
+            applyPendingPhysicalEvents();
+
+        } catch (Exception e) {
+            this.configuration.setPendingPhysicalEvents(null);
+            e.printStackTrace();
+        } finally {
+            this.frozen = false;
+            this.migrationLock.writeLock().unlock();
+        }
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return the physical events buffered since the freeze, removing them from the twin
+     */
+    public List<InFlightPhysicalEvent> drainInFlightEvents() {
+        synchronized (this.inFlightEventList) {
+            List<InFlightPhysicalEvent> inFlightEvents = new ArrayList<>(this.inFlightEventList);
+            this.inFlightEventList.clear();
+            return inFlightEvents;
+        }
+    }
+
+    public boolean isStandby() {
+        return standby;
+    }
+
+    /**
+     * Promote a standby twin: from now on its DT State is computed from the physical variations received
+     * through its own Physical Adapters
+     */
+    public void promote() {
+        this.standby = false;
+        System.out.println("[TestShadowingFunction] -> promote() -> Standby Twin Promoted: " + this.digitalTwinStateManager.getDigitalTwinId());
+    }
+
+    /**
+     * Apply in a single DT State Transaction the changes committed by a single transaction of the primary twin.
+     * Additions of resources already available (e.g., created at bind time) are applied as updates.
+     *
+     * @param replicatedChangeList the changes shipped by the primary twin
+     * @throws WldtDigitalTwinStateException if the DT State can not be updated
+     */
+    public void applyReplicatedChanges(List<ReplicatedStateChange> replicatedChangeList) throws WldtDigitalTwinStateException {
+
+        DigitalTwinState digitalTwinState = this.digitalTwinStateManager.getDigitalTwinState();
+
+        StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
+
+        try {
+            for(ReplicatedStateChange replicatedChange : replicatedChangeList)
+                applyReplicatedChange(digitalTwinState, replicatedChange);
+        } catch (Exception e) {
+            rollbackStateTransaction();
+            throw new WldtDigitalTwinStateException(String.format("Error applying replicated changes ! Error: %s", e.getLocalizedMessage()));
+        }
+
+        commitStateTransaction(transactionJfrEvent);
+    }
+
+    /**
+     * @return a future completed when the twin has built its DT State and notified the synchronization
+     */
+    public CompletableFuture<Void> getSynchronizedFuture() {
+        return synchronizedFuture;
     }
 
     //// Shadowing Function Management Callbacks ////
@@ -39,7 +248,256 @@ public class DemoShadowingFunction extends ShadowingFunction {
 
     @Override
     protected void onStop() {
+        if(this.reorderFlushFuture != null)
+            this.reorderFlushFuture.cancel(false);
+        if(this.configuration.getDispatchScheduler() != null) {
+            //A twin stopped for a migration runs its queued dispatches, buffering them as in-flight events
+            if(this.frozen)
+                this.configuration.getDispatchScheduler().unregisterAndDrain(this.digitalTwinStateManager.getDigitalTwinId()).forEach(Runnable::run);
+            else
+                this.configuration.getDispatchScheduler().unregister(this.digitalTwinStateManager.getDigitalTwinId());
+        }
+        if(this.configuration.getReorderBuffer() != null) {
+            //The samples still held by the reorder buffer are shipped as in-flight events as well
+            if(this.frozen)
+                flushReorderBuffer();
+            System.out.println("[TestShadowingFunction] -> onStop() -> " + this.configuration.getReorderBuffer().getStats());
+        }
+        if(this.configuration.getObservationPolicy() != null)
+            System.out.println("[TestShadowingFunction] -> onStop() -> " + this.configuration.getObservationPolicy().getStats());
+        System.out.println("[TestShadowingFunction] -> onStop() -> Applied Variations: " + this.appliedVariationCounters);
+    }
+
+    /**
+     * Hand the received physical events and digital actions over to the configured dispatch scheduler, instead of
+     * processing them on the thread of the publisher. Events are processed inline when no scheduler is configured
+     * or the twin is not registered on it.
+     *
+     * Property updates are first checked by the admission controller, if configured, which can shed them or
+     * coalesce them with the pending update of the same key when the twin is overloaded. When a reorder buffer is
+     * configured, property updates are instead buffered by the publishing thread and applied in batches ordered by
+     * sampling time, replacing the admission control.
+     *
+     * @param wldtEvent the received event
+     */
+    @Override
+    public void onEvent(WldtEvent<?> wldtEvent) {
+
+        if(this.configuration.getReorderBuffer() != null && wldtEvent instanceof PhysicalAssetPropertyWldtEvent
+                && offerReorderedProperty((PhysicalAssetPropertyWldtEvent<?>) wldtEvent))
+            return;
+
+        TwinDispatchScheduler dispatchScheduler = this.configuration.getDispatchScheduler();
+        if(dispatchScheduler == null) {
+            super.onEvent(wldtEvent);
+            return;
+        }
+
+        String digitalTwinId = this.digitalTwinStateManager.getDigitalTwinId();
+        IngestAdmissionController admissionController = this.configuration.getAdmissionController();
+
+        if(admissionController != null && wldtEvent instanceof PhysicalAssetPropertyWldtEvent) {
+            admitPropertyEvent(dispatchScheduler, admissionController, digitalTwinId, (PhysicalAssetPropertyWldtEvent<?>) wldtEvent);
+            return;
+        }
+
+        //Events, relationship variations and actions are always admitted
+        if(admissionController != null)
+            admissionController.onEventAdmitted();
+
+        if(!dispatchScheduler.submit(digitalTwinId, () -> super.onEvent(wldtEvent)))
+            super.onEvent(wldtEvent);
+    }
+
+    private void admitPropertyEvent(TwinDispatchScheduler dispatchScheduler, IngestAdmissionController admissionController,
+                                    String digitalTwinId, PhysicalAssetPropertyWldtEvent<?> propertyEvent) {
+
+        String propertyKey = propertyEvent.getPhysicalPropertyId();
+
+        AdmissionDecision decision = admissionController.admitPropertyUpdate(
+                getPriority(this.keyRegistry.getId(propertyKey)),
+                dispatchScheduler.getPendingCount(digitalTwinId),
+                this.coalescedPropertyEventMap.containsKey(propertyKey));
+
+        if(decision == AdmissionDecision.SHED)
+            return;
+
+        if(decision == AdmissionDecision.ADMIT) {
+            if(!dispatchScheduler.submit(digitalTwinId, () -> super.onEvent(propertyEvent)))
+                super.onEvent(propertyEvent);
+            return;
+        }
+
+        if(this.coalescedPropertyEventMap.put(propertyKey, propertyEvent) != null) {
+            admissionController.onUpdateSuperseded();
+            return;
+        }
+
+        //A single dispatch is queued for the key, applying the latest value available when executed
+        Runnable coalescedDispatch = () -> {
+            PhysicalAssetPropertyWldtEvent<?> latestPropertyEvent = this.coalescedPropertyEventMap.remove(propertyKey);
+            if(latestPropertyEvent != null)
+                super.onEvent(latestPropertyEvent);
+        };
+
+        if(!dispatchScheduler.submit(digitalTwinId, coalescedDispatch))
+            coalescedDispatch.run();
+    }
+
+    //// Reordered Ingest Methods ////
+
+    /**
+     * Buffer a property update in the reorder buffer, routing it to the late sample listener if it arrived behind
+     * the watermark of its key
+     *
+     * @param propertyEvent the received property update
+     * @return true if the update has been handled, false if its key is unknown and it has to be applied directly
+     */
+    private boolean offerReorderedProperty(PhysicalAssetPropertyWldtEvent<?> propertyEvent) {
+
+        int propertyKeyId = this.keyRegistry.getId(propertyEvent.getPhysicalPropertyId());
+        if(propertyKeyId == KeyRegistry.UNKNOWN_KEY_ID)
+            return false;
+
+        PropertyReorderBuffer reorderBuffer = this.configuration.getReorderBuffer();
+        long sampleTimestampMs = getSampleTimestamp(propertyEvent);
+
+        if(!reorderBuffer.offer(propertyKeyId, propertyEvent, sampleTimestampMs)) {
+            if(reorderBuffer.getLateSampleListener() != null) {
+                try {
+                    reorderBuffer.getLateSampleListener().onLateSample(this.digitalTwinStateManager.getDigitalTwinId(),
+                            propertyEvent, sampleTimestampMs, reorderBuffer.getWatermark(propertyKeyId));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            return true;
+        }
+
+        requestReorderDrain();
+        return true;
+    }
+
+    /**
+     * Queue a drain of the reorder buffer on the dispatch scheduler, or run it on the calling thread when no
+     * scheduler is configured. Requests received while a drain is already queued are merged into it.
+     */
+    private void requestReorderDrain() {
+
+        if(!this.reorderDrainPending.compareAndSet(false, true))
+            return;
+
+        TwinDispatchScheduler dispatchScheduler = this.configuration.getDispatchScheduler();
+        if(dispatchScheduler == null || !dispatchScheduler.submit(this.digitalTwinStateManager.getDigitalTwinId(), this::drainReorderBuffer))
+            drainReorderBuffer();
+    }
+
+    private void drainReorderBuffer() {
+
+        this.reorderDrainPending.set(false);
+
+        //Batches are taken and applied under the same lock to keep the sampling order across concurrent drains
+        this.reorderDrainLock.lock();
+        try {
+            List<PropertyReorderBuffer.BufferedSample> readySampleList;
+            while (!(readySampleList = this.configuration.getReorderBuffer().drainReady()).isEmpty())
+                applyReorderedProperties(readySampleList);
+        } finally {
+            this.reorderDrainLock.unlock();
+        }
+    }
+
+    /**
+     * Release all the samples held by the reorder buffer regardless of their watermark
+     */
+    private void flushReorderBuffer() {
+        this.reorderDrainLock.lock();
+        try {
+            List<PropertyReorderBuffer.BufferedSample> sampleList = this.configuration.getReorderBuffer().drainAll();
+            if(!sampleList.isEmpty())
+                applyReorderedProperties(sampleList);
+        } finally {
+            this.reorderDrainLock.unlock();
+        }
+    }
+
+    /**
+     * Apply a batch of released samples in a single DT State Transaction
+     *
+     * @param readySampleList the samples ordered by sampling time within each key
+     */
+    private void applyReorderedProperties(List<PropertyReorderBuffer.BufferedSample> readySampleList) {
+        try {
+
+            notifyActivity();
+
+            //The DT State of a standby twin is only updated by the change log of the primary twin
+            if(this.standby)
+                return;
+
+            this.migrationLock.readLock().lock();
+            if(this.frozen) {
+                this.migrationLock.readLock().unlock();
+                readySampleList.forEach(readySample -> InFlightPhysicalEvent.from(readySample.getPropertyEvent(), readySample.getSampleTimestampMs()).ifPresent(this.inFlightEventList::add));
+                return;
+            }
+
+            List<PropertyReorderBuffer.BufferedSample> appliedSampleList = new ArrayList<>(readySampleList.size());
+
+            try {
+
+                long transactionStartNanos = System.nanoTime();
+                StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
+
+                try {
+
+                    DigitalTwinState digitalTwinState = this.digitalTwinStateManager.getDigitalTwinState();
+
+                    for(PropertyReorderBuffer.BufferedSample readySample : readySampleList) {
+
+                        String propertyKey = readySample.getPropertyEvent().getPhysicalPropertyId();
+                        int propertyKeyId = this.keyRegistry.getId(propertyKey);
+
+                        //Skip the samples discarded by the sampling ratio or whose property has been removed
+                        if(!isSampled(propertyKeyId) || !digitalTwinState.containsProperty(propertyKey))
+                            continue;
+
+                        applyPropertyValue(propertyKey, readySample.getPropertyEvent().getBody());
+                        appliedSampleList.add(readySample);
+                    }
+
+                } catch (Exception e) {
+                    rollbackStateTransaction();
+                    throw e;
+                }
+
+                //The commit is recorded before committing since the Digital Adapters are notified within the commit
+                if(this.configuration.getFreshnessWatchdog() != null) {
+                    long commitTimestampMs = this.configuration.getClock().currentTimeMillis();
+                    long commitNanos = System.nanoTime();
+                    for(PropertyReorderBuffer.BufferedSample appliedSample : appliedSampleList)
+                        this.configuration.getFreshnessWatchdog().onStateCommitted(this.digitalTwinStateManager.getDigitalTwinId(),
+                                this.keyRegistry.getId(appliedSample.getPropertyEvent().getPhysicalPropertyId()),
+                                appliedSample.getSampleTimestampMs(),
+                                commitTimestampMs,
+                                commitNanos);
+                }
+
+                commitStateTransaction(transactionJfrEvent);
+                this.configuration.getReorderBuffer().getStats().onBatchCommitted();
+
+                if(this.configuration.getAdmissionController() != null)
+                    this.configuration.getAdmissionController().recordCommitLatency(System.nanoTime() - transactionStartNanos);
+
+            } finally {
+                this.migrationLock.readLock().unlock();
+            }
 
+            appliedSampleList.forEach(appliedSample -> this.appliedVariationCounters.increment(this.keyRegistry.getId(appliedSample.getPropertyEvent().getPhysicalPropertyId())));
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
     }
 
     //// Bound LifeCycle State Management Callbacks ////
@@ -47,67 +505,88 @@ public class DemoShadowingFunction extends ShadowingFunction {
     @Override
     protected void onDigitalTwinBound(Map<String, PhysicalAssetDescription> adaptersPhysicalAssetDescriptionMap) {
 
+        DigitalTwinBoundJfrEvent boundJfrEvent = new DigitalTwinBoundJfrEvent();
+        boundJfrEvent.begin();
+
         try{
 
             System.out.println("[TestShadowingFunction] -> onDigitalTwinBound(): " + adaptersPhysicalAssetDescriptionMap);
 
-            // NEW in 0.3.0 -> Start DT State Change Transaction
-            this.digitalTwinStateManager.startStateTransaction();
+            //Dispatch the observed events through the scheduler shared with the other twins of the engine
+            if(this.configuration.getDispatchScheduler() != null)
+                this.configuration.getDispatchScheduler().register(this.digitalTwinStateManager.getDigitalTwinId(), this.configuration.getDispatchWeight());
+
+            //Periodically release the reordered samples of idle sources once their hold time expires
+            PropertyReorderBuffer reorderBuffer = this.configuration.getReorderBuffer();
+            if(reorderBuffer != null && this.reorderFlushFuture == null) {
+                long flushPeriodMs = Math.max(1, reorderBuffer.getMaxHoldMs() / 2);
+                this.reorderFlushFuture = REORDER_FLUSH_EXECUTOR.scheduleWithFixedDelay(() -> {
+                    if(reorderBuffer.hasBufferedSamples())
+                        requestReorderDrain();
+                }, flushPeriodMs, flushPeriodMs, TimeUnit.MILLISECONDS);
+            }
 
-            //Iterate over all the received PAD from connected Physical Adapters
-            adaptersPhysicalAssetDescriptionMap.values().forEach(pad -> {
-                pad.getProperties().forEach(property -> {
-                    try {
+            // NEW in 0.3.0 -> Start DT State Change Transaction
+            StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
 
-                        //Create and write the property on the DT's State
-                        this.digitalTwinStateManager.createProperty(new DigitalTwinStateProperty<>(property.getKey(),(Double) property.getInitialValue()));
+            //Snapshot of a passivated twin whose values have to be restored
+            DigitalTwinStateSnapshot snapshot = this.configuration.getInitialStateSnapshot();
 
-                        //Start observing the variation of the physical property in order to receive notifications
-                        //Without this call the Shadowing Function will not receive any notifications or callback about
-                        //incoming physical property of the target type and with the target key
-                        this.observePhysicalAssetProperty(property);
+            //Iterate over all the received PAD from connected Physical Adapters
+            adaptersPhysicalAssetDescriptionMap.forEach((adapterId, pad) -> {
 
-                        System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Property Created & Observed:" + property.getKey());
+                //The resources of the Physical Adapters that never left are already available in the DT's State
+                if(this.boundPadMap.containsKey(adapterId))
+                    return;
 
+                //A Physical Adapter bound again after an unbind only applies the changes of its PAD,
+                //since its resources are still available in the DT's State
+                PhysicalAssetDescription previousPad = this.unboundPadMap.remove(adapterId);
+                if(previousPad != null){
+                    try {
+                        applyBindingDiff(PhysicalAssetDescriptionDiff.between(previousPad, pad));
+                        updateObservations(pad.getProperties(), pad.getEvents(), pad.getRelationships(), true);
+                        System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Incremental Rebind for Adapter: " + adapterId);
                     } catch (Exception e) {
                         e.printStackTrace();
                     }
-                });
+                    return;
+                }
 
-                //Iterate over available declared Physical Property only for the target Physical Adapter's PAD
-                /*
                 pad.getProperties().forEach(property -> {
                     try {
 
-                        //Check property Key and type
-                        if(property.getKey().equals("temperature-property-key")
-                                && property.getInitialValue() != null
-                                &&  property.getInitialValue() instanceof Double) {
-
-                            //Instantiate a new DT State Property of the right type, the same key and initial value
-                            DigitalTwinStateProperty<Double> dtStateProperty = new DigitalTwinStateProperty<Double>(property.getKey(),(Double) property.getInitialValue());
+                        //Create and write the property on the DT's State restoring the last value if available
+                        Object initialValue = property.getInitialValue();
+                        if(snapshot != null)
+                            initialValue = snapshot.getPropertyValue(property.getKey()).map(value -> (Object) value).orElse(initialValue);
 
-                            //Create and write the property on the DT's State
-                            this.digitalTwinState.createProperty(dtStateProperty);
+                        this.digitalTwinStateManager.createProperty(new DigitalTwinStateProperty<>(property.getKey(), initialValue));
 
-                            //Start observing the variation of the physical property in order to receive notifications
-                            //Without this call the Shadowing Function will not receive any notifications or callback about
-                            //incoming physical property of the target type and with the target key
+                        //Start observing the variation of the physical property in order to receive notifications
+                        //Without this call the Shadowing Function will not receive any notifications or callback about
+                        //incoming physical property of the target type and with the target key
+                        //Properties excluded by the Observation Policy keep their initial value in the DT's State
+                        if(isObserved(property.getKey())) {
                             this.observePhysicalAssetProperty(property);
+                            System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Property Created & Observed:" + property.getKey());
                         }
+                        else
+                            System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Property Created & NOT Observed:" + property.getKey());
 
                     } catch (Exception e) {
                         e.printStackTrace();
                     }
                 });
-                */
 
                 //Iterate over available declared Physical Events for the target Physical Adapter's PAD
                 pad.getEvents().forEach(event -> {
                     try {
 
-                        //Instantiate a new DT State Event with the same key and type
-                        DigitalTwinStateEvent dtStateEvent = new DigitalTwinStateEvent(event.getKey(), event.getType());
+                        //Reuse the DT State Event shared by the template or instantiate a new one with the same key and type
+                        DigitalTwinStateEvent dtStateEvent = getTemplate(pad).flatMap(template -> template.getStateEvent(event.getKey())).orElse(null);
+                        if(dtStateEvent == null)
+                            dtStateEvent = new DigitalTwinStateEvent(event.getKey(), event.getType());
 
                         //Create and write the event on the DT's State
                         this.digitalTwinStateManager.registerEvent(dtStateEvent);
@@ -115,9 +594,12 @@ public class DemoShadowingFunction extends ShadowingFunction {
                         //Start observing the variation of the physical event in order to receive notifications
                         //Without this call the Shadowing Function will not receive any notifications or callback about
                         //incoming physical events of the target type and with the target key
-                        this.observePhysicalAssetEvent(event);
-
-                        System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Event Created & Observed:" + event.getKey());
+                        if(isObserved(event.getKey())) {
+                            this.observePhysicalAssetEvent(event);
+                            System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Event Created & Observed:" + event.getKey());
+                        }
+                        else
+                            System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Event Created & NOT Observed:" + event.getKey());
 
                     } catch (Exception e) {
                         e.printStackTrace();
@@ -128,11 +610,14 @@ public class DemoShadowingFunction extends ShadowingFunction {
                 pad.getActions().forEach(action -> {
                     try {
 
-                        //Instantiate a new DT State Action with the same key and type
-                        DigitalTwinStateAction dtStateAction = new DigitalTwinStateAction(action.getKey(), action.getType(), action.getContentType());
+                        //Reuse the DT State Action shared by the template or instantiate a new one with the same key and type
+                        DigitalTwinStateAction dtStateAction = getTemplate(pad).flatMap(template -> template.getStateAction(action.getKey())).orElse(null);
+                        if(dtStateAction == null)
+                            dtStateAction = new DigitalTwinStateAction(action.getKey(), action.getType(), action.getContentType());
 
                         //Enable the action on the DT's State
                         this.digitalTwinStateManager.enableAction(dtStateAction);
+                        this.keyRegistry.register(action.getKey());
 
                         System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Action Enabled:" + action.getKey());
 
@@ -143,15 +628,24 @@ public class DemoShadowingFunction extends ShadowingFunction {
 
                 pad.getRelationships().forEach(relationship -> {
                     try{
-                        if(relationship != null && relationship.getName().equals(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME)){
+                        if(relationship != null && this.keyRegistry.register(relationship.getName()) == DemoKeyIds.INSIDE_IN_RELATIONSHIP_ID){
 
                             DigitalTwinStateRelationship<String> insideInDtStateRelationship = new DigitalTwinStateRelationship<>(relationship.getName(), relationship.getName());
 
                             this.digitalTwinStateManager.createRelationship(insideInDtStateRelationship);
 
-                            observePhysicalAssetRelationship(relationship);
-
-                            System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Relationship Created & Observed :" + relationship.getName());
+                            //Restore the relationship instances available before the passivation
+                            if(snapshot != null)
+                                for(DigitalTwinStateSnapshot.RelationshipInstanceSnapshot instance : snapshot.getRelationshipInstances())
+                                    if(instance.getRelationshipName().equals(relationship.getName()))
+                                        this.digitalTwinStateManager.addRelationshipInstance(instance.toDigitalTwinStateRelationshipInstance());
+
+                            if(isObserved(relationship.getName())) {
+                                observePhysicalAssetRelationship(relationship);
+                                System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Relationship Created & Observed :" + relationship.getName());
+                            }
+                            else
+                                System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Relationship Created & NOT Observed :" + relationship.getName());
                         }
                     }catch (Exception e){
                         e.printStackTrace();
@@ -161,7 +655,16 @@ public class DemoShadowingFunction extends ShadowingFunction {
             });
 
             // NEW in 0.3.0 -> Commit DT State Change Transaction to apply the changes on the DT State and notify about the change
-            this.digitalTwinStateManager.commitStateTransaction();
+            int changeCount = commitStateTransaction(transactionJfrEvent);
+
+            //The snapshot is restored only once, a later rebind keeps the current values and the Observation Policy
+            this.configuration.setInitialStateSnapshot(null);
+
+            //Keep the applied PADs to compute the incremental binding updates
+            this.boundPadMap.putAll(adaptersPhysicalAssetDescriptionMap);
+
+            //Apply the physical events received by the source twin while it was frozen for the migration
+            applyPendingPhysicalEvents();
 
             //Start observation to receive all incoming Digital Action through active Digital Adapter
             //Without this call the Shadowing Function will not receive any notifications or callback about
@@ -171,6 +674,14 @@ public class DemoShadowingFunction extends ShadowingFunction {
             //Notify the DT Core that the Bounding phase has been correctly completed and the DT has evaluated its
             //internal status according to what is available and declared through the Physical Adapters
             notifyShadowingSync();
+            this.synchronizedFuture.complete(null);
+
+            boundJfrEvent.end();
+            if(boundJfrEvent.shouldCommit()){
+                boundJfrEvent.twinId = this.digitalTwinStateManager.getDigitalTwinId();
+                boundJfrEvent.changeCount = changeCount;
+                boundJfrEvent.commit();
+            }
 
         }catch (Exception e){
             e.printStackTrace();
@@ -178,13 +689,84 @@ public class DemoShadowingFunction extends ShadowingFunction {
     }
 
     @Override
-    protected void onDigitalTwinUnBound(Map<String, PhysicalAssetDescription> map, String s) {
+    protected void onDigitalTwinUnBound(Map<String, PhysicalAssetDescription> adaptersPhysicalAssetDescriptionMap, String errorMessage) {
+        try{
+
+            System.out.println("[TestShadowingFunction] -> onDigitalTwinUnBound(): " + adaptersPhysicalAssetDescriptionMap + " Error: " + errorMessage);
+
+            //Stop observing the resources of the Physical Adapters no longer bound keeping their last values in the
+            //DT's State, in order to rebind them incrementally when the adapters are available again
+            for(String adapterId : getUnboundAdapterIds(errorMessage)){
+
+                PhysicalAssetDescription pad = this.boundPadMap.remove(adapterId);
+                if(pad == null)
+                    continue;
+
+                updateObservations(pad.getProperties(), pad.getEvents(), pad.getRelationships(), false);
+                this.unboundPadMap.put(adapterId, pad);
+
+                System.out.println("[TestShadowingFunction] -> onDigitalTwinUnBound() -> Adapter UnBound: " + adapterId);
+            }
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Identify the bound Physical Adapters that left. wldt-core passes the PADs of all the adapters of the twin to
+     * the unbind callback, the adapter causing it is only named by the unbind message ("Adapter [id] UnBound ...").
+     *
+     * @param unboundMessage the message received with the unbind
+     * @return the ids of the unbound adapters, all the bound ones if the message does not name any of them
+     */
+    private List<String> getUnboundAdapterIds(String unboundMessage) {
+
+        List<String> unboundAdapterIdList = new ArrayList<>();
 
+        if(unboundMessage != null)
+            for(String adapterId : this.boundPadMap.keySet())
+                if(unboundMessage.startsWith(String.format("Adapter %s UnBound", adapterId)))
+                    unboundAdapterIdList.add(adapterId);
+
+        if(unboundAdapterIdList.isEmpty())
+            unboundAdapterIdList.addAll(this.boundPadMap.keySet());
+
+        return unboundAdapterIdList;
     }
 
     @Override
-    protected void onPhysicalAdapterBidingUpdate(String s, PhysicalAssetDescription physicalAssetDescription) {
+    protected void onPhysicalAdapterBidingUpdate(String adapterId, PhysicalAssetDescription physicalAssetDescription) {
+        try{
+
+            PhysicalAssetDescriptionDiff diff = PhysicalAssetDescriptionDiff.between(this.boundPadMap.get(adapterId), physicalAssetDescription);
+
+            System.out.println("[TestShadowingFunction] -> onPhysicalAdapterBidingUpdate() -> Adapter: " + adapterId + " " + diff);
+
+            if(!diff.isEmpty()) {
+
+                //Apply all the added and removed resources in a single DT State Transaction
+                StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
+
+                try {
+                    applyBindingDiff(diff);
+                } catch (WldtDigitalTwinStateException e) {
+                    rollbackStateTransaction();
+                    throw e;
+                }
+
+                commitStateTransaction(transactionJfrEvent);
+
+                //Adjust the observations only for the changed resources once the DT State has been updated
+                updateObservations(diff.getRemovedProperties(), diff.getRemovedEvents(), diff.getRemovedRelationships(), false);
+                updateObservations(diff.getAddedProperties(), diff.getAddedEvents(), diff.getAddedRelationships(), true);
+            }
+
+            this.boundPadMap.put(adapterId, physicalAssetDescription);
 
+        }catch (Exception e){
+            e.printStackTrace();
+        }
     }
 
     //// Physical Property Variation Callback ////
@@ -196,16 +778,56 @@ public class DemoShadowingFunction extends ShadowingFunction {
 
             System.out.println("[TestShadowingFunction] -> onPhysicalAssetPropertyVariation() -> Variation on Property :" + physicalAssetPropertyWldtEvent.getPhysicalPropertyId());
 
-            //Update Digital Twin State
-            //NEW from 0.3.0 -> Start State Transaction
-            this.digitalTwinStateManager.startStateTransaction();
+            notifyActivity();
 
-            this.digitalTwinStateManager.updateProperty(new DigitalTwinStateProperty<>(
-                    physicalAssetPropertyWldtEvent.getPhysicalPropertyId(),
-                    physicalAssetPropertyWldtEvent.getBody()));
+            //The DT State of a standby twin is only updated by the change log of the primary twin
+            if(this.standby)
+                return;
 
-            //NEW from 0.3.0 -> Commit State Transaction
-            this.digitalTwinStateManager.commitStateTransaction();
+            //Resolve the key id once and use it for all the per-key lookups
+            int propertyKeyId = this.keyRegistry.getId(physicalAssetPropertyWldtEvent.getPhysicalPropertyId());
+
+            //Skip the variation without opening a DT State Transaction if discarded by the sampling ratio
+            if(!isSampled(propertyKeyId))
+                return;
+
+            if(!lockUnlessFrozen(physicalAssetPropertyWldtEvent))
+                return;
+
+            try {
+
+                //Update Digital Twin State
+                //NEW from 0.3.0 -> Start State Transaction
+                long transactionStartNanos = System.nanoTime();
+                StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
+
+                try {
+                    applyPropertyValue(physicalAssetPropertyWldtEvent.getPhysicalPropertyId(), physicalAssetPropertyWldtEvent.getBody());
+                } catch (Exception e) {
+                    rollbackStateTransaction();
+                    throw e;
+                }
+
+                //The commit is recorded before committing since the Digital Adapters are notified within the commit
+                if(this.configuration.getFreshnessWatchdog() != null)
+                    this.configuration.getFreshnessWatchdog().onStateCommitted(this.digitalTwinStateManager.getDigitalTwinId(),
+                            propertyKeyId,
+                            getSampleTimestamp(physicalAssetPropertyWldtEvent),
+                            this.configuration.getClock().currentTimeMillis(),
+                            System.nanoTime());
+
+                //NEW from 0.3.0 -> Commit State Transaction
+                commitStateTransaction(transactionJfrEvent, physicalAssetPropertyWldtEvent.getPhysicalPropertyId());
+
+                //The commit latency (including the notification of the Digital Adapters) drives the admission control
+                if(this.configuration.getAdmissionController() != null)
+                    this.configuration.getAdmissionController().recordCommitLatency(System.nanoTime() - transactionStartNanos);
+
+            } finally {
+                this.migrationLock.readLock().unlock();
+            }
+
+            this.appliedVariationCounters.increment(propertyKeyId);
 
             System.out.println("[TestShadowingFunction] -> onPhysicalAssetPropertyVariation() -> DT State UPDATE Property :" + physicalAssetPropertyWldtEvent.getPhysicalPropertyId());
 
@@ -223,10 +845,38 @@ public class DemoShadowingFunction extends ShadowingFunction {
 
             System.out.println("[TestShadowingFunction] -> onPhysicalAssetPropertyVariation() -> Notification for Event :" + physicalAssetEventWldtEvent.getPhysicalEventKey());
 
-            this.digitalTwinStateManager.notifyDigitalTwinStateEvent(new DigitalTwinStateEventNotification<>(
-                    physicalAssetEventWldtEvent.getPhysicalEventKey(),
-                    physicalAssetEventWldtEvent.getBody(),
-                    physicalAssetEventWldtEvent.getCreationTimestamp()));
+            notifyActivity();
+
+            if(this.standby)
+                return;
+
+            int eventKeyId = this.keyRegistry.getId(physicalAssetEventWldtEvent.getPhysicalEventKey());
+
+            if(!isSampled(eventKeyId))
+                return;
+
+            if(!lockUnlessFrozen(physicalAssetEventWldtEvent))
+                return;
+
+            try {
+
+                //Duplicated events within the hold-off window are dropped before reaching the Digital Adapters
+                EventStormSuppressor eventStormSuppressor = this.configuration.getEventStormSuppressor();
+                if(eventStormSuppressor != null && !eventStormSuppressor.admitEvent(eventKeyId,
+                        physicalAssetEventWldtEvent.getPhysicalEventKey(),
+                        physicalAssetEventWldtEvent.getBody(),
+                        this.configuration.getClock().currentTimeMillis()))
+                    return;
+
+                this.digitalTwinStateManager.notifyDigitalTwinStateEvent(new DigitalTwinStateEventNotification<>(
+                        physicalAssetEventWldtEvent.getPhysicalEventKey(),
+                        physicalAssetEventWldtEvent.getBody(),
+                        getSampleTimestamp(physicalAssetEventWldtEvent)));
+            } finally {
+                this.migrationLock.readLock().unlock();
+            }
+
+            this.appliedVariationCounters.increment(eventKeyId);
 
             System.out.println("[TestShadowingFunction] -> onPhysicalAssetPropertyVariation() -> DT State Notification for Event:" + physicalAssetEventWldtEvent.getPhysicalEventKey());
 
@@ -244,24 +894,42 @@ public class DemoShadowingFunction extends ShadowingFunction {
             if(physicalAssetRelationshipInstanceCreatedWldtEvent != null
                     && physicalAssetRelationshipInstanceCreatedWldtEvent.getBody() != null){
 
+                notifyActivity();
+
+                if(this.standby)
+                    return;
+
                 PhysicalAssetRelationshipInstance<?> paRelInstance = physicalAssetRelationshipInstanceCreatedWldtEvent.getBody();
 
-                if(paRelInstance.getTargetId() instanceof String){
+                if(paRelInstance.getTargetId() instanceof String && lockUnlessFrozen(physicalAssetRelationshipInstanceCreatedWldtEvent)){
 
                     String relName = paRelInstance.getRelationship().getName();
                     String relKey = paRelInstance.getKey();
                     String relTargetId = (String)paRelInstance.getTargetId();
 
-                    DigitalTwinStateRelationshipInstance<String> instance = new DigitalTwinStateRelationshipInstance<String>(relName, relTargetId, relKey);
+                    //Keep the metadata of the physical instance (e.g., floor and room) in the DT State
+                    DigitalTwinStateRelationshipInstance<String> instance = new DigitalTwinStateRelationshipInstance<String>(relName, relTargetId, relKey,
+                            new HashMap<>(paRelInstance.getMetadata().orElse(Collections.emptyMap())));
 
-                    //Update Digital Twin State
-                    //NEW from 0.3.0 -> Start State Transaction
-                    this.digitalTwinStateManager.startStateTransaction();
+                    try {
 
-                    this.digitalTwinStateManager.addRelationshipInstance(instance);
+                        //Update Digital Twin State
+                        //NEW from 0.3.0 -> Start State Transaction
+                        StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
 
-                    //NEW from 0.3.0 -> Commit State Transaction
-                    this.digitalTwinStateManager.commitStateTransaction();
+                        try {
+                            this.digitalTwinStateManager.addRelationshipInstance(instance);
+                        } catch (Exception e) {
+                            rollbackStateTransaction();
+                            throw e;
+                        }
+
+                        //NEW from 0.3.0 -> Commit State Transaction
+                        commitStateTransaction(transactionJfrEvent);
+
+                    } finally {
+                        this.migrationLock.readLock().unlock();
+                    }
                 }
             }
         }catch (Exception e){
@@ -271,7 +939,49 @@ public class DemoShadowingFunction extends ShadowingFunction {
 
     @Override
     protected void onPhysicalAssetRelationshipDeleted(PhysicalAssetRelationshipInstanceDeletedWldtEvent<?> physicalAssetRelationshipInstanceDeletedWldtEvent) {
+        try{
+
+            if(physicalAssetRelationshipInstanceDeletedWldtEvent != null
+                    && physicalAssetRelationshipInstanceDeletedWldtEvent.getBody() != null){
 
+                notifyActivity();
+
+                if(this.standby)
+                    return;
+
+                PhysicalAssetRelationshipInstance<?> paRelInstance = physicalAssetRelationshipInstanceDeletedWldtEvent.getBody();
+
+                String relName = paRelInstance.getRelationship().getName();
+                String relKey = paRelInstance.getKey();
+
+                //Instances never added to the DT State (e.g., with a non String target) are ignored
+                if(!this.digitalTwinStateManager.getDigitalTwinState().containsRelationshipInstance(relName, relKey)
+                        || !lockUnlessFrozen(physicalAssetRelationshipInstanceDeletedWldtEvent))
+                    return;
+
+                try {
+
+                    //Update Digital Twin State
+                    //NEW from 0.3.0 -> Start State Transaction
+                    StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
+
+                    try {
+                        this.digitalTwinStateManager.deleteRelationshipInstance(relName, relKey);
+                    } catch (Exception e) {
+                        rollbackStateTransaction();
+                        throw e;
+                    }
+
+                    //NEW from 0.3.0 -> Commit State Transaction
+                    commitStateTransaction(transactionJfrEvent);
+
+                } finally {
+                    this.migrationLock.readLock().unlock();
+                }
+            }
+        }catch (Exception e){
+            e.printStackTrace();
+        }
     }
 
     //// Digital Action Received Callbacks ////
@@ -279,9 +989,444 @@ public class DemoShadowingFunction extends ShadowingFunction {
     @Override
     protected void onDigitalActionEvent(DigitalActionWldtEvent<?> digitalActionWldtEvent) {
         try {
-            this.publishPhysicalAssetActionWldtEvent(digitalActionWldtEvent.getActionKey(), digitalActionWldtEvent.getBody());
+            notifyActivity();
+
+            //Only the primary twin controls the device, the actions received by a standby replica are rejected
+            if(this.standby) {
+                System.out.println("[TestShadowingFunction] -> onDigitalActionEvent() -> Action Rejected by Standby Twin: " + digitalActionWldtEvent.getActionKey());
+                return;
+            }
+
+            //A frozen twin is being stopped for a migration, its actions are rejected instead of reaching the device
+            this.migrationLock.readLock().lock();
+            try {
+                if(this.frozen) {
+                    System.out.println("[TestShadowingFunction] -> onDigitalActionEvent() -> Action Rejected while Migrating: " + digitalActionWldtEvent.getActionKey());
+                    return;
+                }
+                this.publishPhysicalAssetActionWldtEvent(digitalActionWldtEvent.getActionKey(), digitalActionWldtEvent.getBody());
+            } finally {
+                this.migrationLock.readLock().unlock();
+            }
+
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+    //// Migration Utility Methods ////
+
+    /**
+     * Acquire the migration read lock to apply a physical variation, or buffer the variation as an in-flight
+     * event if the twin has been frozen
+     *
+     * @param physicalEvent the received physical event
+     * @return true if the lock has been acquired and the variation has to be applied, false if it has been buffered
+     */
+    private boolean lockUnlessFrozen(WldtEvent<?> physicalEvent) {
+
+        this.migrationLock.readLock().lock();
+        if(!this.frozen)
+            return true;
+
+        this.migrationLock.readLock().unlock();
+        InFlightPhysicalEvent.from(physicalEvent, getSampleTimestamp(physicalEvent)).ifPresent(this.inFlightEventList::add);
+        return false;
+    }
+
+    /**
+     * Apply the in-flight events shipped with the migrated twin: property values and relationship instances in a
+     * single DT State Transaction, followed by the event notifications in their original order
+     *
+     * @throws WldtDigitalTwinStateException if the DT State can not be updated
+     * @throws WldtDigitalTwinStateEventNotificationException if an event can not be notified
+     */
+    private void applyPendingPhysicalEvents() throws WldtDigitalTwinStateException, WldtDigitalTwinStatePropertyException, WldtDigitalTwinStateEventNotificationException {
+
+        List<InFlightPhysicalEvent> pendingEvents = this.configuration.getPendingPhysicalEvents();
+        if(pendingEvents == null || pendingEvents.isEmpty())
+            return;
+
+        DigitalTwinState digitalTwinState = this.digitalTwinStateManager.getDigitalTwinState();
+
+        StateTransactionJfrEvent transactionJfrEvent = startStateTransaction();
+
+        try {
+            for(InFlightPhysicalEvent pendingEvent : pendingEvents) {
+                switch (pendingEvent.getRecordType()) {
+                    case PROPERTY:
+                        applyPropertyValue(pendingEvent.getKey(), pendingEvent.getValue());
+                        break;
+                    case RELATIONSHIP_CREATED:
+                        if(digitalTwinState.containsRelationship(pendingEvent.getKey()))
+                            this.digitalTwinStateManager.addRelationshipInstance(pendingEvent.getRelationshipInstance().toDigitalTwinStateRelationshipInstance());
+                        break;
+                    case RELATIONSHIP_DELETED:
+                        if(digitalTwinState.containsRelationshipInstance(pendingEvent.getKey(), pendingEvent.getRelationshipInstance().getInstanceKey()))
+                            this.digitalTwinStateManager.deleteRelationshipInstance(pendingEvent.getKey(), pendingEvent.getRelationshipInstance().getInstanceKey());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (Exception e) {
+            rollbackStateTransaction();
+            throw e;
+        }
+
+        commitStateTransaction(transactionJfrEvent);
+
+        for(InFlightPhysicalEvent pendingEvent : pendingEvents)
+            if(pendingEvent.getRecordType() == TraceRecordType.EVENT)
+                this.digitalTwinStateManager.notifyDigitalTwinStateEvent(new DigitalTwinStateEventNotification<>(
+                        pendingEvent.getKey(),
+                        pendingEvent.getValue(),
+                        pendingEvent.getSampleTimestamp()));
+
+        System.out.println("[TestShadowingFunction] -> onDigitalTwinBound() -> Applied In-Flight Events: " + pendingEvents.size());
+
+        //The events are applied only once even if the twin binds again
+        this.configuration.setPendingPhysicalEvents(null);
+    }
+
+    /**
+     * Update a property within the current DT State Transaction. A window of samples pre-aggregated by the
+     * Physical Adapter is applied as a single update: the property takes the last sampled value and the window is
+     * stored in the companion property, created on its first publication.
+     *
+     * @param propertyKey the key of the updated property
+     * @param value the received value or {@link PropertySampleWindow}
+     * @throws WldtDigitalTwinStateException if the DT State can not be updated
+     * @throws WldtDigitalTwinStatePropertyException if the companion property can not be checked
+     */
+    private void applyPropertyValue(String propertyKey, Object value) throws WldtDigitalTwinStateException, WldtDigitalTwinStatePropertyException {
+
+        if(!(value instanceof PropertySampleWindow)) {
+            this.digitalTwinStateManager.updateProperty(new DigitalTwinStateProperty<>(propertyKey, value));
+            return;
+        }
+
+        PropertySampleWindow sampleWindow = (PropertySampleWindow) value;
+        this.digitalTwinStateManager.updateProperty(new DigitalTwinStateProperty<>(propertyKey, sampleWindow.getLastValue()));
+
+        String windowPropertyKey = propertyKey + GlobalKeywords.SAMPLE_WINDOW_PROPERTY_SUFFIX;
+        if(this.digitalTwinStateManager.getDigitalTwinState().containsProperty(windowPropertyKey))
+            this.digitalTwinStateManager.updateProperty(new DigitalTwinStateProperty<>(windowPropertyKey, sampleWindow));
+        else
+            this.digitalTwinStateManager.createProperty(new DigitalTwinStateProperty<>(windowPropertyKey, sampleWindow));
+    }
+
+    //// Replication Utility Methods ////
+
+    private void applyReplicatedChange(DigitalTwinState digitalTwinState, ReplicatedStateChange replicatedChange)
+            throws WldtDigitalTwinStateException, WldtDigitalTwinStatePropertyException, WldtDigitalTwinStateEventException, WldtDigitalTwinStateActionException {
+
+        boolean remove = replicatedChange.getOperation() == DigitalTwinStateChange.Operation.OPERATION_REMOVE;
+        String key = replicatedChange.getKey();
+
+        switch (replicatedChange.getResourceType()) {
+            case PROPERTY:
+            case PROPERTY_VALUE:
+                if(remove)
+                    this.digitalTwinStateManager.deleteProperty(key);
+                else if(digitalTwinState.containsProperty(key))
+                    this.digitalTwinStateManager.updateProperty(new DigitalTwinStateProperty<>(key, replicatedChange.getValue()));
+                else
+                    this.digitalTwinStateManager.createProperty(new DigitalTwinStateProperty<>(key, replicatedChange.getValue()));
+                break;
+            case EVENT:
+                if(remove)
+                    this.digitalTwinStateManager.unRegisterEvent(key);
+                else if(digitalTwinState.containsEvent(key))
+                    this.digitalTwinStateManager.updateRegisteredEvent(new DigitalTwinStateEvent(key, replicatedChange.getType()));
+                else
+                    this.digitalTwinStateManager.registerEvent(new DigitalTwinStateEvent(key, replicatedChange.getType()));
+                break;
+            case ACTION:
+                if(remove)
+                    this.digitalTwinStateManager.disableAction(key);
+                else if(digitalTwinState.containsAction(key))
+                    this.digitalTwinStateManager.updateAction(new DigitalTwinStateAction(key, replicatedChange.getType(), replicatedChange.getContentType()));
+                else
+                    this.digitalTwinStateManager.enableAction(new DigitalTwinStateAction(key, replicatedChange.getType(), replicatedChange.getContentType()));
+                break;
+            case RELATIONSHIP:
+                if(remove)
+                    this.digitalTwinStateManager.deleteRelationship(key);
+                else if(!digitalTwinState.containsRelationship(key))
+                    this.digitalTwinStateManager.createRelationship(new DigitalTwinStateRelationship<>(key, replicatedChange.getType()));
+                break;
+            case RELATIONSHIP_INSTANCE:
+                String instanceKey = replicatedChange.getRelationshipInstance().getInstanceKey();
+                if(remove)
+                    this.digitalTwinStateManager.deleteRelationshipInstance(key, instanceKey);
+                else if(!digitalTwinState.containsRelationshipInstance(key, instanceKey))
+                    this.digitalTwinStateManager.addRelationshipInstance(replicatedChange.getRelationshipInstance().toDigitalTwinStateRelationshipInstance());
+                break;
+            default:
+                break;
+        }
+    }
+
+    //// Incremental Binding Utility Methods ////
+
+    /**
+     * Queue on the current DT State Transaction the changes described by the PAD difference
+     *
+     * @param diff the difference between the applied and the updated PAD
+     * @throws WldtDigitalTwinStateException if a change can not be queued
+     */
+    private void applyBindingDiff(PhysicalAssetDescriptionDiff diff) throws WldtDigitalTwinStateException {
+
+        for(PhysicalAssetProperty<?> property : diff.getRemovedProperties())
+            this.digitalTwinStateManager.deleteProperty(property.getKey());
+
+        for(PhysicalAssetProperty<?> property : diff.getAddedProperties())
+            this.digitalTwinStateManager.createProperty(new DigitalTwinStateProperty<>(property.getKey(), property.getInitialValue()));
+
+        for(PhysicalAssetEvent event : diff.getRemovedEvents())
+            this.digitalTwinStateManager.unRegisterEvent(event.getKey());
+
+        for(PhysicalAssetEvent event : diff.getAddedEvents())
+            this.digitalTwinStateManager.registerEvent(new DigitalTwinStateEvent(event.getKey(), event.getType()));
+
+        for(PhysicalAssetEvent event : diff.getUpdatedEvents())
+            this.digitalTwinStateManager.updateRegisteredEvent(new DigitalTwinStateEvent(event.getKey(), event.getType()));
+
+        for(PhysicalAssetAction action : diff.getRemovedActions())
+            this.digitalTwinStateManager.disableAction(action.getKey());
+
+        for(PhysicalAssetAction action : diff.getAddedActions()) {
+            this.digitalTwinStateManager.enableAction(new DigitalTwinStateAction(action.getKey(), action.getType(), action.getContentType()));
+            this.keyRegistry.register(action.getKey());
+        }
+
+        for(PhysicalAssetAction action : diff.getUpdatedActions())
+            this.digitalTwinStateManager.updateAction(new DigitalTwinStateAction(action.getKey(), action.getType(), action.getContentType()));
+
+        //Only the insideIn relationships are created on the DT's State, as done in the bind
+        for(PhysicalAssetRelationship<?> relationship : diff.getRemovedRelationships())
+            if(relationship != null && this.keyRegistry.getId(relationship.getName()) == DemoKeyIds.INSIDE_IN_RELATIONSHIP_ID)
+                this.digitalTwinStateManager.deleteRelationship(relationship.getName());
+
+        for(PhysicalAssetRelationship<?> relationship : diff.getAddedRelationships())
+            if(relationship != null && this.keyRegistry.register(relationship.getName()) == DemoKeyIds.INSIDE_IN_RELATIONSHIP_ID)
+                this.digitalTwinStateManager.createRelationship(new DigitalTwinStateRelationship<>(relationship.getName(), relationship.getName()));
+    }
+
+    /**
+     * Start (according to the Observation Policy) or stop observing the target physical resources
+     *
+     * @param properties the physical properties
+     * @param events the physical events
+     * @param relationships the physical relationships
+     * @param observe true to start observing, false to stop observing the resources currently observed
+     */
+    private void updateObservations(List<PhysicalAssetProperty<?>> properties, List<PhysicalAssetEvent> events,
+                                    List<PhysicalAssetRelationship<?>> relationships, boolean observe) throws EventBusException, ModelException {
+
+        for(PhysicalAssetProperty<?> property : properties) {
+            if(observe && isObserved(property.getKey()))
+                this.observePhysicalAssetProperty(property);
+            else if(!observe && this.observedKeySet.remove(property.getKey()))
+                this.unObservePhysicalAssetProperty(property);
+        }
+
+        for(PhysicalAssetEvent event : events) {
+            if(observe && isObserved(event.getKey()))
+                this.observePhysicalAssetEvent(event);
+            else if(!observe && this.observedKeySet.remove(event.getKey()))
+                this.unObservePhysicalAssetEvent(event);
+        }
+
+        for(PhysicalAssetRelationship<?> relationship : relationships) {
+            if(observe && isObserved(relationship.getName()))
+                this.observePhysicalAssetRelationship(relationship);
+            else if(!observe && this.observedKeySet.remove(relationship.getName()))
+                this.unObservePhysicalAssetRelationship(relationship);
+        }
+    }
+
+    //// Observation Policy Utility Methods ////
+
+    /**
+     * Resolve through the configured Observation Policy if the target key has to be observed at bind time
+     *
+     * @param key the property, event or relationship key
+     * @return true if the key has to be observed
+     */
+    private boolean isObserved(String key) {
+
+        boolean isObserved = true;
+
+        int keyId = this.keyRegistry.register(key);
+
+        ObservationPolicy observationPolicy = this.configuration.getObservationPolicy();
+        if(observationPolicy != null) {
+            ObservationDecision decision = observationPolicy.resolve(key);
+            this.observationDecisionArray.set(keyId, decision);
+            isObserved = decision.isObserved();
+            if(isObserved)
+                observationPolicy.getStats().onKeyObserved();
+            else
+                observationPolicy.getStats().onKeyExcluded();
+        }
+
+        //A restored twin keeps the subscriptions it had before the snapshot
+        DigitalTwinStateSnapshot snapshot = this.configuration.getInitialStateSnapshot();
+        if(snapshot != null && !snapshot.getObservedKeys().isEmpty())
+            isObserved = snapshot.getObservedKeys().contains(key);
+
+        if(isObserved)
+            this.observedKeySet.add(key);
+
+        return isObserved;
+    }
+
+    /**
+     * @param keyId the id of the property or event key
+     * @return the priority resolved at bind time for the key, NORMAL if no decision is available
+     */
+    private ObservationPriority getPriority(int keyId) {
+        ObservationDecision decision = this.observationDecisionArray.get(keyId);
+        return decision != null ? decision.getPriority() : ObservationPriority.NORMAL;
+    }
+
+    /**
+     * Check through the Observation Policy decision resolved at bind time if an incoming variation of the target
+     * key has to be applied according to its sampling ratio
+     *
+     * @param keyId the id of the property or event key
+     * @return true if the variation has to be applied
+     */
+    private boolean isSampled(int keyId) {
+
+        ObservationPolicy observationPolicy = this.configuration.getObservationPolicy();
+        if(observationPolicy == null)
+            return true;
+
+        ObservationDecision decision = this.observationDecisionArray.get(keyId);
+        if(decision == null)
+            decision = ObservationDecision.OBSERVE_ALL;
+
+        if(decision.sample()){
+            observationPolicy.getStats().onVariationApplied();
+            return true;
+        }
+
+        observationPolicy.getStats().onVariationSampledOut();
+        return false;
+    }
+
+    /**
+     * Return the configured template only if the received PAD is the one shared by the template, since a
+     * different PAD could declare the same keys with different types
+     *
+     * @param pad the received PAD
+     * @return the template owning the PAD if any
+     */
+    private Optional<DigitalTwinTemplate> getTemplate(PhysicalAssetDescription pad) {
+        DigitalTwinTemplate template = this.configuration.getTemplate();
+        return (template != null && template.isTemplateDescription(pad)) ? Optional.of(template) : Optional.empty();
+    }
+
+    /**
+     * Read the time at which the physical sample has been generated according to the shared clock,
+     * falling back to the creation timestamp of the WLDT Event
+     *
+     * @param wldtEvent the received physical event
+     * @return the sample timestamp in milliseconds
+     */
+    private long getSampleTimestamp(WldtEvent<?> wldtEvent) {
+        Optional<Object> sampleTimestamp = wldtEvent.getMetadata(GlobalKeywords.SAMPLE_TIMESTAMP_METADATA_KEY);
+        if(sampleTimestamp.isPresent() && sampleTimestamp.get() instanceof Long)
+            return (Long) sampleTimestamp.get();
+        return wldtEvent.getCreationTimestamp();
+    }
+
+    /**
+     * Notify the configured listener (e.g., the passivation manager) that the twin is processing new traffic
+     */
+    private void notifyActivity() {
+        if(this.configuration.getActivityListener() != null)
+            this.configuration.getActivityListener().onDigitalTwinActivity(this.digitalTwinStateManager.getDigitalTwinId());
+    }
+
+    //// DT State Transaction Utility Methods ////
+
+    /**
+     * Start a new DT State transaction tracking its span through a JFR event
+     *
+     * @return the started JFR event to be passed to {@link #commitStateTransaction(StateTransactionJfrEvent)}
+     */
+    private StateTransactionJfrEvent startStateTransaction() {
+
+        this.stateTransactionLock.lock();
+
+        try {
+            StateTransactionJfrEvent transactionJfrEvent = new StateTransactionJfrEvent();
+            transactionJfrEvent.begin();
+            this.digitalTwinStateManager.startStateTransaction();
+            return transactionJfrEvent;
+        } catch (RuntimeException e) {
+            this.stateTransactionLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Roll back the current DT State transaction releasing it for the other threads
+     *
+     * @throws WldtDigitalTwinStateException if the rollback fails
+     */
+    private void rollbackStateTransaction() throws WldtDigitalTwinStateException {
+        try {
+            this.digitalTwinStateManager.rollbackTransaction();
+        } finally {
+            this.stateTransactionLock.unlock();
+        }
+    }
+
+    /**
+     * Commit the current DT State transaction and record the associated JFR event
+     *
+     * @param transactionJfrEvent the JFR event returned by {@link #startStateTransaction()}
+     * @return the number of changes applied by the transaction
+     * @throws WldtDigitalTwinStateException if the commit fails
+     */
+    private int commitStateTransaction(StateTransactionJfrEvent transactionJfrEvent) throws WldtDigitalTwinStateException {
+        return commitStateTransaction(transactionJfrEvent, null);
+    }
+
+    /**
+     * Commit the current DT State transaction updating a single property and record the associated JFR event
+     *
+     * @param transactionJfrEvent the JFR event returned by {@link #startStateTransaction()}
+     * @param propertyKey the key of the updated property, recorded only if the JFR event is committed
+     * @return the number of changes applied by the transaction
+     * @throws WldtDigitalTwinStateException if the commit fails
+     */
+    private int commitStateTransaction(StateTransactionJfrEvent transactionJfrEvent, String propertyKey) throws WldtDigitalTwinStateException {
+
+        int changeCount;
+
+        try {
+            DigitalTwinStateTransaction transaction = this.digitalTwinStateManager.getDigitalTwinStateTransaction();
+            changeCount = (transaction != null && transaction.getDigitalTwinStateChangeList() != null) ? transaction.getDigitalTwinStateChangeList().size() : 0;
+
+            this.digitalTwinStateManager.commitStateTransaction();
+        } finally {
+            this.stateTransactionLock.unlock();
+        }
+
+        transactionJfrEvent.end();
+        if(transactionJfrEvent.shouldCommit()){
+            transactionJfrEvent.twinId = this.digitalTwinStateManager.getDigitalTwinId();
+            transactionJfrEvent.propertyKey = propertyKey;
+            transactionJfrEvent.changeCount = changeCount;
+            transactionJfrEvent.commit();
+        }
+
+        return changeCount;
+    }
 }
@@ -0,0 +1,186 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.clock.DigitalTwinClock;
+import io.github.wldt.demo.clock.SystemClock;
+import io.github.wldt.demo.engine.DigitalTwinActivityListener;
+import io.github.wldt.demo.freshness.FreshnessWatchdog;
+import io.github.wldt.demo.migration.InFlightPhysicalEvent;
+import io.github.wldt.demo.scheduling.TwinDispatchScheduler;
+import io.github.wldt.demo.shadowing.EventStormSuppressor;
+import io.github.wldt.demo.shadowing.IngestAdmissionController;
+import io.github.wldt.demo.shadowing.ObservationPolicy;
+import io.github.wldt.demo.shadowing.PropertyReorderBuffer;
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+import io.github.wldt.demo.template.DemoTemplates;
+import io.github.wldt.demo.template.DigitalTwinTemplate;
+
+import java.util.List;
+
+public class DemoShadowingFunctionConfiguration {
+
+    private ObservationPolicy observationPolicy = new ObservationPolicy();
+
+    //Snapshot restored at bind time when the twin is reactivated or migrated
+    private DigitalTwinStateSnapshot initialStateSnapshot = null;
+
+    //Physical events received by the source twin while frozen for a migration, applied once after the bind
+    private List<InFlightPhysicalEvent> pendingPhysicalEvents = null;
+
+    private DigitalTwinActivityListener activityListener = null;
+
+    //Standby twins apply only the change log shipped by their primary twin until promoted
+    private boolean standby = false;
+
+    //Clock shared with the adapters to timestamp the DT State Event Notifications
+    private DigitalTwinClock clock = SystemClock.getInstance();
+
+    //Device model whose shared DT State Events and Actions are registered at bind time
+    private DigitalTwinTemplate template = DemoTemplates.TEMPERATURE_SENSOR_TEMPLATE;
+
+    //Optional scheduler shared by the twins of the same engine to dispatch the received events fairly
+    private TwinDispatchScheduler dispatchScheduler = null;
+
+    private int dispatchWeight = TwinDispatchScheduler.DEFAULT_WEIGHT;
+
+    //Optional admission control of the property updates queued on the dispatch scheduler, owned by a single twin
+    private IngestAdmissionController admissionController = null;
+
+    //Optional watchdog measuring the lag between the physical samples and their commit into the DT State
+    private FreshnessWatchdog freshnessWatchdog = null;
+
+    //Optional suppression of the duplicated physical events within a hold-off window, owned by a single twin
+    private EventStormSuppressor eventStormSuppressor = null;
+
+    //Optional ordering of the property variations by sampling time before they are applied, owned by a single twin
+    private PropertyReorderBuffer reorderBuffer = null;
+
+    public DemoShadowingFunctionConfiguration() {
+    }
+
+    public DemoShadowingFunctionConfiguration(ObservationPolicy observationPolicy) {
+        this.observationPolicy = observationPolicy;
+    }
+
+    public ObservationPolicy getObservationPolicy() {
+        return observationPolicy;
+    }
+
+    public void setObservationPolicy(ObservationPolicy observationPolicy) {
+        this.observationPolicy = observationPolicy;
+    }
+
+    public DigitalTwinStateSnapshot getInitialStateSnapshot() {
+        return initialStateSnapshot;
+    }
+
+    public void setInitialStateSnapshot(DigitalTwinStateSnapshot initialStateSnapshot) {
+        this.initialStateSnapshot = initialStateSnapshot;
+    }
+
+    public List<InFlightPhysicalEvent> getPendingPhysicalEvents() {
+        return pendingPhysicalEvents;
+    }
+
+    public void setPendingPhysicalEvents(List<InFlightPhysicalEvent> pendingPhysicalEvents) {
+        this.pendingPhysicalEvents = pendingPhysicalEvents;
+    }
+
+    public DigitalTwinActivityListener getActivityListener() {
+        return activityListener;
+    }
+
+    public void setActivityListener(DigitalTwinActivityListener activityListener) {
+        this.activityListener = activityListener;
+    }
+
+    public boolean isStandby() {
+        return standby;
+    }
+
+    public void setStandby(boolean standby) {
+        this.standby = standby;
+    }
+
+    public DigitalTwinClock getClock() {
+        return clock;
+    }
+
+    public void setClock(DigitalTwinClock clock) {
+        this.clock = clock;
+    }
+
+    public DigitalTwinTemplate getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(DigitalTwinTemplate template) {
+        this.template = template;
+    }
+
+    public TwinDispatchScheduler getDispatchScheduler() {
+        return dispatchScheduler;
+    }
+
+    public void setDispatchScheduler(TwinDispatchScheduler dispatchScheduler) {
+        this.dispatchScheduler = dispatchScheduler;
+    }
+
+    public int getDispatchWeight() {
+        return dispatchWeight;
+    }
+
+    public void setDispatchWeight(int dispatchWeight) {
+        this.dispatchWeight = dispatchWeight;
+    }
+
+    public IngestAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public void setAdmissionController(IngestAdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    public FreshnessWatchdog getFreshnessWatchdog() {
+        return freshnessWatchdog;
+    }
+
+    public void setFreshnessWatchdog(FreshnessWatchdog freshnessWatchdog) {
+        this.freshnessWatchdog = freshnessWatchdog;
+    }
+
+    public EventStormSuppressor getEventStormSuppressor() {
+        return eventStormSuppressor;
+    }
+
+    public void setEventStormSuppressor(EventStormSuppressor eventStormSuppressor) {
+        this.eventStormSuppressor = eventStormSuppressor;
+    }
+
+    public PropertyReorderBuffer getReorderBuffer() {
+        return reorderBuffer;
+    }
+
+    public void setReorderBuffer(PropertyReorderBuffer reorderBuffer) {
+        this.reorderBuffer = reorderBuffer;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DemoShadowingFunctionConfiguration{");
+        sb.append("observationPolicy=").append(observationPolicy);
+        sb.append(", initialStateSnapshot=").append(initialStateSnapshot);
+        sb.append(", pendingPhysicalEvents=").append(pendingPhysicalEvents != null ? pendingPhysicalEvents.size() : 0);
+        sb.append(", standby=").append(standby);
+        sb.append(", clock=").append(clock);
+        sb.append(", template=").append(template != null ? template.getTemplateId() : null);
+        sb.append(", dispatchScheduler=").append(dispatchScheduler);
+        sb.append(", dispatchWeight=").append(dispatchWeight);
+        sb.append(", admissionController=").append(admissionController);
+        sb.append(", freshnessWatchdog=").append(freshnessWatchdog != null);
+        sb.append(", eventStormSuppressor=").append(eventStormSuppressor);
+        sb.append(", reorderBuffer=").append(reorderBuffer);
+        sb.append('}');
+        return sb.toString();
+    }
+}
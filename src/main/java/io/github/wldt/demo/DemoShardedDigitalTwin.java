@@ -0,0 +1,56 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.engine.ShardedDigitalTwinEngine;
+import io.github.wldt.demo.logger.DemoEventLogger;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.event.WldtEventBus;
+
+/**
+ * Main class to build and test multiple demo Digital Twins distributed across the shards of a
+ * {@link ShardedDigitalTwinEngine}
+ */
+public class DemoShardedDigitalTwin {
+
+    private static final int DIGITAL_TWIN_COUNT = 16;
+
+    public static void main(String[] args)  {
+        try{
+
+            // Create the Sharded Digital Twin Engine with a shard for each core group
+            ShardedDigitalTwinEngine shardedEngine = new ShardedDigitalTwinEngine();
+
+            for(int i = 0; i < DIGITAL_TWIN_COUNT; i++){
+
+                String digitalTwinId = String.format("test-dt-id-%d", i);
+
+                // Create the new Digital Twin
+                DigitalTwin digitalTwin = new DigitalTwin(
+                        digitalTwinId,
+                        new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function"))
+                );
+
+                //Physical and Digital Adapters with Configuration
+                digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), new DemoPhysicalAdapterConfiguration()));
+                digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), new DemoDigitalAdapterConfiguration()));
+
+                // Add the Digital Twin to the shard selected by its id
+                shardedEngine.addDigitalTwin(digitalTwin);
+            }
+
+            shardedEngine.getShardList().forEach(shard -> System.out.println("[DemoShardedDigitalTwin] -> " + shard));
+
+            // Set a new Event-Logger to a Custom One that we created with the class 'DemoEventLogger'
+            WldtEventBus.getInstance().setEventLogger(new DemoEventLogger());
+
+            // Start all the DTs registered on all the shards
+            shardedEngine.startAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.clock.VirtualClock;
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.soak.SoakTestConfiguration;
+import io.github.wldt.demo.soak.SoakTestHarness;
+import io.github.wldt.demo.soak.SoakTestResult;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to run an accelerated soak test: several twins sharing a virtual clock publish a sample per second,
+ * notify an event and re-create their relationship instance every 30 samples and receive an action every 10
+ * seconds, without any end, while the harness checks heap, threads and DT State sizes for unbounded growth.
+ * The process exits with status 1 when a growth is detected.
+ */
+public class DemoSoakDigitalTwin {
+
+    private static final int TWIN_COUNT = 10;
+
+    private static final int SAMPLE_PERIOD_MS = 1000;
+
+    private static final int CHURN_PERIOD = 30;
+
+    private static final int ACTION_PERIOD_MS = 10000;
+
+    private static final long SOAK_DURATION_MS = 3 * 60 * 1000;
+
+    private static final long SOAK_SAMPLE_PERIOD_MS = 5000;
+
+    public static void main(String[] args)  {
+
+        boolean passed = false;
+
+        try{
+
+            // Virtual clock shared by all the twins to emulate hours of activity in minutes
+            VirtualClock virtualClock = new VirtualClock();
+
+            SoakTestHarness soakTestHarness = new SoakTestHarness(new SoakTestConfiguration(SOAK_DURATION_MS, SOAK_SAMPLE_PERIOD_MS), virtualClock);
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            for(int i = 0; i < TWIN_COUNT; i++)
+                digitalTwinEngine.addDigitalTwin(createDigitalTwin(String.format("soak-dt-id-%d", i), virtualClock, soakTestHarness));
+
+            digitalTwinEngine.startAll();
+
+            SoakTestResult soakTestResult = soakTestHarness.run();
+            soakTestResult.getFailureList().forEach(failure -> System.out.println("[DemoSoakDigitalTwin] -> Unbounded Growth: " + failure));
+            passed = soakTestResult.isPassed();
+
+            digitalTwinEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+
+        System.out.println("[DemoSoakDigitalTwin] -> Soak Test " + (passed ? "PASSED" : "FAILED"));
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static DigitalTwin createDigitalTwin(String digitalTwinId, VirtualClock virtualClock, SoakTestHarness soakTestHarness) throws Exception {
+
+        DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+        shadowingFunctionConfiguration.setClock(virtualClock);
+
+        // Endless emulation with periodic event and relationship churn
+        DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+        physicalAdapterConfiguration.setMessageUpdateTime(SAMPLE_PERIOD_MS);
+        physicalAdapterConfiguration.setMessageUpdateNumber(Integer.MAX_VALUE);
+        physicalAdapterConfiguration.setChurnPeriod(CHURN_PERIOD);
+        physicalAdapterConfiguration.setClock(virtualClock);
+
+        // Endless emulation of the incoming digital actions
+        DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+        digitalAdapterConfiguration.setSleepTimeMs(ACTION_PERIOD_MS);
+        digitalAdapterConfiguration.setEmulatedActionCount(Integer.MAX_VALUE);
+        digitalAdapterConfiguration.setClock(virtualClock);
+
+        DemoConfDigitalAdapter digitalAdapter = new DemoConfDigitalAdapter(String.format("%s-%s", digitalTwinId, "test-digital-adapter"), digitalAdapterConfiguration);
+        soakTestHarness.addDigitalAdapter(digitalAdapter);
+
+        DigitalTwin digitalTwin = new DigitalTwin(digitalTwinId, new DemoShadowingFunction(String.format("%s-%s", digitalTwinId, "test-shadowing-function"), shadowingFunctionConfiguration));
+        digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter(String.format("%s-%s", digitalTwinId, "test-physical-adapter"), physicalAdapterConfiguration));
+        digitalTwin.addDigitalAdapter(digitalAdapter);
+
+        return digitalTwin;
+    }
+}
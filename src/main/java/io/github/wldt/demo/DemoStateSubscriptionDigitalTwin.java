@@ -0,0 +1,48 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.digital.StateSubscription;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.utils.GlobalKeywords;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to test a Digital Adapter subscribed only to the insideIn relationship of the demo Digital Twin,
+ * discarding all the temperature updates before their dispatch
+ */
+public class DemoStateSubscriptionDigitalTwin {
+
+    private static final long RUN_TIME_MS = 40000;
+
+    public static void main(String[] args)  {
+        try{
+
+            DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+            digitalAdapterConfiguration.setStateSubscription(StateSubscription.create().onRelationships(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME));
+
+            DemoConfDigitalAdapter digitalAdapter = new DemoConfDigitalAdapter("test-digital-adapter", digitalAdapterConfiguration);
+
+            DigitalTwin digitalTwin = new DigitalTwin("test-dt-id", new DemoShadowingFunction("test-shadowing-function"));
+            digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", new DemoPhysicalAdapterConfiguration()));
+            digitalTwin.addDigitalAdapter(digitalAdapter);
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+            digitalTwinEngine.addDigitalTwin(digitalTwin);
+            digitalTwinEngine.startAll();
+
+            Thread.sleep(RUN_TIME_MS);
+
+            System.out.println(String.format("[DemoStateSubscriptionDigitalTwin] -> Delivered DT State Updates: %d Skipped DT State Updates: %d",
+                    digitalAdapter.getDeliveredStateUpdates(),
+                    digitalAdapter.getSkippedStateUpdates()));
+
+            digitalTwinEngine.removeAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
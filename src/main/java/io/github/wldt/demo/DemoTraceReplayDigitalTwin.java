@@ -0,0 +1,72 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.clock.VirtualClock;
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import io.github.wldt.demo.trace.PhysicalTraceWriter;
+import io.github.wldt.demo.trace.ReplayPhysicalAdapter;
+import io.github.wldt.demo.trace.ReplayPhysicalAdapterConfiguration;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Main class to record the stream of the emulated physical device into a trace file and to replay it.
+ *
+ * Usage: record &lt;trace-file&gt; | replay &lt;trace-file&gt; [speed-factor|max]
+ */
+public class DemoTraceReplayDigitalTwin {
+
+    public static void main(String[] args)  {
+        try{
+
+            String mode = args.length > 0 ? args[0] : "record";
+            Path tracePath = Paths.get(args.length > 1 ? args[1] : "demo-physical.trace");
+
+            DigitalTwin digitalTwin = new DigitalTwin(
+                    "test-dt-id",
+                    new DemoShadowingFunction("test-shadowing-function")
+            );
+
+            if("replay".equals(mode)) {
+
+                double speedFactor = 1.0;
+                if(args.length > 2)
+                    speedFactor = "max".equals(args[2]) ? ReplayPhysicalAdapterConfiguration.MAX_SPEED : Double.parseDouble(args[2]);
+
+                digitalTwin.addPhysicalAdapter(new ReplayPhysicalAdapter("test-replay-physical-adapter", new ReplayPhysicalAdapterConfiguration(tracePath, speedFactor)));
+            }
+            else {
+
+                // Record the emulated device on a virtual clock to generate the trace without waiting
+                PhysicalTraceWriter traceWriter = new PhysicalTraceWriter(tracePath);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        traceWriter.close();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }));
+
+                DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+                physicalAdapterConfiguration.setClock(new VirtualClock());
+                physicalAdapterConfiguration.setTraceWriter(traceWriter);
+
+                digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", physicalAdapterConfiguration));
+            }
+
+            digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", new DemoDigitalAdapterConfiguration()));
+
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+            digitalTwinEngine.addDigitalTwin(digitalTwin);
+            digitalTwinEngine.startAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
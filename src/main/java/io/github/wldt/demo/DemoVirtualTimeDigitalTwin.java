@@ -0,0 +1,60 @@
+package io.github.wldt.demo;
+
+import io.github.wldt.demo.clock.VirtualClock;
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import io.github.wldt.demo.physical.DemoConfPhysicalAdapter;
+import io.github.wldt.demo.physical.DemoPhysicalAdapterConfiguration;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+/**
+ * Main class to run the demo Digital Twin on a {@link VirtualClock} emulating a full day of device behaviour
+ * (one temperature sample per second) as fast as the CPU allows
+ */
+public class DemoVirtualTimeDigitalTwin {
+
+    private static final int EMULATED_SAMPLE_COUNT = 24 * 60 * 60;
+
+    public static void main(String[] args)  {
+        try{
+
+            // Clock shared by the adapters and the Shadowing Function
+            VirtualClock virtualClock = new VirtualClock();
+
+            DemoShadowingFunctionConfiguration shadowingFunctionConfiguration = new DemoShadowingFunctionConfiguration();
+            shadowingFunctionConfiguration.setClock(virtualClock);
+
+            DemoShadowingFunction shadowingFunction = new DemoShadowingFunction("test-shadowing-function", shadowingFunctionConfiguration);
+
+            // Readiness barrier: the emulation threads are participants of the clock and wait for the Shadowing Function
+            // to bind and observe the properties, so the virtual time does not move before the twin is synchronized
+            DemoPhysicalAdapterConfiguration physicalAdapterConfiguration = new DemoPhysicalAdapterConfiguration();
+            physicalAdapterConfiguration.setMessageUpdateNumber(EMULATED_SAMPLE_COUNT);
+            physicalAdapterConfiguration.setClock(virtualClock);
+            physicalAdapterConfiguration.setReadinessSignal(shadowingFunction.getSynchronizedFuture());
+
+            DemoDigitalAdapterConfiguration digitalAdapterConfiguration = new DemoDigitalAdapterConfiguration();
+            digitalAdapterConfiguration.setClock(virtualClock);
+            digitalAdapterConfiguration.setReadinessSignal(shadowingFunction.getSynchronizedFuture());
+
+            // Create the new Digital Twin
+            DigitalTwin digitalTwin = new DigitalTwin("test-dt-id", shadowingFunction);
+
+            digitalTwin.addPhysicalAdapter(new DemoConfPhysicalAdapter("test-physical-adapter", physicalAdapterConfiguration));
+            digitalTwin.addDigitalAdapter(new DemoConfDigitalAdapter("test-digital-adapter", digitalAdapterConfiguration));
+
+            // Create the Digital Twin Engine
+            DigitalTwinEngine digitalTwinEngine = new DigitalTwinEngine();
+
+            // Add the Digital Twin to the Engine
+            digitalTwinEngine.addDigitalTwin(digitalTwin);
+
+            // Start all the DTs registered on the engine
+            digitalTwinEngine.startAll();
+
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.wldt.demo.aggregate;
+
+/**
+ * Levels of the location hierarchy described by the insideIn relationship of the device twins
+ */
+public enum AggregateLevel {
+
+    BUILDING,
+    FLOOR,
+    ROOM;
+
+    /**
+     * @return the id of the aggregate at this level for the target location
+     */
+    public String getAggregateId(String building, String floor, String room) {
+        switch (this) {
+            case BUILDING:
+                return building;
+            case FLOOR:
+                return String.format("%s/%s", building, floor);
+            default:
+                return String.format("%s/%s/%s", building, floor, room);
+        }
+    }
+}
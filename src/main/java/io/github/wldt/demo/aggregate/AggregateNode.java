@@ -0,0 +1,132 @@
+package io.github.wldt.demo.aggregate;
+
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Roll-up of the device twins located in a room, a floor or a building.
+ *
+ * The average is kept through the running sum and count and the notified overheating events through a counter, so
+ * both are updated in O(1) for each child update. The maximum is kept in a sorted multiset of the child values, since
+ * an exact maximum can not be maintained in constant time when the hottest child cools down: each update costs
+ * O(log n) with n children of the aggregate. The version is increased for each
+ * change allowing publishers to skip unchanged aggregates.
+ */
+public class AggregateNode {
+
+    private final String aggregateId;
+
+    private final AggregateLevel aggregateLevel;
+
+    private int memberCount = 0;
+
+    private int valueCount = 0;
+
+    private double valueSum = 0.0;
+
+    //Child value -> number of children with that value
+    private final TreeMap<Double, Integer> valueCountMap = new TreeMap<>();
+
+    //Overheating events notified by the Digital Adapters of the children, after any event storm suppression
+    private long notifiedOverheatingEventCount = 0;
+
+    private volatile long version = 0;
+
+    public AggregateNode(String aggregateId, AggregateLevel aggregateLevel) {
+        this.aggregateId = aggregateId;
+        this.aggregateLevel = aggregateLevel;
+    }
+
+    /**
+     * Add a child twin with its current value, if any
+     */
+    synchronized void addMember(Double value) {
+        this.memberCount++;
+        if(value != null)
+            addValue(value);
+        this.version++;
+    }
+
+    synchronized void removeMember(Double value) {
+        this.memberCount--;
+        if(value != null)
+            removeValue(value);
+        this.version++;
+    }
+
+    /**
+     * Replace the value of a child twin
+     *
+     * @param previousValue the previous value of the child or null if it had no value
+     * @param value the new value
+     */
+    synchronized void updateValue(Double previousValue, double value) {
+        if(previousValue != null)
+            removeValue(previousValue);
+        addValue(value);
+        this.version++;
+    }
+
+    synchronized void onOverheatingEvent() {
+        this.notifiedOverheatingEventCount++;
+        this.version++;
+    }
+
+    private void addValue(double value) {
+        this.valueCount++;
+        this.valueSum += value;
+        this.valueCountMap.merge(value, 1, Integer::sum);
+    }
+
+    private void removeValue(double value) {
+        this.valueCount--;
+        this.valueSum -= value;
+        this.valueCountMap.computeIfPresent(value, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public AggregateLevel getAggregateLevel() {
+        return aggregateLevel;
+    }
+
+    public synchronized int getMemberCount() {
+        return memberCount;
+    }
+
+    public synchronized Optional<Double> getAverage() {
+        return this.valueCount > 0 ? Optional.of(this.valueSum / this.valueCount) : Optional.empty();
+    }
+
+    public synchronized Optional<Double> getMax() {
+        return this.valueCountMap.isEmpty() ? Optional.empty() : Optional.of(this.valueCountMap.lastKey());
+    }
+
+    /**
+     * @return the number of overheating events notified by the children. The count is post-suppression: when a child
+     * twin uses an {@link io.github.wldt.demo.shadowing.EventStormSuppressor} the duplicated events dropped within
+     * the hold-off window never reach the aggregate and are not counted.
+     */
+    public synchronized long getNotifiedOverheatingEventCount() {
+        return notifiedOverheatingEventCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("AggregateNode{");
+        sb.append("aggregateId='").append(aggregateId).append('\'');
+        sb.append(", aggregateLevel=").append(aggregateLevel);
+        sb.append(", memberCount=").append(memberCount);
+        sb.append(", average=").append(getAverage().orElse(null));
+        sb.append(", max=").append(getMax().orElse(null));
+        sb.append(", notifiedOverheatingEventCount=").append(notifiedOverheatingEventCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.wldt.demo.aggregate;
+
+import io.github.wldt.demo.utils.GlobalKeywords;
+import it.wldt.adapter.physical.*;
+import it.wldt.adapter.physical.event.PhysicalAssetActionWldtEvent;
+import it.wldt.adapter.physical.event.PhysicalAssetPropertyWldtEvent;
+import it.wldt.exception.EventBusException;
+
+import java.util.Optional;
+
+/**
+ * Physical Adapter of an aggregate twin (room, floor or building). Its "physical asset" is the {@link AggregateNode}
+ * maintained by the {@link AggregateTwinManager}: the adapter declares the aggregate properties and periodically
+ * publishes their values when the aggregate has changed, so the aggregate twin is a regular Digital Twin with its
+ * own Shadowing Function and Digital Adapters.
+ */
+public class AggregatePhysicalAdapter extends ConfigurablePhysicalAdapter<AggregatePhysicalAdapterConfiguration> {
+
+    private Thread publicationThread = null;
+
+    public AggregatePhysicalAdapter(String id, AggregatePhysicalAdapterConfiguration configuration) {
+        super(id, configuration);
+    }
+
+    @Override
+    public void onIncomingPhysicalAction(PhysicalAssetActionWldtEvent<?> physicalAssetActionWldtEvent) {
+        //Aggregates do not expose any action
+        System.err.println("[AggregatePhysicalAdapter] -> Wrong Action Received !");
+    }
+
+    @Override
+    public void onAdapterStart() {
+        this.publicationThread = getConfiguration().getClock().newThread(publishAggregate(), String.format("%s-aggregate-publication", getId()));
+        this.publicationThread.start();
+    }
+
+    @Override
+    public void onAdapterStop() {
+        if(this.publicationThread != null)
+            this.publicationThread.interrupt();
+    }
+
+    private Runnable publishAggregate() {
+        return () -> {
+            try {
+
+                PhysicalAssetDescription pad = new PhysicalAssetDescription();
+                pad.getProperties().add(new PhysicalAssetProperty<>(GlobalKeywords.AVERAGE_TEMPERATURE_PROPERTY_KEY, 0.0));
+                pad.getProperties().add(new PhysicalAssetProperty<>(GlobalKeywords.MAX_TEMPERATURE_PROPERTY_KEY, 0.0));
+                pad.getProperties().add(new PhysicalAssetProperty<>(GlobalKeywords.MEMBER_COUNT_PROPERTY_KEY, 0));
+                pad.getProperties().add(new PhysicalAssetProperty<>(GlobalKeywords.OVERHEATING_COUNT_PROPERTY_KEY, 0L));
+
+                this.notifyPhysicalAdapterBound(pad);
+
+                AggregateNode aggregateNode = getConfiguration().getAggregateNode();
+                long publishedVersion = -1;
+
+                while (!Thread.currentThread().isInterrupted()) {
+
+                    getConfiguration().getClock().sleep(getConfiguration().getPublicationPeriodMs());
+
+                    long version = aggregateNode.getVersion();
+                    if(version == publishedVersion)
+                        continue;
+                    publishedVersion = version;
+
+                    publishProperty(GlobalKeywords.AVERAGE_TEMPERATURE_PROPERTY_KEY, aggregateNode.getAverage());
+                    publishProperty(GlobalKeywords.MAX_TEMPERATURE_PROPERTY_KEY, aggregateNode.getMax());
+                    publishProperty(GlobalKeywords.MEMBER_COUNT_PROPERTY_KEY, Optional.of(aggregateNode.getMemberCount()));
+                    publishProperty(GlobalKeywords.OVERHEATING_COUNT_PROPERTY_KEY, Optional.of(aggregateNode.getNotifiedOverheatingEventCount()));
+                }
+
+            } catch (InterruptedException e) {
+                System.out.println("[AggregatePhysicalAdapter] -> Aggregate Publication Interrupted !");
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        };
+    }
+
+    private <T> void publishProperty(String propertyKey, Optional<T> value) throws EventBusException {
+        if(value.isPresent())
+            publishPhysicalAssetPropertyWldtEvent(new PhysicalAssetPropertyWldtEvent<>(propertyKey, value.get()));
+    }
+}
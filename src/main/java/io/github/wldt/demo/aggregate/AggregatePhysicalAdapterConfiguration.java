@@ -0,0 +1,57 @@
+package io.github.wldt.demo.aggregate;
+
+import io.github.wldt.demo.clock.DigitalTwinClock;
+import io.github.wldt.demo.clock.SystemClock;
+
+public class AggregatePhysicalAdapterConfiguration {
+
+    public static final long DEFAULT_PUBLICATION_PERIOD_MS = 1000;
+
+    private AggregateNode aggregateNode;
+
+    //Period used to publish the aggregate values, skipped when the aggregate did not change
+    private long publicationPeriodMs = DEFAULT_PUBLICATION_PERIOD_MS;
+
+    private DigitalTwinClock clock = SystemClock.getInstance();
+
+    public AggregatePhysicalAdapterConfiguration() {
+    }
+
+    public AggregatePhysicalAdapterConfiguration(AggregateNode aggregateNode) {
+        this.aggregateNode = aggregateNode;
+    }
+
+    public AggregateNode getAggregateNode() {
+        return aggregateNode;
+    }
+
+    public void setAggregateNode(AggregateNode aggregateNode) {
+        this.aggregateNode = aggregateNode;
+    }
+
+    public long getPublicationPeriodMs() {
+        return publicationPeriodMs;
+    }
+
+    public void setPublicationPeriodMs(long publicationPeriodMs) {
+        this.publicationPeriodMs = publicationPeriodMs;
+    }
+
+    public DigitalTwinClock getClock() {
+        return clock;
+    }
+
+    public void setClock(DigitalTwinClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AggregatePhysicalAdapterConfiguration{");
+        sb.append("aggregateId=").append(aggregateNode != null ? aggregateNode.getAggregateId() : null);
+        sb.append(", publicationPeriodMs=").append(publicationPeriodMs);
+        sb.append(", clock=").append(clock);
+        sb.append('}');
+        return sb.toString();
+    }
+}
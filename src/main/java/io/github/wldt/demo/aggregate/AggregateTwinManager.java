@@ -0,0 +1,181 @@
+package io.github.wldt.demo.aggregate;
+
+import io.github.wldt.demo.digital.EventNotificationListener;
+import io.github.wldt.demo.digital.StateChangeListener;
+import io.github.wldt.demo.utils.GlobalKeywords;
+import it.wldt.core.state.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Manager of the room, floor and building aggregates of the device twins, registered as State Change and Event
+ * Notification listener on their Digital Adapters.
+ *
+ * The location of a device is read from its insideIn relationship instances (target building plus floor and room
+ * metadata). Each property update or overheating event of a device is applied only to the aggregates of its
+ * location, without reading the state of any other twin.
+ */
+public class AggregateTwinManager implements StateChangeListener, EventNotificationListener {
+
+    private final String propertyKey;
+
+    private final String overheatingEventKey;
+
+    private final Object overheatingEventValue;
+
+    private final String relationshipName;
+
+    private final Map<String, AggregateNode> aggregateNodeMap = new ConcurrentHashMap<>();
+
+    private final Map<String, ChildTwin> childTwinMap = new ConcurrentHashMap<>();
+
+    public AggregateTwinManager() {
+        this(GlobalKeywords.TEMPERATURE_PROPERTY_KEY, GlobalKeywords.OVERHEATING_EVENT_KEY, "critical", GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME);
+    }
+
+    public AggregateTwinManager(String propertyKey, String overheatingEventKey, Object overheatingEventValue, String relationshipName) {
+        this.propertyKey = propertyKey;
+        this.overheatingEventKey = overheatingEventKey;
+        this.overheatingEventValue = overheatingEventValue;
+        this.relationshipName = relationshipName;
+    }
+
+    @Override
+    public void onStateChanges(String digitalTwinId, DigitalTwinState newDigitalTwinState, List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList) {
+
+            boolean remove = stateChange.getOperation() == DigitalTwinStateChange.Operation.OPERATION_REMOVE;
+            DigitalTwinStateResource resource = stateChange.getResource();
+
+            if(resource instanceof DigitalTwinStateProperty) {
+                DigitalTwinStateProperty<?> property = (DigitalTwinStateProperty<?>) resource;
+                if(this.propertyKey.equals(property.getKey()))
+                    getChildTwin(digitalTwinId).updateValue((!remove && property.getValue() instanceof Number) ? ((Number) property.getValue()).doubleValue() : null);
+            }
+            else if(resource instanceof DigitalTwinStateRelationshipInstance) {
+                DigitalTwinStateRelationshipInstance<?> instance = (DigitalTwinStateRelationshipInstance<?>) resource;
+                if(this.relationshipName.equals(instance.getRelationshipName())) {
+                    if(remove)
+                        getChildTwin(digitalTwinId).removeLocation(instance.getKey());
+                    else
+                        getChildTwin(digitalTwinId).addLocation(instance.getKey(), getLocationNodes(instance));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onEventNotification(String digitalTwinId, DigitalTwinStateEventNotification<?> eventNotification) {
+        if(this.overheatingEventKey.equals(eventNotification.getDigitalEventKey())
+                && Objects.equals(this.overheatingEventValue, eventNotification.getBody()))
+            getChildTwin(digitalTwinId).onOverheatingEvent();
+    }
+
+    /**
+     * Remove a device twin from all its aggregates (e.g., when it is removed from its engine)
+     */
+    public void removeDigitalTwin(String digitalTwinId) {
+        ChildTwin childTwin = this.childTwinMap.remove(digitalTwinId);
+        if(childTwin != null)
+            childTwin.removeAllLocations();
+    }
+
+    public Optional<AggregateNode> getAggregateNode(String aggregateId) {
+        return Optional.ofNullable(this.aggregateNodeMap.get(aggregateId));
+    }
+
+    public List<AggregateNode> getAggregateNodes(AggregateLevel aggregateLevel) {
+        return this.aggregateNodeMap.values().stream()
+                .filter(aggregateNode -> aggregateNode.getAggregateLevel() == aggregateLevel)
+                .sorted(Comparator.comparing(AggregateNode::getAggregateId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get or create the aggregate node of the target location, to attach an aggregate twin before its members exist
+     */
+    public AggregateNode getOrCreateAggregateNode(AggregateLevel aggregateLevel, String building, String floor, String room) {
+        String aggregateId = aggregateLevel.getAggregateId(building, floor, room);
+        return this.aggregateNodeMap.computeIfAbsent(aggregateId, id -> new AggregateNode(id, aggregateLevel));
+    }
+
+    private List<AggregateNode> getLocationNodes(DigitalTwinStateRelationshipInstance<?> instance) {
+
+        String building = String.valueOf(instance.getTargetId());
+        Map<String, Object> metadata = instance.getMetadata() != null ? instance.getMetadata() : Collections.emptyMap();
+        Object floor = metadata.get(GlobalKeywords.FLOOR_METADATA_KEY);
+        Object room = metadata.get(GlobalKeywords.ROOM_METADATA_KEY);
+
+        List<AggregateNode> locationNodeList = new ArrayList<>(3);
+        locationNodeList.add(getOrCreateAggregateNode(AggregateLevel.BUILDING, building, null, null));
+        if(floor != null) {
+            locationNodeList.add(getOrCreateAggregateNode(AggregateLevel.FLOOR, building, floor.toString(), null));
+            if(room != null)
+                locationNodeList.add(getOrCreateAggregateNode(AggregateLevel.ROOM, building, floor.toString(), room.toString()));
+        }
+        return locationNodeList;
+    }
+
+    private ChildTwin getChildTwin(String digitalTwinId) {
+        return this.childTwinMap.computeIfAbsent(digitalTwinId, id -> new ChildTwin());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AggregateTwinManager{");
+        sb.append("propertyKey='").append(propertyKey).append('\'');
+        sb.append(", aggregates=").append(aggregateNodeMap.size());
+        sb.append(", children=").append(childTwinMap.size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Last value and aggregates of a device twin
+     */
+    private static class ChildTwin {
+
+        private Double value = null;
+
+        //Relationship instance key -> aggregates of the location described by the instance
+        private final Map<String, List<AggregateNode>> locationMap = new HashMap<>();
+
+        synchronized void updateValue(Double newValue) {
+            Double previousValue = this.value;
+            this.value = newValue;
+            for(List<AggregateNode> locationNodeList : this.locationMap.values())
+                for(AggregateNode aggregateNode : locationNodeList) {
+                    if(newValue != null)
+                        aggregateNode.updateValue(previousValue, newValue);
+                    else if(previousValue != null) {
+                        aggregateNode.removeMember(previousValue);
+                        aggregateNode.addMember(null);
+                    }
+                }
+        }
+
+        synchronized void addLocation(String instanceKey, List<AggregateNode> locationNodeList) {
+            removeLocation(instanceKey);
+            this.locationMap.put(instanceKey, locationNodeList);
+            locationNodeList.forEach(aggregateNode -> aggregateNode.addMember(this.value));
+        }
+
+        synchronized void removeLocation(String instanceKey) {
+            List<AggregateNode> locationNodeList = this.locationMap.remove(instanceKey);
+            if(locationNodeList != null)
+                locationNodeList.forEach(aggregateNode -> aggregateNode.removeMember(this.value));
+        }
+
+        synchronized void removeAllLocations() {
+            new ArrayList<>(this.locationMap.keySet()).forEach(this::removeLocation);
+        }
+
+        synchronized void onOverheatingEvent() {
+            for(List<AggregateNode> locationNodeList : this.locationMap.values())
+                locationNodeList.forEach(AggregateNode::onOverheatingEvent);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.wldt.demo.clock;
+
+/**
+ * Clock abstraction shared by the adapters and the Shadowing Function to read the current time and to pace
+ * the emulated device behaviour. Using the same clock everywhere keeps the generated timestamps consistent
+ * when the emulation runs on a virtual time.
+ */
+public interface DigitalTwinClock {
+
+    /**
+     * @return the current time of the clock in milliseconds since the epoch
+     */
+    long currentTimeMillis();
+
+    /**
+     * Suspend the calling thread for the target amount of clock time
+     *
+     * @param durationMs the time to wait in milliseconds
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    void sleep(long durationMs) throws InterruptedException;
+
+    /**
+     * Create a new thread whose waits are driven by this clock
+     *
+     * @param runnable the task of the thread
+     * @param name the name of the thread
+     * @return the created (not yet started) thread
+     */
+    default Thread newThread(Runnable runnable, String name) {
+        return new Thread(runnable, name);
+    }
+
+}
@@ -0,0 +1,32 @@
+package io.github.wldt.demo.clock;
+
+/**
+ * Default wall-clock implementation of {@link DigitalTwinClock}
+ */
+public class SystemClock implements DigitalTwinClock {
+
+    private static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    public static SystemClock getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void sleep(long durationMs) throws InterruptedException {
+        if(durationMs > 0)
+            Thread.sleep(durationMs);
+    }
+
+    @Override
+    public String toString() {
+        return "SystemClock{}";
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.wldt.demo.clock;
+
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event implementation of {@link DigitalTwinClock}.
+ *
+ * Time does not flow on its own: every call to {@link #sleep(long)} schedules a wake-up on a virtual timeline and
+ * the clock jumps directly to the earliest scheduled wake-up as soon as all the participant threads are waiting.
+ * Emulations therefore run as fast as the CPU allows while the sequence and the timestamps of the generated
+ * samples are the same they would have on the wall clock.
+ *
+ * Participant threads are the ones created through {@link #newThread(Runnable, String)}: they are counted from
+ * their creation until the end of their task, so the clock never moves forward while one of them is still
+ * computing. A thread not created by the clock participates only while it is sleeping on it.
+ *
+ * A participant blocked on anything other than the clock holds the time as well. Emulation threads waiting on the
+ * readiness signal of the twin (e.g., {@code DemoShadowingFunction#getSynchronizedFuture()}) are therefore the
+ * readiness barrier of the virtual time: the clock does not move, and no sample is generated, before the Shadowing
+ * Function binds and observes the physical properties.
+ */
+public class VirtualClock implements DigitalTwinClock {
+
+    private final Object lock = new Object();
+
+    private final PriorityQueue<Wakeup> wakeupQueue = new PriorityQueue<>();
+
+    private final ThreadLocal<Boolean> participantThread = ThreadLocal.withInitial(() -> false);
+
+    private volatile long currentTimeMs;
+
+    private int participantCount = 0;
+
+    private int sleepingCount = 0;
+
+    private long wakeupSequence = 0;
+
+    private long advanceCount = 0;
+
+    /**
+     * Create a virtual clock starting from the current wall-clock time
+     */
+    public VirtualClock() {
+        this(System.currentTimeMillis());
+    }
+
+    public VirtualClock(long startTimeMs) {
+        this.currentTimeMs = startTimeMs;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.currentTimeMs;
+    }
+
+    @Override
+    public void sleep(long durationMs) throws InterruptedException {
+
+        if(durationMs <= 0)
+            return;
+
+        boolean isParticipant = this.participantThread.get();
+
+        synchronized (this.lock) {
+
+            //A thread not created by the clock participates only for the duration of the sleep
+            if(!isParticipant)
+                this.participantCount++;
+
+            Wakeup wakeup = new Wakeup(this.currentTimeMs + durationMs, this.wakeupSequence++);
+            this.wakeupQueue.add(wakeup);
+            this.sleepingCount++;
+
+            try {
+                advanceIfIdle();
+                while (!wakeup.fired)
+                    this.lock.wait();
+            } catch (InterruptedException e) {
+                if(!wakeup.fired){
+                    this.wakeupQueue.remove(wakeup);
+                    this.sleepingCount--;
+                }
+                throw e;
+            } finally {
+                if(!isParticipant){
+                    this.participantCount--;
+                    advanceIfIdle();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable, String name) {
+
+        //The thread is counted from its creation to avoid moving the time before it starts
+        synchronized (this.lock) {
+            this.participantCount++;
+        }
+
+        return new Thread(() -> {
+            this.participantThread.set(true);
+            try {
+                runnable.run();
+            } finally {
+                synchronized (this.lock) {
+                    this.participantCount--;
+                    advanceIfIdle();
+                }
+            }
+        }, name);
+    }
+
+    /**
+     * Move the time to the earliest scheduled wake-up if all the participants are waiting on the clock.
+     * All the wake-ups scheduled at the same instant are fired together. It has to be called holding the lock.
+     */
+    private void advanceIfIdle() {
+
+        if(this.participantCount == 0 || this.sleepingCount < this.participantCount || this.wakeupQueue.isEmpty())
+            return;
+
+        long nextTimeMs = this.wakeupQueue.peek().timeMs;
+        if(nextTimeMs > this.currentTimeMs){
+            this.currentTimeMs = nextTimeMs;
+            this.advanceCount++;
+        }
+
+        while (!this.wakeupQueue.isEmpty() && this.wakeupQueue.peek().timeMs <= this.currentTimeMs) {
+            this.wakeupQueue.poll().fired = true;
+            this.sleepingCount--;
+        }
+
+        this.lock.notifyAll();
+    }
+
+    public int getParticipantCount() {
+        synchronized (this.lock) {
+            return participantCount;
+        }
+    }
+
+    public int getPendingWakeupCount() {
+        synchronized (this.lock) {
+            return this.wakeupQueue.size();
+        }
+    }
+
+    public long getAdvanceCount() {
+        synchronized (this.lock) {
+            return advanceCount;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("VirtualClock{");
+        sb.append("currentTimeMs=").append(currentTimeMs);
+        sb.append(", participantCount=").append(getParticipantCount());
+        sb.append(", pendingWakeupCount=").append(getPendingWakeupCount());
+        sb.append(", advanceCount=").append(getAdvanceCount());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Wake-up scheduled on the virtual timeline. Wake-ups at the same instant are ordered by creation.
+     */
+    private static class Wakeup implements Comparable<Wakeup> {
+
+        private final long timeMs;
+
+        private final long sequence;
+
+        private boolean fired = false;
+
+        private Wakeup(long timeMs, long sequence) {
+            this.timeMs = timeMs;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Wakeup other) {
+            int result = Long.compare(this.timeMs, other.timeMs);
+            return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package io.github.wldt.demo.digital;
 
+import io.github.wldt.demo.freshness.FreshnessWatchdog;
+import io.github.wldt.demo.jfr.StateUpdateJfrEvent;
+import io.github.wldt.demo.keys.KeyRegistry;
+import io.github.wldt.demo.state.DigitalTwinStateView;
+import io.github.wldt.demo.utils.GlobalKeywords;
 import it.wldt.adapter.digital.DigitalAdapter;
+import it.wldt.core.event.WldtEvent;
 import it.wldt.core.state.*;
-import it.wldt.exception.EventBusException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Authors:
@@ -16,10 +28,106 @@ import java.util.stream.Collectors;
  */
 public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterConfiguration> {
 
+    //Single daemon thread shared by all the adapters to flush the event batches whose max delay expired
+    private static final ScheduledExecutorService EVENT_BATCH_FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wldt-event-batch-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile DigitalTwinStateView digitalTwinStateView = null;
+
+    private Thread actionEmulationThread = null;
+
+    //DT State updates processed and discarded according to the configured subscriptions
+    private final LongAdder deliveredStateUpdates = new LongAdder();
+
+    private final LongAdder skippedStateUpdates = new LongAdder();
+
+    //Event Notifications waiting to be delivered to the batch listeners, guarded by the list itself
+    private final List<DigitalTwinStateEventNotification<?>> pendingEventBatch = new ArrayList<>();
+
+    private ScheduledFuture<?> pendingEventBatchFlush = null;
+
+    private final Object eventBatchDeliveryLock = new Object();
+
+    private final LongAdder deliveredEventBatches = new LongAdder();
+
     public DemoConfDigitalAdapter(String id, DemoDigitalAdapterConfiguration configuration) {
         super(id, configuration);
     }
 
+    public long getDeliveredStateUpdates() {
+        return deliveredStateUpdates.sum();
+    }
+
+    /**
+     * @return the number of DT State updates discarded before the dispatch since no change matched the
+     * subscription of the adapter or of its listeners
+     */
+    public long getSkippedStateUpdates() {
+        return skippedStateUpdates.sum();
+    }
+
+    /**
+     * Discard the DT State updates without any change matching the subscription of the adapter or of one of its
+     * listeners before they are dispatched to {@link #onStateUpdate}. Only the lazy view is moved to the new DT
+     * State, without reading any of its entries.
+     *
+     * @param wldtEvent the received event
+     */
+    @Override
+    public void onEvent(WldtEvent<?> wldtEvent) {
+
+        if(wldtEvent != null
+                && DigitalTwinStateManager.getStatusUpdatesWldtEventMessageType().equals(wldtEvent.getType())
+                && wldtEvent.getBody() instanceof DigitalTwinState) {
+
+            List<DigitalTwinStateChange> stateChangeList = getStateChangeList(wldtEvent);
+            if(stateChangeList != null && !isSubscribed(stateChangeList)) {
+                this.digitalTwinStateView = DigitalTwinStateView.of((DigitalTwinState) wldtEvent.getBody());
+                this.skippedStateUpdates.increment();
+                return;
+            }
+
+            this.deliveredStateUpdates.increment();
+        }
+
+        super.onEvent(wldtEvent);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DigitalTwinStateChange> getStateChangeList(WldtEvent<?> wldtEvent) {
+        Optional<Object> stateChangeList = wldtEvent.getMetadata(DigitalTwinStateManager.DT_STATE_UPDATE_METADATA_CHANGE_LIST);
+        return (stateChangeList.isPresent() && stateChangeList.get() instanceof List) ? (List<DigitalTwinStateChange>) stateChangeList.get() : null;
+    }
+
+    private boolean isSubscribed(List<DigitalTwinStateChange> stateChangeList) {
+
+        if(getConfiguration().getStateSubscription().matchesAny(stateChangeList))
+            return true;
+
+        for(StateChangeListener stateChangeListener : getConfiguration().getStateChangeListenerList())
+            if(getConfiguration().getStateSubscription(stateChangeListener).matchesAny(stateChangeList))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * @return the number of Event Notification batches delivered to the batch listeners
+     */
+    public long getDeliveredEventBatches() {
+        return deliveredEventBatches.sum();
+    }
+
+    /**
+     * @return the lazily materialized read-only view of the last received DT State
+     */
+    public DigitalTwinStateView getDigitalTwinStateView() {
+        return digitalTwinStateView;
+    }
+
     /**
      * Callback to notify the adapter on its correct startup
      */
@@ -34,6 +142,13 @@ public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterCon
     @Override
     public void onAdapterStop() {
         System.out.println("[DemoDigitalAdapter] -> onAdapterStop()");
+
+        //Release the emulation thread when the twin is stopped (e.g., passivated)
+        if(this.actionEmulationThread != null)
+            this.actionEmulationThread.interrupt();
+
+        //Deliver the Event Notifications still waiting in the current batch
+        flushEventBatch();
     }
 
 
@@ -48,20 +163,16 @@ public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterCon
 
         try {
 
-            digitalTwinState.getEventList()
-                    .map(eventList -> eventList.stream()
-                            .map(DigitalTwinStateEvent::getKey)
-                            .collect(Collectors.toList()))
-                    .ifPresent(eventKeys -> {
-                        try {
-                            observeDigitalTwinEventsNotifications(eventKeys);
-                        } catch (EventBusException e) {
-                            e.printStackTrace();
-                        }
-                    });
+            //Build the lazy view of the DT State and read only the event keys from it
+            this.digitalTwinStateView = DigitalTwinStateView.of(currentDigitalTwinState);
+
+            List<String> eventKeys = new ArrayList<>(this.digitalTwinStateView.getEventKeys());
+            if(!eventKeys.isEmpty())
+                observeDigitalTwinEventsNotifications(eventKeys);
 
             //Start Digital Action Emulation
-            new Thread(emulateIncomingDigitalAction()).start();
+            this.actionEmulationThread = getConfiguration().getClock().newThread(emulateIncomingDigitalAction(), String.format("%s-action-emulation", getId()));
+            this.actionEmulationThread.start();
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -121,6 +232,28 @@ public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterCon
     @Override
     protected void onStateUpdate(DigitalTwinState newDigitalTwinState, DigitalTwinState previousDigitalTwinState, ArrayList<DigitalTwinStateChange> digitalTwinStateChangeList) {
 
+        StateUpdateJfrEvent stateUpdateJfrEvent = new StateUpdateJfrEvent();
+        stateUpdateJfrEvent.begin();
+
+        // Measure how long the committed property values took to reach the adapter
+        recordStateDelivery(digitalTwinStateChangeList);
+
+        // Move the lazy view to the new DT State sharing all the entries not affected by the changes
+        DigitalTwinStateView currentView = this.digitalTwinStateView;
+        this.digitalTwinStateView = (currentView == null)
+                ? DigitalTwinStateView.of(newDigitalTwinState)
+                : currentView.next(newDigitalTwinState, digitalTwinStateChangeList);
+
+        // Forward the committed changes to the registered listeners (e.g., replication)
+        notifyStateChangeListeners(newDigitalTwinState, digitalTwinStateChangeList);
+
+        // Only the changes matching the subscription of the adapter are processed
+        List<DigitalTwinStateChange> subscribedChangeList = getConfiguration().getStateSubscription().filter(digitalTwinStateChangeList);
+        if(digitalTwinStateChangeList != null && !digitalTwinStateChangeList.isEmpty() && subscribedChangeList.isEmpty()) {
+            commitStateUpdateJfrEvent(stateUpdateJfrEvent, digitalTwinStateChangeList);
+            return;
+        }
+
         // In newDigitalTwinState we have the new DT State
         System.out.println("New DT State is: " + newDigitalTwinState);
 
@@ -128,10 +261,10 @@ public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterCon
         System.out.println("Previous DT State is: " + previousDigitalTwinState);
 
         // We can also check each DT's state change potentially differentiating the behaviour for each change
-        if (digitalTwinStateChangeList != null && !digitalTwinStateChangeList.isEmpty()) {
+        if (!subscribedChangeList.isEmpty()) {
 
             // Iterate through each state change in the list
-            for (DigitalTwinStateChange stateChange : digitalTwinStateChangeList) {
+            for (DigitalTwinStateChange stateChange : subscribedChangeList) {
 
                 // Get information from the state change
                 DigitalTwinStateChange.Operation operation = stateChange.getOperation();
@@ -170,6 +303,58 @@ public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterCon
             // No state changes
             System.out.println("No state changes detected.");
         }
+
+        commitStateUpdateJfrEvent(stateUpdateJfrEvent, digitalTwinStateChangeList);
+    }
+
+    private void recordStateDelivery(List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        FreshnessWatchdog freshnessWatchdog = getConfiguration().getFreshnessWatchdog();
+        if(freshnessWatchdog == null || digitalTwinStateChangeList == null)
+            return;
+
+        long deliveryNanos = System.nanoTime();
+        for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList)
+            if(stateChange.getResource() instanceof DigitalTwinStateProperty)
+                freshnessWatchdog.onStateDelivered(getDigitalTwinId(),
+                        KeyRegistry.getInstance().getId(((DigitalTwinStateProperty<?>) stateChange.getResource()).getKey()),
+                        deliveryNanos);
+    }
+
+    private void commitStateUpdateJfrEvent(StateUpdateJfrEvent stateUpdateJfrEvent, List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+        stateUpdateJfrEvent.end();
+        if(stateUpdateJfrEvent.shouldCommit()){
+            stateUpdateJfrEvent.twinId = getDigitalTwinId();
+            stateUpdateJfrEvent.adapterId = getId();
+            stateUpdateJfrEvent.changeCount = digitalTwinStateChangeList != null ? digitalTwinStateChangeList.size() : 0;
+            stateUpdateJfrEvent.propertyKey = getFirstChangedPropertyKey(digitalTwinStateChangeList);
+            stateUpdateJfrEvent.commit();
+        }
+    }
+
+    private void notifyStateChangeListeners(DigitalTwinState newDigitalTwinState, ArrayList<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        if(digitalTwinStateChangeList == null || digitalTwinStateChangeList.isEmpty())
+            return;
+
+        for(StateChangeListener stateChangeListener : getConfiguration().getStateChangeListenerList()) {
+            try {
+                //Each listener receives only the changes matching its subscription
+                List<DigitalTwinStateChange> subscribedChangeList = getConfiguration().getStateSubscription(stateChangeListener).filter(digitalTwinStateChangeList);
+                if(!subscribedChangeList.isEmpty())
+                    stateChangeListener.onStateChanges(getDigitalTwinId(), newDigitalTwinState, subscribedChangeList);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static String getFirstChangedPropertyKey(List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+        if(digitalTwinStateChangeList != null)
+            for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList)
+                if(stateChange.getResource() instanceof DigitalTwinStateProperty)
+                    return ((DigitalTwinStateProperty<?>) stateChange.getResource()).getKey();
+        return null;
     }
 
     /**
@@ -180,6 +365,83 @@ public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterCon
     @Override
     protected void onEventNotificationReceived(DigitalTwinStateEventNotification<?> digitalTwinStateEventNotification) {
         System.out.println("[DemoDigitalAdapter] -> Received Event Notification: " + digitalTwinStateEventNotification);
+
+        for(EventNotificationListener eventNotificationListener : getConfiguration().getEventNotificationListenerList()) {
+            try {
+                eventNotificationListener.onEventNotification(getDigitalTwinId(), digitalTwinStateEventNotification);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+
+        if(!getConfiguration().getEventNotificationBatchListenerList().isEmpty())
+            addToEventBatch(digitalTwinStateEventNotification);
+    }
+
+    /**
+     * Append a notification to the pending batch. A full batch is delivered by the calling thread, otherwise the
+     * first notification of a batch schedules its flush after the configured max delay.
+     */
+    private void addToEventBatch(DigitalTwinStateEventNotification<?> digitalTwinStateEventNotification) {
+
+        boolean batchFull;
+
+        synchronized (this.pendingEventBatch) {
+
+            this.pendingEventBatch.add(digitalTwinStateEventNotification);
+
+            batchFull = this.pendingEventBatch.size() >= getConfiguration().getEventBatchSize();
+            if(!batchFull && this.pendingEventBatchFlush == null)
+                this.pendingEventBatchFlush = EVENT_BATCH_FLUSH_EXECUTOR.schedule(this::flushEventBatch,
+                        getConfiguration().getEventBatchMaxDelayMs(), TimeUnit.MILLISECONDS);
+        }
+
+        if(batchFull)
+            flushEventBatch();
+    }
+
+    /**
+     * Deliver the pending batch. Batches are taken and delivered under the same lock, so the listeners always
+     * receive them in arrival order even when a timed flush races with a full batch.
+     */
+    private void flushEventBatch() {
+        synchronized (this.eventBatchDeliveryLock) {
+
+            List<DigitalTwinStateEventNotification<?>> batch;
+            synchronized (this.pendingEventBatch) {
+                batch = takeEventBatch();
+            }
+
+            if(!batch.isEmpty())
+                deliverEventBatch(batch);
+        }
+    }
+
+    //Must be called holding the lock of the pending batch
+    private List<DigitalTwinStateEventNotification<?>> takeEventBatch() {
+
+        if(this.pendingEventBatchFlush != null) {
+            this.pendingEventBatchFlush.cancel(false);
+            this.pendingEventBatchFlush = null;
+        }
+
+        List<DigitalTwinStateEventNotification<?>> batch = new ArrayList<>(this.pendingEventBatch);
+        this.pendingEventBatch.clear();
+        return batch;
+    }
+
+    private void deliverEventBatch(List<DigitalTwinStateEventNotification<?>> batch) {
+
+        this.deliveredEventBatches.increment();
+
+        List<DigitalTwinStateEventNotification<?>> readOnlyBatch = Collections.unmodifiableList(batch);
+        for(EventNotificationBatchListener eventNotificationBatchListener : getConfiguration().getEventNotificationBatchListenerList()) {
+            try {
+                eventNotificationBatchListener.onEventNotifications(getDigitalTwinId(), readOnlyBatch);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     private Runnable emulateIncomingDigitalAction(){
@@ -187,20 +449,27 @@ public class DemoConfDigitalAdapter extends DigitalAdapter<DemoDigitalAdapterCon
             try {
 
                 System.out.println("[DemoDigitalAdapter] -> Sleeping before Emulating Incoming Digital Action ...");
-                Thread.sleep(5000);
+
+                //Wait the fixed startup delay unless the readiness of the twin is signaled
+                if(getConfiguration().getReadinessSignal() == null)
+                    getConfiguration().getClock().sleep(GlobalKeywords.ACTION_EMULATION_DELAY_MS);
+                else
+                    getConfiguration().getReadinessSignal().get();
                 Random random = new Random();
 
                 //Emulate the generation on 'n' temperature measurements
                 for(int i = 0; i < getConfiguration().getEmulatedActionCount(); i++){
 
                     //Sleep to emulate sensor measurement
-                    Thread.sleep(getConfiguration().getSleepTimeMs());
+                    getConfiguration().getClock().sleep(getConfiguration().getSleepTimeMs());
 
                     double randomTemperature = getConfiguration().getTemperatureMinValue() + (getConfiguration().getTemperatureMaxValue() - getConfiguration().getTemperatureMinValue()) * random.nextDouble();
                     publishDigitalActionWldtEvent("set-temperature-action-key", randomTemperature);
 
                 }
 
+            } catch (InterruptedException e) {
+                System.out.println("[DemoDigitalAdapter] -> Digital Action Emulation Interrupted !");
             } catch (Exception e) {
                 e.printStackTrace();
             }
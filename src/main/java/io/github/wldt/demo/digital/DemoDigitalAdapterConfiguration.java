@@ -1,7 +1,16 @@
 package io.github.wldt.demo.digital;
 
+import io.github.wldt.demo.clock.DigitalTwinClock;
+import io.github.wldt.demo.clock.SystemClock;
+import io.github.wldt.demo.freshness.FreshnessWatchdog;
 import io.github.wldt.demo.utils.GlobalKeywords;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class DemoDigitalAdapterConfiguration {
 
     private int sleepTimeMs = GlobalKeywords.ACTION_SLEEP_TIME_MS;
@@ -12,6 +21,34 @@ public class DemoDigitalAdapterConfiguration {
 
     private double temperatureMaxValue = GlobalKeywords.TEMPERATURE_MAX_VALUE;
 
+    //Clock used to pace the emulation and to timestamp the generated samples
+    private DigitalTwinClock clock = SystemClock.getInstance();
+
+    //Listeners notified with the committed DT State changes received by the adapter
+    private final List<StateChangeListener> stateChangeListenerList = new CopyOnWriteArrayList<>();
+
+    //Subset of the changes forwarded to each listener, listeners without subscription receive every change
+    private final Map<StateChangeListener, StateSubscription> stateSubscriptionMap = new ConcurrentHashMap<>();
+
+    //Subset of the changes processed by the adapter itself
+    private StateSubscription stateSubscription = StateSubscription.all();
+
+    //Listeners notified with the DT State Event Notifications received by the adapter
+    private final List<EventNotificationListener> eventNotificationListenerList = new CopyOnWriteArrayList<>();
+
+    //Listeners notified with batches of DT State Event Notifications, flushed when full or after the max delay
+    private final List<EventNotificationBatchListener> eventNotificationBatchListenerList = new CopyOnWriteArrayList<>();
+
+    private int eventBatchSize = GlobalKeywords.EVENT_BATCH_SIZE;
+
+    private long eventBatchMaxDelayMs = GlobalKeywords.EVENT_BATCH_MAX_DELAY_MS;
+
+    //Optional watchdog measuring the lag between the commit of a property and its delivery to the adapter
+    private FreshnessWatchdog freshnessWatchdog = null;
+
+    //Optional signal of the twin readiness starting the action emulation, replacing the fixed startup delay
+    private CompletableFuture<Void> readinessSignal = null;
+
     public DemoDigitalAdapterConfiguration() {
     }
 
@@ -54,6 +91,108 @@ public class DemoDigitalAdapterConfiguration {
         this.temperatureMaxValue = temperatureMaxValue;
     }
 
+    public DigitalTwinClock getClock() {
+        return clock;
+    }
+
+    public void setClock(DigitalTwinClock clock) {
+        this.clock = clock;
+    }
+
+    public List<StateChangeListener> getStateChangeListenerList() {
+        return stateChangeListenerList;
+    }
+
+    public void addStateChangeListener(StateChangeListener stateChangeListener) {
+        this.stateChangeListenerList.add(stateChangeListener);
+    }
+
+    /**
+     * Register a listener receiving only the changes matching the subscription. Listeners are not notified
+     * of the transactions without any matching change.
+     */
+    public void addStateChangeListener(StateChangeListener stateChangeListener, StateSubscription stateSubscription) {
+        this.stateSubscriptionMap.put(stateChangeListener, stateSubscription);
+        this.stateChangeListenerList.add(stateChangeListener);
+    }
+
+    public void removeStateChangeListener(StateChangeListener stateChangeListener) {
+        this.stateChangeListenerList.remove(stateChangeListener);
+        this.stateSubscriptionMap.remove(stateChangeListener);
+    }
+
+    public StateSubscription getStateSubscription(StateChangeListener stateChangeListener) {
+        return this.stateSubscriptionMap.getOrDefault(stateChangeListener, StateSubscription.all());
+    }
+
+    public StateSubscription getStateSubscription() {
+        return stateSubscription;
+    }
+
+    public void setStateSubscription(StateSubscription stateSubscription) {
+        this.stateSubscription = stateSubscription;
+    }
+
+    public List<EventNotificationListener> getEventNotificationListenerList() {
+        return eventNotificationListenerList;
+    }
+
+    public void addEventNotificationListener(EventNotificationListener eventNotificationListener) {
+        this.eventNotificationListenerList.add(eventNotificationListener);
+    }
+
+    public void removeEventNotificationListener(EventNotificationListener eventNotificationListener) {
+        this.eventNotificationListenerList.remove(eventNotificationListener);
+    }
+
+    public List<EventNotificationBatchListener> getEventNotificationBatchListenerList() {
+        return eventNotificationBatchListenerList;
+    }
+
+    public void addEventNotificationBatchListener(EventNotificationBatchListener eventNotificationBatchListener) {
+        this.eventNotificationBatchListenerList.add(eventNotificationBatchListener);
+    }
+
+    public void removeEventNotificationBatchListener(EventNotificationBatchListener eventNotificationBatchListener) {
+        this.eventNotificationBatchListenerList.remove(eventNotificationBatchListener);
+    }
+
+    public int getEventBatchSize() {
+        return eventBatchSize;
+    }
+
+    public void setEventBatchSize(int eventBatchSize) {
+        if(eventBatchSize <= 0)
+            throw new IllegalArgumentException("Wrong event batch size: a value > 0 is required !");
+        this.eventBatchSize = eventBatchSize;
+    }
+
+    public long getEventBatchMaxDelayMs() {
+        return eventBatchMaxDelayMs;
+    }
+
+    public void setEventBatchMaxDelayMs(long eventBatchMaxDelayMs) {
+        if(eventBatchMaxDelayMs <= 0)
+            throw new IllegalArgumentException("Wrong event batch delay: a value > 0 is required !");
+        this.eventBatchMaxDelayMs = eventBatchMaxDelayMs;
+    }
+
+    public FreshnessWatchdog getFreshnessWatchdog() {
+        return freshnessWatchdog;
+    }
+
+    public void setFreshnessWatchdog(FreshnessWatchdog freshnessWatchdog) {
+        this.freshnessWatchdog = freshnessWatchdog;
+    }
+
+    public CompletableFuture<Void> getReadinessSignal() {
+        return readinessSignal;
+    }
+
+    public void setReadinessSignal(CompletableFuture<Void> readinessSignal) {
+        this.readinessSignal = readinessSignal;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("DemoDigitalAdapterConfiguration{");
@@ -61,6 +200,15 @@ public class DemoDigitalAdapterConfiguration {
         sb.append(", emulatedActionCount=").append(emulatedActionCount);
         sb.append(", temperatureMinValue=").append(temperatureMinValue);
         sb.append(", temperatureMaxValue=").append(temperatureMaxValue);
+        sb.append(", clock=").append(clock);
+        sb.append(", stateSubscription=").append(stateSubscription);
+        sb.append(", stateChangeListeners=").append(stateChangeListenerList.size());
+        sb.append(", eventNotificationListeners=").append(eventNotificationListenerList.size());
+        sb.append(", eventNotificationBatchListeners=").append(eventNotificationBatchListenerList.size());
+        sb.append(", eventBatchSize=").append(eventBatchSize);
+        sb.append(", eventBatchMaxDelayMs=").append(eventBatchMaxDelayMs);
+        sb.append(", freshnessWatchdog=").append(freshnessWatchdog != null);
+        sb.append(", readinessSignal=").append(readinessSignal != null);
         sb.append('}');
         return sb.toString();
     }
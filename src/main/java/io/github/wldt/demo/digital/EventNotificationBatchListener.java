@@ -0,0 +1,22 @@
+package io.github.wldt.demo.digital;
+
+import it.wldt.core.state.DigitalTwinStateEventNotification;
+
+import java.util.List;
+
+/**
+ * Listener receiving the DT State Event Notifications delivered to a {@link DemoConfDigitalAdapter} in batches,
+ * bounded by the batch size and the maximum batching delay of the adapter configuration
+ */
+public interface EventNotificationBatchListener {
+
+    /**
+     * Called once for each flushed batch, by the Digital Adapter thread when the batch is full or by the shared
+     * flush thread when the batching delay expires
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param eventNotificationList the received notifications in arrival order, never empty
+     */
+    void onEventNotifications(String digitalTwinId, List<DigitalTwinStateEventNotification<?>> eventNotificationList);
+
+}
@@ -0,0 +1,18 @@
+package io.github.wldt.demo.digital;
+
+import it.wldt.core.state.DigitalTwinStateEventNotification;
+
+/**
+ * Listener receiving the DT State Event Notifications delivered to a {@link DemoConfDigitalAdapter}
+ */
+public interface EventNotificationListener {
+
+    /**
+     * Called by the Digital Adapter thread for each received Event Notification
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param eventNotification the received notification
+     */
+    void onEventNotification(String digitalTwinId, DigitalTwinStateEventNotification<?> eventNotification);
+
+}
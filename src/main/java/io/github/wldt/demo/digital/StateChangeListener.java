@@ -0,0 +1,24 @@
+package io.github.wldt.demo.digital;
+
+import it.wldt.core.state.DigitalTwinState;
+import it.wldt.core.state.DigitalTwinStateChange;
+
+import java.util.List;
+
+/**
+ * Listener receiving the committed DT State changes delivered to a {@link DemoConfDigitalAdapter}, allowing
+ * engine level components (e.g., replication, indexes or aggregations) to be updated incrementally
+ * without reading the whole DT State
+ */
+public interface StateChangeListener {
+
+    /**
+     * Called by the Digital Adapter thread for each committed DT State transaction, in commit order
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param newDigitalTwinState the new DT State
+     * @param digitalTwinStateChangeList the changes applied by the transaction
+     */
+    void onStateChanges(String digitalTwinId, DigitalTwinState newDigitalTwinState, List<DigitalTwinStateChange> digitalTwinStateChangeList);
+
+}
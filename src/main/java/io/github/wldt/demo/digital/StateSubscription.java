@@ -0,0 +1,146 @@
+package io.github.wldt.demo.digital;
+
+import it.wldt.core.state.*;
+
+import java.util.*;
+
+/**
+ * Subset of the DT State changes a Digital Adapter or a {@link StateChangeListener} is interested in, expressed as
+ * property keys, relationship names and resource types. A change matches the subscription if it matches any of
+ * them. For example, the variations of the temperature and of the insideIn relationship instances:
+ *
+ * StateSubscription.create().onProperties("temperature-property-key").onRelationships("insideIn")
+ *
+ * Matching a change costs a single set lookup, so updates not matching the subscription can be discarded before
+ * being dispatched to the subscriber.
+ */
+public class StateSubscription {
+
+    private static final StateSubscription ALL = new StateSubscription(true);
+
+    private final boolean matchAll;
+
+    private final Set<String> propertyKeySet = new HashSet<>();
+
+    private final Set<String> relationshipNameSet = new HashSet<>();
+
+    private final Set<DigitalTwinStateChange.ResourceType> resourceTypeSet = EnumSet.noneOf(DigitalTwinStateChange.ResourceType.class);
+
+    private StateSubscription(boolean matchAll) {
+        this.matchAll = matchAll;
+    }
+
+    /**
+     * @return the subscription matching every change
+     */
+    public static StateSubscription all() {
+        return ALL;
+    }
+
+    /**
+     * @return an empty subscription to be completed with the target keys, names and resource types
+     */
+    public static StateSubscription create() {
+        return new StateSubscription(false);
+    }
+
+    public StateSubscription onProperties(String... propertyKeys) {
+        checkModifiable();
+        this.propertyKeySet.addAll(Arrays.asList(propertyKeys));
+        return this;
+    }
+
+    /**
+     * Subscribe to the variations of the relationships and of their instances
+     */
+    public StateSubscription onRelationships(String... relationshipNames) {
+        checkModifiable();
+        this.relationshipNameSet.addAll(Arrays.asList(relationshipNames));
+        return this;
+    }
+
+    public StateSubscription onResourceTypes(DigitalTwinStateChange.ResourceType... resourceTypes) {
+        checkModifiable();
+        this.resourceTypeSet.addAll(Arrays.asList(resourceTypes));
+        return this;
+    }
+
+    public boolean matches(DigitalTwinStateChange stateChange) {
+
+        if(this.matchAll || this.resourceTypeSet.contains(stateChange.getResourceType()))
+            return true;
+
+        DigitalTwinStateResource resource = stateChange.getResource();
+        if(resource instanceof DigitalTwinStateProperty)
+            return this.propertyKeySet.contains(((DigitalTwinStateProperty<?>) resource).getKey());
+        if(resource instanceof DigitalTwinStateRelationshipInstance)
+            return this.relationshipNameSet.contains(((DigitalTwinStateRelationshipInstance<?>) resource).getRelationshipName());
+        if(resource instanceof DigitalTwinStateRelationship)
+            return this.relationshipNameSet.contains(((DigitalTwinStateRelationship<?>) resource).getName());
+
+        return false;
+    }
+
+    /**
+     * @param stateChangeList the changes of a committed transaction
+     * @return true if at least one change matches the subscription
+     */
+    public boolean matchesAny(List<DigitalTwinStateChange> stateChangeList) {
+
+        if(stateChangeList == null || stateChangeList.isEmpty())
+            return false;
+
+        if(this.matchAll)
+            return true;
+
+        for(DigitalTwinStateChange stateChange : stateChangeList)
+            if(matches(stateChange))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * @param stateChangeList the changes of a committed transaction
+     * @return the matching changes, the received list itself when all the changes match
+     */
+    public List<DigitalTwinStateChange> filter(List<DigitalTwinStateChange> stateChangeList) {
+
+        if(stateChangeList == null || stateChangeList.isEmpty())
+            return Collections.emptyList();
+
+        if(this.matchAll)
+            return stateChangeList;
+
+        List<DigitalTwinStateChange> matchingChangeList = null;
+        for(int i = 0; i < stateChangeList.size(); i++){
+            boolean matching = matches(stateChangeList.get(i));
+            if(matching && matchingChangeList != null)
+                matchingChangeList.add(stateChangeList.get(i));
+            else if(!matching && matchingChangeList == null)
+                matchingChangeList = new ArrayList<>(stateChangeList.subList(0, i));
+        }
+
+        return matchingChangeList != null ? matchingChangeList : stateChangeList;
+    }
+
+    public boolean isMatchAll() {
+        return matchAll;
+    }
+
+    private void checkModifiable() {
+        if(this.matchAll)
+            throw new UnsupportedOperationException("The subscription matching every change can not be modified !");
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StateSubscription{");
+        sb.append("matchAll=").append(matchAll);
+        sb.append(", propertyKeys=").append(propertyKeySet);
+        sb.append(", relationshipNames=").append(relationshipNameSet);
+        sb.append(", resourceTypes=").append(resourceTypeSet);
+        sb.append('}');
+        return sb.toString();
+    }
+}
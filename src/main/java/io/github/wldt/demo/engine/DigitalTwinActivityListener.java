@@ -0,0 +1,12 @@
+package io.github.wldt.demo.engine;
+
+/**
+ * Listener notified by the Shadowing Function every time a Digital Twin processes a physical variation or a
+ * digital action request
+ */
+@FunctionalInterface
+public interface DigitalTwinActivityListener {
+
+    void onDigitalTwinActivity(String digitalTwinId);
+
+}
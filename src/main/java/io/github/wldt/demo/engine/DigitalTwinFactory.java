@@ -0,0 +1,21 @@
+package io.github.wldt.demo.engine;
+
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+
+/**
+ * Factory used to (re)create a Digital Twin, optionally starting from a previously captured DT State Snapshot
+ */
+@FunctionalInterface
+public interface DigitalTwinFactory {
+
+    /**
+     * Create a new Digital Twin with its adapters
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param initialStateSnapshot the snapshot to restore at bind time or null for a new twin
+     * @return the created Digital Twin
+     * @throws Exception if the twin can not be created
+     */
+    ManagedDigitalTwin createDigitalTwin(String digitalTwinId, DigitalTwinStateSnapshot initialStateSnapshot) throws Exception;
+
+}
@@ -0,0 +1,48 @@
+package io.github.wldt.demo.engine;
+
+import io.github.wldt.demo.DemoShadowingFunction;
+import io.github.wldt.demo.clock.DigitalTwinClock;
+import it.wldt.core.engine.DigitalTwin;
+
+/**
+ * Handle grouping a Digital Twin with its Shadowing Function in order to allow engine level components
+ * (e.g., passivation or migration) to access the DT State of the twin
+ */
+public class ManagedDigitalTwin {
+
+    private final DigitalTwin digitalTwin;
+
+    private final DemoShadowingFunction shadowingFunction;
+
+    public ManagedDigitalTwin(DigitalTwin digitalTwin, DemoShadowingFunction shadowingFunction) {
+        this.digitalTwin = digitalTwin;
+        this.shadowingFunction = shadowingFunction;
+    }
+
+    public String getDigitalTwinId() {
+        return digitalTwin.getDigitalTwinId();
+    }
+
+    public DigitalTwin getDigitalTwin() {
+        return digitalTwin;
+    }
+
+    public DemoShadowingFunction getShadowingFunction() {
+        return shadowingFunction;
+    }
+
+    /**
+     * @return the clock shared by the Shadowing Function and the adapters of the twin
+     */
+    public DigitalTwinClock getClock() {
+        return shadowingFunction.getConfiguration().getClock();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ManagedDigitalTwin{");
+        sb.append("digitalTwinId='").append(getDigitalTwinId()).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
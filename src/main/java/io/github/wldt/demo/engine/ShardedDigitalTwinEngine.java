@@ -0,0 +1,260 @@
+package io.github.wldt.demo.engine;
+
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.exception.WldtEngineException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runner partitioning Digital Twins across N independent {@link DigitalTwinEngine} shards.
+ * Each twin is assigned to a shard through consistent hashing of its id, and every shard owns a dedicated
+ * single-threaded executor used to run the life cycle operations of its twins. In this way the life cycle
+ * operations (add, remove, start and stop) of twins belonging to different shards never contend on the same engine
+ * lock or on the same executor thread.
+ *
+ * Sharding does not cover the event dispatch: events are still delivered by the JVM-wide {@code WldtEventBus} on the
+ * thread of the publisher, whatever the shard of the receiving twin. Use a
+ * {@link io.github.wldt.demo.scheduling.TwinDispatchScheduler} to move the event processing off the publisher.
+ */
+public class ShardedDigitalTwinEngine {
+
+    public static final int DEFAULT_CORES_PER_SHARD = 2;
+
+    public static final int DEFAULT_VIRTUAL_NODES_PER_SHARD = 64;
+
+    private static final long FNV_64_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_64_PRIME = 0x100000001b3L;
+
+    private final List<EngineShard> shardList;
+
+    private final NavigableMap<Long, EngineShard> hashRing;
+
+    public ShardedDigitalTwinEngine() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / DEFAULT_CORES_PER_SHARD));
+    }
+
+    public ShardedDigitalTwinEngine(int shardCount) {
+        this(shardCount, DEFAULT_VIRTUAL_NODES_PER_SHARD);
+    }
+
+    public ShardedDigitalTwinEngine(int shardCount, int virtualNodesPerShard) {
+
+        if(shardCount <= 0 || virtualNodesPerShard <= 0)
+            throw new IllegalArgumentException("Shard count and virtual nodes per shard must be greater than 0 !");
+
+        List<EngineShard> shards = new ArrayList<>(shardCount);
+        TreeMap<Long, EngineShard> ring = new TreeMap<>();
+
+        for(int i = 0; i < shardCount; i++){
+            EngineShard shard = new EngineShard(i);
+            shards.add(shard);
+
+            //Spread each shard on the ring with several virtual nodes to balance the twin distribution
+            for(int v = 0; v < virtualNodesPerShard; v++)
+                ring.put(hash(String.format("shard-%d#%d", i, v)), shard);
+        }
+
+        this.shardList = Collections.unmodifiableList(shards);
+        this.hashRing = Collections.unmodifiableNavigableMap(ring);
+    }
+
+    /**
+     * Add a Digital Twin to the shard selected through the consistent hashing of its id
+     *
+     * @param digitalTwin the Digital Twin to add
+     * @throws WldtEngineException if the twin is null or already registered
+     */
+    public void addDigitalTwin(DigitalTwin digitalTwin) throws WldtEngineException {
+
+        if(digitalTwin == null || digitalTwin.getDigitalTwinId() == null)
+            throw new WldtEngineException("Error adding DigitalTwin ! DigitalTwin or its Id = NULL !");
+
+        EngineShard shard = getShard(digitalTwin.getDigitalTwinId());
+        runOnShard(shard, () -> { shard.getEngine().addDigitalTwin(digitalTwin); return null; });
+    }
+
+    /**
+     * Remove the target Digital Twin from its shard
+     *
+     * @param digitalTwinId the id of the Digital Twin to remove
+     * @throws WldtEngineException if the twin is not registered or can not be removed
+     */
+    public void removeDigitalTwin(String digitalTwinId) throws WldtEngineException {
+        EngineShard shard = getShard(digitalTwinId);
+        runOnShard(shard, () -> { shard.getEngine().removeDigitalTwin(digitalTwinId); return null; });
+    }
+
+    public void startDigitalTwin(String digitalTwinId) throws WldtEngineException {
+        EngineShard shard = getShard(digitalTwinId);
+        runOnShard(shard, () -> { shard.getEngine().startDigitalTwin(digitalTwinId); return null; });
+    }
+
+    public void stopDigitalTwin(String digitalTwinId) throws WldtEngineException {
+        EngineShard shard = getShard(digitalTwinId);
+        runOnShard(shard, () -> { shard.getEngine().stopDigitalTwin(digitalTwinId); return null; });
+    }
+
+    /**
+     * Start all the registered Digital Twins. Every shard starts its own twins on its own executor
+     * in parallel with the other shards.
+     *
+     * @throws WldtEngineException if at least one of the shards fails to start its twins
+     */
+    public void startAll() throws WldtEngineException {
+        runOnAllShards(shard -> { shard.getEngine().startAll(); return null; });
+    }
+
+    /**
+     * Stop all the registered Digital Twins in parallel on all the shards
+     *
+     * @throws WldtEngineException if at least one of the shards fails to stop its twins
+     */
+    public void stopAll() throws WldtEngineException {
+        runOnAllShards(shard -> { shard.getEngine().stopAll(); return null; });
+    }
+
+    /**
+     * Stop all the twins and release the executors associated to the shards
+     */
+    public void shutdown() {
+        try {
+            stopAll();
+        } catch (WldtEngineException e) {
+            e.printStackTrace();
+        } finally {
+            this.shardList.forEach(shard -> shard.getExecutor().shutdown());
+        }
+    }
+
+    /**
+     * Lookup a Digital Twin by id independently of the shard where it is hosted
+     *
+     * @param digitalTwinId the id of the target Digital Twin
+     * @return the Digital Twin if registered
+     */
+    public Optional<DigitalTwin> getDigitalTwin(String digitalTwinId) {
+        if(digitalTwinId == null)
+            return Optional.empty();
+        return Optional.ofNullable(getShard(digitalTwinId).getEngine().getDigitalTwinMap().get(digitalTwinId));
+    }
+
+    /**
+     * Return the shard responsible for the target Digital Twin id. The mapping is stable and does not require
+     * the twin to be already registered.
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @return the shard owning the Digital Twin id
+     */
+    public EngineShard getShard(String digitalTwinId) {
+        Map.Entry<Long, EngineShard> entry = this.hashRing.ceilingEntry(hash(digitalTwinId));
+        return entry != null ? entry.getValue() : this.hashRing.firstEntry().getValue();
+    }
+
+    public List<EngineShard> getShardList() {
+        return shardList;
+    }
+
+    public int getShardCount() {
+        return this.shardList.size();
+    }
+
+    public int getDigitalTwinCount() {
+        return this.shardList.stream().mapToInt(shard -> shard.getEngine().getDigitalTwinCount()).sum();
+    }
+
+    private <T> T runOnShard(EngineShard shard, Callable<T> operation) throws WldtEngineException {
+        try {
+            return shard.getExecutor().submit(operation).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WldtEngineException(String.format("Interrupted while waiting for Shard %d !", shard.getIndex()));
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof WldtEngineException)
+                throw (WldtEngineException) e.getCause();
+            throw new WldtEngineException(String.format("Error executing operation on Shard %d ! Error: %s", shard.getIndex(), e.getCause()));
+        }
+    }
+
+    private void runOnAllShards(ShardOperation operation) throws WldtEngineException {
+
+        List<Future<?>> futureList = new ArrayList<>(this.shardList.size());
+        for(EngineShard shard : this.shardList)
+            futureList.add(shard.getExecutor().submit(() -> operation.execute(shard)));
+
+        List<String> errorList = new ArrayList<>();
+        for(int i = 0; i < futureList.size(); i++){
+            try {
+                futureList.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WldtEngineException("Interrupted while waiting for shards !");
+            } catch (ExecutionException e) {
+                errorList.add(String.format("Shard %d: %s", i, e.getCause()));
+            }
+        }
+
+        if(!errorList.isEmpty())
+            throw new WldtEngineException(String.format("Error executing operation on shards ! Errors: %s", errorList));
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_64_OFFSET_BASIS;
+        for(byte b : value.getBytes(StandardCharsets.UTF_8)){
+            hash ^= (b & 0xff);
+            hash *= FNV_64_PRIME;
+        }
+        return hash;
+    }
+
+    @FunctionalInterface
+    private interface ShardOperation {
+        Void execute(EngineShard shard) throws Exception;
+    }
+
+    /**
+     * A single shard wrapping its own Digital Twin Engine and its dedicated executor
+     */
+    public static class EngineShard {
+
+        private final int index;
+
+        private final DigitalTwinEngine engine;
+
+        private final ExecutorService executor;
+
+        private EngineShard(int index) {
+            this.index = index;
+            this.engine = new DigitalTwinEngine();
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, String.format("wldt-engine-shard-%d", index));
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public DigitalTwinEngine getEngine() {
+            return engine;
+        }
+
+        public ExecutorService getExecutor() {
+            return executor;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("EngineShard{");
+            sb.append("index=").append(index);
+            sb.append(", digitalTwinCount=").append(engine.getDigitalTwinCount());
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
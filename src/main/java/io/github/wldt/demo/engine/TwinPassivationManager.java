@@ -0,0 +1,240 @@
+package io.github.wldt.demo.engine;
+
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.exception.WldtEngineException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Manager passivating idle Digital Twins to bound the heap used by a {@link DigitalTwinEngine}.
+ *
+ * When a twin does not report any activity for the configured idle timeout its DT State (and the keys observed
+ * by its Shadowing Function) is serialized to local disk, the twin is stopped and removed from the engine and
+ * all its adapters, threads and state are released. The twin is transparently re-created through the
+ * {@link DigitalTwinFactory} with the stored snapshot as soon as new traffic for it is signaled through
+ * {@link #ensureActive(String)}.
+ *
+ * Idle times are measured on the {@link io.github.wldt.demo.clock.DigitalTwinClock} of each twin, and the operations
+ * on the same twin are serialized by a fixed set of lock stripes, so the manager keeps no state for the twins it
+ * has never seen or that have been removed.
+ */
+public class TwinPassivationManager implements DigitalTwinActivityListener {
+
+    private static final String SNAPSHOT_FILE_EXTENSION = ".dtsnapshot";
+
+    private static final int TWIN_LOCK_STRIPE_COUNT = 64;
+
+    private final DigitalTwinEngine digitalTwinEngine;
+
+    private final DigitalTwinFactory digitalTwinFactory;
+
+    private final Path storageDirectory;
+
+    private final long idleTimeoutMs;
+
+    private final Map<String, ManagedDigitalTwin> activeTwinMap = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> lastActivityMap = new ConcurrentHashMap<>();
+
+    private final Set<String> passivatedTwinSet = ConcurrentHashMap.newKeySet();
+
+    private final Object[] twinLockStripes = new Object[TWIN_LOCK_STRIPE_COUNT];
+
+    private ScheduledExecutorService idleCheckExecutor = null;
+
+    public TwinPassivationManager(DigitalTwinEngine digitalTwinEngine, DigitalTwinFactory digitalTwinFactory, Path storageDirectory, long idleTimeoutMs) throws IOException {
+        this.digitalTwinEngine = digitalTwinEngine;
+        this.digitalTwinFactory = digitalTwinFactory;
+        this.storageDirectory = Files.createDirectories(storageDirectory);
+        this.idleTimeoutMs = idleTimeoutMs;
+        for(int i = 0; i < this.twinLockStripes.length; i++)
+            this.twinLockStripes[i] = new Object();
+    }
+
+    /**
+     * Create a new Digital Twin through the factory, register it on the engine and start it. A twin with a stored
+     * snapshot (e.g., passivated by a previous run on the same storage directory) is restored from it.
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @throws WldtEngineException if the twin can not be created or started
+     */
+    public void createAndStart(String digitalTwinId) throws WldtEngineException {
+        synchronized (getTwinLock(digitalTwinId)) {
+            if(this.passivatedTwinSet.contains(digitalTwinId) || Files.exists(getSnapshotPath(digitalTwinId)))
+                reactivate(digitalTwinId);
+            else
+                activate(digitalTwinId, null);
+        }
+    }
+
+    /**
+     * Ensure that the target Digital Twin is active, reactivating it from its snapshot if it has been passivated.
+     * It has to be called when a physical sample or a digital action for the twin is received.
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @return the active Digital Twin
+     * @throws WldtEngineException if the twin is unknown or can not be reactivated
+     */
+    public ManagedDigitalTwin ensureActive(String digitalTwinId) throws WldtEngineException {
+
+        ManagedDigitalTwin managedDigitalTwin = this.activeTwinMap.get(digitalTwinId);
+        if(managedDigitalTwin != null){
+            onDigitalTwinActivity(digitalTwinId);
+            return managedDigitalTwin;
+        }
+
+        synchronized (getTwinLock(digitalTwinId)) {
+
+            managedDigitalTwin = this.activeTwinMap.get(digitalTwinId);
+            if(managedDigitalTwin != null)
+                return managedDigitalTwin;
+
+            if(!this.passivatedTwinSet.contains(digitalTwinId))
+                throw new WldtEngineException(String.format("Unknown Digital Twin: %s", digitalTwinId));
+
+            return reactivate(digitalTwinId);
+        }
+    }
+
+    /**
+     * Passivate the target Digital Twin storing its snapshot on disk and releasing all its resources
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @throws WldtEngineException if the snapshot can not be stored or the twin can not be removed
+     */
+    public void passivate(String digitalTwinId) throws WldtEngineException {
+        synchronized (getTwinLock(digitalTwinId)) {
+
+            ManagedDigitalTwin managedDigitalTwin = this.activeTwinMap.get(digitalTwinId);
+            if(managedDigitalTwin == null)
+                return;
+
+            try {
+                managedDigitalTwin.getShadowingFunction().getDigitalTwinStateSnapshot().writeTo(getSnapshotPath(digitalTwinId));
+            } catch (Exception e) {
+                throw new WldtEngineException(String.format("Error storing snapshot of Digital Twin %s ! Error: %s", digitalTwinId, e.getLocalizedMessage()));
+            }
+
+            //Stop the twin and remove every reference to it in order to release adapters, threads and state
+            this.digitalTwinEngine.removeDigitalTwin(digitalTwinId);
+            this.activeTwinMap.remove(digitalTwinId);
+            this.lastActivityMap.remove(digitalTwinId);
+            this.passivatedTwinSet.add(digitalTwinId);
+
+            System.out.println("[TwinPassivationManager] -> Digital Twin Passivated: " + digitalTwinId);
+        }
+    }
+
+    /**
+     * Start the periodic check passivating the twins idle for more than the configured timeout
+     */
+    public synchronized void startIdleCheck() {
+
+        if(this.idleCheckExecutor != null)
+            return;
+
+        this.idleCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wldt-twin-passivation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long checkPeriodMs = Math.max(1, this.idleTimeoutMs / 4);
+        this.idleCheckExecutor.scheduleWithFixedDelay(this::passivateIdleTwins, checkPeriodMs, checkPeriodMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopIdleCheck() {
+        if(this.idleCheckExecutor != null){
+            this.idleCheckExecutor.shutdownNow();
+            this.idleCheckExecutor = null;
+        }
+    }
+
+    @Override
+    public void onDigitalTwinActivity(String digitalTwinId) {
+        ManagedDigitalTwin managedDigitalTwin = this.activeTwinMap.get(digitalTwinId);
+        if(managedDigitalTwin != null)
+            this.lastActivityMap.put(digitalTwinId, managedDigitalTwin.getClock().currentTimeMillis());
+    }
+
+    public boolean isPassivated(String digitalTwinId) {
+        return this.passivatedTwinSet.contains(digitalTwinId);
+    }
+
+    public int getActiveTwinCount() {
+        return this.activeTwinMap.size();
+    }
+
+    public int getPassivatedTwinCount() {
+        return this.passivatedTwinSet.size();
+    }
+
+    private void passivateIdleTwins() {
+        new ArrayList<>(this.lastActivityMap.entrySet()).stream()
+                .filter(entry -> isIdle(entry.getKey(), entry.getValue()))
+                .forEach(entry -> {
+                    try {
+                        passivate(entry.getKey());
+                    } catch (WldtEngineException e) {
+                        e.printStackTrace();
+                    }
+                });
+    }
+
+    /**
+     * @return true if the twin did not report any activity for the idle timeout, according to its own clock
+     */
+    private boolean isIdle(String digitalTwinId, long lastActivityMs) {
+        ManagedDigitalTwin managedDigitalTwin = this.activeTwinMap.get(digitalTwinId);
+        return managedDigitalTwin != null && managedDigitalTwin.getClock().currentTimeMillis() - lastActivityMs >= this.idleTimeoutMs;
+    }
+
+    /**
+     * Re-create the twin from its stored snapshot. It has to be called holding the lock of the twin.
+     */
+    private ManagedDigitalTwin reactivate(String digitalTwinId) throws WldtEngineException {
+        Path snapshotPath = getSnapshotPath(digitalTwinId);
+        try {
+            DigitalTwinStateSnapshot snapshot = DigitalTwinStateSnapshot.readFrom(snapshotPath);
+            ManagedDigitalTwin managedDigitalTwin = activate(digitalTwinId, snapshot);
+            this.passivatedTwinSet.remove(digitalTwinId);
+            Files.deleteIfExists(snapshotPath);
+            System.out.println("[TwinPassivationManager] -> Digital Twin Reactivated: " + digitalTwinId);
+            return managedDigitalTwin;
+        } catch (IOException e) {
+            throw new WldtEngineException(String.format("Error reactivating Digital Twin %s ! Error: %s", digitalTwinId, e.getLocalizedMessage()));
+        }
+    }
+
+    private ManagedDigitalTwin activate(String digitalTwinId, DigitalTwinStateSnapshot snapshot) throws WldtEngineException {
+        try {
+            ManagedDigitalTwin managedDigitalTwin = this.digitalTwinFactory.createDigitalTwin(digitalTwinId, snapshot);
+            this.digitalTwinEngine.addDigitalTwin(managedDigitalTwin.getDigitalTwin());
+            this.digitalTwinEngine.startDigitalTwin(digitalTwinId);
+            this.activeTwinMap.put(digitalTwinId, managedDigitalTwin);
+            this.lastActivityMap.put(digitalTwinId, managedDigitalTwin.getClock().currentTimeMillis());
+            return managedDigitalTwin;
+        } catch (WldtEngineException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new WldtEngineException(String.format("Error activating Digital Twin %s ! Error: %s", digitalTwinId, e.getLocalizedMessage()));
+        }
+    }
+
+    /**
+     * Twins sharing a stripe only serialize their activation and passivation, the lock is never held while
+     * waiting for another twin
+     */
+    private Object getTwinLock(String digitalTwinId) {
+        return this.twinLockStripes[Math.floorMod(digitalTwinId.hashCode(), this.twinLockStripes.length)];
+    }
+
+    private Path getSnapshotPath(String digitalTwinId) {
+        return this.storageDirectory.resolve(digitalTwinId.replaceAll("[^a-zA-Z0-9._-]", "_") + SNAPSHOT_FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.wldt.demo.freshness;
+
+import io.github.wldt.demo.metrics.LatencyHistogram;
+
+/**
+ * Freshness histograms of a twin or of a single key of a twin
+ */
+class FreshnessHistograms {
+
+    private final LatencyHistogram sampleToCommitHistogram = new LatencyHistogram();
+
+    private final LatencyHistogram commitToDeliveryHistogram = new LatencyHistogram();
+
+    private final LatencyHistogram sampleToDeliveryHistogram = new LatencyHistogram();
+
+    void recordCommit(long sampleToCommitNanos) {
+        this.sampleToCommitHistogram.record(sampleToCommitNanos);
+    }
+
+    void recordDelivery(long commitToDeliveryNanos, long sampleToDeliveryNanos) {
+        this.commitToDeliveryHistogram.record(commitToDeliveryNanos);
+        this.sampleToDeliveryHistogram.record(sampleToDeliveryNanos);
+    }
+
+    LatencyHistogram getSampleToCommitHistogram() {
+        return sampleToCommitHistogram;
+    }
+
+    LatencyHistogram getCommitToDeliveryHistogram() {
+        return commitToDeliveryHistogram;
+    }
+
+    LatencyHistogram getSampleToDeliveryHistogram() {
+        return sampleToDeliveryHistogram;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.wldt.demo.freshness;
+
+import io.github.wldt.demo.metrics.LatencyHistogram;
+
+/**
+ * Freshness statistics of a twin, or of one of its keys, computed by the {@link FreshnessWatchdog}. All the lags
+ * are expressed in nanoseconds.
+ */
+public class FreshnessStats {
+
+    private final String digitalTwinId;
+
+    private final String key;
+
+    private final boolean lagging;
+
+    private final long commitCount;
+
+    private final long p50SampleToCommitNanos;
+
+    private final long p99SampleToCommitNanos;
+
+    private final long maxSampleToCommitNanos;
+
+    private final long deliveryCount;
+
+    private final long p50CommitToDeliveryNanos;
+
+    private final long p99CommitToDeliveryNanos;
+
+    private final long p99SampleToDeliveryNanos;
+
+    private final long maxSampleToDeliveryNanos;
+
+    FreshnessStats(String digitalTwinId, String key, boolean lagging, FreshnessHistograms histograms) {
+
+        LatencyHistogram sampleToCommit = histograms.getSampleToCommitHistogram();
+        LatencyHistogram commitToDelivery = histograms.getCommitToDeliveryHistogram();
+        LatencyHistogram sampleToDelivery = histograms.getSampleToDeliveryHistogram();
+
+        this.digitalTwinId = digitalTwinId;
+        this.key = key;
+        this.lagging = lagging;
+        this.commitCount = sampleToCommit.getCount();
+        this.p50SampleToCommitNanos = sampleToCommit.getValueAtPercentile(50);
+        this.p99SampleToCommitNanos = sampleToCommit.getValueAtPercentile(99);
+        this.maxSampleToCommitNanos = sampleToCommit.getMaxValue();
+        this.deliveryCount = commitToDelivery.getCount();
+        this.p50CommitToDeliveryNanos = commitToDelivery.getValueAtPercentile(50);
+        this.p99CommitToDeliveryNanos = commitToDelivery.getValueAtPercentile(99);
+        this.p99SampleToDeliveryNanos = sampleToDelivery.getValueAtPercentile(99);
+        this.maxSampleToDeliveryNanos = sampleToDelivery.getMaxValue();
+    }
+
+    public String getDigitalTwinId() {
+        return digitalTwinId;
+    }
+
+    /**
+     * @return the key of the statistics, null for the statistics of the whole twin
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isLagging() {
+        return lagging;
+    }
+
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    public long getP50SampleToCommitNanos() {
+        return p50SampleToCommitNanos;
+    }
+
+    public long getP99SampleToCommitNanos() {
+        return p99SampleToCommitNanos;
+    }
+
+    public long getMaxSampleToCommitNanos() {
+        return maxSampleToCommitNanos;
+    }
+
+    public long getDeliveryCount() {
+        return deliveryCount;
+    }
+
+    public long getP50CommitToDeliveryNanos() {
+        return p50CommitToDeliveryNanos;
+    }
+
+    public long getP99CommitToDeliveryNanos() {
+        return p99CommitToDeliveryNanos;
+    }
+
+    public long getP99SampleToDeliveryNanos() {
+        return p99SampleToDeliveryNanos;
+    }
+
+    public long getMaxSampleToDeliveryNanos() {
+        return maxSampleToDeliveryNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FreshnessStats{");
+        sb.append("digitalTwinId='").append(digitalTwinId).append('\'');
+        if(key != null)
+            sb.append(", key='").append(key).append('\'');
+        sb.append(", lagging=").append(lagging);
+        sb.append(", commitCount=").append(commitCount);
+        sb.append(", p50SampleToCommitMs=").append(p50SampleToCommitNanos / 1000000);
+        sb.append(", p99SampleToCommitMs=").append(p99SampleToCommitNanos / 1000000);
+        sb.append(", maxSampleToCommitMs=").append(maxSampleToCommitNanos / 1000000);
+        sb.append(", deliveryCount=").append(deliveryCount);
+        sb.append(", p50CommitToDeliveryUs=").append(p50CommitToDeliveryNanos / 1000);
+        sb.append(", p99CommitToDeliveryUs=").append(p99CommitToDeliveryNanos / 1000);
+        sb.append(", p99SampleToDeliveryMs=").append(p99SampleToDeliveryNanos / 1000000);
+        sb.append(", maxSampleToDeliveryMs=").append(maxSampleToDeliveryNanos / 1000000);
+        sb.append('}');
+        return sb.toString();
+    }
+}
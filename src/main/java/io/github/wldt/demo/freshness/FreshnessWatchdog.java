@@ -0,0 +1,296 @@
+package io.github.wldt.demo.freshness;
+
+import io.github.wldt.demo.keys.KeyIndexedArray;
+import io.github.wldt.demo.keys.KeyRegistry;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watchdog measuring how fresh the DT State of each twin is with respect to its physical asset.
+ *
+ * The Shadowing Function reports every committed property together with the timestamp of the physical sample it
+ * carries (sample-to-commit lag) and the Digital Adapters report when the committed change reaches
+ * onStateUpdate (commit-to-delivery lag). Both lags are recorded per twin and per key in lock-free
+ * histograms, so reporting never blocks the shadowing or the delivery path. A periodic check flags the twins
+ * whose highest end-to-end lag in the last period exceeds the configured threshold and notifies the registered
+ * {@link TwinLagListener}s when a twin starts or stops lagging.
+ *
+ * Sample and commit timestamps are expressed in milliseconds of the clock used by the twin, while the delivery
+ * is measured against the commit with System.nanoTime().
+ */
+public class FreshnessWatchdog {
+
+    public static final long DEFAULT_LAG_THRESHOLD_MS = 1000;
+
+    public static final long DEFAULT_CHECK_PERIOD_MS = 1000;
+
+    private final long lagThresholdNanos;
+
+    private final long checkPeriodMs;
+
+    private final Map<String, TwinFreshness> twinFreshnessMap = new ConcurrentHashMap<>();
+
+    private final List<TwinLagListener> lagListenerList = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService checkExecutor = null;
+
+    public FreshnessWatchdog() {
+        this(DEFAULT_LAG_THRESHOLD_MS, DEFAULT_CHECK_PERIOD_MS);
+    }
+
+    public FreshnessWatchdog(long lagThresholdMs, long checkPeriodMs) {
+        this.lagThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lagThresholdMs);
+        this.checkPeriodMs = Math.max(1, checkPeriodMs);
+    }
+
+    /**
+     * Record the commit of a property variation into the DT State
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param keyId the id of the property key in the {@link KeyRegistry}
+     * @param sampleTimestampMs the creation timestamp of the physical sample
+     * @param commitTimestampMs the timestamp of the commit on the same clock of the sample
+     * @param commitNanos the System.nanoTime() of the commit
+     */
+    public void onStateCommitted(String digitalTwinId, int keyId, long sampleTimestampMs, long commitTimestampMs, long commitNanos) {
+
+        long sampleToCommitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, commitTimestampMs - sampleTimestampMs));
+
+        TwinFreshness twinFreshness = getTwinFreshness(digitalTwinId);
+        KeyFreshness keyFreshness = twinFreshness.getKeyFreshness(keyId);
+
+        keyFreshness.lastSampleToCommitNanos = sampleToCommitNanos;
+        keyFreshness.lastCommitNanos = commitNanos;
+        keyFreshness.histograms.recordCommit(sampleToCommitNanos);
+        twinFreshness.histograms.recordCommit(sampleToCommitNanos);
+        twinFreshness.updateWindowMaxLag(sampleToCommitNanos);
+    }
+
+    /**
+     * Record the delivery of a committed property change to a Digital Adapter, measured against the last commit of
+     * the same key. Deliveries of keys never committed through
+     * {@link #onStateCommitted(String, int, long, long, long)} are ignored.
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param keyId the id of the property key in the {@link KeyRegistry}
+     * @param deliveryNanos the System.nanoTime() of the delivery
+     */
+    public void onStateDelivered(String digitalTwinId, int keyId, long deliveryNanos) {
+
+        TwinFreshness twinFreshness = this.twinFreshnessMap.get(digitalTwinId);
+        if(twinFreshness == null)
+            return;
+
+        KeyFreshness keyFreshness = twinFreshness.keyFreshnessArray.get(keyId);
+        if(keyFreshness == null)
+            return;
+
+        long commitToDeliveryNanos = deliveryNanos - keyFreshness.lastCommitNanos;
+        long sampleToDeliveryNanos = keyFreshness.lastSampleToCommitNanos + commitToDeliveryNanos;
+
+        keyFreshness.histograms.recordDelivery(commitToDeliveryNanos, sampleToDeliveryNanos);
+        twinFreshness.histograms.recordDelivery(commitToDeliveryNanos, sampleToDeliveryNanos);
+        twinFreshness.updateWindowMaxLag(sampleToDeliveryNanos);
+    }
+
+    /**
+     * Start the periodic check of the twin lags
+     */
+    public synchronized void start() {
+
+        if(this.checkExecutor != null)
+            return;
+
+        this.checkExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wldt-freshness-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.checkExecutor.scheduleWithFixedDelay(this::checkTwinLags, this.checkPeriodMs, this.checkPeriodMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if(this.checkExecutor != null){
+            this.checkExecutor.shutdownNow();
+            this.checkExecutor = null;
+        }
+    }
+
+    /**
+     * Flag the twins whose highest end-to-end lag since the previous check exceeds the threshold. Twins without
+     * any commit in the period keep their previous status.
+     */
+    public void checkTwinLags() {
+        try{
+            this.twinFreshnessMap.forEach((digitalTwinId, twinFreshness) -> {
+
+                long windowMaxLagNanos = twinFreshness.windowMaxLagNanos.getAndSet(0);
+
+                if(windowMaxLagNanos == 0)
+                    return;
+
+                boolean lagging = windowMaxLagNanos > this.lagThresholdNanos;
+                if(lagging == twinFreshness.lagging)
+                    return;
+
+                twinFreshness.lagging = lagging;
+
+                if(lagging){
+                    System.out.println(String.format("[FreshnessWatchdog] -> Twin %s is lagging ! Lag: %d ms", digitalTwinId, TimeUnit.NANOSECONDS.toMillis(windowMaxLagNanos)));
+                    this.lagListenerList.forEach(listener -> listener.onTwinLagging(digitalTwinId, windowMaxLagNanos));
+                }
+                else {
+                    System.out.println(String.format("[FreshnessWatchdog] -> Twin %s recovered ! Lag: %d ms", digitalTwinId, TimeUnit.NANOSECONDS.toMillis(windowMaxLagNanos)));
+                    this.lagListenerList.forEach(listener -> listener.onTwinRecovered(digitalTwinId));
+                }
+            });
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    public void addLagListener(TwinLagListener lagListener) {
+        this.lagListenerList.add(lagListener);
+    }
+
+    public void removeLagListener(TwinLagListener lagListener) {
+        this.lagListenerList.remove(lagListener);
+    }
+
+    /**
+     * Discard the measurements of a twin, e.g. when it is removed from the engine
+     */
+    public void removeDigitalTwin(String digitalTwinId) {
+        this.twinFreshnessMap.remove(digitalTwinId);
+    }
+
+    public boolean isLagging(String digitalTwinId) {
+        TwinFreshness twinFreshness = this.twinFreshnessMap.get(digitalTwinId);
+        return twinFreshness != null && twinFreshness.lagging;
+    }
+
+    public Set<String> getLaggingTwins() {
+        Set<String> laggingTwinSet = new TreeSet<>();
+        this.twinFreshnessMap.forEach((digitalTwinId, twinFreshness) -> {
+            if(twinFreshness.lagging)
+                laggingTwinSet.add(digitalTwinId);
+        });
+        return laggingTwinSet;
+    }
+
+    public Optional<FreshnessStats> getStats(String digitalTwinId) {
+        TwinFreshness twinFreshness = this.twinFreshnessMap.get(digitalTwinId);
+        if(twinFreshness == null)
+            return Optional.empty();
+        return Optional.of(new FreshnessStats(digitalTwinId, null, twinFreshness.lagging, twinFreshness.histograms));
+    }
+
+    public Optional<FreshnessStats> getStats(String digitalTwinId, String key) {
+
+        TwinFreshness twinFreshness = this.twinFreshnessMap.get(digitalTwinId);
+        if(twinFreshness == null)
+            return Optional.empty();
+
+        KeyFreshness keyFreshness = twinFreshness.keyFreshnessArray.get(KeyRegistry.getInstance().getId(key));
+        if(keyFreshness == null)
+            return Optional.empty();
+
+        return Optional.of(new FreshnessStats(digitalTwinId, key, twinFreshness.lagging, keyFreshness.histograms));
+    }
+
+    /**
+     * @return the statistics of all the keys committed by the twin
+     */
+    public List<FreshnessStats> getKeyStats(String digitalTwinId) {
+
+        List<FreshnessStats> statsList = new ArrayList<>();
+
+        TwinFreshness twinFreshness = this.twinFreshnessMap.get(digitalTwinId);
+        if(twinFreshness == null)
+            return statsList;
+
+        for(int keyId = 0; keyId < twinFreshness.keyFreshnessArray.capacity(); keyId++){
+            KeyFreshness keyFreshness = twinFreshness.keyFreshnessArray.get(keyId);
+            if(keyFreshness != null)
+                statsList.add(new FreshnessStats(digitalTwinId, KeyRegistry.getInstance().getKey(keyId), twinFreshness.lagging, keyFreshness.histograms));
+        }
+
+        return statsList;
+    }
+
+    /**
+     * @return the statistics of all the twins ordered by id
+     */
+    public List<FreshnessStats> getStats() {
+        List<FreshnessStats> statsList = new ArrayList<>();
+        new TreeSet<>(this.twinFreshnessMap.keySet()).forEach(digitalTwinId -> getStats(digitalTwinId).ifPresent(statsList::add));
+        return statsList;
+    }
+
+    public long getLagThresholdNanos() {
+        return lagThresholdNanos;
+    }
+
+    public long getCheckPeriodMs() {
+        return checkPeriodMs;
+    }
+
+    private TwinFreshness getTwinFreshness(String digitalTwinId) {
+        TwinFreshness twinFreshness = this.twinFreshnessMap.get(digitalTwinId);
+        return (twinFreshness != null) ? twinFreshness : this.twinFreshnessMap.computeIfAbsent(digitalTwinId, id -> new TwinFreshness());
+    }
+
+    /**
+     * Measurements of a single twin, the per-key measurements are indexed by the ids of the {@link KeyRegistry}
+     */
+    private static class TwinFreshness {
+
+        private final FreshnessHistograms histograms = new FreshnessHistograms();
+
+        private final KeyIndexedArray<KeyFreshness> keyFreshnessArray = new KeyIndexedArray<>();
+
+        //Highest end-to-end lag measured since the last check
+        private final AtomicLong windowMaxLagNanos = new AtomicLong();
+
+        private volatile boolean lagging = false;
+
+        private KeyFreshness getKeyFreshness(int keyId) {
+
+            KeyFreshness keyFreshness = this.keyFreshnessArray.get(keyId);
+            if(keyFreshness != null)
+                return keyFreshness;
+
+            synchronized (this.keyFreshnessArray) {
+                keyFreshness = this.keyFreshnessArray.get(keyId);
+                if(keyFreshness == null){
+                    keyFreshness = new KeyFreshness();
+                    this.keyFreshnessArray.set(keyId, keyFreshness);
+                }
+                return keyFreshness;
+            }
+        }
+
+        private void updateWindowMaxLag(long lagNanos) {
+            long currentMax;
+            while(lagNanos > (currentMax = this.windowMaxLagNanos.get()))
+                if(this.windowMaxLagNanos.compareAndSet(currentMax, lagNanos))
+                    break;
+        }
+    }
+
+    /**
+     * Measurements of a single key of a twin with the timing of its last commit, used to measure the lag of the
+     * following delivery
+     */
+    private static class KeyFreshness {
+
+        private final FreshnessHistograms histograms = new FreshnessHistograms();
+
+        private volatile long lastSampleToCommitNanos = 0;
+
+        private volatile long lastCommitNanos = 0;
+    }
+}
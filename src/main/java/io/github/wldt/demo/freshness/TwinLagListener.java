@@ -0,0 +1,19 @@
+package io.github.wldt.demo.freshness;
+
+/**
+ * Listener notified by the {@link FreshnessWatchdog} when a twin starts or stops lagging behind its physical asset
+ */
+public interface TwinLagListener {
+
+    /**
+     * @param digitalTwinId the id of the Digital Twin
+     * @param lagNanos the highest end-to-end lag measured during the last check period
+     */
+    void onTwinLagging(String digitalTwinId, long lagNanos);
+
+    /**
+     * @param digitalTwinId the id of the Digital Twin whose lag is back below the threshold
+     */
+    void onTwinRecovered(String digitalTwinId);
+
+}
@@ -0,0 +1,21 @@
+package io.github.wldt.demo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event describing the duration of the binding phase handled by the Shadowing Function
+ */
+@Name("io.github.wldt.demo.DigitalTwinBound")
+@Label("WLDT Digital Twin Bound")
+@Category({"WLDT", "Shadowing Function"})
+@Description("Time spent by the Shadowing Function to build the DT State from the received PADs")
+@StackTrace(false)
+public class DigitalTwinBoundJfrEvent extends Event {
+
+    @Label("Digital Twin Id")
+    public String twinId;
+
+    @Label("Change Count")
+    public int changeCount;
+
+}
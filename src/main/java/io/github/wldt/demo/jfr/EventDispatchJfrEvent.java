@@ -0,0 +1,28 @@
+package io.github.wldt.demo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event describing the dispatch of a sampled WLDT Event from a publisher to a subscriber
+ */
+@Name("io.github.wldt.demo.EventDispatch")
+@Label("WLDT Event Dispatch")
+@Category({"WLDT", "Event Bus"})
+@Description("Time spent forwarding a sampled WLDT Event to a single subscriber")
+@StackTrace(false)
+public class EventDispatchJfrEvent extends Event {
+
+    @Label("Publisher Id")
+    public String publisherId;
+
+    @Label("Subscriber Id")
+    public String subscriberId;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Dispatch Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dispatchTime;
+
+}
@@ -0,0 +1,30 @@
+package io.github.wldt.demo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event describing the publication of a physical event by a Physical Adapter
+ */
+@Name("io.github.wldt.demo.PhysicalPublish")
+@Label("WLDT Physical Publish")
+@Category({"WLDT", "Physical Adapter"})
+@Description("Time spent by a Physical Adapter publishing a property, event or relationship variation")
+@StackTrace(false)
+public class PhysicalPublishJfrEvent extends Event {
+
+    @Label("Digital Twin Id")
+    public String twinId;
+
+    @Label("Adapter Id")
+    public String adapterId;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Property Key")
+    public String propertyKey;
+
+    @Label("Change Count")
+    public int changeCount;
+
+}
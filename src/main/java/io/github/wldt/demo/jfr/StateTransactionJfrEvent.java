@@ -0,0 +1,24 @@
+package io.github.wldt.demo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event describing a DT State transaction from its start to its commit
+ */
+@Name("io.github.wldt.demo.StateTransaction")
+@Label("WLDT State Transaction")
+@Category({"WLDT", "Shadowing Function"})
+@Description("Span between startStateTransaction() and commitStateTransaction() in the Shadowing Function")
+@StackTrace(false)
+public class StateTransactionJfrEvent extends Event {
+
+    @Label("Digital Twin Id")
+    public String twinId;
+
+    @Label("Property Key")
+    public String propertyKey;
+
+    @Label("Change Count")
+    public int changeCount;
+
+}
@@ -0,0 +1,28 @@
+package io.github.wldt.demo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event describing the handling of a DT State update in a Digital Adapter
+ */
+@Name("io.github.wldt.demo.StateUpdate")
+@Label("WLDT State Update")
+@Category({"WLDT", "Digital Adapter"})
+@Description("Time spent by a Digital Adapter handling onStateUpdate()")
+@StackTrace(false)
+public class StateUpdateJfrEvent extends Event {
+
+    @Label("Digital Twin Id")
+    public String twinId;
+
+    @Label("Adapter Id")
+    public String adapterId;
+
+    @Label("Property Key")
+    @Description("Key of the first changed property, if any")
+    public String propertyKey;
+
+    @Label("Change Count")
+    public int changeCount;
+
+}
@@ -0,0 +1,25 @@
+package io.github.wldt.demo.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event describing the pause of a Digital Twin migrated between two engines
+ */
+@Name("io.github.wldt.demo.TwinMigration")
+@Label("WLDT Twin Migration")
+@Category({"WLDT", "Engine"})
+@Description("Time during which a migrated Digital Twin does not apply physical variations")
+@StackTrace(false)
+public class TwinMigrationJfrEvent extends Event {
+
+    @Label("Digital Twin Id")
+    public String twinId;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadSizeBytes;
+
+    @Label("In-Flight Event Count")
+    public int inFlightEventCount;
+
+}
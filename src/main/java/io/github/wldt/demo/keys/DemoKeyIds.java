@@ -0,0 +1,20 @@
+package io.github.wldt.demo.keys;
+
+import io.github.wldt.demo.utils.GlobalKeywords;
+
+/**
+ * Ids of the {@link GlobalKeywords} keys in the shared {@link KeyRegistry}, registered at class loading
+ */
+public class DemoKeyIds {
+
+    public static final int TEMPERATURE_PROPERTY_ID = KeyRegistry.getInstance().register(GlobalKeywords.TEMPERATURE_PROPERTY_KEY);
+
+    public static final int OVERHEATING_EVENT_ID = KeyRegistry.getInstance().register(GlobalKeywords.OVERHEATING_EVENT_KEY);
+
+    public static final int SET_TEMPERATURE_ACTION_ID = KeyRegistry.getInstance().register(GlobalKeywords.SET_TEMPERATURE_ACTION_KEY);
+
+    public static final int INSIDE_IN_RELATIONSHIP_ID = KeyRegistry.getInstance().register(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME);
+
+    private DemoKeyIds() {
+    }
+}
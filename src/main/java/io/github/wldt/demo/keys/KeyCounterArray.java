@@ -0,0 +1,82 @@
+package io.github.wldt.demo.keys;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-key counters indexed by the dense ids of a {@link KeyRegistry}. Counters are stored in an
+ * {@link AtomicLongArray} replaced by a larger copy when a new id exceeds the current capacity.
+ */
+public class KeyCounterArray {
+
+    private final KeyRegistry keyRegistry;
+
+    private volatile AtomicLongArray counters;
+
+    public KeyCounterArray(KeyRegistry keyRegistry) {
+        this.keyRegistry = keyRegistry;
+        this.counters = new AtomicLongArray(Math.max(16, keyRegistry.size()));
+    }
+
+    public void increment(int keyId) {
+        add(keyId, 1);
+    }
+
+    public void add(int keyId, long delta) {
+
+        if(keyId < 0)
+            return;
+
+        AtomicLongArray currentCounters = this.counters;
+        if(keyId >= currentCounters.length())
+            currentCounters = grow(keyId);
+
+        currentCounters.addAndGet(keyId, delta);
+
+        //The array has been replaced during the increment: move the value to the new one
+        AtomicLongArray latestCounters = this.counters;
+        if(latestCounters != currentCounters)
+            latestCounters.addAndGet(keyId, currentCounters.getAndSet(keyId, 0));
+    }
+
+    public long get(int keyId) {
+        AtomicLongArray currentCounters = this.counters;
+        return (keyId >= 0 && keyId < currentCounters.length()) ? currentCounters.get(keyId) : 0;
+    }
+
+    /**
+     * @return the non-zero counters associated to their keys
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> counterMap = new LinkedHashMap<>();
+        AtomicLongArray currentCounters = this.counters;
+        for(int keyId = 0; keyId < currentCounters.length(); keyId++){
+            long value = currentCounters.get(keyId);
+            if(value != 0)
+                counterMap.put(this.keyRegistry.getKey(keyId), value);
+        }
+        return counterMap;
+    }
+
+    private synchronized AtomicLongArray grow(int keyId) {
+
+        AtomicLongArray currentCounters = this.counters;
+        if(keyId < currentCounters.length())
+            return currentCounters;
+
+        //Publish the new array before moving the values, every value is moved exactly once either here or
+        //by a concurrent increment that observed the replacement
+        AtomicLongArray newCounters = new AtomicLongArray(Math.max(keyId + 1, currentCounters.length() * 2));
+        this.counters = newCounters;
+        for(int i = 0; i < currentCounters.length(); i++)
+            newCounters.addAndGet(i, currentCounters.getAndSet(i, 0));
+
+        return newCounters;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
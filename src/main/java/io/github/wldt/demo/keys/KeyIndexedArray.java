@@ -0,0 +1,45 @@
+package io.github.wldt.demo.keys;
+
+import java.util.Arrays;
+
+/**
+ * Array of per-key values indexed by the dense ids of a {@link KeyRegistry}.
+ *
+ * Reads are plain array accesses on a volatile reference. Writes are synchronized and replace the array with a
+ * larger copy when the id exceeds the current capacity (copy-on-grow).
+ */
+public class KeyIndexedArray<V> {
+
+    private volatile Object[] values;
+
+    public KeyIndexedArray() {
+        this(16);
+    }
+
+    public KeyIndexedArray(int initialCapacity) {
+        this.values = new Object[Math.max(1, initialCapacity)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int keyId) {
+        Object[] currentValues = this.values;
+        return (keyId >= 0 && keyId < currentValues.length) ? (V) currentValues[keyId] : null;
+    }
+
+    public synchronized void set(int keyId, V value) {
+
+        if(keyId < 0)
+            throw new IllegalArgumentException("Wrong key id: " + keyId);
+
+        Object[] currentValues = this.values;
+        if(keyId >= currentValues.length)
+            currentValues = Arrays.copyOf(currentValues, Math.max(keyId + 1, currentValues.length * 2));
+
+        currentValues[keyId] = value;
+        this.values = currentValues;
+    }
+
+    public int capacity() {
+        return this.values.length;
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.wldt.demo.keys;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry assigning dense integer ids to property, event, action and relationship keys.
+ *
+ * Keys are registered once (from {@link io.github.wldt.demo.utils.GlobalKeywords} and from the received PADs at
+ * bind time) and ids are never reused, so they can be used to index arrays holding per-key data on the hot path
+ * ({@link KeyIndexedArray}, {@link KeyCounterArray}) instead of hashing and comparing strings for every lookup.
+ * Reading the key of an id is wait-free.
+ */
+public class KeyRegistry {
+
+    public static final int UNKNOWN_KEY_ID = -1;
+
+    private static final KeyRegistry INSTANCE = new KeyRegistry();
+
+    private final Map<String, Integer> keyIdMap = new ConcurrentHashMap<>();
+
+    private volatile String[] keyArray = new String[16];
+
+    private int keyCount = 0;
+
+    public KeyRegistry() {
+    }
+
+    /**
+     * @return the registry shared by all the Digital Twins of the JVM
+     */
+    public static KeyRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register the target key if not already available
+     *
+     * @param key the key to register
+     * @return the dense id associated to the key
+     */
+    public int register(String key) {
+
+        Integer keyId = this.keyIdMap.get(key);
+        if(keyId != null)
+            return keyId;
+
+        synchronized (this) {
+
+            keyId = this.keyIdMap.get(key);
+            if(keyId != null)
+                return keyId;
+
+            int newKeyId = this.keyCount;
+
+            String[] keys = this.keyArray;
+            if(newKeyId == keys.length)
+                keys = Arrays.copyOf(keys, keys.length * 2);
+            keys[newKeyId] = key;
+
+            //Publish the array before the id to let readers of the id always find the key
+            this.keyArray = keys;
+            this.keyCount++;
+            this.keyIdMap.put(key, newKeyId);
+
+            return newKeyId;
+        }
+    }
+
+    /**
+     * @param key the target key
+     * @return the id of the key or {@link #UNKNOWN_KEY_ID} if the key has not been registered
+     */
+    public int getId(String key) {
+        if(key == null)
+            return UNKNOWN_KEY_ID;
+        Integer keyId = this.keyIdMap.get(key);
+        return keyId != null ? keyId : UNKNOWN_KEY_ID;
+    }
+
+    /**
+     * @param keyId the target id
+     * @return the key associated to the id or null if the id is unknown
+     */
+    public String getKey(int keyId) {
+        String[] keys = this.keyArray;
+        return (keyId >= 0 && keyId < keys.length) ? keys[keyId] : null;
+    }
+
+    public synchronized int size() {
+        return keyCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("KeyRegistry{");
+        sb.append("keyCount=").append(size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
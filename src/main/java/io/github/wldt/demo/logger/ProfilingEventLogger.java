@@ -0,0 +1,354 @@
+package io.github.wldt.demo.logger;
+
+import io.github.wldt.demo.jfr.EventDispatchJfrEvent;
+import it.wldt.core.event.IWldtEventLogger;
+import it.wldt.core.event.WldtEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * WLDT Event Logger profiling the cost of the event dispatch on the WLDT Event Bus.
+ *
+ * The Event Bus forwards a published event to its subscribers synchronously on the publisher thread and
+ * notifies {@link #logEventForwarded} after each subscriber returned. For a sampled event the logger keeps
+ * on the current thread the instant of the publication and of the last forward, so the difference with the
+ * next forward is the time spent by that specific subscriber. Only one event every
+ * {@link ProfilingEventLoggerConfiguration#getSamplingInterval()} is profiled and all the other events cost
+ * a single (cached) hash of the event id and a modulo on publication and on each forward, the sampling being decided
+ * before any lookup of the dispatch frames or of the aggregation map. Statistics are aggregated per (publisherId, subscriberId, eventType) and
+ * periodically reported with the top-N entries and the detected hot subscribers.
+ *
+ * All the calls are also forwarded to an optional delegate logger.
+ */
+public class ProfilingEventLogger implements IWldtEventLogger {
+
+    private static final int MAX_DISPATCH_FRAME_DEPTH = 16;
+
+    private final IWldtEventLogger delegateLogger;
+
+    private final ProfilingEventLoggerConfiguration configuration;
+
+    private final AtomicReference<ConcurrentHashMap<DispatchKey, DispatchStats>> dispatchStatsMapReference = new AtomicReference<>(new ConcurrentHashMap<>());
+
+    private final ThreadLocal<ArrayDeque<DispatchFrame>> dispatchFrameStack = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private ScheduledExecutorService reportExecutor = null;
+
+    public ProfilingEventLogger() {
+        this(null, new ProfilingEventLoggerConfiguration());
+    }
+
+    public ProfilingEventLogger(IWldtEventLogger delegateLogger, ProfilingEventLoggerConfiguration configuration) {
+        this.delegateLogger = delegateLogger;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Start the periodic generation of the profiling report
+     */
+    public synchronized void startReporting() {
+
+        if(this.reportExecutor != null)
+            return;
+
+        this.reportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wldt-event-profiler-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.reportExecutor.scheduleAtFixedRate(() -> {
+            try {
+                System.out.println(buildReport(true));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, this.configuration.getReportPeriodMs(), this.configuration.getReportPeriodMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopReporting() {
+        if(this.reportExecutor != null){
+            this.reportExecutor.shutdownNow();
+            this.reportExecutor = null;
+        }
+    }
+
+    @Override
+    public void logEventPublished(String publisherId, WldtEvent<?> wldtEvent) {
+
+        if(this.delegateLogger != null)
+            this.delegateLogger.logEventPublished(publisherId, wldtEvent);
+
+        if(wldtEvent == null || !isSampled(wldtEvent))
+            return;
+
+        ArrayDeque<DispatchFrame> frameStack = this.dispatchFrameStack.get();
+
+        //Protect against frames of events that have never been forwarded (e.g., no subscribers)
+        if(frameStack.size() >= MAX_DISPATCH_FRAME_DEPTH)
+            frameStack.removeLast();
+
+        frameStack.push(new DispatchFrame(wldtEvent.getId(), System.nanoTime()));
+    }
+
+    @Override
+    public void logEventForwarded(String publisherId, String subscriberId, WldtEvent<?> wldtEvent) {
+
+        if(this.delegateLogger != null)
+            this.delegateLogger.logEventForwarded(publisherId, subscriberId, wldtEvent);
+
+        //Decide the sampling before touching the frame stack, non-sampled forwards never have a frame
+        if(wldtEvent == null || !isSampled(wldtEvent))
+            return;
+
+        ArrayDeque<DispatchFrame> frameStack = this.dispatchFrameStack.get();
+        if(frameStack.isEmpty())
+            return;
+
+        //Discard frames of nested publications already completed inside the subscriber
+        DispatchFrame frame = frameStack.peek();
+        while (frame != null && !frame.getEventId().equals(wldtEvent.getId())) {
+            if(!containsFrame(frameStack, wldtEvent.getId()))
+                return;
+            frameStack.pop();
+            frame = frameStack.peek();
+        }
+
+        if(frame == null)
+            return;
+
+        long now = System.nanoTime();
+        long dispatchNanos = now - frame.getLastMarkNanos();
+        frame.setLastMarkNanos(now);
+
+        this.dispatchStatsMapReference.get()
+                .computeIfAbsent(new DispatchKey(publisherId, subscriberId, wldtEvent.getType()), key -> new DispatchStats())
+                .record(dispatchNanos, now - frame.getPublishNanos());
+
+        if(this.configuration.isJfrEventsEnabled()){
+            EventDispatchJfrEvent jfrEvent = new EventDispatchJfrEvent();
+            if(jfrEvent.isEnabled()){
+                jfrEvent.publisherId = publisherId;
+                jfrEvent.subscriberId = subscriberId;
+                jfrEvent.eventType = wldtEvent.getType();
+                jfrEvent.dispatchTime = dispatchNanos;
+                jfrEvent.commit();
+            }
+        }
+    }
+
+    @Override
+    public void logClientSubscription(String eventType, String subscriberId) {
+        if(this.delegateLogger != null)
+            this.delegateLogger.logClientSubscription(eventType, subscriberId);
+    }
+
+    @Override
+    public void logClientUnSubscription(String eventType, String subscriberId) {
+        if(this.delegateLogger != null)
+            this.delegateLogger.logClientUnSubscription(eventType, subscriberId);
+    }
+
+    /**
+     * Build the textual report with the top-N most expensive dispatch paths and the detected hot subscribers
+     *
+     * @param reset if true the collected statistics are cleared and a new observation window is started
+     * @return the report
+     */
+    public String buildReport(boolean reset) {
+
+        Map<DispatchKey, DispatchStats> statsMap = reset
+                ? this.dispatchStatsMapReference.getAndSet(new ConcurrentHashMap<>())
+                : this.dispatchStatsMapReference.get();
+
+        StringBuilder sb = new StringBuilder("[ProfilingEventLogger] -> Sampled Dispatch Report (1/")
+                .append(this.configuration.getSamplingInterval()).append(" events)\n");
+
+        if(statsMap.isEmpty())
+            return sb.append("  No sampled events.").toString();
+
+        statsMap.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<DispatchKey, DispatchStats> entry) -> entry.getValue().getTotalNanos()).reversed())
+                .limit(this.configuration.getTopN())
+                .forEach(entry -> sb.append(String.format("  %s -> %s [%s] count=%d mean=%.1fus max=%.1fus meanSincePublish=%.1fus%n",
+                        entry.getKey().getPublisherId(),
+                        entry.getKey().getSubscriberId(),
+                        entry.getKey().getEventType(),
+                        entry.getValue().getCount(),
+                        entry.getValue().getMeanNanos() / 1000.0,
+                        entry.getValue().getMaxNanos() / 1000.0,
+                        entry.getValue().getMeanSincePublishNanos() / 1000.0)));
+
+        getHotSubscribers(statsMap).forEach((subscriberId, share) ->
+                sb.append(String.format("  HOT subscriber: %s (%.1f%% of sampled dispatch time)%n", subscriberId, share * 100.0)));
+
+        return sb.toString();
+    }
+
+    /**
+     * @return the subscribers whose share of the total sampled dispatch time exceeds the configured threshold
+     */
+    public Map<String, Double> getHotSubscribers() {
+        return getHotSubscribers(this.dispatchStatsMapReference.get());
+    }
+
+    public Map<DispatchKey, DispatchStats> getDispatchStatsMap() {
+        return Collections.unmodifiableMap(this.dispatchStatsMapReference.get());
+    }
+
+    private Map<String, Double> getHotSubscribers(Map<DispatchKey, DispatchStats> statsMap) {
+
+        Map<String, Long> subscriberTotalMap = statsMap.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> entry.getKey().getSubscriberId(),
+                        Collectors.summingLong(entry -> entry.getValue().getTotalNanos())));
+
+        long total = subscriberTotalMap.values().stream().mapToLong(Long::longValue).sum();
+        if(total == 0)
+            return Collections.emptyMap();
+
+        Map<String, Double> hotSubscriberMap = new LinkedHashMap<>();
+        subscriberTotalMap.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .filter(entry -> (double) entry.getValue() / total >= this.configuration.getHotSubscriberShare())
+                .forEach(entry -> hotSubscriberMap.put(entry.getKey(), (double) entry.getValue() / total));
+
+        return hotSubscriberMap;
+    }
+
+    private boolean isSampled(WldtEvent<?> wldtEvent) {
+        int samplingInterval = this.configuration.getSamplingInterval();
+        return samplingInterval <= 1 || (wldtEvent.getId() != null && Math.floorMod(wldtEvent.getId().hashCode(), samplingInterval) == 0);
+    }
+
+    private static boolean containsFrame(ArrayDeque<DispatchFrame> frameStack, String eventId) {
+        for(DispatchFrame frame : frameStack)
+            if(frame.getEventId().equals(eventId))
+                return true;
+        return false;
+    }
+
+    private static class DispatchFrame {
+
+        private final String eventId;
+
+        private final long publishNanos;
+
+        private long lastMarkNanos;
+
+        private DispatchFrame(String eventId, long publishNanos) {
+            this.eventId = eventId;
+            this.publishNanos = publishNanos;
+            this.lastMarkNanos = publishNanos;
+        }
+
+        public String getEventId() {
+            return eventId;
+        }
+
+        public long getPublishNanos() {
+            return publishNanos;
+        }
+
+        public long getLastMarkNanos() {
+            return lastMarkNanos;
+        }
+
+        public void setLastMarkNanos(long lastMarkNanos) {
+            this.lastMarkNanos = lastMarkNanos;
+        }
+    }
+
+    /**
+     * Key identifying a dispatch path on the Event Bus
+     */
+    public static class DispatchKey {
+
+        private final String publisherId;
+
+        private final String subscriberId;
+
+        private final String eventType;
+
+        public DispatchKey(String publisherId, String subscriberId, String eventType) {
+            this.publisherId = publisherId;
+            this.subscriberId = subscriberId;
+            this.eventType = eventType;
+        }
+
+        public String getPublisherId() {
+            return publisherId;
+        }
+
+        public String getSubscriberId() {
+            return subscriberId;
+        }
+
+        public String getEventType() {
+            return eventType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DispatchKey that = (DispatchKey) o;
+            return Objects.equals(publisherId, that.publisherId) && Objects.equals(subscriberId, that.subscriberId) && Objects.equals(eventType, that.eventType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(publisherId, subscriberId, eventType);
+        }
+    }
+
+    /**
+     * Lock-free statistics of a dispatch path
+     */
+    public static class DispatchStats {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAdder totalSincePublishNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long dispatchNanos, long sincePublishNanos) {
+            this.count.increment();
+            this.totalNanos.add(dispatchNanos);
+            this.totalSincePublishNanos.add(sincePublishNanos);
+            this.maxNanos.accumulateAndGet(dispatchNanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public double getMeanNanos() {
+            long c = getCount();
+            return c == 0 ? 0.0 : (double) getTotalNanos() / c;
+        }
+
+        public double getMeanSincePublishNanos() {
+            long c = getCount();
+            return c == 0 ? 0.0 : (double) totalSincePublishNanos.sum() / c;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.wldt.demo.logger;
+
+public class ProfilingEventLoggerConfiguration {
+
+    public static final int DEFAULT_SAMPLING_INTERVAL = 64;
+
+    public static final long DEFAULT_REPORT_PERIOD_MS = 10000;
+
+    public static final int DEFAULT_TOP_N = 10;
+
+    public static final double DEFAULT_HOT_SUBSCRIBER_SHARE = 0.5;
+
+    private int samplingInterval = DEFAULT_SAMPLING_INTERVAL;
+
+    private long reportPeriodMs = DEFAULT_REPORT_PERIOD_MS;
+
+    private int topN = DEFAULT_TOP_N;
+
+    private double hotSubscriberShare = DEFAULT_HOT_SUBSCRIBER_SHARE;
+
+    private boolean jfrEventsEnabled = false;
+
+    public ProfilingEventLoggerConfiguration() {
+    }
+
+    public ProfilingEventLoggerConfiguration(int samplingInterval, long reportPeriodMs, int topN, double hotSubscriberShare, boolean jfrEventsEnabled) {
+        this.samplingInterval = samplingInterval;
+        this.reportPeriodMs = reportPeriodMs;
+        this.topN = topN;
+        this.hotSubscriberShare = hotSubscriberShare;
+        this.jfrEventsEnabled = jfrEventsEnabled;
+    }
+
+    /**
+     * @return the sampling interval N: one published event every N is profiled
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public void setSamplingInterval(int samplingInterval) {
+        this.samplingInterval = samplingInterval;
+    }
+
+    public long getReportPeriodMs() {
+        return reportPeriodMs;
+    }
+
+    public void setReportPeriodMs(long reportPeriodMs) {
+        this.reportPeriodMs = reportPeriodMs;
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    public void setTopN(int topN) {
+        this.topN = topN;
+    }
+
+    /**
+     * @return the share of the total sampled dispatch time above which a subscriber is reported as hot
+     */
+    public double getHotSubscriberShare() {
+        return hotSubscriberShare;
+    }
+
+    public void setHotSubscriberShare(double hotSubscriberShare) {
+        this.hotSubscriberShare = hotSubscriberShare;
+    }
+
+    public boolean isJfrEventsEnabled() {
+        return jfrEventsEnabled;
+    }
+
+    public void setJfrEventsEnabled(boolean jfrEventsEnabled) {
+        this.jfrEventsEnabled = jfrEventsEnabled;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ProfilingEventLoggerConfiguration{");
+        sb.append("samplingInterval=").append(samplingInterval);
+        sb.append(", reportPeriodMs=").append(reportPeriodMs);
+        sb.append(", topN=").append(topN);
+        sb.append(", hotSubscriberShare=").append(hotSubscriberShare);
+        sb.append(", jfrEventsEnabled=").append(jfrEventsEnabled);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.wldt.demo.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies expressed in nanoseconds.
+ *
+ * Values are counted in log-linear buckets: every power of two is split in {@value #SUB_BUCKET_COUNT} linear
+ * sub-buckets, so the reported percentiles have a relative error below 12.5% whatever the order of magnitude.
+ * Recording a value costs a few bit operations and a single atomic increment, and can be performed concurrently
+ * by any number of threads while the percentiles are read.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record a new value, negative values are recorded as zero
+     *
+     * @param valueNanos the measured latency in nanoseconds
+     */
+    public void record(long valueNanos) {
+
+        long value = Math.max(0, valueNanos);
+
+        this.bucketCounts.incrementAndGet(getBucketIndex(value));
+        this.count.increment();
+        this.sum.add(value);
+
+        long currentMax;
+        while(value > (currentMax = this.maxValue.get()))
+            if(this.maxValue.compareAndSet(currentMax, value))
+                break;
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getMaxValue() {
+        return this.maxValue.get();
+    }
+
+    public double getMeanValue() {
+        long currentCount = this.count.sum();
+        return currentCount > 0 ? (double) this.sum.sum() / currentCount : 0.0;
+    }
+
+    /**
+     * @param percentile the requested percentile in the range [0, 100]
+     * @return the upper bound of the bucket containing the percentile in nanoseconds, 0 if no value has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        long totalCount = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = this.bucketCounts.get(i);
+            totalCount += counts[i];
+        }
+
+        if(totalCount == 0)
+            return 0;
+
+        long targetCount = Math.max(1, (long) Math.ceil(totalCount * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+
+        long cumulativeCount = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += counts[i];
+            if(cumulativeCount >= targetCount)
+                return Math.min(getBucketUpperBound(i), getMaxValue());
+        }
+
+        return getMaxValue();
+    }
+
+    static int getBucketIndex(long value) {
+        if(value < SUB_BUCKET_COUNT)
+            return (int) value;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long getBucketUpperBound(int bucketIndex) {
+        if(bucketIndex < SUB_BUCKET_COUNT)
+            return bucketIndex;
+        int exponent = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = bucketIndex % SUB_BUCKET_COUNT;
+        long upperBound = ((long) (SUB_BUCKET_COUNT + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LatencyHistogram{");
+        sb.append("count=").append(getCount());
+        sb.append(", meanUs=").append(String.format("%.1f", getMeanValue() / 1000.0));
+        sb.append(", p50Us=").append(getValueAtPercentile(50) / 1000);
+        sb.append(", p99Us=").append(getValueAtPercentile(99) / 1000);
+        sb.append(", maxUs=").append(getMaxValue() / 1000);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.wldt.demo.migration;
+
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+import io.github.wldt.demo.trace.TraceRecordType;
+import it.wldt.adapter.physical.PhysicalAssetRelationshipInstance;
+import it.wldt.adapter.physical.event.PhysicalAssetEventWldtEvent;
+import it.wldt.adapter.physical.event.PhysicalAssetPropertyWldtEvent;
+import it.wldt.adapter.physical.event.PhysicalAssetRelationshipInstanceCreatedWldtEvent;
+import it.wldt.adapter.physical.event.PhysicalAssetRelationshipInstanceDeletedWldtEvent;
+import it.wldt.core.event.WldtEvent;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Serializable copy of a physical variation received by a frozen Shadowing Function during a migration.
+ * In-flight events are shipped with the DT State Snapshot and applied by the target twin after its bind,
+ * so no update is lost while the twin moves between engines.
+ *
+ * Only values and relationship targets implementing {@link Serializable} can be shipped.
+ */
+public class InFlightPhysicalEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TraceRecordType recordType;
+
+    private final String key;
+
+    private final Serializable value;
+
+    private final DigitalTwinStateSnapshot.RelationshipInstanceSnapshot relationshipInstance;
+
+    private final long sampleTimestamp;
+
+    private InFlightPhysicalEvent(TraceRecordType recordType, String key, Serializable value,
+                                  DigitalTwinStateSnapshot.RelationshipInstanceSnapshot relationshipInstance, long sampleTimestamp) {
+        this.recordType = recordType;
+        this.key = key;
+        this.value = value;
+        this.relationshipInstance = relationshipInstance;
+        this.sampleTimestamp = sampleTimestamp;
+    }
+
+    /**
+     * Copy the target physical WLDT Event
+     *
+     * @param physicalEvent the event received by the Shadowing Function
+     * @param sampleTimestamp the time at which the physical sample has been generated
+     * @return the in-flight event or an empty Optional if the event type or its payload can not be shipped
+     */
+    public static Optional<InFlightPhysicalEvent> from(WldtEvent<?> physicalEvent, long sampleTimestamp) {
+
+        if(physicalEvent instanceof PhysicalAssetPropertyWldtEvent) {
+            PhysicalAssetPropertyWldtEvent<?> propertyEvent = (PhysicalAssetPropertyWldtEvent<?>) physicalEvent;
+            if(propertyEvent.getBody() instanceof Serializable)
+                return Optional.of(new InFlightPhysicalEvent(TraceRecordType.PROPERTY, propertyEvent.getPhysicalPropertyId(), (Serializable) propertyEvent.getBody(), null, sampleTimestamp));
+        }
+        else if(physicalEvent instanceof PhysicalAssetEventWldtEvent) {
+            PhysicalAssetEventWldtEvent<?> eventNotification = (PhysicalAssetEventWldtEvent<?>) physicalEvent;
+            if(eventNotification.getBody() == null || eventNotification.getBody() instanceof Serializable)
+                return Optional.of(new InFlightPhysicalEvent(TraceRecordType.EVENT, eventNotification.getPhysicalEventKey(), (Serializable) eventNotification.getBody(), null, sampleTimestamp));
+        }
+        else if(physicalEvent instanceof PhysicalAssetRelationshipInstanceCreatedWldtEvent)
+            return fromRelationshipInstance(TraceRecordType.RELATIONSHIP_CREATED, ((PhysicalAssetRelationshipInstanceCreatedWldtEvent<?>) physicalEvent).getBody(), sampleTimestamp);
+        else if(physicalEvent instanceof PhysicalAssetRelationshipInstanceDeletedWldtEvent)
+            return fromRelationshipInstance(TraceRecordType.RELATIONSHIP_DELETED, ((PhysicalAssetRelationshipInstanceDeletedWldtEvent<?>) physicalEvent).getBody(), sampleTimestamp);
+
+        return Optional.empty();
+    }
+
+    private static Optional<InFlightPhysicalEvent> fromRelationshipInstance(TraceRecordType recordType, PhysicalAssetRelationshipInstance<?> instance, long sampleTimestamp) {
+
+        if(instance == null || !(instance.getTargetId() instanceof Serializable))
+            return Optional.empty();
+
+        DigitalTwinStateSnapshot.RelationshipInstanceSnapshot instanceSnapshot = new DigitalTwinStateSnapshot.RelationshipInstanceSnapshot(
+                instance.getRelationship().getName(),
+                (Serializable) instance.getTargetId(),
+                instance.getKey(),
+                instance.getMetadata().orElse(null));
+
+        return Optional.of(new InFlightPhysicalEvent(recordType, instance.getRelationship().getName(), null, instanceSnapshot, sampleTimestamp));
+    }
+
+    public TraceRecordType getRecordType() {
+        return recordType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Serializable getValue() {
+        return value;
+    }
+
+    public DigitalTwinStateSnapshot.RelationshipInstanceSnapshot getRelationshipInstance() {
+        return relationshipInstance;
+    }
+
+    public long getSampleTimestamp() {
+        return sampleTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("InFlightPhysicalEvent{");
+        sb.append("recordType=").append(recordType);
+        sb.append(", key='").append(key).append('\'');
+        sb.append(", value=").append(value);
+        sb.append(", sampleTimestamp=").append(sampleTimestamp);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.wldt.demo.migration;
+
+import java.util.Arrays;
+
+/**
+ * Transport between two engines running in the same JVM. The payload is copied so that the target twin never
+ * shares any object with the source one.
+ */
+public class InJvmMigrationTransport implements TwinMigrationTransport {
+
+    @Override
+    public byte[] transfer(String digitalTwinId, byte[] payload) {
+        return Arrays.copyOf(payload, payload.length);
+    }
+
+    @Override
+    public String toString() {
+        return "InJvmMigrationTransport{}";
+    }
+}
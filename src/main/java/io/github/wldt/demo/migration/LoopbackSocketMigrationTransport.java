@@ -0,0 +1,77 @@
+package io.github.wldt.demo.migration;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Transport sending the payload through a TCP connection on the loopback interface, as a stand-in for the
+ * network hop between engines running in different processes. The receiving side listens on an ephemeral port
+ * and each transfer uses a new connection with a length-prefixed payload.
+ */
+public class LoopbackSocketMigrationTransport implements TwinMigrationTransport, Closeable {
+
+    private static final int SOCKET_TIMEOUT_MS = 10000;
+
+    private final ServerSocket serverSocket;
+
+    public LoopbackSocketMigrationTransport() throws IOException {
+        this.serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        this.serverSocket.setSoTimeout(SOCKET_TIMEOUT_MS);
+    }
+
+    @Override
+    public synchronized byte[] transfer(String digitalTwinId, byte[] payload) throws IOException {
+
+        //The sender runs on its own thread while the current one acts as the receiving engine
+        IOException[] sendError = new IOException[1];
+        Thread senderThread = new Thread(() -> {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.serverSocket.getLocalPort());
+                 DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                outputStream.writeInt(payload.length);
+                outputStream.write(payload);
+                outputStream.flush();
+            } catch (IOException e) {
+                sendError[0] = e;
+            }
+        }, String.format("%s-migration-sender", digitalTwinId));
+        senderThread.start();
+
+        try (Socket socket = this.serverSocket.accept();
+             DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+
+            socket.setSoTimeout(SOCKET_TIMEOUT_MS);
+
+            byte[] received = new byte[inputStream.readInt()];
+            inputStream.readFully(received);
+            return received;
+
+        } finally {
+            try {
+                senderThread.join(SOCKET_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if(sendError[0] != null)
+                throw sendError[0];
+        }
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LoopbackSocketMigrationTransport{");
+        sb.append("port=").append(getPort());
+        sb.append('}');
+        return sb.toString();
+    }
+}
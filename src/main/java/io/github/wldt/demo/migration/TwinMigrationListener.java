@@ -0,0 +1,14 @@
+package io.github.wldt.demo.migration;
+
+/**
+ * Listener notified about the progress of the migrations handled by a {@link TwinMigrationManager}
+ */
+public interface TwinMigrationListener {
+
+    void onMigrationStarted(String digitalTwinId);
+
+    void onMigrationCompleted(TwinMigrationReport migrationReport);
+
+    void onMigrationFailed(String digitalTwinId, Exception error);
+
+}
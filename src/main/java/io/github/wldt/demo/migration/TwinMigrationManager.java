@@ -0,0 +1,182 @@
+package io.github.wldt.demo.migration;
+
+import io.github.wldt.demo.DemoShadowingFunction;
+import io.github.wldt.demo.DemoShadowingFunctionConfiguration;
+import io.github.wldt.demo.engine.DigitalTwinFactory;
+import io.github.wldt.demo.engine.ManagedDigitalTwin;
+import io.github.wldt.demo.jfr.TwinMigrationJfrEvent;
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+import it.wldt.core.engine.DigitalTwinEngine;
+import it.wldt.exception.WldtEngineException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manager moving running Digital Twins between {@link DigitalTwinEngine} instances to rebalance the load
+ * without losing their DT State or the physical variations received during the move.
+ *
+ * A migration prepares the target twin through the {@link DigitalTwinFactory}, freezes the source twin (physical
+ * variations are buffered instead of applied), captures its DT State Snapshot, stops it and collects the buffered
+ * in-flight events. The resulting {@link TwinMigrationPackage} is moved through the configured
+ * {@link TwinMigrationTransport}, then the target twin is started: its adapters bind again, the snapshot is restored
+ * and the in-flight events are applied before the twin notifies its synchronization.
+ */
+public class TwinMigrationManager {
+
+    private static final long DEFAULT_RESUME_TIMEOUT_MS = 60000;
+
+    private final DigitalTwinFactory digitalTwinFactory;
+
+    private final TwinMigrationTransport migrationTransport;
+
+    private final long resumeTimeoutMs;
+
+    private final List<TwinMigrationListener> migrationListenerList = new CopyOnWriteArrayList<>();
+
+    public TwinMigrationManager(DigitalTwinFactory digitalTwinFactory, TwinMigrationTransport migrationTransport) {
+        this(digitalTwinFactory, migrationTransport, DEFAULT_RESUME_TIMEOUT_MS);
+    }
+
+    public TwinMigrationManager(DigitalTwinFactory digitalTwinFactory, TwinMigrationTransport migrationTransport, long resumeTimeoutMs) {
+        this.digitalTwinFactory = digitalTwinFactory;
+        this.migrationTransport = migrationTransport;
+        this.resumeTimeoutMs = resumeTimeoutMs;
+    }
+
+    public void addMigrationListener(TwinMigrationListener migrationListener) {
+        this.migrationListenerList.add(migrationListener);
+    }
+
+    public void removeMigrationListener(TwinMigrationListener migrationListener) {
+        this.migrationListenerList.remove(migrationListener);
+    }
+
+    /**
+     * Migrate a running Digital Twin from the source to the target engine
+     *
+     * @param sourceTwin the twin running on the source engine
+     * @param sourceEngine the engine currently running the twin
+     * @param targetEngine the engine that will run the twin
+     * @return the twin running on the target engine
+     * @throws WldtEngineException if the migration fails
+     */
+    public ManagedDigitalTwin migrate(ManagedDigitalTwin sourceTwin, DigitalTwinEngine sourceEngine, DigitalTwinEngine targetEngine) throws WldtEngineException {
+
+        String digitalTwinId = sourceTwin.getDigitalTwinId();
+
+        this.migrationListenerList.forEach(listener -> listener.onMigrationStarted(digitalTwinId));
+
+        TwinMigrationJfrEvent migrationJfrEvent = new TwinMigrationJfrEvent();
+
+        DemoShadowingFunction sourceShadowingFunction = sourceTwin.getShadowingFunction();
+        boolean sourceStopped = false;
+        DigitalTwinStateSnapshot stateSnapshot = null;
+        List<InFlightPhysicalEvent> inFlightEvents = null;
+
+        try {
+
+            //Build the target twin before the freeze to keep its creation out of the pause
+            ManagedDigitalTwin targetTwin = this.digitalTwinFactory.createDigitalTwin(digitalTwinId, null);
+
+            migrationJfrEvent.begin();
+            long freezeStartNs = System.nanoTime();
+
+            sourceShadowingFunction.freeze();
+            stateSnapshot = sourceShadowingFunction.getDigitalTwinStateSnapshot();
+
+            //Stop the source twin and its adapters before the target ones connect to the physical asset
+            sourceEngine.removeDigitalTwin(digitalTwinId);
+            sourceStopped = true;
+            inFlightEvents = sourceShadowingFunction.drainInFlightEvents();
+
+            long transferStartNs = System.nanoTime();
+
+            byte[] payload = new TwinMigrationPackage(stateSnapshot, inFlightEvents).toByteArray();
+            TwinMigrationPackage migrationPackage = TwinMigrationPackage.fromByteArray(this.migrationTransport.transfer(digitalTwinId, payload));
+
+            long resumeStartNs = System.nanoTime();
+
+            DemoShadowingFunctionConfiguration targetConfiguration = targetTwin.getShadowingFunction().getConfiguration();
+            targetConfiguration.setInitialStateSnapshot(migrationPackage.getStateSnapshot());
+            targetConfiguration.setPendingPhysicalEvents(migrationPackage.getInFlightEvents());
+
+            targetEngine.addDigitalTwin(targetTwin.getDigitalTwin());
+            targetEngine.startDigitalTwin(digitalTwinId);
+
+            //The twin is resumed once the target adapters are bound and the DT State has been rebuilt
+            targetTwin.getShadowingFunction().getSynchronizedFuture().get(this.resumeTimeoutMs, TimeUnit.MILLISECONDS);
+
+            long resumeEndNs = System.nanoTime();
+
+            migrationJfrEvent.end();
+            if(migrationJfrEvent.shouldCommit()){
+                migrationJfrEvent.twinId = digitalTwinId;
+                migrationJfrEvent.payloadSizeBytes = payload.length;
+                migrationJfrEvent.inFlightEventCount = migrationPackage.getInFlightEvents().size();
+                migrationJfrEvent.commit();
+            }
+
+            TwinMigrationReport migrationReport = new TwinMigrationReport(digitalTwinId,
+                    TimeUnit.NANOSECONDS.toMillis(transferStartNs - freezeStartNs),
+                    TimeUnit.NANOSECONDS.toMillis(resumeStartNs - transferStartNs),
+                    TimeUnit.NANOSECONDS.toMillis(resumeEndNs - resumeStartNs),
+                    payload.length,
+                    migrationPackage.getInFlightEvents().size());
+
+            System.out.println("[TwinMigrationManager] -> Digital Twin Migrated: " + migrationReport);
+
+            this.migrationListenerList.forEach(listener -> listener.onMigrationCompleted(migrationReport));
+
+            return targetTwin;
+
+        } catch (Exception e) {
+
+            this.migrationListenerList.forEach(listener -> listener.onMigrationFailed(digitalTwinId, e));
+
+            //A source twin still running resumes applying its physical variations
+            if(sourceStopped)
+                restoreOnSource(digitalTwinId, sourceEngine, targetEngine, stateSnapshot, inFlightEvents);
+            else
+                sourceShadowingFunction.unfreeze();
+
+            throw new WldtEngineException(String.format("Error migrating Digital Twin %s ! Error: %s", digitalTwinId, e.getLocalizedMessage()));
+        }
+    }
+
+    /**
+     * Run again the twin on the source engine from the captured snapshot when the target one can not be resumed
+     */
+    private void restoreOnSource(String digitalTwinId, DigitalTwinEngine sourceEngine, DigitalTwinEngine targetEngine,
+                                 DigitalTwinStateSnapshot stateSnapshot, List<InFlightPhysicalEvent> inFlightEvents) {
+        try {
+
+            try {
+                targetEngine.removeDigitalTwin(digitalTwinId);
+            } catch (WldtEngineException e) {
+                //The twin has not been added to the target engine
+            }
+
+            ManagedDigitalTwin restoredTwin = this.digitalTwinFactory.createDigitalTwin(digitalTwinId, stateSnapshot);
+            restoredTwin.getShadowingFunction().getConfiguration().setPendingPhysicalEvents(inFlightEvents);
+
+            sourceEngine.addDigitalTwin(restoredTwin.getDigitalTwin());
+            sourceEngine.startDigitalTwin(digitalTwinId);
+
+            System.out.println("[TwinMigrationManager] -> Digital Twin Restored on Source Engine: " + digitalTwinId);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinMigrationManager{");
+        sb.append("migrationTransport=").append(migrationTransport);
+        sb.append(", resumeTimeoutMs=").append(resumeTimeoutMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
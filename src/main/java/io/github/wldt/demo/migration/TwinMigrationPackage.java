@@ -0,0 +1,63 @@
+package io.github.wldt.demo.migration;
+
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data moved from the source to the target engine during a migration: the DT State Snapshot of the frozen twin
+ * and the physical events received after the freeze and not yet applied to its DT State
+ */
+public class TwinMigrationPackage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DigitalTwinStateSnapshot stateSnapshot;
+
+    private final ArrayList<InFlightPhysicalEvent> inFlightEvents;
+
+    public TwinMigrationPackage(DigitalTwinStateSnapshot stateSnapshot, List<InFlightPhysicalEvent> inFlightEvents) {
+        this.stateSnapshot = stateSnapshot;
+        this.inFlightEvents = new ArrayList<>(inFlightEvents);
+    }
+
+    public byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            outputStream.writeObject(this);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    public static TwinMigrationPackage fromByteArray(byte[] data) throws IOException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (TwinMigrationPackage) inputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(String.format("Wrong Twin Migration Package data ! Error: %s", e.getLocalizedMessage()));
+        }
+    }
+
+    public String getDigitalTwinId() {
+        return stateSnapshot.getDigitalTwinId();
+    }
+
+    public DigitalTwinStateSnapshot getStateSnapshot() {
+        return stateSnapshot;
+    }
+
+    public List<InFlightPhysicalEvent> getInFlightEvents() {
+        return Collections.unmodifiableList(inFlightEvents);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinMigrationPackage{");
+        sb.append("stateSnapshot=").append(stateSnapshot);
+        sb.append(", inFlightEvents=").append(inFlightEvents.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
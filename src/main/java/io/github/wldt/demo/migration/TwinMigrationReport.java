@@ -0,0 +1,80 @@
+package io.github.wldt.demo.migration;
+
+/**
+ * Timing and size metrics of a completed migration. The pause time is the interval during which the twin
+ * did not apply any physical variation: from the freeze of the source twin to the synchronization of the target one.
+ */
+public class TwinMigrationReport {
+
+    private final String digitalTwinId;
+
+    private final long freezeTimeMs;
+
+    private final long transferTimeMs;
+
+    private final long resumeTimeMs;
+
+    private final int payloadSizeBytes;
+
+    private final int inFlightEventCount;
+
+    public TwinMigrationReport(String digitalTwinId, long freezeTimeMs, long transferTimeMs, long resumeTimeMs, int payloadSizeBytes, int inFlightEventCount) {
+        this.digitalTwinId = digitalTwinId;
+        this.freezeTimeMs = freezeTimeMs;
+        this.transferTimeMs = transferTimeMs;
+        this.resumeTimeMs = resumeTimeMs;
+        this.payloadSizeBytes = payloadSizeBytes;
+        this.inFlightEventCount = inFlightEventCount;
+    }
+
+    public String getDigitalTwinId() {
+        return digitalTwinId;
+    }
+
+    /**
+     * @return the time spent to freeze the source twin, capture its snapshot and stop it
+     */
+    public long getFreezeTimeMs() {
+        return freezeTimeMs;
+    }
+
+    /**
+     * @return the time spent to serialize, transfer and deserialize the migration package
+     */
+    public long getTransferTimeMs() {
+        return transferTimeMs;
+    }
+
+    /**
+     * @return the time spent by the target twin to start, bind its adapters and apply the in-flight events
+     */
+    public long getResumeTimeMs() {
+        return resumeTimeMs;
+    }
+
+    public long getPauseTimeMs() {
+        return freezeTimeMs + transferTimeMs + resumeTimeMs;
+    }
+
+    public int getPayloadSizeBytes() {
+        return payloadSizeBytes;
+    }
+
+    public int getInFlightEventCount() {
+        return inFlightEventCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinMigrationReport{");
+        sb.append("digitalTwinId='").append(digitalTwinId).append('\'');
+        sb.append(", pauseTimeMs=").append(getPauseTimeMs());
+        sb.append(", freezeTimeMs=").append(freezeTimeMs);
+        sb.append(", transferTimeMs=").append(transferTimeMs);
+        sb.append(", resumeTimeMs=").append(resumeTimeMs);
+        sb.append(", payloadSizeBytes=").append(payloadSizeBytes);
+        sb.append(", inFlightEventCount=").append(inFlightEventCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.wldt.demo.migration;
+
+import java.io.IOException;
+
+/**
+ * Channel used to move the serialized {@link TwinMigrationPackage} from the source to the target engine
+ */
+public interface TwinMigrationTransport {
+
+    /**
+     * Deliver the serialized package to the target engine
+     *
+     * @param digitalTwinId the id of the migrated Digital Twin
+     * @param payload the serialized package
+     * @return the payload received on the target side
+     * @throws IOException if the payload can not be delivered
+     */
+    byte[] transfer(String digitalTwinId, byte[] payload) throws IOException;
+
+}
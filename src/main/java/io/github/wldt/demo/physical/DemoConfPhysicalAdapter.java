@@ -1,16 +1,26 @@
 package io.github.wldt.demo.physical;
 
+import io.github.wldt.demo.jfr.PhysicalPublishJfrEvent;
+import io.github.wldt.demo.template.DigitalTwinTemplate;
 import io.github.wldt.demo.utils.GlobalKeywords;
 import it.wldt.adapter.physical.*;
 import it.wldt.adapter.physical.event.PhysicalAssetActionWldtEvent;
 import it.wldt.adapter.physical.event.PhysicalAssetEventWldtEvent;
 import it.wldt.adapter.physical.event.PhysicalAssetPropertyWldtEvent;
 import it.wldt.adapter.physical.event.PhysicalAssetRelationshipInstanceCreatedWldtEvent;
+import it.wldt.adapter.physical.event.PhysicalAssetRelationshipInstanceDeletedWldtEvent;
+import it.wldt.core.event.WldtEvent;
 import it.wldt.exception.EventBusException;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Authors:
@@ -22,6 +32,22 @@ public class DemoConfPhysicalAdapter extends ConfigurablePhysicalAdapter<DemoPhy
 
     private PhysicalAssetRelationship<String> insideInRelationship = null;
 
+    //Relationship instance currently published, deleted before creating the next one when the churn is enabled
+    private PhysicalAssetRelationshipInstance<String> insideInRelationshipInstance = null;
+
+    private Thread padPublicationThread = null;
+
+    private Thread deviceEmulationThread = null;
+
+    //Concurrent relays delivering the property samples out of order when configured
+    private ExecutorService relayExecutor = null;
+
+    //Windows of raw samples collected for each property key when the pre-aggregation is enabled
+    private final Map<String, PropertySampleAccumulator> sampleAccumulatorMap = new HashMap<>();
+
+    //Publishes the windows of the keys that went quiet, running only while the device emulation is publishing
+    private Thread sampleWindowFlushThread = null;
+
     public DemoConfPhysicalAdapter(String id, DemoPhysicalAdapterConfiguration configuration) {
         super(id, configuration);
     }
@@ -50,10 +76,22 @@ public class DemoConfPhysicalAdapter extends ConfigurablePhysicalAdapter<DemoPhy
         try {
 
             //Start Physical Asset Description Publication
-            new Thread(publishPhysicalAssetDescription()).start();
+            this.padPublicationThread = getConfiguration().getClock().newThread(publishPhysicalAssetDescription(), String.format("%s-pad-publication", getId()));
+            this.padPublicationThread.start();
+
+            if(getConfiguration().getRelayCount() > 0) {
+                AtomicInteger relayIndex = new AtomicInteger();
+                //Plain threads: idle relays must not hold a virtual clock, they participate only while sleeping on it
+                this.relayExecutor = Executors.newFixedThreadPool(getConfiguration().getRelayCount(), runnable -> {
+                    Thread thread = new Thread(runnable, String.format("%s-relay-%d", getId(), relayIndex.getAndIncrement()));
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
 
             //Start Device Emulation
-            new Thread(deviceEmulation()).start();
+            this.deviceEmulationThread = getConfiguration().getClock().newThread(deviceEmulation(), String.format("%s-device-emulation", getId()));
+            this.deviceEmulationThread.start();
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -63,6 +101,18 @@ public class DemoConfPhysicalAdapter extends ConfigurablePhysicalAdapter<DemoPhy
     @Override
     public void onAdapterStop() {
 
+        //Release the emulation threads when the twin is stopped (e.g., passivated)
+        if(this.padPublicationThread != null)
+            this.padPublicationThread.interrupt();
+
+        if(this.deviceEmulationThread != null)
+            this.deviceEmulationThread.interrupt();
+
+        if(this.sampleWindowFlushThread != null)
+            this.sampleWindowFlushThread.interrupt();
+
+        if(this.relayExecutor != null)
+            this.relayExecutor.shutdownNow();
     }
 
     private Runnable publishPhysicalAssetDescription(){
@@ -71,35 +121,29 @@ public class DemoConfPhysicalAdapter extends ConfigurablePhysicalAdapter<DemoPhy
 
                 System.out.println("[DemoPhysicalAdapter] -> Sleeping before Publishing Physical Asset Description ...");
 
-                //Emulate a Startup delay of 5 seconds to emulate device startup
-                Thread.sleep(5000);
+                //Emulate a Startup delay of 5 seconds to emulate device startup, a readiness-driven device is ready at start
+                if(getConfiguration().getReadinessSignal() == null)
+                    getConfiguration().getClock().sleep(GlobalKeywords.PAD_PUBLICATION_DELAY_MS);
 
                 System.out.println("[DemoPhysicalAdapter] -> Publishing Physical Asset Description ...");
 
-                //Create an empty PAD
-                PhysicalAssetDescription pad = new PhysicalAssetDescription();
-
-                //Add a new Property associated to the target PAD with a key and a default value
-                PhysicalAssetProperty<Double> temperatureProperty = new PhysicalAssetProperty<Double>(GlobalKeywords.TEMPERATURE_PROPERTY_KEY, 0.0);
-                pad.getProperties().add(temperatureProperty);
+                //Use the PAD shared by all the devices of the same model declaring the temperature property,
+                //the overheating event, the set temperature action and the insideIn relationship
+                DigitalTwinTemplate template = getConfiguration().getTemplate();
+                PhysicalAssetDescription pad = template.getPhysicalAssetDescription();
 
-                //Add the declaration of a new type of generated event associated to a event key
-                // and the content type of the generated payload
-                PhysicalAssetEvent overheatingEvent = new PhysicalAssetEvent(GlobalKeywords.OVERHEATING_EVENT_KEY, "text/plain");
-                pad.getEvents().add(overheatingEvent);
+                //Shared relationship used to create the instances describing that the Physical Device is inside a building
+                this.insideInRelationship = template.<String>getRelationship(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME).orElse(null);
 
-                //Declare the availability of a target action characterized by a Key, an action type
-                // and the expected content type and the request body
-                PhysicalAssetAction setTemperatureAction = new PhysicalAssetAction(GlobalKeywords.SET_TEMPERATURE_ACTION_KEY, "temperature.actuation", "text/plain");
-                pad.getActions().add(setTemperatureAction);
-
-                //Create Test Relationship to describe that the Physical Device is inside a building
-                this.insideInRelationship = new PhysicalAssetRelationship<>(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME, GlobalKeywords.INSIDE_IN_RELATIONSHIP_TYPE);
-                pad.getRelationships().add(insideInRelationship);
+                //Record the PAD as first element of the trace to bind the replayed twin
+                if(getConfiguration().getTraceWriter() != null)
+                    recordTrace(() -> getConfiguration().getTraceWriter().writePhysicalAssetDescription(getConfiguration().getClock().currentTimeMillis(), pad));
 
                 //Notify the new PAD to the DT's Shadowing Function
                 this.notifyPhysicalAdapterBound(pad);
 
+            } catch (InterruptedException e) {
+                System.out.println("[DemoPhysicalAdapter] -> Physical Asset Description Publication Interrupted !");
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -113,8 +157,11 @@ public class DemoConfPhysicalAdapter extends ConfigurablePhysicalAdapter<DemoPhy
 
                 System.out.println("[DemoPhysicalAdapter] -> Sleeping before Starting Physical Device Emulation ...");
 
-                //Sleep 5 seconds to emulate device startup
-                Thread.sleep(10000);
+                //Sleep 10 seconds to emulate device startup or wait until the twin is ready to observe the samples
+                if(getConfiguration().getReadinessSignal() == null)
+                    getConfiguration().getClock().sleep(GlobalKeywords.DEVICE_STARTUP_DELAY_MS);
+                else
+                    getConfiguration().getReadinessSignal().get();
 
                 System.out.println("[DemoPhysicalAdapter] -> Starting Physical Device Emulation ...");
 
@@ -122,55 +169,295 @@ public class DemoConfPhysicalAdapter extends ConfigurablePhysicalAdapter<DemoPhy
                 Random r = new Random();
 
                 //Publish an initial Event for a normal condition
-                publishPhysicalAssetEventWldtEvent(new PhysicalAssetEventWldtEvent<>(GlobalKeywords.OVERHEATING_EVENT_KEY, "normal"));
+                publishPhysicalEvent(new PhysicalAssetEventWldtEvent<>(GlobalKeywords.OVERHEATING_EVENT_KEY, "normal"));
 
-                //Sleep 5 seconds to emulate device startup
-                Thread.sleep(10000);
+                //Sleep 10 seconds before emulating the relationship creation
+                if(getConfiguration().getReadinessSignal() == null)
+                    getConfiguration().getClock().sleep(GlobalKeywords.RELATIONSHIP_CREATION_DELAY_MS);
 
                 //Emulate Relationship Instance Creation
                 publishPhysicalRelationshipInstance();
 
+                //Publish the windows whose key receives no further sample within the window length
+                if(getConfiguration().getSampleAggregationMode() != SampleAggregationMode.NONE) {
+                    this.sampleWindowFlushThread = new Thread(flushElapsedSampleWindows(), String.format("%s-sample-window-flush", getId()));
+                    this.sampleWindowFlushThread.setDaemon(true);
+                    this.sampleWindowFlushThread.start();
+                }
+
                 //Emulate the generation on 'n' temperature measurements
                 for(int i = 0; i < getConfiguration().getMessageUpdateNumber(); i++){
 
                     //Sleep to emulate sensor measurement
-                    Thread.sleep(getConfiguration().getMessageUpdateTime());
+                    getConfiguration().getClock().sleep(getConfiguration().getMessageUpdateTime());
+
+                    //Periodically notify a condition change and move the device to emulate a long-running asset
+                    if(getConfiguration().getChurnPeriod() > 0 && i > 0 && i % getConfiguration().getChurnPeriod() == 0)
+                        emulateChurn(i / getConfiguration().getChurnPeriod());
+
+                    //Repeat the same alarm to emulate an event storm
+                    if(getConfiguration().getAlarmPeriod() > 0 && i % getConfiguration().getAlarmPeriod() == 0)
+                        publishPhysicalEvent(new PhysicalAssetEventWldtEvent<>(GlobalKeywords.OVERHEATING_EVENT_KEY, "critical"));
 
                     //Update the
                     double randomTemperature = getConfiguration().getTemperatureMinValue() + (getConfiguration().getTemperatureMaxValue() - getConfiguration().getTemperatureMinValue()) * r.nextDouble();
 
+                    //Collect the sample in the current window when the pre-aggregation is enabled
+                    if(getConfiguration().getSampleAggregationMode() != SampleAggregationMode.NONE){
+                        collectPhysicalPropertySample(GlobalKeywords.TEMPERATURE_PROPERTY_KEY, randomTemperature);
+                        continue;
+                    }
+
                     //Create a new event to notify the variation of a Physical Property
                     PhysicalAssetPropertyWldtEvent<Double> newPhysicalPropertyEvent = new PhysicalAssetPropertyWldtEvent<>(GlobalKeywords.TEMPERATURE_PROPERTY_KEY, randomTemperature);
 
                     //Publish the WLDTEvent associated to the Physical Property Variation
-                    publishPhysicalAssetPropertyWldtEvent(newPhysicalPropertyEvent);
+                    publishPhysicalProperty(newPhysicalPropertyEvent);
                 }
 
+                //Publish the partial windows before the final event
+                if(this.sampleWindowFlushThread != null)
+                    this.sampleWindowFlushThread.interrupt();
+                publishPendingSampleWindows();
+
                 //Publish a demo Physical Event associated to a 'critical' overheating condition
-                publishPhysicalAssetEventWldtEvent(new PhysicalAssetEventWldtEvent<>(GlobalKeywords.OVERHEATING_EVENT_KEY, "critical"));
+                publishPhysicalEvent(new PhysicalAssetEventWldtEvent<>(GlobalKeywords.OVERHEATING_EVENT_KEY, "critical"));
+
+                if(getConfiguration().getTraceWriter() != null)
+                    recordTrace(() -> getConfiguration().getTraceWriter().flush());
 
-            } catch (EventBusException | InterruptedException e) {
+            } catch (InterruptedException e) {
+                System.out.println("[DemoPhysicalAdapter] -> Physical Device Emulation Interrupted !");
+            } catch (ExecutionException e) {
+                System.err.println("[DemoPhysicalAdapter] -> Digital Twin not Ready ! Error: " + e.getLocalizedMessage());
+            } catch (EventBusException e) {
                 e.printStackTrace();
             }
         };
     }
 
     private void publishPhysicalRelationshipInstance() {
+        publishPhysicalRelationshipInstance(getConfiguration().getRoom());
+    }
+
+    private void publishPhysicalRelationshipInstance(String room) {
         try{
 
-            String relationshipTarget = "building-hq";
+            String relationshipTarget = getConfiguration().getBuilding();
 
             Map<String, Object> relationshipMetadata = new HashMap<>();
-            relationshipMetadata.put("floor", "f0");
-            relationshipMetadata.put("room", "r0");
+            relationshipMetadata.put(GlobalKeywords.FLOOR_METADATA_KEY, getConfiguration().getFloor());
+            relationshipMetadata.put(GlobalKeywords.ROOM_METADATA_KEY, room);
 
             PhysicalAssetRelationshipInstance<String> relInstance = this.insideInRelationship.createRelationshipInstance(relationshipTarget, relationshipMetadata);
 
             PhysicalAssetRelationshipInstanceCreatedWldtEvent<String> relInstanceEvent = new PhysicalAssetRelationshipInstanceCreatedWldtEvent<>(relInstance);
-            publishPhysicalAssetRelationshipCreatedWldtEvent(relInstanceEvent);
+            publishPhysicalRelationshipCreated(relInstanceEvent);
+
+            this.insideInRelationshipInstance = relInstance;
 
         }catch (Exception e){
             e.printStackTrace();
         }
     }
+
+    /**
+     * Notify an alternating overheating condition and replace the relationship instance with a new one moving the
+     * device across two rooms, so long runs keep creating and deleting DT State resources
+     *
+     * @param churnCycle the number of the current churn cycle
+     */
+    private void emulateChurn(int churnCycle) throws EventBusException {
+
+        publishPhysicalEvent(new PhysicalAssetEventWldtEvent<>(GlobalKeywords.OVERHEATING_EVENT_KEY, (churnCycle % 2 == 0) ? "normal" : "warning"));
+
+        if(this.insideInRelationshipInstance != null)
+            publishPhysicalRelationshipDeleted(new PhysicalAssetRelationshipInstanceDeletedWldtEvent<>(this.insideInRelationshipInstance));
+
+        publishPhysicalRelationshipInstance((churnCycle % 2 == 0) ? getConfiguration().getRoom() : String.format("%s-annex", getConfiguration().getRoom()));
+    }
+
+    /**
+     * Add a raw sample to the window of its key, publishing the window when it spans the configured length or
+     * reaches the maximum number of samples. Raw samples are still recorded one by one on the trace, so a replay
+     * reproduces the original stream whatever the aggregation mode.
+     */
+    private void collectPhysicalPropertySample(String propertyKey, double value) throws EventBusException {
+
+        long sampleTimestamp = getConfiguration().getClock().currentTimeMillis();
+
+        if(getConfiguration().getTraceWriter() != null) {
+            PhysicalAssetPropertyWldtEvent<Double> samplePropertyEvent = new PhysicalAssetPropertyWldtEvent<>(propertyKey, value);
+            recordTrace(() -> getConfiguration().getTraceWriter().writeProperty(sampleTimestamp, samplePropertyEvent));
+        }
+
+        //The accumulators are shared with the flush thread
+        synchronized (this.sampleAccumulatorMap) {
+
+            PropertySampleAccumulator accumulator = this.sampleAccumulatorMap.computeIfAbsent(propertyKey,
+                    key -> new PropertySampleAccumulator(getConfiguration().getSampleAggregationMode() == SampleAggregationMode.BATCH));
+            accumulator.add(value, sampleTimestamp);
+
+            if(accumulator.isWindowElapsed(sampleTimestamp, getConfiguration().getSampleWindowMs())
+                    || accumulator.getSampleCount() >= getConfiguration().getMaxSamplesPerWindow())
+                publishSampleWindow(propertyKey, accumulator.drain());
+        }
+    }
+
+    private void publishPendingSampleWindows() throws EventBusException {
+        synchronized (this.sampleAccumulatorMap) {
+            for(Map.Entry<String, PropertySampleAccumulator> accumulatorEntry : this.sampleAccumulatorMap.entrySet())
+                if(!accumulatorEntry.getValue().isEmpty())
+                    publishSampleWindow(accumulatorEntry.getKey(), accumulatorEntry.getValue().drain());
+        }
+    }
+
+    /**
+     * Every window length publish the windows spanning the whole length at the current time, so the DT State of a
+     * key that stopped receiving samples lags at most two window lengths behind its last sample. The thread is not
+     * created by the clock: it participates to a virtual time only while sleeping on it.
+     */
+    private Runnable flushElapsedSampleWindows() {
+        return () -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+
+                    getConfiguration().getClock().sleep(getConfiguration().getSampleWindowMs());
+
+                    long nowMs = getConfiguration().getClock().currentTimeMillis();
+
+                    synchronized (this.sampleAccumulatorMap) {
+                        for(Map.Entry<String, PropertySampleAccumulator> accumulatorEntry : this.sampleAccumulatorMap.entrySet())
+                            if(accumulatorEntry.getValue().isWindowElapsed(nowMs, getConfiguration().getSampleWindowMs()))
+                                publishSampleWindow(accumulatorEntry.getKey(), accumulatorEntry.getValue().drain());
+                    }
+                }
+            } catch (InterruptedException e) {
+                //The device emulation completed or the adapter has been stopped
+            } catch (EventBusException e) {
+                e.printStackTrace();
+            }
+        };
+    }
+
+    /**
+     * Publish a whole window as a single property event. The sample timestamp of the event is the one of the last
+     * sample of the window, the sample count is attached as metadata.
+     */
+    private void publishSampleWindow(String propertyKey, PropertySampleWindow sampleWindow) throws EventBusException {
+        PhysicalPublishJfrEvent publishJfrEvent = new PhysicalPublishJfrEvent();
+        publishJfrEvent.begin();
+        PhysicalAssetPropertyWldtEvent<PropertySampleWindow> windowPropertyEvent = new PhysicalAssetPropertyWldtEvent<>(propertyKey, sampleWindow);
+        windowPropertyEvent.putMetadata(GlobalKeywords.SAMPLE_TIMESTAMP_METADATA_KEY, sampleWindow.getLastSampleTimestamp());
+        windowPropertyEvent.putMetadata(GlobalKeywords.SAMPLE_COUNT_METADATA_KEY, sampleWindow.getSampleCount());
+        publishPhysicalAssetPropertyWldtEvent(windowPropertyEvent);
+        commitPublishJfrEvent(publishJfrEvent, windowPropertyEvent.getType(), propertyKey, sampleWindow.getSampleCount());
+    }
+
+    private void publishPhysicalProperty(PhysicalAssetPropertyWldtEvent<?> physicalAssetPropertyWldtEvent) throws EventBusException {
+        PhysicalPublishJfrEvent publishJfrEvent = new PhysicalPublishJfrEvent();
+        publishJfrEvent.begin();
+        long sampleTimestamp = setSampleTimestamp(physicalAssetPropertyWldtEvent);
+        if(this.relayExecutor != null)
+            relayPhysicalProperty(physicalAssetPropertyWldtEvent);
+        else
+            publishPhysicalAssetPropertyWldtEvent(physicalAssetPropertyWldtEvent);
+        commitPublishJfrEvent(publishJfrEvent, physicalAssetPropertyWldtEvent.getType(), physicalAssetPropertyWldtEvent.getPhysicalPropertyId());
+
+        if(getConfiguration().getTraceWriter() != null)
+            recordTrace(() -> getConfiguration().getTraceWriter().writeProperty(sampleTimestamp, physicalAssetPropertyWldtEvent));
+    }
+
+    private void publishPhysicalEvent(PhysicalAssetEventWldtEvent<?> physicalAssetEventWldtEvent) throws EventBusException {
+        PhysicalPublishJfrEvent publishJfrEvent = new PhysicalPublishJfrEvent();
+        publishJfrEvent.begin();
+        long sampleTimestamp = setSampleTimestamp(physicalAssetEventWldtEvent);
+        publishPhysicalAssetEventWldtEvent(physicalAssetEventWldtEvent);
+        commitPublishJfrEvent(publishJfrEvent, physicalAssetEventWldtEvent.getType(), physicalAssetEventWldtEvent.getPhysicalEventKey());
+
+        if(getConfiguration().getTraceWriter() != null)
+            recordTrace(() -> getConfiguration().getTraceWriter().writeEvent(sampleTimestamp, physicalAssetEventWldtEvent));
+    }
+
+    private void publishPhysicalRelationshipCreated(PhysicalAssetRelationshipInstanceCreatedWldtEvent<?> relationshipInstanceCreatedWldtEvent) throws EventBusException {
+        PhysicalPublishJfrEvent publishJfrEvent = new PhysicalPublishJfrEvent();
+        publishJfrEvent.begin();
+        long sampleTimestamp = setSampleTimestamp(relationshipInstanceCreatedWldtEvent);
+        publishPhysicalAssetRelationshipCreatedWldtEvent(relationshipInstanceCreatedWldtEvent);
+        commitPublishJfrEvent(publishJfrEvent, relationshipInstanceCreatedWldtEvent.getType(), relationshipInstanceCreatedWldtEvent.getBody().getRelationship().getName());
+
+        if(getConfiguration().getTraceWriter() != null)
+            recordTrace(() -> getConfiguration().getTraceWriter().writeRelationshipCreated(sampleTimestamp, relationshipInstanceCreatedWldtEvent.getBody()));
+    }
+
+    private void publishPhysicalRelationshipDeleted(PhysicalAssetRelationshipInstanceDeletedWldtEvent<?> relationshipInstanceDeletedWldtEvent) throws EventBusException {
+        PhysicalPublishJfrEvent publishJfrEvent = new PhysicalPublishJfrEvent();
+        publishJfrEvent.begin();
+        long sampleTimestamp = setSampleTimestamp(relationshipInstanceDeletedWldtEvent);
+        publishPhysicalAssetRelationshipDeletedWldtEvent(relationshipInstanceDeletedWldtEvent);
+        commitPublishJfrEvent(publishJfrEvent, relationshipInstanceDeletedWldtEvent.getType(), relationshipInstanceDeletedWldtEvent.getBody().getRelationship().getName());
+
+        if(getConfiguration().getTraceWriter() != null)
+            recordTrace(() -> getConfiguration().getTraceWriter().writeRelationshipDeleted(sampleTimestamp, relationshipInstanceDeletedWldtEvent.getBody()));
+    }
+
+    /**
+     * Hand an already timestamped sample over to one of the relays, which publishes it after a random delay so that
+     * samples can reach the Shadowing Function out of order and from different threads
+     */
+    private void relayPhysicalProperty(PhysicalAssetPropertyWldtEvent<?> physicalAssetPropertyWldtEvent) {
+        this.relayExecutor.execute(() -> {
+            try {
+                long relayDelayMs = getConfiguration().getRelayMaxDelayMs() > 0 ? ThreadLocalRandom.current().nextLong(getConfiguration().getRelayMaxDelayMs() + 1) : 0;
+                getConfiguration().getClock().sleep(relayDelayMs);
+                publishPhysicalAssetPropertyWldtEvent(physicalAssetPropertyWldtEvent);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Attach to the event the time of the configured clock at which the sample has been generated, since the
+     * creation timestamp of the WLDT Event always refers to the wall clock
+     */
+    private long setSampleTimestamp(WldtEvent<?> wldtEvent) {
+        long sampleTimestamp = getConfiguration().getClock().currentTimeMillis();
+        wldtEvent.putMetadata(GlobalKeywords.SAMPLE_TIMESTAMP_METADATA_KEY, sampleTimestamp);
+        return sampleTimestamp;
+    }
+
+    /**
+     * Record a published element on the configured trace, a recording error never blocks the publication
+     */
+    private void recordTrace(TraceRecording traceRecording) {
+        try {
+            traceRecording.record();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TraceRecording {
+        void record() throws IOException;
+    }
+
+    private void commitPublishJfrEvent(PhysicalPublishJfrEvent publishJfrEvent, String eventType, String key) {
+        commitPublishJfrEvent(publishJfrEvent, eventType, key, 1);
+    }
+
+    private void commitPublishJfrEvent(PhysicalPublishJfrEvent publishJfrEvent, String eventType, String key, int changeCount) {
+        publishJfrEvent.end();
+        if(publishJfrEvent.shouldCommit()){
+            publishJfrEvent.twinId = getDigitalTwinId();
+            publishJfrEvent.adapterId = getId();
+            publishJfrEvent.eventType = eventType;
+            publishJfrEvent.propertyKey = key;
+            publishJfrEvent.changeCount = changeCount;
+            publishJfrEvent.commit();
+        }
+    }
 }
@@ -1,7 +1,14 @@
 package io.github.wldt.demo.physical;
 
+import io.github.wldt.demo.clock.DigitalTwinClock;
+import io.github.wldt.demo.clock.SystemClock;
+import io.github.wldt.demo.template.DemoTemplates;
+import io.github.wldt.demo.template.DigitalTwinTemplate;
+import io.github.wldt.demo.trace.PhysicalTraceWriter;
 import io.github.wldt.demo.utils.GlobalKeywords;
 
+import java.util.concurrent.CompletableFuture;
+
 public class DemoPhysicalAdapterConfiguration {
 
     private int messageUpdateTime = GlobalKeywords.MESSAGE_UPDATE_TIME;
@@ -12,6 +19,44 @@ public class DemoPhysicalAdapterConfiguration {
 
     private double temperatureMaxValue = GlobalKeywords.TEMPERATURE_MAX_VALUE;
 
+    //Clock used to pace the emulation and to timestamp the generated samples
+    private DigitalTwinClock clock = SystemClock.getInstance();
+
+    //Optional writer recording the published stream to be replayed later
+    private PhysicalTraceWriter traceWriter = null;
+
+    //Device model whose shared PAD is published by the adapter
+    private DigitalTwinTemplate template = DemoTemplates.TEMPERATURE_SENSOR_TEMPLATE;
+
+    //Location of the device published through the insideIn relationship and its metadata
+    private String building = GlobalKeywords.DEFAULT_BUILDING;
+
+    private String floor = GlobalKeywords.DEFAULT_FLOOR;
+
+    private String room = GlobalKeywords.DEFAULT_ROOM;
+
+    //Optional pre-aggregation of the raw samples published as a single event for each window
+    private SampleAggregationMode sampleAggregationMode = SampleAggregationMode.NONE;
+
+    private long sampleWindowMs = GlobalKeywords.SAMPLE_WINDOW_MS;
+
+    private int maxSamplesPerWindow = GlobalKeywords.MAX_SAMPLES_PER_WINDOW;
+
+    //Number of samples between two cycles of event notification and relationship instance re-creation, 0 disables the churn
+    private int churnPeriod = 0;
+
+    //Number of samples between two 'critical' overheating events emulating a device stuck in alarm, 0 disables the alarm storm
+    private int alarmPeriod = 0;
+
+    //Number of concurrent relays (e.g., gateways) forwarding the property samples with a random delay, 0 publishes them directly
+    private int relayCount = 0;
+
+    private long relayMaxDelayMs = 0;
+
+    //Optional signal of the twin readiness: the PAD is published at start and the emulation begins once the
+    //signal completes, replacing the fixed startup delays
+    private CompletableFuture<Void> readinessSignal = null;
+
     public DemoPhysicalAdapterConfiguration() {
     }
 
@@ -54,6 +99,118 @@ public class DemoPhysicalAdapterConfiguration {
         this.temperatureMaxValue = temperatureMaxValue;
     }
 
+    public DigitalTwinClock getClock() {
+        return clock;
+    }
+
+    public void setClock(DigitalTwinClock clock) {
+        this.clock = clock;
+    }
+
+    public PhysicalTraceWriter getTraceWriter() {
+        return traceWriter;
+    }
+
+    public void setTraceWriter(PhysicalTraceWriter traceWriter) {
+        this.traceWriter = traceWriter;
+    }
+
+    public DigitalTwinTemplate getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(DigitalTwinTemplate template) {
+        this.template = template;
+    }
+
+    public String getBuilding() {
+        return building;
+    }
+
+    public void setBuilding(String building) {
+        this.building = building;
+    }
+
+    public String getFloor() {
+        return floor;
+    }
+
+    public void setFloor(String floor) {
+        this.floor = floor;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public SampleAggregationMode getSampleAggregationMode() {
+        return sampleAggregationMode;
+    }
+
+    public void setSampleAggregationMode(SampleAggregationMode sampleAggregationMode) {
+        this.sampleAggregationMode = sampleAggregationMode;
+    }
+
+    public long getSampleWindowMs() {
+        return sampleWindowMs;
+    }
+
+    public void setSampleWindowMs(long sampleWindowMs) {
+        this.sampleWindowMs = sampleWindowMs;
+    }
+
+    public int getMaxSamplesPerWindow() {
+        return maxSamplesPerWindow;
+    }
+
+    public void setMaxSamplesPerWindow(int maxSamplesPerWindow) {
+        this.maxSamplesPerWindow = maxSamplesPerWindow;
+    }
+
+    public int getChurnPeriod() {
+        return churnPeriod;
+    }
+
+    public void setChurnPeriod(int churnPeriod) {
+        this.churnPeriod = churnPeriod;
+    }
+
+    public int getAlarmPeriod() {
+        return alarmPeriod;
+    }
+
+    public void setAlarmPeriod(int alarmPeriod) {
+        this.alarmPeriod = alarmPeriod;
+    }
+
+    public int getRelayCount() {
+        return relayCount;
+    }
+
+    public void setRelayCount(int relayCount) {
+        this.relayCount = relayCount;
+    }
+
+    public long getRelayMaxDelayMs() {
+        return relayMaxDelayMs;
+    }
+
+    public void setRelayMaxDelayMs(long relayMaxDelayMs) {
+        this.relayMaxDelayMs = relayMaxDelayMs;
+    }
+
+    public CompletableFuture<Void> getReadinessSignal() {
+        return readinessSignal;
+    }
+
+    public void setReadinessSignal(CompletableFuture<Void> readinessSignal) {
+        this.readinessSignal = readinessSignal;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("DemoPhysicalAdapterConfiguration{");
@@ -61,6 +218,20 @@ public class DemoPhysicalAdapterConfiguration {
         sb.append(", messageUpdateNumber=").append(messageUpdateNumber);
         sb.append(", temperatureMinValue=").append(temperatureMinValue);
         sb.append(", temperatureMaxValue=").append(temperatureMaxValue);
+        sb.append(", clock=").append(clock);
+        sb.append(", traceWriter=").append(traceWriter);
+        sb.append(", template=").append(template != null ? template.getTemplateId() : null);
+        sb.append(", building='").append(building).append('\'');
+        sb.append(", floor='").append(floor).append('\'');
+        sb.append(", room='").append(room).append('\'');
+        sb.append(", sampleAggregationMode=").append(sampleAggregationMode);
+        sb.append(", sampleWindowMs=").append(sampleWindowMs);
+        sb.append(", maxSamplesPerWindow=").append(maxSamplesPerWindow);
+        sb.append(", churnPeriod=").append(churnPeriod);
+        sb.append(", alarmPeriod=").append(alarmPeriod);
+        sb.append(", relayCount=").append(relayCount);
+        sb.append(", relayMaxDelayMs=").append(relayMaxDelayMs);
+        sb.append(", readinessSignal=").append(readinessSignal != null);
         sb.append('}');
         return sb.toString();
     }
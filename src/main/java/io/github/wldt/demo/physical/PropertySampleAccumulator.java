@@ -0,0 +1,107 @@
+package io.github.wldt.demo.physical;
+
+import java.util.Arrays;
+
+/**
+ * Collects the raw samples of a single property key for the current window. The running summary is updated in
+ * O(1) for every sample, raw values are retained only when the window is published as a batch.
+ *
+ * The accumulator is not thread-safe, the adapter accesses it holding the lock of its accumulator map.
+ */
+class PropertySampleAccumulator {
+
+    private static final int INITIAL_BATCH_CAPACITY = 64;
+
+    private final boolean retainSamples;
+
+    private double[] values;
+
+    private long[] sampleTimestamps;
+
+    private int sampleCount = 0;
+
+    private double minValue;
+
+    private double maxValue;
+
+    private double sum;
+
+    private double lastValue;
+
+    private long firstSampleTimestamp;
+
+    private long lastSampleTimestamp;
+
+    PropertySampleAccumulator(boolean retainSamples) {
+        this.retainSamples = retainSamples;
+        if(retainSamples) {
+            this.values = new double[INITIAL_BATCH_CAPACITY];
+            this.sampleTimestamps = new long[INITIAL_BATCH_CAPACITY];
+        }
+    }
+
+    void add(double value, long sampleTimestamp) {
+
+        if(this.sampleCount == 0){
+            this.minValue = value;
+            this.maxValue = value;
+            this.sum = 0.0;
+            this.firstSampleTimestamp = sampleTimestamp;
+        }
+        else {
+            this.minValue = Math.min(this.minValue, value);
+            this.maxValue = Math.max(this.maxValue, value);
+        }
+
+        if(this.retainSamples) {
+            if(this.sampleCount == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.values.length * 2);
+                this.sampleTimestamps = Arrays.copyOf(this.sampleTimestamps, this.sampleTimestamps.length * 2);
+            }
+            this.values[this.sampleCount] = value;
+            this.sampleTimestamps[this.sampleCount] = sampleTimestamp;
+        }
+
+        this.sum += value;
+        this.lastValue = value;
+        this.lastSampleTimestamp = sampleTimestamp;
+        this.sampleCount++;
+    }
+
+    boolean isEmpty() {
+        return this.sampleCount == 0;
+    }
+
+    int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * @param sampleTimestamp the timestamp of the last collected sample
+     * @param windowMs the configured window length
+     * @return true if the samples collected so far span the whole window
+     */
+    boolean isWindowElapsed(long sampleTimestamp, long windowMs) {
+        return this.sampleCount > 0 && sampleTimestamp - this.firstSampleTimestamp >= windowMs;
+    }
+
+    /**
+     * Build the body to be published for the current window and start a new empty window
+     *
+     * @return the aggregate or the batch of the collected samples
+     */
+    PropertySampleWindow drain() {
+
+        PropertySampleWindow window;
+        if(this.retainSamples)
+            window = new PropertySampleBatch(
+                    Arrays.copyOf(this.values, this.sampleCount),
+                    Arrays.copyOf(this.sampleTimestamps, this.sampleCount));
+        else
+            window = new PropertySampleAggregate(this.sampleCount, this.minValue, this.maxValue,
+                    this.sum / this.sampleCount, this.lastValue, this.firstSampleTimestamp, this.lastSampleTimestamp);
+
+        this.sampleCount = 0;
+        return window;
+    }
+}
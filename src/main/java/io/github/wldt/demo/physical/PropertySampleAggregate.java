@@ -0,0 +1,49 @@
+package io.github.wldt.demo.physical;
+
+/**
+ * Compact summary of the raw samples collected for a property over a window
+ */
+public class PropertySampleAggregate extends PropertySampleWindow {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double minValue;
+
+    private final double maxValue;
+
+    private final double meanValue;
+
+    public PropertySampleAggregate(int sampleCount, double minValue, double maxValue, double meanValue, double lastValue,
+                                   long firstSampleTimestamp, long lastSampleTimestamp) {
+        super(sampleCount, lastValue, firstSampleTimestamp, lastSampleTimestamp);
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.meanValue = meanValue;
+    }
+
+    public double getMinValue() {
+        return minValue;
+    }
+
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    public double getMeanValue() {
+        return meanValue;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PropertySampleAggregate{");
+        sb.append("sampleCount=").append(getSampleCount());
+        sb.append(", minValue=").append(minValue);
+        sb.append(", maxValue=").append(maxValue);
+        sb.append(", meanValue=").append(meanValue);
+        sb.append(", lastValue=").append(getLastValue());
+        sb.append(", firstSampleTimestamp=").append(getFirstSampleTimestamp());
+        sb.append(", lastSampleTimestamp=").append(getLastSampleTimestamp());
+        sb.append('}');
+        return sb.toString();
+    }
+}
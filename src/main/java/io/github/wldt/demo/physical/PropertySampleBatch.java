@@ -0,0 +1,44 @@
+package io.github.wldt.demo.physical;
+
+/**
+ * Raw samples collected for a property over a window and published within a single event
+ */
+public class PropertySampleBatch extends PropertySampleWindow {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double[] values;
+
+    private final long[] sampleTimestamps;
+
+    public PropertySampleBatch(double[] values, long[] sampleTimestamps) {
+        super(values.length, values[values.length - 1], sampleTimestamps[0], sampleTimestamps[sampleTimestamps.length - 1]);
+        this.values = values;
+        this.sampleTimestamps = sampleTimestamps;
+    }
+
+    /**
+     * @return the sampled values in generation order, the array must not be modified
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return the sample timestamps aligned with {@link #getValues()}, the array must not be modified
+     */
+    public long[] getSampleTimestamps() {
+        return sampleTimestamps;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PropertySampleBatch{");
+        sb.append("sampleCount=").append(getSampleCount());
+        sb.append(", lastValue=").append(getLastValue());
+        sb.append(", firstSampleTimestamp=").append(getFirstSampleTimestamp());
+        sb.append(", lastSampleTimestamp=").append(getLastSampleTimestamp());
+        sb.append('}');
+        return sb.toString();
+    }
+}
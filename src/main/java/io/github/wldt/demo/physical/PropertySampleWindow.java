@@ -0,0 +1,45 @@
+package io.github.wldt.demo.physical;
+
+import java.io.Serializable;
+
+/**
+ * Body of a property event published by a Physical Adapter for a whole window of raw samples of the same key.
+ *
+ * The Shadowing Function applies the window as a single DT State update: the property takes the last sampled
+ * value while the window itself is exposed to the Digital Adapters through a companion property.
+ */
+public abstract class PropertySampleWindow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int sampleCount;
+
+    private final double lastValue;
+
+    private final long firstSampleTimestamp;
+
+    private final long lastSampleTimestamp;
+
+    protected PropertySampleWindow(int sampleCount, double lastValue, long firstSampleTimestamp, long lastSampleTimestamp) {
+        this.sampleCount = sampleCount;
+        this.lastValue = lastValue;
+        this.firstSampleTimestamp = firstSampleTimestamp;
+        this.lastSampleTimestamp = lastSampleTimestamp;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public double getLastValue() {
+        return lastValue;
+    }
+
+    public long getFirstSampleTimestamp() {
+        return firstSampleTimestamp;
+    }
+
+    public long getLastSampleTimestamp() {
+        return lastSampleTimestamp;
+    }
+}
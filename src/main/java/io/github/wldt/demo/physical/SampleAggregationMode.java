@@ -0,0 +1,14 @@
+package io.github.wldt.demo.physical;
+
+/**
+ * Pre-aggregation applied by the Physical Adapter to the raw samples collected over a window before their
+ * publication on the event bus
+ */
+public enum SampleAggregationMode {
+    //Every raw sample is published as a dedicated property event
+    NONE,
+    //A single compact summary (count, min, max, mean, last) is published for each window
+    AGGREGATE,
+    //All the raw samples of the window are published within a single multi-sample event
+    BATCH
+}
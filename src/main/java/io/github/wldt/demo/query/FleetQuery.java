@@ -0,0 +1,164 @@
+package io.github.wldt.demo.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Query on the value of an indexed property across the fleet of Digital Twins, optionally restricted to a value
+ * range, filtered by relationship targets and limited to the first results in ascending or descending order.
+ * For example, the 10 hottest twins insideIn building-hq:
+ *
+ * FleetQuery.onProperty("temperature-property-key").relatedTo("insideIn", "building-hq").top(10)
+ */
+public class FleetQuery {
+
+    private final String propertyKey;
+
+    private double minValue = Double.NEGATIVE_INFINITY;
+
+    private boolean minInclusive = true;
+
+    private double maxValue = Double.POSITIVE_INFINITY;
+
+    private boolean maxInclusive = true;
+
+    private boolean descending = false;
+
+    private int limit = Integer.MAX_VALUE;
+
+    private final List<RelationshipFilter> relationshipFilterList = new ArrayList<>();
+
+    private FleetQuery(String propertyKey) {
+        this.propertyKey = propertyKey;
+    }
+
+    public static FleetQuery onProperty(String propertyKey) {
+        return new FleetQuery(propertyKey);
+    }
+
+    public FleetQuery greaterThan(double value) {
+        this.minValue = value;
+        this.minInclusive = false;
+        return this;
+    }
+
+    public FleetQuery greaterThanOrEqual(double value) {
+        this.minValue = value;
+        this.minInclusive = true;
+        return this;
+    }
+
+    public FleetQuery lessThan(double value) {
+        this.maxValue = value;
+        this.maxInclusive = false;
+        return this;
+    }
+
+    public FleetQuery lessThanOrEqual(double value) {
+        this.maxValue = value;
+        this.maxInclusive = true;
+        return this;
+    }
+
+    /**
+     * Keep only the twins with an instance of the target relationship towards the target (e.g., insideIn building-hq)
+     */
+    public FleetQuery relatedTo(String relationshipName, Object targetId) {
+        this.relationshipFilterList.add(new RelationshipFilter(relationshipName, targetId));
+        return this;
+    }
+
+    public FleetQuery descending() {
+        this.descending = true;
+        return this;
+    }
+
+    public FleetQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * The first n twins with the highest values
+     */
+    public FleetQuery top(int n) {
+        return descending().limit(n);
+    }
+
+    public String getPropertyKey() {
+        return propertyKey;
+    }
+
+    public double getMinValue() {
+        return minValue;
+    }
+
+    public boolean isMinInclusive() {
+        return minInclusive;
+    }
+
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    public boolean isMaxInclusive() {
+        return maxInclusive;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public List<RelationshipFilter> getRelationshipFilterList() {
+        return Collections.unmodifiableList(relationshipFilterList);
+    }
+
+    boolean matchesValue(double value) {
+        return (minInclusive ? value >= minValue : value > minValue) && (maxInclusive ? value <= maxValue : value < maxValue);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FleetQuery{");
+        sb.append("propertyKey='").append(propertyKey).append('\'');
+        sb.append(", range=").append(minInclusive ? '[' : '(').append(minValue).append(", ").append(maxValue).append(maxInclusive ? ']' : ')');
+        sb.append(", relationshipFilters=").append(relationshipFilterList);
+        sb.append(", descending=").append(descending);
+        sb.append(", limit=").append(limit);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Filter on the target of a relationship
+     */
+    public static class RelationshipFilter {
+
+        private final String relationshipName;
+
+        private final Object targetId;
+
+        public RelationshipFilter(String relationshipName, Object targetId) {
+            this.relationshipName = relationshipName;
+            this.targetId = targetId;
+        }
+
+        public String getRelationshipName() {
+            return relationshipName;
+        }
+
+        public Object getTargetId() {
+            return targetId;
+        }
+
+        @Override
+        public String toString() {
+            return relationshipName + "->" + targetId;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.wldt.demo.query;
+
+import io.github.wldt.demo.digital.StateChangeListener;
+import it.wldt.core.state.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process query engine answering fleet-wide queries on property values (e.g., "which twins have a temperature
+ * above 28" or "the 10 hottest twins insideIn building-hq") without reading any DT State.
+ *
+ * The engine is registered as {@link StateChangeListener} on the Digital Adapters of the twins and keeps a sorted
+ * {@link PropertyIndex} for each selected property together with a {@link RelationshipIndex}, both updated
+ * incrementally from the committed changes. Non numeric values are not indexed.
+ */
+public class FleetQueryEngine implements StateChangeListener {
+
+    //Relative cost of visiting a twin of a relationship filter (value lookup and final sort) with respect to
+    //visiting an entry of the sorted property index
+    private static final int RELATED_TWIN_VISIT_COST = 4;
+
+    private final Map<String, PropertyIndex> propertyIndexMap = new ConcurrentHashMap<>();
+
+    private final RelationshipIndex relationshipIndex = new RelationshipIndex();
+
+    public FleetQueryEngine(String... indexedPropertyKeys) {
+        for(String propertyKey : indexedPropertyKeys)
+            createIndex(propertyKey);
+    }
+
+    /**
+     * Create the secondary index for the target property. Only values notified after the creation are indexed.
+     */
+    public PropertyIndex createIndex(String propertyKey) {
+        return this.propertyIndexMap.computeIfAbsent(propertyKey, PropertyIndex::new);
+    }
+
+    @Override
+    public void onStateChanges(String digitalTwinId, DigitalTwinState newDigitalTwinState, List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList) {
+
+            boolean remove = stateChange.getOperation() == DigitalTwinStateChange.Operation.OPERATION_REMOVE;
+            DigitalTwinStateResource resource = stateChange.getResource();
+
+            if(resource instanceof DigitalTwinStateProperty) {
+                DigitalTwinStateProperty<?> property = (DigitalTwinStateProperty<?>) resource;
+                if(remove)
+                    removePropertyValue(digitalTwinId, property.getKey());
+                else
+                    updatePropertyValue(digitalTwinId, property.getKey(), property.getValue());
+            }
+            else if(resource instanceof DigitalTwinStateRelationshipInstance) {
+                DigitalTwinStateRelationshipInstance<?> instance = (DigitalTwinStateRelationshipInstance<?>) resource;
+                if(remove)
+                    this.relationshipIndex.removeInstance(digitalTwinId, instance.getRelationshipName(), instance.getKey());
+                else
+                    this.relationshipIndex.addInstance(digitalTwinId, instance.getRelationshipName(), instance.getKey(), instance.getTargetId());
+            }
+        }
+    }
+
+    /**
+     * Index the new value of a property of the target twin, if the property is indexed and the value is numeric
+     */
+    public void updatePropertyValue(String digitalTwinId, String propertyKey, Object value) {
+        PropertyIndex propertyIndex = this.propertyIndexMap.get(propertyKey);
+        if(propertyIndex == null)
+            return;
+        if(value instanceof Number)
+            propertyIndex.update(digitalTwinId, ((Number) value).doubleValue());
+        else
+            propertyIndex.remove(digitalTwinId);
+    }
+
+    public void removePropertyValue(String digitalTwinId, String propertyKey) {
+        PropertyIndex propertyIndex = this.propertyIndexMap.get(propertyKey);
+        if(propertyIndex != null)
+            propertyIndex.remove(digitalTwinId);
+    }
+
+    /**
+     * Remove all the indexed values of a twin (e.g., when it is removed from its engine)
+     */
+    public void removeDigitalTwin(String digitalTwinId) {
+        this.propertyIndexMap.values().forEach(propertyIndex -> propertyIndex.remove(digitalTwinId));
+        this.relationshipIndex.removeDigitalTwin(digitalTwinId);
+    }
+
+    /**
+     * Execute the query on the current content of the indexes
+     *
+     * @param query the query
+     * @return the matching twins with their values, sorted according to the query
+     */
+    public List<IndexedPropertyValue> execute(FleetQuery query) {
+
+        PropertyIndex propertyIndex = this.propertyIndexMap.get(query.getPropertyKey());
+        if(propertyIndex == null)
+            throw new IllegalArgumentException(String.format("Property %s is not indexed !", query.getPropertyKey()));
+
+        //Start from the smallest relationship filter if visiting it is cheaper than scanning the property index
+        Set<String> smallestRelatedTwinSet = null;
+        for(FleetQuery.RelationshipFilter relationshipFilter : query.getRelationshipFilterList()) {
+            Set<String> relatedTwinSet = this.relationshipIndex.getRelatedTwins(relationshipFilter.getRelationshipName(), relationshipFilter.getTargetId());
+            if(smallestRelatedTwinSet == null || relatedTwinSet.size() < smallestRelatedTwinSet.size())
+                smallestRelatedTwinSet = relatedTwinSet;
+        }
+
+        if(smallestRelatedTwinSet != null && (long) smallestRelatedTwinSet.size() * RELATED_TWIN_VISIT_COST < estimateScanCost(query, propertyIndex, smallestRelatedTwinSet.size()))
+            return executeFromRelatedTwins(query, propertyIndex, smallestRelatedTwinSet);
+
+        NavigableSet<IndexedPropertyValue> rangeSet = propertyIndex.range(query.getMinValue(), query.isMinInclusive(), query.getMaxValue(), query.isMaxInclusive());
+
+        List<IndexedPropertyValue> resultList = new ArrayList<>(Math.min(query.getLimit(), 64));
+        for(IndexedPropertyValue indexedValue : (query.isDescending() ? rangeSet.descendingSet() : rangeSet)) {
+            if(resultList.size() >= query.getLimit())
+                break;
+            if(matchesRelationships(query, indexedValue.getDigitalTwinId()))
+                resultList.add(indexedValue);
+        }
+
+        return resultList;
+    }
+
+    /**
+     * Estimate the number of index entries visited by a scan: a limited query stops after finding the requested
+     * results, assuming the related twins uniformly distributed in the index
+     */
+    private static long estimateScanCost(FleetQuery query, PropertyIndex propertyIndex, int relatedTwinCount) {
+        long indexSize = propertyIndex.size();
+        if(query.getLimit() == Integer.MAX_VALUE)
+            return indexSize;
+        return Math.min(indexSize, (long) query.getLimit() * indexSize / Math.max(1, relatedTwinCount));
+    }
+
+    private List<IndexedPropertyValue> executeFromRelatedTwins(FleetQuery query, PropertyIndex propertyIndex, Set<String> relatedTwinSet) {
+
+        List<IndexedPropertyValue> resultList = new ArrayList<>();
+        for(String digitalTwinId : relatedTwinSet) {
+            Optional<Double> value = propertyIndex.getValue(digitalTwinId);
+            if(value.isPresent() && query.matchesValue(value.get()) && matchesRelationships(query, digitalTwinId))
+                resultList.add(new IndexedPropertyValue(digitalTwinId, value.get()));
+        }
+
+        resultList.sort(query.isDescending() ? IndexedPropertyValue.VALUE_COMPARATOR.reversed() : IndexedPropertyValue.VALUE_COMPARATOR);
+
+        return resultList.size() > query.getLimit() ? new ArrayList<>(resultList.subList(0, query.getLimit())) : resultList;
+    }
+
+    private boolean matchesRelationships(FleetQuery query, String digitalTwinId) {
+        for(FleetQuery.RelationshipFilter relationshipFilter : query.getRelationshipFilterList())
+            if(!this.relationshipIndex.isRelated(digitalTwinId, relationshipFilter.getRelationshipName(), relationshipFilter.getTargetId()))
+                return false;
+        return true;
+    }
+
+    public Optional<PropertyIndex> getPropertyIndex(String propertyKey) {
+        return Optional.ofNullable(this.propertyIndexMap.get(propertyKey));
+    }
+
+    public RelationshipIndex getRelationshipIndex() {
+        return relationshipIndex;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FleetQueryEngine{");
+        sb.append("propertyIndexes=").append(propertyIndexMap.values());
+        sb.append(", relationshipIndex=").append(relationshipIndex);
+        sb.append('}');
+        return sb.toString();
+    }
+}
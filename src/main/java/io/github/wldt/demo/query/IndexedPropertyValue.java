@@ -0,0 +1,53 @@
+package io.github.wldt.demo.query;
+
+import java.util.Comparator;
+
+/**
+ * Entry of a {@link PropertyIndex}: the numeric value of the indexed property for a Digital Twin
+ */
+public class IndexedPropertyValue {
+
+    //Entries are sorted by value and then by twin id, so two twins with the same value are both indexed
+    static final Comparator<IndexedPropertyValue> VALUE_COMPARATOR = Comparator
+            .comparingDouble(IndexedPropertyValue::getValue)
+            .thenComparing(IndexedPropertyValue::getDigitalTwinId);
+
+    private final String digitalTwinId;
+
+    private final double value;
+
+    public IndexedPropertyValue(String digitalTwinId, double value) {
+        this.digitalTwinId = digitalTwinId;
+        this.value = value;
+    }
+
+    public String getDigitalTwinId() {
+        return digitalTwinId;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IndexedPropertyValue that = (IndexedPropertyValue) o;
+        return Double.compare(that.value, value) == 0 && digitalTwinId.equals(that.digitalTwinId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * digitalTwinId.hashCode() + Double.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IndexedPropertyValue{");
+        sb.append("digitalTwinId='").append(digitalTwinId).append('\'');
+        sb.append(", value=").append(value);
+        sb.append('}');
+        return sb.toString();
+    }
+}
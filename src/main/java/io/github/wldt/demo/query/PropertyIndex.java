@@ -0,0 +1,90 @@
+package io.github.wldt.demo.query;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted secondary index on the numeric values of a single property across all the Digital Twins.
+ *
+ * Values are kept in a concurrent skip list ordered by value, so range and top-N queries cost O(log n) to find the
+ * first entry plus the number of visited entries, and an update costs O(log n). The current value of each twin is
+ * kept in a hash map to remove its previous entry on update. Readers never block writers and can observe a twin
+ * missing for the instant between the removal of its old entry and the insertion of the new one.
+ */
+public class PropertyIndex {
+
+    private final String propertyKey;
+
+    private final ConcurrentSkipListSet<IndexedPropertyValue> sortedValueSet = new ConcurrentSkipListSet<>(IndexedPropertyValue.VALUE_COMPARATOR);
+
+    private final Map<String, IndexedPropertyValue> currentValueMap = new ConcurrentHashMap<>();
+
+    public PropertyIndex(String propertyKey) {
+        this.propertyKey = propertyKey;
+    }
+
+    /**
+     * Index the new value of the property for the target twin. Updates of the same twin have to be serialized
+     * by the caller (e.g., the Digital Adapter thread of the twin).
+     */
+    public void update(String digitalTwinId, double value) {
+
+        IndexedPropertyValue indexedValue = new IndexedPropertyValue(digitalTwinId, value);
+
+        IndexedPropertyValue previousValue = this.currentValueMap.put(digitalTwinId, indexedValue);
+        if(previousValue != null)
+            this.sortedValueSet.remove(previousValue);
+
+        this.sortedValueSet.add(indexedValue);
+    }
+
+    public void remove(String digitalTwinId) {
+        IndexedPropertyValue previousValue = this.currentValueMap.remove(digitalTwinId);
+        if(previousValue != null)
+            this.sortedValueSet.remove(previousValue);
+    }
+
+    public Optional<Double> getValue(String digitalTwinId) {
+        IndexedPropertyValue indexedValue = this.currentValueMap.get(digitalTwinId);
+        return indexedValue != null ? Optional.of(indexedValue.getValue()) : Optional.empty();
+    }
+
+    /**
+     * @return the view of the entries with a value in the target range, sorted by ascending value
+     */
+    NavigableSet<IndexedPropertyValue> range(double minValue, boolean minInclusive, double maxValue, boolean maxInclusive) {
+
+        //Bounds built with the empty twin id, which sorts before every other id with the same value
+        IndexedPropertyValue lowerBound = new IndexedPropertyValue("", minInclusive ? minValue : Math.nextUp(minValue));
+        IndexedPropertyValue upperBound = new IndexedPropertyValue("", maxInclusive ? Math.nextUp(maxValue) : maxValue);
+
+        if(maxValue == Double.POSITIVE_INFINITY && maxInclusive)
+            return this.sortedValueSet.tailSet(lowerBound, true);
+
+        if(IndexedPropertyValue.VALUE_COMPARATOR.compare(lowerBound, upperBound) >= 0)
+            return Collections.emptyNavigableSet();
+
+        return this.sortedValueSet.subSet(lowerBound, true, upperBound, false);
+    }
+
+    public String getPropertyKey() {
+        return propertyKey;
+    }
+
+    public int size() {
+        return this.currentValueMap.size();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PropertyIndex{");
+        sb.append("propertyKey='").append(propertyKey).append('\'');
+        sb.append(", size=").append(size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
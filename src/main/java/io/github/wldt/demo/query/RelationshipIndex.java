@@ -0,0 +1,85 @@
+package io.github.wldt.demo.query;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary index of the relationship instances of all the Digital Twins, used to filter the query results
+ * by relationship target (e.g., the twins insideIn building-hq) with a constant time lookup
+ */
+public class RelationshipIndex {
+
+    //Relationship name -> target id -> ids of the twins with at least an instance towards the target
+    private final Map<String, Map<Object, Set<String>>> relatedTwinMap = new ConcurrentHashMap<>();
+
+    //Twin id -> relationship name and instance key -> target id, used to resolve the removed instances
+    private final Map<String, Map<String, Object>> instanceTargetMap = new ConcurrentHashMap<>();
+
+    public void addInstance(String digitalTwinId, String relationshipName, String instanceKey, Object targetId) {
+
+        this.instanceTargetMap.computeIfAbsent(digitalTwinId, id -> new ConcurrentHashMap<>())
+                .put(getInstanceId(relationshipName, instanceKey), targetId);
+
+        this.relatedTwinMap.computeIfAbsent(relationshipName, name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(targetId, target -> ConcurrentHashMap.newKeySet())
+                .add(digitalTwinId);
+    }
+
+    public void removeInstance(String digitalTwinId, String relationshipName, String instanceKey) {
+
+        Map<String, Object> twinInstanceMap = this.instanceTargetMap.get(digitalTwinId);
+        if(twinInstanceMap == null)
+            return;
+
+        Object targetId = twinInstanceMap.remove(getInstanceId(relationshipName, instanceKey));
+        if(targetId == null)
+            return;
+
+        //The twin is still related to the target if another instance of the same relationship points to it
+        String relationshipPrefix = getInstanceId(relationshipName, "");
+        for(Map.Entry<String, Object> instanceEntry : twinInstanceMap.entrySet())
+            if(instanceEntry.getKey().startsWith(relationshipPrefix) && Objects.equals(instanceEntry.getValue(), targetId))
+                return;
+
+        Map<Object, Set<String>> targetMap = this.relatedTwinMap.get(relationshipName);
+        if(targetMap != null && targetMap.containsKey(targetId))
+            targetMap.get(targetId).remove(digitalTwinId);
+    }
+
+    public void removeDigitalTwin(String digitalTwinId) {
+        Map<String, Object> twinInstanceMap = this.instanceTargetMap.remove(digitalTwinId);
+        if(twinInstanceMap != null)
+            this.relatedTwinMap.values().forEach(targetMap -> targetMap.values().forEach(twinSet -> twinSet.remove(digitalTwinId)));
+    }
+
+    /**
+     * @return the live read-only set of the twins with an instance of the relationship towards the target
+     */
+    public Set<String> getRelatedTwins(String relationshipName, Object targetId) {
+        Map<Object, Set<String>> targetMap = this.relatedTwinMap.get(relationshipName);
+        Set<String> twinSet = (targetMap != null) ? targetMap.get(targetId) : null;
+        return twinSet != null ? Collections.unmodifiableSet(twinSet) : Collections.emptySet();
+    }
+
+    public boolean isRelated(String digitalTwinId, String relationshipName, Object targetId) {
+        Map<Object, Set<String>> targetMap = this.relatedTwinMap.get(relationshipName);
+        Set<String> twinSet = (targetMap != null) ? targetMap.get(targetId) : null;
+        return twinSet != null && twinSet.contains(digitalTwinId);
+    }
+
+    private static String getInstanceId(String relationshipName, String instanceKey) {
+        return relationshipName + "/" + instanceKey;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RelationshipIndex{");
+        sb.append("relationships=").append(relatedTwinMap.keySet());
+        sb.append(", indexedTwins=").append(instanceTargetMap.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
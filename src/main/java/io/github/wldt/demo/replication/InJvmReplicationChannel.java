@@ -0,0 +1,26 @@
+package io.github.wldt.demo.replication;
+
+import java.io.IOException;
+
+/**
+ * Channel delivering the change log to a replica running in the same JVM (e.g., on another engine). The entry is
+ * deserialized again on the replica side so that the two twins never share any DT State object.
+ */
+public class InJvmReplicationChannel implements ReplicationChannel {
+
+    private final StandbyReplica standbyReplica;
+
+    public InJvmReplicationChannel(StandbyReplica standbyReplica) {
+        this.standbyReplica = standbyReplica;
+    }
+
+    @Override
+    public void send(byte[] serializedLogEntry) throws IOException {
+        this.standbyReplica.onLogEntry(ReplicationLogEntry.fromByteArray(serializedLogEntry));
+    }
+
+    @Override
+    public String toString() {
+        return "InJvmReplicationChannel{}";
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.wldt.demo.replication;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Channel delivering the change log through a persistent TCP connection on the loopback interface, as a stand-in
+ * for a replica running in another process. Entries are written as length-prefixed frames and a receiver thread
+ * hands them to the {@link StandbyReplica} in the same order.
+ */
+public class LoopbackSocketReplicationChannel implements ReplicationChannel, Closeable {
+
+    private final ServerSocket serverSocket;
+
+    private final Socket senderSocket;
+
+    private final DataOutputStream outputStream;
+
+    private final Thread receiverThread;
+
+    public LoopbackSocketReplicationChannel(StandbyReplica standbyReplica) throws IOException {
+
+        this.serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+
+        this.receiverThread = new Thread(receiveLogEntries(standbyReplica), "replication-receiver");
+        this.receiverThread.setDaemon(true);
+        this.receiverThread.start();
+
+        this.senderSocket = new Socket(InetAddress.getLoopbackAddress(), this.serverSocket.getLocalPort());
+        this.senderSocket.setTcpNoDelay(true);
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(this.senderSocket.getOutputStream()));
+    }
+
+    @Override
+    public synchronized void send(byte[] serializedLogEntry) throws IOException {
+        this.outputStream.writeInt(serializedLogEntry.length);
+        this.outputStream.write(serializedLogEntry);
+        this.outputStream.flush();
+    }
+
+    private Runnable receiveLogEntries(StandbyReplica standbyReplica) {
+        return () -> {
+            try (Socket socket = this.serverSocket.accept();
+                 DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+
+                while (!Thread.currentThread().isInterrupted()) {
+                    byte[] serializedLogEntry = new byte[inputStream.readInt()];
+                    inputStream.readFully(serializedLogEntry);
+                    standbyReplica.onLogEntry(ReplicationLogEntry.fromByteArray(serializedLogEntry));
+                }
+
+            } catch (EOFException e) {
+                System.out.println("[LoopbackSocketReplicationChannel] -> Replication Channel Closed !");
+            } catch (IOException e) {
+                if(!this.serverSocket.isClosed())
+                    e.printStackTrace();
+            }
+        };
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.senderSocket.close();
+        this.serverSocket.close();
+        this.receiverThread.interrupt();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LoopbackSocketReplicationChannel{");
+        sb.append("port=").append(getPort());
+        sb.append('}');
+        return sb.toString();
+    }
+}
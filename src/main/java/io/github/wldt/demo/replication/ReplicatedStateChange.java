@@ -0,0 +1,125 @@
+package io.github.wldt.demo.replication;
+
+import io.github.wldt.demo.state.DigitalTwinStateSnapshot;
+import it.wldt.core.state.*;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Serializable copy of a committed {@link DigitalTwinStateChange} shipped from a primary twin to its replicas.
+ * Property values and relationship targets not implementing {@link Serializable} can not be replicated.
+ */
+public class ReplicatedStateChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DigitalTwinStateChange.Operation operation;
+
+    private final DigitalTwinStateChange.ResourceType resourceType;
+
+    //Key of the property, event or action, or name of the relationship
+    private final String key;
+
+    private final Serializable value;
+
+    private final String type;
+
+    private final String contentType;
+
+    private final DigitalTwinStateSnapshot.RelationshipInstanceSnapshot relationshipInstance;
+
+    private ReplicatedStateChange(DigitalTwinStateChange.Operation operation, DigitalTwinStateChange.ResourceType resourceType,
+                                  String key, Serializable value, String type, String contentType,
+                                  DigitalTwinStateSnapshot.RelationshipInstanceSnapshot relationshipInstance) {
+        this.operation = operation;
+        this.resourceType = resourceType;
+        this.key = key;
+        this.value = value;
+        this.type = type;
+        this.contentType = contentType;
+        this.relationshipInstance = relationshipInstance;
+    }
+
+    /**
+     * Copy the target DT State change
+     *
+     * @param stateChange the committed change
+     * @return the replicated change or an empty Optional if the changed resource can not be shipped
+     */
+    public static Optional<ReplicatedStateChange> from(DigitalTwinStateChange stateChange) {
+
+        DigitalTwinStateResource resource = stateChange.getResource();
+
+        if(resource instanceof DigitalTwinStateProperty) {
+            DigitalTwinStateProperty<?> property = (DigitalTwinStateProperty<?>) resource;
+            if(property.getValue() == null || property.getValue() instanceof Serializable)
+                return Optional.of(new ReplicatedStateChange(stateChange.getOperation(), stateChange.getResourceType(),
+                        property.getKey(), (Serializable) property.getValue(), null, null, null));
+        }
+        else if(resource instanceof DigitalTwinStateEvent) {
+            DigitalTwinStateEvent event = (DigitalTwinStateEvent) resource;
+            return Optional.of(new ReplicatedStateChange(stateChange.getOperation(), stateChange.getResourceType(),
+                    event.getKey(), null, event.getType(), null, null));
+        }
+        else if(resource instanceof DigitalTwinStateAction) {
+            DigitalTwinStateAction action = (DigitalTwinStateAction) resource;
+            return Optional.of(new ReplicatedStateChange(stateChange.getOperation(), stateChange.getResourceType(),
+                    action.getKey(), null, action.getType(), action.getContentType(), null));
+        }
+        else if(resource instanceof DigitalTwinStateRelationship) {
+            DigitalTwinStateRelationship<?> relationship = (DigitalTwinStateRelationship<?>) resource;
+            return Optional.of(new ReplicatedStateChange(stateChange.getOperation(), stateChange.getResourceType(),
+                    relationship.getName(), null, relationship.getType(), null, null));
+        }
+        else if(resource instanceof DigitalTwinStateRelationshipInstance) {
+            DigitalTwinStateRelationshipInstance<?> instance = (DigitalTwinStateRelationshipInstance<?>) resource;
+            if(instance.getTargetId() instanceof Serializable)
+                return Optional.of(new ReplicatedStateChange(stateChange.getOperation(), stateChange.getResourceType(),
+                        instance.getRelationshipName(), null, null, null,
+                        new DigitalTwinStateSnapshot.RelationshipInstanceSnapshot(instance.getRelationshipName(),
+                                (Serializable) instance.getTargetId(), instance.getKey(), instance.getMetadata())));
+        }
+
+        return Optional.empty();
+    }
+
+    public DigitalTwinStateChange.Operation getOperation() {
+        return operation;
+    }
+
+    public DigitalTwinStateChange.ResourceType getResourceType() {
+        return resourceType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Serializable getValue() {
+        return value;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public DigitalTwinStateSnapshot.RelationshipInstanceSnapshot getRelationshipInstance() {
+        return relationshipInstance;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReplicatedStateChange{");
+        sb.append("operation=").append(operation);
+        sb.append(", resourceType=").append(resourceType);
+        sb.append(", key='").append(key).append('\'');
+        sb.append(", value=").append(value);
+        sb.append('}');
+        return sb.toString();
+    }
+}
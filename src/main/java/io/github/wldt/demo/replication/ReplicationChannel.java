@@ -0,0 +1,13 @@
+package io.github.wldt.demo.replication;
+
+import java.io.IOException;
+
+/**
+ * Channel shipping the serialized change log entries from the primary twin to a {@link StandbyReplica}.
+ * Entries have to be delivered in the same order in which they are sent.
+ */
+public interface ReplicationChannel {
+
+    void send(byte[] serializedLogEntry) throws IOException;
+
+}
@@ -0,0 +1,73 @@
+package io.github.wldt.demo.replication;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entry of the change log shipped by a primary twin: the changes committed by a single DT State transaction
+ * identified by a sequence number increasing by one for each entry
+ */
+public class ReplicationLogEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String primaryDigitalTwinId;
+
+    private final long sequenceNumber;
+
+    private final long commitTimestamp;
+
+    private final ArrayList<ReplicatedStateChange> changeList;
+
+    public ReplicationLogEntry(String primaryDigitalTwinId, long sequenceNumber, long commitTimestamp, List<ReplicatedStateChange> changeList) {
+        this.primaryDigitalTwinId = primaryDigitalTwinId;
+        this.sequenceNumber = sequenceNumber;
+        this.commitTimestamp = commitTimestamp;
+        this.changeList = new ArrayList<>(changeList);
+    }
+
+    public byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            outputStream.writeObject(this);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    public static ReplicationLogEntry fromByteArray(byte[] data) throws IOException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (ReplicationLogEntry) inputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(String.format("Wrong Replication Log Entry data ! Error: %s", e.getLocalizedMessage()));
+        }
+    }
+
+    public String getPrimaryDigitalTwinId() {
+        return primaryDigitalTwinId;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public long getCommitTimestamp() {
+        return commitTimestamp;
+    }
+
+    public List<ReplicatedStateChange> getChangeList() {
+        return Collections.unmodifiableList(changeList);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReplicationLogEntry{");
+        sb.append("primaryDigitalTwinId='").append(primaryDigitalTwinId).append('\'');
+        sb.append(", sequenceNumber=").append(sequenceNumber);
+        sb.append(", commitTimestamp=").append(commitTimestamp);
+        sb.append(", changeList=").append(changeList);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.wldt.demo.replication;
+
+import io.github.wldt.demo.digital.StateChangeListener;
+import it.wldt.core.state.DigitalTwinState;
+import it.wldt.core.state.DigitalTwinStateChange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State Change Listener registered on a Digital Adapter of the primary twin that turns each committed change list
+ * into a {@link ReplicationLogEntry} and ships it through the configured {@link ReplicationChannel}
+ */
+public class ReplicationPublisher implements StateChangeListener {
+
+    private final ReplicationChannel replicationChannel;
+
+    private final AtomicLong sequenceNumber = new AtomicLong(0);
+
+    private final AtomicLong shippedEntryCount = new AtomicLong(0);
+
+    private final AtomicLong shippedByteCount = new AtomicLong(0);
+
+    private final AtomicLong skippedChangeCount = new AtomicLong(0);
+
+    private final AtomicLong failedEntryCount = new AtomicLong(0);
+
+    public ReplicationPublisher(ReplicationChannel replicationChannel) {
+        this.replicationChannel = replicationChannel;
+    }
+
+    @Override
+    public void onStateChanges(String digitalTwinId, DigitalTwinState newDigitalTwinState, List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        List<ReplicatedStateChange> replicatedChangeList = new ArrayList<>(digitalTwinStateChangeList.size());
+        for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList) {
+            ReplicatedStateChange replicatedChange = ReplicatedStateChange.from(stateChange).orElse(null);
+            if(replicatedChange != null)
+                replicatedChangeList.add(replicatedChange);
+            else
+                this.skippedChangeCount.incrementAndGet();
+        }
+
+        ReplicationLogEntry logEntry = new ReplicationLogEntry(digitalTwinId,
+                this.sequenceNumber.incrementAndGet(),
+                System.currentTimeMillis(),
+                replicatedChangeList);
+
+        try {
+            byte[] serializedLogEntry = logEntry.toByteArray();
+            this.replicationChannel.send(serializedLogEntry);
+            this.shippedEntryCount.incrementAndGet();
+            this.shippedByteCount.addAndGet(serializedLogEntry.length);
+        } catch (IOException e) {
+            //The replica detects the sequence gap and has to be rebuilt from a snapshot
+            this.failedEntryCount.incrementAndGet();
+            System.err.println("[ReplicationPublisher] -> Error shipping Log Entry " + logEntry.getSequenceNumber() + " ! Error: " + e.getLocalizedMessage());
+        }
+    }
+
+    public long getLastSequenceNumber() {
+        return sequenceNumber.get();
+    }
+
+    public long getShippedEntryCount() {
+        return shippedEntryCount.get();
+    }
+
+    public long getShippedByteCount() {
+        return shippedByteCount.get();
+    }
+
+    public long getSkippedChangeCount() {
+        return skippedChangeCount.get();
+    }
+
+    public long getFailedEntryCount() {
+        return failedEntryCount.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReplicationPublisher{");
+        sb.append("replicationChannel=").append(replicationChannel);
+        sb.append(", lastSequenceNumber=").append(getLastSequenceNumber());
+        sb.append(", shippedEntryCount=").append(getShippedEntryCount());
+        sb.append(", shippedByteCount=").append(getShippedByteCount());
+        sb.append(", skippedChangeCount=").append(getSkippedChangeCount());
+        sb.append(", failedEntryCount=").append(getFailedEntryCount());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.wldt.demo.replication;
+
+import io.github.wldt.demo.DemoShadowingFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot-standby copy of a primary twin running on another engine. The standby twin is created and bound with its own
+ * adapters in standby mode, so its Shadowing Function ignores the physical variations and its DT State is only
+ * updated by the change log shipped by the primary twin. Entries are applied incrementally, one DT State transaction
+ * for each primary transaction, once the standby twin is synchronized.
+ *
+ * Promoting the replica applies the entries still queued and switches the Shadowing Function to the physical
+ * variations, without any rebind of the adapters.
+ */
+public class StandbyReplica {
+
+    private final DemoShadowingFunction standbyShadowingFunction;
+
+    private final BlockingQueue<ReplicationLogEntry> pendingLogEntryQueue = new LinkedBlockingQueue<>();
+
+    private final Object applyLock = new Object();
+
+    private final AtomicLong appliedEntryCount = new AtomicLong(0);
+
+    private final AtomicLong sequenceGapCount = new AtomicLong(0);
+
+    private volatile long lastAppliedSequenceNumber = 0;
+
+    private volatile long lastReplicationLagMs = 0;
+
+    private volatile boolean promoted = false;
+
+    //Set when a log entry is missing or can not be applied, the DT State has to be rebuilt from a primary snapshot
+    private volatile boolean resyncRequired = false;
+
+    private Thread applierThread = null;
+
+    public StandbyReplica(DemoShadowingFunction standbyShadowingFunction) {
+        this.standbyShadowingFunction = standbyShadowingFunction;
+    }
+
+    /**
+     * Start applying the received entries as soon as the standby twin is synchronized
+     */
+    public synchronized void start() {
+
+        if(this.applierThread != null)
+            return;
+
+        this.applierThread = new Thread(() -> {
+            try {
+
+                this.standbyShadowingFunction.getSynchronizedFuture().get();
+
+                while (!this.promoted)
+                    apply(this.pendingLogEntryQueue.take());
+
+            } catch (InterruptedException e) {
+                System.out.println("[StandbyReplica] -> Replica Applier Interrupted !");
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, "standby-replica-applier");
+
+        this.applierThread.setDaemon(true);
+        this.applierThread.start();
+    }
+
+    /**
+     * Receive a new entry shipped by the primary twin
+     *
+     * @param logEntry the change log entry
+     */
+    public void onLogEntry(ReplicationLogEntry logEntry) {
+        if(!this.promoted)
+            this.pendingLogEntryQueue.offer(logEntry);
+    }
+
+    /**
+     * Promote the replica to primary: the queued entries are applied and the standby twin starts applying its own
+     * physical variations. Entries received after the promotion are discarded.
+     *
+     * @return the time spent to promote the replica in milliseconds
+     * @throws InterruptedException if the current thread is interrupted waiting for the applier
+     */
+    public synchronized long promote() throws InterruptedException {
+
+        long promotionStartNs = System.nanoTime();
+
+        this.promoted = true;
+
+        if(this.applierThread != null){
+            this.applierThread.interrupt();
+            this.applierThread.join();
+        }
+
+        List<ReplicationLogEntry> remainingEntries = new ArrayList<>();
+        this.pendingLogEntryQueue.drainTo(remainingEntries);
+        for(ReplicationLogEntry logEntry : remainingEntries)
+            apply(logEntry);
+
+        this.standbyShadowingFunction.promote();
+
+        long promotionTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - promotionStartNs);
+
+        System.out.println(String.format("[StandbyReplica] -> Replica Promoted in %d ms ! Applied Entries: %d Last Sequence Number: %d",
+                promotionTimeMs, getAppliedEntryCount(), getLastAppliedSequenceNumber()));
+
+        return promotionTimeMs;
+    }
+
+    private void apply(ReplicationLogEntry logEntry) {
+        synchronized (this.applyLock) {
+
+            //Entries already applied (e.g., shipped again after a reconnection) are skipped
+            if(logEntry.getSequenceNumber() <= this.lastAppliedSequenceNumber)
+                return;
+
+            if(logEntry.getSequenceNumber() != this.lastAppliedSequenceNumber + 1){
+                this.sequenceGapCount.incrementAndGet();
+                this.resyncRequired = true;
+                System.err.println(String.format("[StandbyReplica] -> Missing Log Entries between %d and %d !",
+                        this.lastAppliedSequenceNumber, logEntry.getSequenceNumber()));
+            }
+
+            try {
+                this.standbyShadowingFunction.applyReplicatedChanges(logEntry.getChangeList());
+                this.appliedEntryCount.incrementAndGet();
+            } catch (Exception e) {
+                //The entry is missing from the DT State as if it had never been received
+                this.sequenceGapCount.incrementAndGet();
+                this.resyncRequired = true;
+                e.printStackTrace();
+                return;
+            }
+
+            this.lastAppliedSequenceNumber = logEntry.getSequenceNumber();
+            this.lastReplicationLagMs = System.currentTimeMillis() - logEntry.getCommitTimestamp();
+        }
+    }
+
+    public boolean isPromoted() {
+        return promoted;
+    }
+
+    /**
+     * @return true if the DT State of the replica diverged from the primary one since a log entry is missing or
+     * failed to apply
+     */
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    public long getLastAppliedSequenceNumber() {
+        return lastAppliedSequenceNumber;
+    }
+
+    public long getLastReplicationLagMs() {
+        return lastReplicationLagMs;
+    }
+
+    public long getAppliedEntryCount() {
+        return appliedEntryCount.get();
+    }
+
+    public long getSequenceGapCount() {
+        return sequenceGapCount.get();
+    }
+
+    public int getPendingEntryCount() {
+        return this.pendingLogEntryQueue.size();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StandbyReplica{");
+        sb.append("promoted=").append(promoted);
+        sb.append(", lastAppliedSequenceNumber=").append(lastAppliedSequenceNumber);
+        sb.append(", appliedEntryCount=").append(getAppliedEntryCount());
+        sb.append(", pendingEntryCount=").append(getPendingEntryCount());
+        sb.append(", sequenceGapCount=").append(getSequenceGapCount());
+        sb.append(", resyncRequired=").append(resyncRequired);
+        sb.append(", lastReplicationLagMs=").append(lastReplicationLagMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
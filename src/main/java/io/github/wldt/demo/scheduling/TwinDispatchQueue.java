@@ -0,0 +1,135 @@
+package io.github.wldt.demo.scheduling;
+
+import io.github.wldt.demo.metrics.LatencyHistogram;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pending dispatches of a single Digital Twin handled by the {@link TwinDispatchScheduler}.
+ *
+ * The scheduled flag guarantees that the queue is in the round of the scheduler at most once, so a single worker
+ * serves the twin at any time, the dispatch order of the twin is preserved and the deficit is only accessed by the
+ * serving worker.
+ */
+class TwinDispatchQueue {
+
+    private final String digitalTwinId;
+
+    private final Queue<PendingDispatch> pendingDispatchQueue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    private final LongAdder serviceTimeNanos = new LongAdder();
+
+    private volatile int weight;
+
+    private volatile boolean closed = false;
+
+    //Service time credit of the twin, only accessed by the worker currently serving the queue
+    private long deficitNanos = 0;
+
+    TwinDispatchQueue(String digitalTwinId, int weight) {
+        this.digitalTwinId = digitalTwinId;
+        this.weight = weight;
+    }
+
+    /**
+     * @return true if the queue has to be added to the round of the scheduler
+     */
+    boolean offer(Runnable dispatch) {
+        this.pendingDispatchQueue.add(new PendingDispatch(dispatch, System.nanoTime()));
+        this.pendingCount.incrementAndGet();
+        return this.scheduled.compareAndSet(false, true);
+    }
+
+    PendingDispatch poll() {
+        PendingDispatch pendingDispatch = this.pendingDispatchQueue.poll();
+        if(pendingDispatch != null)
+            this.pendingCount.decrementAndGet();
+        return pendingDispatch;
+    }
+
+    boolean isEmpty() {
+        return this.pendingDispatchQueue.isEmpty();
+    }
+
+    /**
+     * Release the queue at the end of a turn
+     *
+     * @return true if new dispatches arrived in the meanwhile and the queue has to be added back to the round
+     */
+    boolean release() {
+        this.scheduled.set(false);
+        return !this.pendingDispatchQueue.isEmpty() && this.scheduled.compareAndSet(false, true);
+    }
+
+    void clear() {
+        while(poll() != null);
+    }
+
+    void recordDispatch(PendingDispatch pendingDispatch, long startNanos, long endNanos) {
+        this.deficitNanos -= endNanos - startNanos;
+        this.serviceTimeNanos.add(endNanos - startNanos);
+        this.latencyHistogram.record(endNanos - pendingDispatch.enqueueNanos);
+    }
+
+    String getDigitalTwinId() {
+        return digitalTwinId;
+    }
+
+    int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    long getServiceTimeNanos() {
+        return serviceTimeNanos.sum();
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        this.closed = true;
+    }
+
+    long getDeficitNanos() {
+        return deficitNanos;
+    }
+
+    void setDeficitNanos(long deficitNanos) {
+        this.deficitNanos = deficitNanos;
+    }
+
+    static class PendingDispatch {
+
+        final Runnable dispatch;
+
+        final long enqueueNanos;
+
+        PendingDispatch(Runnable dispatch, long enqueueNanos) {
+            this.dispatch = dispatch;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+}
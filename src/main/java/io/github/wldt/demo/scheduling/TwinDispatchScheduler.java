@@ -0,0 +1,256 @@
+package io.github.wldt.demo.scheduling;
+
+import io.github.wldt.demo.metrics.LatencyHistogram;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Twin-aware scheduler sharing a fixed pool of workers among the Digital Twins running on the same engine through
+ * Deficit Round Robin.
+ *
+ * The WLDT Event Bus forwards physical events and digital actions synchronously on the publisher thread, so a
+ * chatty device competes for the CPU with every other twin. A Shadowing Function configured with the scheduler
+ * only enqueues the received event in the queue of its twin, and the workers visit the twins with pending
+ * dispatches in round robin. At each turn a twin earns a quantum of service time proportional to its weight and
+ * is served until the credit is exhausted. Since the cost of a dispatch is only known once executed, the credit is
+ * charged with the measured service time and can become negative, in which case the twin skips its following
+ * turns until the debt is repaid. A flooding twin therefore gets at most its share of the workers, while a quiet
+ * twin is served within one round.
+ *
+ * The dispatches of the same twin are never executed concurrently and keep their submission order.
+ */
+public class TwinDispatchScheduler {
+
+    public static final int DEFAULT_WEIGHT = 1;
+
+    public static final long DEFAULT_QUANTUM_NANOS = 200000;
+
+    private final int workerCount;
+
+    private final long quantumNanos;
+
+    private final Map<String, TwinDispatchQueue> dispatchQueueMap = new ConcurrentHashMap<>();
+
+    //Round of the twins with pending dispatches
+    private final BlockingQueue<TwinDispatchQueue> activeQueueRound = new LinkedBlockingQueue<>();
+
+    private final List<Thread> workerList = new ArrayList<>();
+
+    private volatile boolean running = false;
+
+    public TwinDispatchScheduler() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_QUANTUM_NANOS);
+    }
+
+    public TwinDispatchScheduler(int workerCount, long quantumNanos) {
+
+        if(workerCount <= 0 || quantumNanos <= 0)
+            throw new IllegalArgumentException("Worker count and quantum must be greater than 0 !");
+
+        this.workerCount = workerCount;
+        this.quantumNanos = quantumNanos;
+    }
+
+    public synchronized void start() {
+
+        if(this.running)
+            return;
+
+        this.running = true;
+
+        for(int i = 0; i < this.workerCount; i++){
+            Thread worker = new Thread(this::dispatchLoop, String.format("twin-dispatch-worker-%d", i));
+            worker.setDaemon(true);
+            worker.start();
+            this.workerList.add(worker);
+        }
+    }
+
+    public synchronized void stop() {
+        this.running = false;
+        this.workerList.forEach(Thread::interrupt);
+        this.workerList.clear();
+    }
+
+    /**
+     * Register a twin on the scheduler, or update its weight if already registered
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param weight the share of the workers assigned to the twin relative to the other twins
+     */
+    public void register(String digitalTwinId, int weight) {
+
+        if(weight <= 0)
+            throw new IllegalArgumentException("Twin weight must be greater than 0 !");
+
+        this.dispatchQueueMap.compute(digitalTwinId, (id, dispatchQueue) -> {
+            if(dispatchQueue == null)
+                return new TwinDispatchQueue(id, weight);
+            dispatchQueue.setWeight(weight);
+            return dispatchQueue;
+        });
+    }
+
+    /**
+     * Unregister a twin, its pending dispatches are discarded
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     */
+    public void unregister(String digitalTwinId) {
+        TwinDispatchQueue dispatchQueue = this.dispatchQueueMap.remove(digitalTwinId);
+        if(dispatchQueue != null){
+            dispatchQueue.close();
+            dispatchQueue.clear();
+        }
+    }
+
+    /**
+     * Unregister a twin returning its pending dispatches instead of discarding them, in order to run them on the
+     * calling thread (e.g., a twin stopped for a migration buffers them as in-flight events)
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @return the pending dispatches in submission order, empty if the twin is not registered
+     */
+    public List<Runnable> unregisterAndDrain(String digitalTwinId) {
+
+        List<Runnable> pendingDispatchList = new ArrayList<>();
+
+        TwinDispatchQueue dispatchQueue = this.dispatchQueueMap.remove(digitalTwinId);
+        if(dispatchQueue != null){
+            dispatchQueue.close();
+            TwinDispatchQueue.PendingDispatch pendingDispatch;
+            while((pendingDispatch = dispatchQueue.poll()) != null)
+                pendingDispatchList.add(pendingDispatch.dispatch);
+        }
+
+        return pendingDispatchList;
+    }
+
+    public boolean isRegistered(String digitalTwinId) {
+        return this.dispatchQueueMap.containsKey(digitalTwinId);
+    }
+
+    /**
+     * Enqueue a dispatch on the queue of a twin
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param dispatch the processing of the received event
+     * @return false if the scheduler is not running or the twin is not registered, in which case the caller has
+     * to execute the dispatch by itself
+     */
+    public boolean submit(String digitalTwinId, Runnable dispatch) {
+
+        TwinDispatchQueue dispatchQueue = this.dispatchQueueMap.get(digitalTwinId);
+        if(!this.running || dispatchQueue == null)
+            return false;
+
+        if(dispatchQueue.offer(dispatch))
+            this.activeQueueRound.add(dispatchQueue);
+
+        return true;
+    }
+
+    /**
+     * @param digitalTwinId the id of the Digital Twin
+     * @return the number of dispatches waiting for the twin, 0 if the twin is not registered
+     */
+    public int getPendingCount(String digitalTwinId) {
+        TwinDispatchQueue dispatchQueue = this.dispatchQueueMap.get(digitalTwinId);
+        return dispatchQueue != null ? dispatchQueue.getPendingCount() : 0;
+    }
+
+    public Optional<TwinDispatchStats> getStats(String digitalTwinId) {
+        return Optional.ofNullable(this.dispatchQueueMap.get(digitalTwinId)).map(TwinDispatchScheduler::buildStats);
+    }
+
+    public List<TwinDispatchStats> getStats() {
+        List<TwinDispatchStats> statsList = new ArrayList<>();
+        this.dispatchQueueMap.values().forEach(dispatchQueue -> statsList.add(buildStats(dispatchQueue)));
+        statsList.sort(Comparator.comparing(TwinDispatchStats::getDigitalTwinId));
+        return statsList;
+    }
+
+    private static TwinDispatchStats buildStats(TwinDispatchQueue dispatchQueue) {
+        LatencyHistogram latencyHistogram = dispatchQueue.getLatencyHistogram();
+        return new TwinDispatchStats(dispatchQueue.getDigitalTwinId(),
+                dispatchQueue.getWeight(),
+                latencyHistogram.getCount(),
+                dispatchQueue.getPendingCount(),
+                dispatchQueue.getServiceTimeNanos(),
+                latencyHistogram.getMeanValue(),
+                latencyHistogram.getValueAtPercentile(50),
+                latencyHistogram.getValueAtPercentile(99),
+                latencyHistogram.getMaxValue());
+    }
+
+    private void dispatchLoop() {
+        while(this.running) {
+            try {
+                serveTurn(this.activeQueueRound.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Serve a twin until its credit is exhausted, then put it back at the end of the round if it still has pending
+     * dispatches
+     */
+    private void serveTurn(TwinDispatchQueue dispatchQueue) {
+
+        if(dispatchQueue.isClosed()){
+            dispatchQueue.clear();
+            return;
+        }
+
+        dispatchQueue.setDeficitNanos(dispatchQueue.getDeficitNanos() + this.quantumNanos * dispatchQueue.getWeight());
+
+        TwinDispatchQueue.PendingDispatch pendingDispatch;
+        while(dispatchQueue.getDeficitNanos() > 0 && (pendingDispatch = dispatchQueue.poll()) != null) {
+
+            long startNanos = System.nanoTime();
+            try {
+                pendingDispatch.dispatch.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
+            dispatchQueue.recordDispatch(pendingDispatch, startNanos, System.nanoTime());
+        }
+
+        if(!dispatchQueue.isEmpty()) {
+            this.activeQueueRound.add(dispatchQueue);
+            return;
+        }
+
+        //An idle twin does not accumulate credit, while the debt of an expensive dispatch is kept
+        dispatchQueue.setDeficitNanos(Math.min(0, dispatchQueue.getDeficitNanos()));
+
+        if(dispatchQueue.release())
+            this.activeQueueRound.add(dispatchQueue);
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public long getQuantumNanos() {
+        return quantumNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinDispatchScheduler{");
+        sb.append("workerCount=").append(workerCount);
+        sb.append(", quantumNanos=").append(quantumNanos);
+        sb.append(", twinCount=").append(dispatchQueueMap.size());
+        sb.append(", activeTwinCount=").append(activeQueueRound.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
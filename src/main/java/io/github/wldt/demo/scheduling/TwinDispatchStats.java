@@ -0,0 +1,91 @@
+package io.github.wldt.demo.scheduling;
+
+/**
+ * Dispatch statistics of a Digital Twin registered on the {@link TwinDispatchScheduler}. Latencies are measured
+ * from the submission of the dispatch to the end of its execution and include the time spent in the queue.
+ */
+public class TwinDispatchStats {
+
+    private final String digitalTwinId;
+
+    private final int weight;
+
+    private final long dispatchCount;
+
+    private final int pendingCount;
+
+    private final long serviceTimeNanos;
+
+    private final double meanLatencyNanos;
+
+    private final long p50LatencyNanos;
+
+    private final long p99LatencyNanos;
+
+    private final long maxLatencyNanos;
+
+    public TwinDispatchStats(String digitalTwinId, int weight, long dispatchCount, int pendingCount, long serviceTimeNanos,
+                             double meanLatencyNanos, long p50LatencyNanos, long p99LatencyNanos, long maxLatencyNanos) {
+        this.digitalTwinId = digitalTwinId;
+        this.weight = weight;
+        this.dispatchCount = dispatchCount;
+        this.pendingCount = pendingCount;
+        this.serviceTimeNanos = serviceTimeNanos;
+        this.meanLatencyNanos = meanLatencyNanos;
+        this.p50LatencyNanos = p50LatencyNanos;
+        this.p99LatencyNanos = p99LatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    public String getDigitalTwinId() {
+        return digitalTwinId;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public long getDispatchCount() {
+        return dispatchCount;
+    }
+
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    public long getServiceTimeNanos() {
+        return serviceTimeNanos;
+    }
+
+    public double getMeanLatencyNanos() {
+        return meanLatencyNanos;
+    }
+
+    public long getP50LatencyNanos() {
+        return p50LatencyNanos;
+    }
+
+    public long getP99LatencyNanos() {
+        return p99LatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinDispatchStats{");
+        sb.append("digitalTwinId='").append(digitalTwinId).append('\'');
+        sb.append(", weight=").append(weight);
+        sb.append(", dispatchCount=").append(dispatchCount);
+        sb.append(", pendingCount=").append(pendingCount);
+        sb.append(", serviceTimeMs=").append(serviceTimeNanos / 1000000);
+        sb.append(", meanLatencyUs=").append(String.format("%.1f", meanLatencyNanos / 1000.0));
+        sb.append(", p50LatencyUs=").append(p50LatencyNanos / 1000);
+        sb.append(", p99LatencyUs=").append(p99LatencyNanos / 1000);
+        sb.append(", maxLatencyUs=").append(maxLatencyNanos / 1000);
+        sb.append('}');
+        return sb.toString();
+    }
+}
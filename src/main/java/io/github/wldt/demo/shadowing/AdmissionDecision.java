@@ -0,0 +1,13 @@
+package io.github.wldt.demo.shadowing;
+
+/**
+ * Decision taken by the {@link IngestAdmissionController} for a property update received by the Shadowing Function
+ */
+public enum AdmissionDecision {
+    //The update is queued and applied
+    ADMIT,
+    //The update replaces the value of the same key still waiting to be applied, if any
+    COALESCE,
+    //The update is discarded
+    SHED
+}
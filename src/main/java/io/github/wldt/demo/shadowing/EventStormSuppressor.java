@@ -0,0 +1,151 @@
+package io.github.wldt.demo.shadowing;
+
+import io.github.wldt.demo.keys.KeyIndexedArray;
+import io.github.wldt.demo.keys.KeyRegistry;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Duplicate suppression applied by the Shadowing Function to the physical events of its twin before they are
+ * notified as DT State Event Notifications.
+ *
+ * An event is a duplicate when it has the same key and the same body of the last notified event of that key and
+ * it is received within the hold-off window started by that notification. Duplicates are counted and dropped, so
+ * during an alarm storm (e.g., a repeated "critical" overheating event) each distinct event is notified at most
+ * once per hold-off window, while a different body is always notified immediately. The window is not extended by
+ * suppressed events, so a persistent condition is still notified periodically.
+ */
+public class EventStormSuppressor {
+
+    public static final long DEFAULT_HOLD_OFF_MS = 5000;
+
+    private final long defaultHoldOffMs;
+
+    //Hold-off windows configured for specific event keys, 0 disables the suppression of the key
+    private final Map<String, Long> keyHoldOffMap = new ConcurrentHashMap<>();
+
+    //Last notified event of each key indexed by key id
+    private final KeyIndexedArray<NotifiedEvent> notifiedEventArray = new KeyIndexedArray<>();
+
+    private final EventSuppressionStats stats = new EventSuppressionStats();
+
+    public EventStormSuppressor() {
+        this(DEFAULT_HOLD_OFF_MS);
+    }
+
+    public EventStormSuppressor(long defaultHoldOffMs) {
+
+        if(defaultHoldOffMs < 0)
+            throw new IllegalArgumentException("Wrong hold-off window: a value >= 0 is required !");
+
+        this.defaultHoldOffMs = defaultHoldOffMs;
+    }
+
+    /**
+     * Configure the hold-off window of a specific event key
+     *
+     * @param eventKey the key of the physical event
+     * @param holdOffMs the hold-off window in milliseconds, 0 to notify every event of the key
+     * @return the suppressor to chain the configuration
+     */
+    public EventStormSuppressor setHoldOffMs(String eventKey, long holdOffMs) {
+
+        if(holdOffMs < 0)
+            throw new IllegalArgumentException("Wrong hold-off window: a value >= 0 is required !");
+
+        this.keyHoldOffMap.put(eventKey, holdOffMs);
+        return this;
+    }
+
+    public long getHoldOffMs(String eventKey) {
+        return this.keyHoldOffMap.getOrDefault(eventKey, this.defaultHoldOffMs);
+    }
+
+    /**
+     * Decide if a physical event has to be notified. Events of the same twin are received by a single thread at
+     * a time, the per-key state is anyway updated under its own lock.
+     *
+     * @param eventKeyId the id of the event key in the {@link KeyRegistry}
+     * @param eventKey the key of the physical event
+     * @param body the body of the physical event
+     * @param timestampMs the current time of the twin clock
+     * @return true if the event has to be notified, false if it is a suppressed duplicate
+     */
+    public boolean admitEvent(int eventKeyId, String eventKey, Object body, long timestampMs) {
+
+        long holdOffMs = getHoldOffMs(eventKey);
+        if(holdOffMs == 0 || eventKeyId == KeyRegistry.UNKNOWN_KEY_ID) {
+            this.stats.onEventNotified();
+            return true;
+        }
+
+        NotifiedEvent notifiedEvent = this.notifiedEventArray.get(eventKeyId);
+        if(notifiedEvent == null) {
+            notifiedEvent = new NotifiedEvent();
+            this.notifiedEventArray.set(eventKeyId, notifiedEvent);
+        }
+
+        synchronized (notifiedEvent) {
+
+            if(notifiedEvent.notified
+                    && Objects.equals(notifiedEvent.body, body)
+                    && timestampMs - notifiedEvent.timestampMs < holdOffMs) {
+                notifiedEvent.suppressedCount++;
+                this.stats.onEventSuppressed();
+                return false;
+            }
+
+            notifiedEvent.notified = true;
+            notifiedEvent.body = body;
+            notifiedEvent.timestampMs = timestampMs;
+            notifiedEvent.suppressedCount = 0;
+        }
+
+        this.stats.onEventNotified();
+        return true;
+    }
+
+    /**
+     * @param eventKeyId the id of the event key
+     * @return the number of duplicates suppressed since the last notified event of the key
+     */
+    public long getPendingSuppressedCount(int eventKeyId) {
+        NotifiedEvent notifiedEvent = this.notifiedEventArray.get(eventKeyId);
+        if(notifiedEvent == null)
+            return 0;
+        synchronized (notifiedEvent) {
+            return notifiedEvent.suppressedCount;
+        }
+    }
+
+    public long getDefaultHoldOffMs() {
+        return defaultHoldOffMs;
+    }
+
+    public EventSuppressionStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("EventStormSuppressor{");
+        sb.append("defaultHoldOffMs=").append(defaultHoldOffMs);
+        sb.append(", keyHoldOffMap=").append(keyHoldOffMap);
+        sb.append(", stats=").append(stats);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static class NotifiedEvent {
+
+        private boolean notified = false;
+
+        private Object body = null;
+
+        private long timestampMs = 0;
+
+        private long suppressedCount = 0;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.wldt.demo.shadowing;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the decisions taken by the {@link EventStormSuppressor}
+ */
+public class EventSuppressionStats {
+
+    private final LongAdder notifiedEvents = new LongAdder();
+
+    private final LongAdder suppressedEvents = new LongAdder();
+
+    public void onEventNotified() {
+        this.notifiedEvents.increment();
+    }
+
+    public void onEventSuppressed() {
+        this.suppressedEvents.increment();
+    }
+
+    public long getNotifiedEvents() {
+        return notifiedEvents.sum();
+    }
+
+    /**
+     * @return the number of duplicated physical events dropped within their hold-off window
+     */
+    public long getSuppressedEvents() {
+        return suppressedEvents.sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("EventSuppressionStats{");
+        sb.append("notifiedEvents=").append(getNotifiedEvents());
+        sb.append(", suppressedEvents=").append(getSuppressedEvents());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.wldt.demo.shadowing;
+
+/**
+ * Admission control applied by the Shadowing Function to the physical property updates queued on the dispatch
+ * scheduler of its twin.
+ *
+ * The twin is considered overloaded when its dispatch queue exceeds the coalescing depth or when the moving
+ * average of the DT State commit latency exceeds the target. While overloaded, LOW priority updates are shed and
+ * the other ones are coalesced, so at most one update per key waits in the queue. When the queue reaches its
+ * maximum depth only HIGH priority updates are still coalesced. Physical events, relationship variations and
+ * digital actions are never discarded, keeping the backlog and the memory bounded by the number of keys.
+ *
+ * The moving average decays while no commit is recorded, each target latency interval without commits counting as
+ * a commit with no latency, so a twin shedding all its updates is able to leave the overload.
+ */
+public class IngestAdmissionController {
+
+    public static final int DEFAULT_COALESCE_QUEUE_DEPTH = 256;
+
+    public static final int DEFAULT_MAX_QUEUE_DEPTH = 4096;
+
+    public static final long DEFAULT_TARGET_COMMIT_LATENCY_NANOS = 2000000;
+
+    //Weight of the last measured commit in the moving average
+    private static final double COMMIT_LATENCY_SMOOTHING = 0.1;
+
+    private final int coalesceQueueDepth;
+
+    private final int maxQueueDepth;
+
+    private final long targetCommitLatencyNanos;
+
+    private final IngestAdmissionStats stats = new IngestAdmissionStats();
+
+    private volatile double commitLatencyAverageNanos = 0.0;
+
+    private volatile long lastCommitNanos = System.nanoTime();
+
+    private volatile int lastQueueDepth = 0;
+
+    public IngestAdmissionController() {
+        this(DEFAULT_COALESCE_QUEUE_DEPTH, DEFAULT_MAX_QUEUE_DEPTH, DEFAULT_TARGET_COMMIT_LATENCY_NANOS);
+    }
+
+    public IngestAdmissionController(int coalesceQueueDepth, int maxQueueDepth, long targetCommitLatencyNanos) {
+
+        if(coalesceQueueDepth <= 0 || maxQueueDepth < coalesceQueueDepth || targetCommitLatencyNanos <= 0)
+            throw new IllegalArgumentException("Wrong admission thresholds: 0 < coalesceQueueDepth <= maxQueueDepth and targetCommitLatency > 0 are required !");
+
+        this.coalesceQueueDepth = coalesceQueueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.targetCommitLatencyNanos = targetCommitLatencyNanos;
+    }
+
+    /**
+     * Decide how a property update has to be handled
+     *
+     * @param priority the priority of the property key assigned by the {@link ObservationPolicy}
+     * @param queueDepth the number of dispatches currently waiting for the twin
+     * @param coalescedUpdatePending true if a coalesced update of the same key is still waiting to be applied, in
+     *                               which case an admitted update is coalesced as well to keep the key ordered
+     * @return the admission decision
+     */
+    public AdmissionDecision admitPropertyUpdate(ObservationPriority priority, int queueDepth, boolean coalescedUpdatePending) {
+
+        this.lastQueueDepth = queueDepth;
+
+        AdmissionDecision decision;
+        if(queueDepth >= this.maxQueueDepth)
+            decision = priority == ObservationPriority.HIGH ? AdmissionDecision.COALESCE : AdmissionDecision.SHED;
+        else if(isOverloaded(queueDepth))
+            decision = priority == ObservationPriority.LOW ? AdmissionDecision.SHED : AdmissionDecision.COALESCE;
+        else
+            decision = coalescedUpdatePending ? AdmissionDecision.COALESCE : AdmissionDecision.ADMIT;
+
+        switch (decision) {
+            case ADMIT:
+                this.stats.onUpdateAdmitted();
+                break;
+            case COALESCE:
+                this.stats.onUpdateCoalesced();
+                break;
+            default:
+                this.stats.onUpdateShed();
+        }
+
+        return decision;
+    }
+
+    /**
+     * Track an event, relationship variation or action that is admitted whatever the load
+     */
+    public void onEventAdmitted() {
+        this.stats.onEventPreserved();
+    }
+
+    /**
+     * Track a coalesced update replaced by a newer value of the same key before being applied
+     */
+    public void onUpdateSuperseded() {
+        this.stats.onUpdateSuperseded();
+    }
+
+    /**
+     * Update the moving average of the DT State commit latency. Commits of the same twin are never concurrent.
+     *
+     * @param commitLatencyNanos the duration of the last commit
+     */
+    public void recordCommitLatency(long commitLatencyNanos) {
+
+        long nowNanos = System.nanoTime();
+
+        //Only the time elapsed between the end of the previous commit and the start of this one is idle
+        double averageNanos = decay(this.commitLatencyAverageNanos, nowNanos - this.lastCommitNanos - commitLatencyNanos);
+
+        this.commitLatencyAverageNanos = averageNanos + COMMIT_LATENCY_SMOOTHING * (commitLatencyNanos - averageNanos);
+        this.lastCommitNanos = nowNanos;
+    }
+
+    public boolean isOverloaded(int queueDepth) {
+        return queueDepth >= this.coalesceQueueDepth || getCommitLatencyAverageNanos() > this.targetCommitLatencyNanos;
+    }
+
+    /**
+     * @return the moving average of the commit latency, decayed by the time elapsed since the last commit
+     */
+    public double getCommitLatencyAverageNanos() {
+        return decay(this.commitLatencyAverageNanos, System.nanoTime() - this.lastCommitNanos);
+    }
+
+    private double decay(double averageNanos, long idleNanos) {
+        if(idleNanos < this.targetCommitLatencyNanos)
+            return averageNanos;
+        return averageNanos * Math.pow(1.0 - COMMIT_LATENCY_SMOOTHING, (double) idleNanos / this.targetCommitLatencyNanos);
+    }
+
+    public int getLastQueueDepth() {
+        return lastQueueDepth;
+    }
+
+    public int getCoalesceQueueDepth() {
+        return coalesceQueueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long getTargetCommitLatencyNanos() {
+        return targetCommitLatencyNanos;
+    }
+
+    public IngestAdmissionStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IngestAdmissionController{");
+        sb.append("coalesceQueueDepth=").append(coalesceQueueDepth);
+        sb.append(", maxQueueDepth=").append(maxQueueDepth);
+        sb.append(", targetCommitLatencyNanos=").append(targetCommitLatencyNanos);
+        sb.append(", commitLatencyAverageUs=").append(String.format("%.1f", getCommitLatencyAverageNanos() / 1000.0));
+        sb.append(", lastQueueDepth=").append(lastQueueDepth);
+        sb.append(", stats=").append(stats);
+        sb.append('}');
+        return sb.toString();
+    }
+}
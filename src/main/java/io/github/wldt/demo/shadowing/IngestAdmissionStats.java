@@ -0,0 +1,80 @@
+package io.github.wldt.demo.shadowing;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the decisions taken by the {@link IngestAdmissionController}
+ */
+public class IngestAdmissionStats {
+
+    private final LongAdder admittedUpdates = new LongAdder();
+
+    private final LongAdder coalescedUpdates = new LongAdder();
+
+    private final LongAdder supersededUpdates = new LongAdder();
+
+    private final LongAdder shedUpdates = new LongAdder();
+
+    private final LongAdder preservedEvents = new LongAdder();
+
+    public void onUpdateAdmitted() {
+        this.admittedUpdates.increment();
+    }
+
+    public void onUpdateCoalesced() {
+        this.coalescedUpdates.increment();
+    }
+
+    public void onUpdateSuperseded() {
+        this.supersededUpdates.increment();
+    }
+
+    public void onUpdateShed() {
+        this.shedUpdates.increment();
+    }
+
+    public void onEventPreserved() {
+        this.preservedEvents.increment();
+    }
+
+    public long getAdmittedUpdates() {
+        return admittedUpdates.sum();
+    }
+
+    /**
+     * @return the number of property updates handed over to the coalescing slot of their key
+     */
+    public long getCoalescedUpdates() {
+        return coalescedUpdates.sum();
+    }
+
+    /**
+     * @return the number of coalesced property updates replaced by a newer value before being applied
+     */
+    public long getSupersededUpdates() {
+        return supersededUpdates.sum();
+    }
+
+    public long getShedUpdates() {
+        return shedUpdates.sum();
+    }
+
+    /**
+     * @return the number of physical events, relationship variations and digital actions always admitted
+     */
+    public long getPreservedEvents() {
+        return preservedEvents.sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IngestAdmissionStats{");
+        sb.append("admittedUpdates=").append(getAdmittedUpdates());
+        sb.append(", coalescedUpdates=").append(getCoalescedUpdates());
+        sb.append(", supersededUpdates=").append(getSupersededUpdates());
+        sb.append(", shedUpdates=").append(getShedUpdates());
+        sb.append(", preservedEvents=").append(getPreservedEvents());
+        sb.append('}');
+        return sb.toString();
+    }
+}
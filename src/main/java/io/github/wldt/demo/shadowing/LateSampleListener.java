@@ -0,0 +1,22 @@
+package io.github.wldt.demo.shadowing;
+
+import it.wldt.adapter.physical.event.PhysicalAssetPropertyWldtEvent;
+
+/**
+ * Listener receiving the property samples discarded by a {@link PropertyReorderBuffer} since they arrived after
+ * the watermark of their key or were rejected by its full buffer, e.g., to store them in a historical archive
+ * instead of the DT State
+ */
+public interface LateSampleListener {
+
+    /**
+     * Called by the thread delivering the late sample to the Shadowing Function
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param propertyEvent the late property variation
+     * @param sampleTimestampMs the sampling time of the variation
+     * @param watermarkMs the watermark of the property key when the sample was received
+     */
+    void onLateSample(String digitalTwinId, PhysicalAssetPropertyWldtEvent<?> propertyEvent, long sampleTimestampMs, long watermarkMs);
+
+}
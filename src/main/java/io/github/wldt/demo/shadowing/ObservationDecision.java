@@ -0,0 +1,60 @@
+package io.github.wldt.demo.shadowing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Observation decision resolved once at bind time for a single key and then used on the hot path to know if an
+ * incoming variation has to be applied according to the configured sampling ratio.
+ */
+public class ObservationDecision {
+
+    public static final ObservationDecision OBSERVE_ALL = new ObservationDecision(true, 1.0, ObservationPriority.NORMAL);
+
+    private final boolean observed;
+
+    private final double samplingRatio;
+
+    private final long samplingPeriod;
+
+    private final ObservationPriority priority;
+
+    private final AtomicLong receivedCounter = new AtomicLong();
+
+    public ObservationDecision(boolean observed, double samplingRatio, ObservationPriority priority) {
+        this.observed = observed;
+        this.samplingRatio = samplingRatio;
+        this.samplingPeriod = Math.max(1L, Math.round(1.0 / samplingRatio));
+        this.priority = priority;
+    }
+
+    /**
+     * Deterministic sampling: one variation every round(1 / samplingRatio) is applied
+     *
+     * @return true if the current variation has to be applied to the DT State
+     */
+    public boolean sample() {
+        return this.samplingPeriod == 1 || this.receivedCounter.getAndIncrement() % this.samplingPeriod == 0;
+    }
+
+    public boolean isObserved() {
+        return observed;
+    }
+
+    public double getSamplingRatio() {
+        return samplingRatio;
+    }
+
+    public ObservationPriority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ObservationDecision{");
+        sb.append("observed=").append(observed);
+        sb.append(", samplingRatio=").append(samplingRatio);
+        sb.append(", priority=").append(priority);
+        sb.append('}');
+        return sb.toString();
+    }
+}
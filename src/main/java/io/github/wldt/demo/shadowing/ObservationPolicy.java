@@ -0,0 +1,179 @@
+package io.github.wldt.demo.shadowing;
+
+import it.wldt.exception.WldtConfigurationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Declarative policy used by the Shadowing Function at bind time to decide which of the declared physical
+ * properties, events and relationships have to be observed.
+ *
+ * Rules are evaluated in declaration order and the first matching rule wins. Keys not matching any rule are
+ * observed according to the default behaviour. Decisions are resolved once per key and cached, so the hot
+ * path only pays a map lookup.
+ *
+ * The policy can be loaded from a properties file with the following structure:
+ *
+ * <pre>
+ * observation.default=include
+ * observation.rule.1.pattern=temperature-*
+ * observation.rule.1.mode=include
+ * observation.rule.1.sampling=0.5
+ * observation.rule.1.priority=HIGH
+ * observation.rule.2.pattern=*
+ * observation.rule.2.mode=exclude
+ * </pre>
+ */
+public class ObservationPolicy {
+
+    public static final String DEFAULT_MODE_PROPERTY = "observation.default";
+
+    public static final String RULE_PROPERTY_PREFIX = "observation.rule.";
+
+    public static final String INCLUDE_MODE = "include";
+
+    public static final String EXCLUDE_MODE = "exclude";
+
+    private final List<ObservationRule> ruleList;
+
+    private final boolean includeByDefault;
+
+    private final Map<String, ObservationDecision> decisionCache = new ConcurrentHashMap<>();
+
+    private final ObservationStats stats = new ObservationStats();
+
+    /**
+     * Create the default policy observing every declared key
+     */
+    public ObservationPolicy() {
+        this(Collections.emptyList(), true);
+    }
+
+    public ObservationPolicy(List<ObservationRule> ruleList, boolean includeByDefault) {
+        this.ruleList = Collections.unmodifiableList(new ArrayList<>(ruleList));
+        this.includeByDefault = includeByDefault;
+    }
+
+    /**
+     * Load the policy from a properties file
+     *
+     * @param path the path of the properties file
+     * @return the loaded policy
+     * @throws WldtConfigurationException if the file can not be read or contains a wrong rule
+     */
+    public static ObservationPolicy fromFile(Path path) throws WldtConfigurationException {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return fromProperties(properties);
+        } catch (IOException e) {
+            throw new WldtConfigurationException(String.format("Error loading Observation Policy from %s ! Error: %s", path, e.getLocalizedMessage()));
+        }
+    }
+
+    /**
+     * Build the policy from a set of properties
+     *
+     * @param properties the properties describing the policy
+     * @return the loaded policy
+     * @throws WldtConfigurationException if a rule is not correctly defined
+     */
+    public static ObservationPolicy fromProperties(Properties properties) throws WldtConfigurationException {
+
+        boolean includeByDefault = !EXCLUDE_MODE.equalsIgnoreCase(properties.getProperty(DEFAULT_MODE_PROPERTY, INCLUDE_MODE).trim());
+
+        //Collect the rule indexes to keep the declaration order
+        TreeSet<Integer> ruleIndexSet = new TreeSet<>();
+        for(String propertyName : properties.stringPropertyNames()){
+            if(propertyName.startsWith(RULE_PROPERTY_PREFIX)){
+                String index = propertyName.substring(RULE_PROPERTY_PREFIX.length()).split("\\.")[0];
+                try {
+                    ruleIndexSet.add(Integer.parseInt(index));
+                } catch (NumberFormatException e) {
+                    throw new WldtConfigurationException(String.format("Wrong Observation Rule index in property: %s", propertyName));
+                }
+            }
+        }
+
+        List<ObservationRule> ruleList = new ArrayList<>();
+        for(Integer index : ruleIndexSet){
+
+            String prefix = RULE_PROPERTY_PREFIX + index + ".";
+            String pattern = properties.getProperty(prefix + "pattern");
+            String mode = properties.getProperty(prefix + "mode", INCLUDE_MODE).trim();
+
+            try {
+                ruleList.add(new ObservationRule(
+                        pattern,
+                        !EXCLUDE_MODE.equalsIgnoreCase(mode),
+                        Double.parseDouble(properties.getProperty(prefix + "sampling", "1.0").trim()),
+                        ObservationPriority.valueOf(properties.getProperty(prefix + "priority", ObservationPriority.NORMAL.name()).trim().toUpperCase())));
+            } catch (IllegalArgumentException e) {
+                throw new WldtConfigurationException(String.format("Wrong Observation Rule %d ! Error: %s", index, e.getLocalizedMessage()));
+            }
+        }
+
+        return new ObservationPolicy(ruleList, includeByDefault);
+    }
+
+    /**
+     * Resolve (and cache) the observation decision for the target key
+     *
+     * @param key the property, event or relationship key
+     * @return the resolved decision
+     */
+    public ObservationDecision resolve(String key) {
+        return this.decisionCache.computeIfAbsent(key, this::evaluate);
+    }
+
+    /**
+     * Return the decision already resolved at bind time for the target key without evaluating the rules again
+     *
+     * @param key the property, event or relationship key
+     * @return the cached decision or the default one if the key has not been resolved
+     */
+    public ObservationDecision getDecision(String key) {
+        ObservationDecision decision = this.decisionCache.get(key);
+        return decision != null ? decision : ObservationDecision.OBSERVE_ALL;
+    }
+
+    public ObservationPriority getPriority(String key) {
+        return getDecision(key).getPriority();
+    }
+
+    public List<ObservationRule> getRuleList() {
+        return ruleList;
+    }
+
+    public boolean isIncludeByDefault() {
+        return includeByDefault;
+    }
+
+    public ObservationStats getStats() {
+        return stats;
+    }
+
+    private ObservationDecision evaluate(String key) {
+
+        for(ObservationRule rule : this.ruleList)
+            if(rule.matches(key))
+                return new ObservationDecision(rule.isInclude(), rule.getSamplingRatio(), rule.getPriority());
+
+        return this.includeByDefault ? ObservationDecision.OBSERVE_ALL : new ObservationDecision(false, 1.0, ObservationPriority.NORMAL);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ObservationPolicy{");
+        sb.append("ruleList=").append(ruleList);
+        sb.append(", includeByDefault=").append(includeByDefault);
+        sb.append(", stats=").append(stats);
+        sb.append('}');
+        return sb.toString();
+    }
+}
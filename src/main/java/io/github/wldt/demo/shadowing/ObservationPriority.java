@@ -0,0 +1,11 @@
+package io.github.wldt.demo.shadowing;
+
+/**
+ * Priority assigned by the {@link ObservationPolicy} to an observed key. Ingest stages of the Shadowing Function
+ * can use it to decide which updates can be delayed, coalesced or dropped under load.
+ */
+public enum ObservationPriority {
+    LOW,
+    NORMAL,
+    HIGH
+}
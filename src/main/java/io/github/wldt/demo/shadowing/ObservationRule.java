@@ -0,0 +1,84 @@
+package io.github.wldt.demo.shadowing;
+
+import java.util.regex.Pattern;
+
+/**
+ * Single rule of an {@link ObservationPolicy}. The rule matches property, event and relationship keys through
+ * a glob pattern (supporting '*' and '?') and defines if the matching keys should be observed, the ratio of
+ * the received variations that should be applied to the DT State and the priority of the key.
+ */
+public class ObservationRule {
+
+    private final String pattern;
+
+    private final Pattern compiledPattern;
+
+    private final boolean include;
+
+    private final double samplingRatio;
+
+    private final ObservationPriority priority;
+
+    public ObservationRule(String pattern, boolean include) {
+        this(pattern, include, 1.0, ObservationPriority.NORMAL);
+    }
+
+    public ObservationRule(String pattern, boolean include, double samplingRatio, ObservationPriority priority) {
+
+        if(pattern == null || pattern.isEmpty())
+            throw new IllegalArgumentException("Observation Rule pattern can not be null or empty !");
+
+        if(samplingRatio <= 0.0 || samplingRatio > 1.0)
+            throw new IllegalArgumentException(String.format("Wrong sampling ratio %f for pattern %s ! Expected value in (0, 1]", samplingRatio, pattern));
+
+        this.pattern = pattern;
+        this.compiledPattern = Pattern.compile(globToRegex(pattern));
+        this.include = include;
+        this.samplingRatio = samplingRatio;
+        this.priority = priority != null ? priority : ObservationPriority.NORMAL;
+    }
+
+    public boolean matches(String key) {
+        return key != null && this.compiledPattern.matcher(key).matches();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public boolean isInclude() {
+        return include;
+    }
+
+    public double getSamplingRatio() {
+        return samplingRatio;
+    }
+
+    public ObservationPriority getPriority() {
+        return priority;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder sb = new StringBuilder();
+        for(char c : glob.toCharArray()){
+            if(c == '*')
+                sb.append(".*");
+            else if(c == '?')
+                sb.append('.');
+            else
+                sb.append(Pattern.quote(String.valueOf(c)));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ObservationRule{");
+        sb.append("pattern='").append(pattern).append('\'');
+        sb.append(", include=").append(include);
+        sb.append(", samplingRatio=").append(samplingRatio);
+        sb.append(", priority=").append(priority);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.wldt.demo.shadowing;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the effect of the {@link ObservationPolicy} on the Shadowing Function
+ */
+public class ObservationStats {
+
+    private final LongAdder observedKeys = new LongAdder();
+
+    private final LongAdder excludedKeys = new LongAdder();
+
+    private final LongAdder appliedVariations = new LongAdder();
+
+    private final LongAdder sampledOutVariations = new LongAdder();
+
+    public void onKeyObserved() {
+        this.observedKeys.increment();
+    }
+
+    public void onKeyExcluded() {
+        this.excludedKeys.increment();
+    }
+
+    public void onVariationApplied() {
+        this.appliedVariations.increment();
+    }
+
+    public void onVariationSampledOut() {
+        this.sampledOutVariations.increment();
+    }
+
+    /**
+     * @return the number of keys observed at bind time
+     */
+    public long getObservedKeys() {
+        return observedKeys.sum();
+    }
+
+    /**
+     * @return the number of keys declared in the PADs but not observed. Variations of these keys are never
+     * forwarded to the Shadowing Function by the Event Bus
+     */
+    public long getExcludedKeys() {
+        return excludedKeys.sum();
+    }
+
+    public long getAppliedVariations() {
+        return appliedVariations.sum();
+    }
+
+    /**
+     * @return the number of received variations discarded by the sampling ratio without opening a DT State transaction
+     */
+    public long getSampledOutVariations() {
+        return sampledOutVariations.sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ObservationStats{");
+        sb.append("observedKeys=").append(getObservedKeys());
+        sb.append(", excludedKeys=").append(getExcludedKeys());
+        sb.append(", appliedVariations=").append(getAppliedVariations());
+        sb.append(", sampledOutVariations=").append(getSampledOutVariations());
+        sb.append('}');
+        return sb.toString();
+    }
+}
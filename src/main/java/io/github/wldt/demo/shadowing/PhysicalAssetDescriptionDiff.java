@@ -0,0 +1,172 @@
+package io.github.wldt.demo.shadowing;
+
+import it.wldt.adapter.physical.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Difference between two {@link PhysicalAssetDescription} of the same Physical Adapter, used by the Shadowing
+ * Function to apply a binding update incrementally instead of rebuilding the whole DT State.
+ *
+ * Resources are matched by key (or name for relationships). A property whose key is unchanged is not part of the
+ * difference even if its initial value changed, since the DT State already holds its current value.
+ */
+public class PhysicalAssetDescriptionDiff {
+
+    private final List<PhysicalAssetProperty<?>> addedProperties = new ArrayList<>();
+
+    private final List<PhysicalAssetProperty<?>> removedProperties = new ArrayList<>();
+
+    private final List<PhysicalAssetEvent> addedEvents = new ArrayList<>();
+
+    private final List<PhysicalAssetEvent> removedEvents = new ArrayList<>();
+
+    private final List<PhysicalAssetEvent> updatedEvents = new ArrayList<>();
+
+    private final List<PhysicalAssetAction> addedActions = new ArrayList<>();
+
+    private final List<PhysicalAssetAction> removedActions = new ArrayList<>();
+
+    private final List<PhysicalAssetAction> updatedActions = new ArrayList<>();
+
+    private final List<PhysicalAssetRelationship<?>> addedRelationships = new ArrayList<>();
+
+    private final List<PhysicalAssetRelationship<?>> removedRelationships = new ArrayList<>();
+
+    private PhysicalAssetDescriptionDiff() {
+    }
+
+    /**
+     * Compute the difference between the previous and the current PAD
+     *
+     * @param previousPad the PAD currently applied to the DT State, null if the adapter was not bound
+     * @param currentPad the updated PAD
+     * @return the computed difference
+     */
+    public static PhysicalAssetDescriptionDiff between(PhysicalAssetDescription previousPad, PhysicalAssetDescription currentPad) {
+
+        PhysicalAssetDescriptionDiff diff = new PhysicalAssetDescriptionDiff();
+
+        diffResources(getProperties(previousPad), getProperties(currentPad), PhysicalAssetProperty::getKey,
+                diff.addedProperties, diff.removedProperties, null);
+
+        diffResources(getEvents(previousPad), getEvents(currentPad), PhysicalAssetEvent::getKey,
+                diff.addedEvents, diff.removedEvents, diff.updatedEvents);
+
+        diffResources(getActions(previousPad), getActions(currentPad), PhysicalAssetAction::getKey,
+                diff.addedActions, diff.removedActions, diff.updatedActions);
+
+        diffResources(getRelationships(previousPad), getRelationships(currentPad), PhysicalAssetRelationship::getName,
+                diff.addedRelationships, diff.removedRelationships, null);
+
+        return diff;
+    }
+
+    private static <R> void diffResources(List<R> previousList, List<R> currentList, Function<R, String> keyFunction,
+                                          List<R> addedList, List<R> removedList, List<R> updatedList) {
+
+        Map<String, R> previousMap = new LinkedHashMap<>();
+        previousList.forEach(resource -> previousMap.put(keyFunction.apply(resource), resource));
+
+        Set<String> currentKeys = new HashSet<>();
+        for(R resource : currentList){
+            String key = keyFunction.apply(resource);
+            currentKeys.add(key);
+            R previousResource = previousMap.get(key);
+            if(previousResource == null)
+                addedList.add(resource);
+            else if(updatedList != null && !previousResource.equals(resource))
+                updatedList.add(resource);
+        }
+
+        previousMap.forEach((key, resource) -> {
+            if(!currentKeys.contains(key))
+                removedList.add(resource);
+        });
+    }
+
+    private static List<PhysicalAssetProperty<?>> getProperties(PhysicalAssetDescription pad) {
+        return (pad != null && pad.getProperties() != null) ? pad.getProperties() : Collections.emptyList();
+    }
+
+    private static List<PhysicalAssetEvent> getEvents(PhysicalAssetDescription pad) {
+        return (pad != null && pad.getEvents() != null) ? pad.getEvents() : Collections.emptyList();
+    }
+
+    private static List<PhysicalAssetAction> getActions(PhysicalAssetDescription pad) {
+        return (pad != null && pad.getActions() != null) ? pad.getActions() : Collections.emptyList();
+    }
+
+    private static List<PhysicalAssetRelationship<?>> getRelationships(PhysicalAssetDescription pad) {
+        return (pad != null && pad.getRelationships() != null) ? pad.getRelationships() : Collections.emptyList();
+    }
+
+    public boolean isEmpty() {
+        return getChangeCount() == 0;
+    }
+
+    public int getChangeCount() {
+        return addedProperties.size() + removedProperties.size()
+                + addedEvents.size() + removedEvents.size() + updatedEvents.size()
+                + addedActions.size() + removedActions.size() + updatedActions.size()
+                + addedRelationships.size() + removedRelationships.size();
+    }
+
+    public List<PhysicalAssetProperty<?>> getAddedProperties() {
+        return addedProperties;
+    }
+
+    public List<PhysicalAssetProperty<?>> getRemovedProperties() {
+        return removedProperties;
+    }
+
+    public List<PhysicalAssetEvent> getAddedEvents() {
+        return addedEvents;
+    }
+
+    public List<PhysicalAssetEvent> getRemovedEvents() {
+        return removedEvents;
+    }
+
+    public List<PhysicalAssetEvent> getUpdatedEvents() {
+        return updatedEvents;
+    }
+
+    public List<PhysicalAssetAction> getAddedActions() {
+        return addedActions;
+    }
+
+    public List<PhysicalAssetAction> getRemovedActions() {
+        return removedActions;
+    }
+
+    public List<PhysicalAssetAction> getUpdatedActions() {
+        return updatedActions;
+    }
+
+    public List<PhysicalAssetRelationship<?>> getAddedRelationships() {
+        return addedRelationships;
+    }
+
+    public List<PhysicalAssetRelationship<?>> getRemovedRelationships() {
+        return removedRelationships;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PhysicalAssetDescriptionDiff{");
+        sb.append("addedProperties=").append(addedProperties.size());
+        sb.append(", removedProperties=").append(removedProperties.size());
+        sb.append(", addedEvents=").append(addedEvents.size());
+        sb.append(", removedEvents=").append(removedEvents.size());
+        sb.append(", updatedEvents=").append(updatedEvents.size());
+        sb.append(", addedActions=").append(addedActions.size());
+        sb.append(", removedActions=").append(removedActions.size());
+        sb.append(", updatedActions=").append(updatedActions.size());
+        sb.append(", addedRelationships=").append(addedRelationships.size());
+        sb.append(", removedRelationships=").append(removedRelationships.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
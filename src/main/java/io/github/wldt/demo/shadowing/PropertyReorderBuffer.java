@@ -0,0 +1,312 @@
+package io.github.wldt.demo.shadowing;
+
+import io.github.wldt.demo.keys.KeyIndexedArray;
+import io.github.wldt.demo.keys.KeyRegistry;
+import it.wldt.adapter.physical.event.PhysicalAssetPropertyWldtEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingest stage ordering the property variations of a twin by their sampling time, so that samples published by
+ * concurrent physical sources are applied oldest first instead of in arrival order.
+ *
+ * Each property key has a bounded buffer and a watermark equal to the newest sampling time received for the key
+ * minus the allowed lateness. A buffered sample is released once the watermark passes it, or earlier when it has
+ * been held longer than the maximum hold time (e.g., the source is idle). A sample older than the watermark, or
+ * than a sample already released for its key, is late: it is never applied and can be routed to a
+ * {@link LateSampleListener}. When the buffer of a key is full the oldest sample, superseded by the newer ones, is
+ * dropped, and a sample older than all the buffered ones is rejected, so the memory is bounded even if the drains
+ * fall behind. Samples can be offered by any number of threads
+ * concurrently, each key is guarded by its own lock.
+ */
+public class PropertyReorderBuffer {
+
+    public static final long DEFAULT_ALLOWED_LATENESS_MS = 100;
+
+    public static final int DEFAULT_MAX_BUFFERED_PER_KEY = 1024;
+
+    public static final long DEFAULT_MAX_HOLD_MS = 500;
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final long allowedLatenessMs;
+
+    private final int maxBufferedPerKey;
+
+    private final long maxHoldNanos;
+
+    private final int maxBatchSize;
+
+    private volatile LateSampleListener lateSampleListener = null;
+
+    private final KeyIndexedArray<KeyBuffer> keyBufferArray = new KeyIndexedArray<>();
+
+    private final List<KeyBuffer> keyBufferList = new CopyOnWriteArrayList<>();
+
+    //Arrival order of the samples with the same sampling time
+    private final AtomicLong arrivalSequence = new AtomicLong();
+
+    private final ReorderStats stats = new ReorderStats();
+
+    public PropertyReorderBuffer() {
+        this(DEFAULT_ALLOWED_LATENESS_MS, DEFAULT_MAX_BUFFERED_PER_KEY, DEFAULT_MAX_HOLD_MS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public PropertyReorderBuffer(long allowedLatenessMs, int maxBufferedPerKey, long maxHoldMs, int maxBatchSize) {
+
+        if(allowedLatenessMs < 0 || maxBufferedPerKey <= 0 || maxHoldMs <= 0 || maxBatchSize <= 0)
+            throw new IllegalArgumentException("Wrong reorder buffer configuration: allowedLateness >= 0, maxBufferedPerKey > 0, maxHold > 0 and maxBatchSize > 0 are required !");
+
+        this.allowedLatenessMs = allowedLatenessMs;
+        this.maxBufferedPerKey = maxBufferedPerKey;
+        this.maxHoldNanos = maxHoldMs * 1000000L;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Buffer a property variation
+     *
+     * @param keyId the id of the property key in the {@link KeyRegistry}
+     * @param propertyEvent the received property variation
+     * @param sampleTimestampMs the sampling time of the variation
+     * @return true if the sample has been buffered, false if it is late or rejected by a full buffer and has to be
+     * discarded
+     */
+    public boolean offer(int keyId, PhysicalAssetPropertyWldtEvent<?> propertyEvent, long sampleTimestampMs) {
+
+        if(keyId == KeyRegistry.UNKNOWN_KEY_ID)
+            throw new IllegalArgumentException("Unknown property key: " + propertyEvent.getPhysicalPropertyId());
+
+        KeyBuffer keyBuffer = getKeyBuffer(keyId);
+
+        synchronized (keyBuffer) {
+
+            if(sampleTimestampMs < keyBuffer.getWatermark() || sampleTimestampMs < keyBuffer.releasedTimestampMs) {
+                this.stats.onSampleLate();
+                return false;
+            }
+
+            if(keyBuffer.queue.size() >= this.maxBufferedPerKey) {
+
+                //The oldest sample would be released first, a sample older than it is rejected
+                if(sampleTimestampMs < keyBuffer.queue.peek().sampleTimestampMs) {
+                    this.stats.onSampleOverflow();
+                    return false;
+                }
+
+                //Otherwise the oldest sample is superseded and dropped, never applying an older value afterwards
+                keyBuffer.releasedTimestampMs = keyBuffer.queue.poll().sampleTimestampMs;
+                this.stats.onSampleOverflow();
+            }
+
+            boolean reordered = sampleTimestampMs < keyBuffer.maxTimestampMs;
+            keyBuffer.maxTimestampMs = Math.max(keyBuffer.maxTimestampMs, sampleTimestampMs);
+            keyBuffer.queue.add(new BufferedSample(propertyEvent, sampleTimestampMs, this.arrivalSequence.getAndIncrement(), System.nanoTime()));
+
+            this.stats.onSampleBuffered(reordered);
+        }
+
+        return true;
+    }
+
+    /**
+     * Remove the samples ready to be applied, ordered by sampling time within each key
+     *
+     * @return the released samples, at most the configured batch size
+     */
+    public List<BufferedSample> drainReady() {
+
+        List<BufferedSample> readySampleList = new ArrayList<>();
+        long nowNanos = System.nanoTime();
+
+        for(KeyBuffer keyBuffer : this.keyBufferList) {
+            synchronized (keyBuffer) {
+
+                long watermarkMs = keyBuffer.getWatermark();
+
+                BufferedSample headSample;
+                while (readySampleList.size() < this.maxBatchSize && (headSample = keyBuffer.queue.peek()) != null) {
+
+                    boolean ready = headSample.sampleTimestampMs <= watermarkMs;
+                    boolean forced = !ready && nowNanos - headSample.arrivalNanos >= this.maxHoldNanos;
+                    if(!ready && !forced)
+                        break;
+
+                    keyBuffer.queue.poll();
+                    keyBuffer.releasedTimestampMs = headSample.sampleTimestampMs;
+                    readySampleList.add(headSample);
+                    this.stats.onSampleReleased(forced);
+                }
+            }
+        }
+
+        return readySampleList;
+    }
+
+    /**
+     * Remove all the buffered samples without waiting for their watermark, e.g., when the twin is stopped
+     *
+     * @return the buffered samples ordered by sampling time within each key
+     */
+    public List<BufferedSample> drainAll() {
+
+        List<BufferedSample> sampleList = new ArrayList<>();
+
+        for(KeyBuffer keyBuffer : this.keyBufferList) {
+            synchronized (keyBuffer) {
+
+                long watermarkMs = keyBuffer.getWatermark();
+
+                BufferedSample headSample;
+                while ((headSample = keyBuffer.queue.poll()) != null) {
+                    keyBuffer.releasedTimestampMs = headSample.sampleTimestampMs;
+                    sampleList.add(headSample);
+                    this.stats.onSampleReleased(headSample.sampleTimestampMs > watermarkMs);
+                }
+            }
+        }
+
+        return sampleList;
+    }
+
+    /**
+     * @return true if at least one buffered sample is waiting to be released
+     */
+    public boolean hasBufferedSamples() {
+        for(KeyBuffer keyBuffer : this.keyBufferList)
+            synchronized (keyBuffer) {
+                if(!keyBuffer.queue.isEmpty())
+                    return true;
+            }
+        return false;
+    }
+
+    /**
+     * @param keyId the id of the property key
+     * @return the current watermark of the key, Long.MIN_VALUE if no sample has been received
+     */
+    public long getWatermark(int keyId) {
+        KeyBuffer keyBuffer = this.keyBufferArray.get(keyId);
+        if(keyBuffer == null)
+            return Long.MIN_VALUE;
+        synchronized (keyBuffer) {
+            return keyBuffer.getWatermark();
+        }
+    }
+
+    private KeyBuffer getKeyBuffer(int keyId) {
+
+        KeyBuffer keyBuffer = this.keyBufferArray.get(keyId);
+        if(keyBuffer != null)
+            return keyBuffer;
+
+        synchronized (this.keyBufferList) {
+            keyBuffer = this.keyBufferArray.get(keyId);
+            if(keyBuffer == null) {
+                keyBuffer = new KeyBuffer();
+                this.keyBufferArray.set(keyId, keyBuffer);
+                this.keyBufferList.add(keyBuffer);
+            }
+            return keyBuffer;
+        }
+    }
+
+    public LateSampleListener getLateSampleListener() {
+        return lateSampleListener;
+    }
+
+    public void setLateSampleListener(LateSampleListener lateSampleListener) {
+        this.lateSampleListener = lateSampleListener;
+    }
+
+    public long getAllowedLatenessMs() {
+        return allowedLatenessMs;
+    }
+
+    public int getMaxBufferedPerKey() {
+        return maxBufferedPerKey;
+    }
+
+    public long getMaxHoldMs() {
+        return maxHoldNanos / 1000000L;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public ReorderStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PropertyReorderBuffer{");
+        sb.append("allowedLatenessMs=").append(allowedLatenessMs);
+        sb.append(", maxBufferedPerKey=").append(maxBufferedPerKey);
+        sb.append(", maxHoldMs=").append(getMaxHoldMs());
+        sb.append(", maxBatchSize=").append(maxBatchSize);
+        sb.append(", keys=").append(keyBufferList.size());
+        sb.append(", stats=").append(stats);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Property variation waiting in the buffer of its key
+     */
+    public static class BufferedSample {
+
+        private static final Comparator<BufferedSample> SAMPLE_ORDER = Comparator
+                .comparingLong((BufferedSample sample) -> sample.sampleTimestampMs)
+                .thenComparingLong(sample -> sample.arrivalSequence);
+
+        private final PhysicalAssetPropertyWldtEvent<?> propertyEvent;
+
+        private final long sampleTimestampMs;
+
+        private final long arrivalSequence;
+
+        private final long arrivalNanos;
+
+        private BufferedSample(PhysicalAssetPropertyWldtEvent<?> propertyEvent, long sampleTimestampMs, long arrivalSequence, long arrivalNanos) {
+            this.propertyEvent = propertyEvent;
+            this.sampleTimestampMs = sampleTimestampMs;
+            this.arrivalSequence = arrivalSequence;
+            this.arrivalNanos = arrivalNanos;
+        }
+
+        public PhysicalAssetPropertyWldtEvent<?> getPropertyEvent() {
+            return propertyEvent;
+        }
+
+        public long getSampleTimestampMs() {
+            return sampleTimestampMs;
+        }
+
+        /**
+         * @return the time spent in the buffer in nanoseconds
+         */
+        public long getHoldNanos() {
+            return System.nanoTime() - arrivalNanos;
+        }
+    }
+
+    private class KeyBuffer {
+
+        private final PriorityQueue<BufferedSample> queue = new PriorityQueue<>(BufferedSample.SAMPLE_ORDER);
+
+        private long maxTimestampMs = Long.MIN_VALUE;
+
+        private long releasedTimestampMs = Long.MIN_VALUE;
+
+        private long getWatermark() {
+            return this.maxTimestampMs == Long.MIN_VALUE ? Long.MIN_VALUE : this.maxTimestampMs - allowedLatenessMs;
+        }
+    }
+}
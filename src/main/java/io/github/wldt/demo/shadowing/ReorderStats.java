@@ -0,0 +1,101 @@
+package io.github.wldt.demo.shadowing;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the samples handled by a {@link PropertyReorderBuffer}
+ */
+public class ReorderStats {
+
+    private final LongAdder bufferedSamples = new LongAdder();
+
+    private final LongAdder reorderedSamples = new LongAdder();
+
+    private final LongAdder lateSamples = new LongAdder();
+
+    private final LongAdder releasedSamples = new LongAdder();
+
+    private final LongAdder forcedReleases = new LongAdder();
+
+    private final LongAdder overflowSamples = new LongAdder();
+
+    private final LongAdder committedBatches = new LongAdder();
+
+    public void onSampleBuffered(boolean reordered) {
+        this.bufferedSamples.increment();
+        if(reordered)
+            this.reorderedSamples.increment();
+    }
+
+    public void onSampleLate() {
+        this.lateSamples.increment();
+    }
+
+    public void onSampleReleased(boolean forced) {
+        this.releasedSamples.increment();
+        if(forced)
+            this.forcedReleases.increment();
+    }
+
+    public void onSampleOverflow() {
+        this.overflowSamples.increment();
+    }
+
+    public void onBatchCommitted() {
+        this.committedBatches.increment();
+    }
+
+    public long getBufferedSamples() {
+        return bufferedSamples.sum();
+    }
+
+    /**
+     * @return the number of buffered samples older than another sample of the same key already received
+     */
+    public long getReorderedSamples() {
+        return reorderedSamples.sum();
+    }
+
+    /**
+     * @return the number of samples received behind the watermark of their key and never applied
+     */
+    public long getLateSamples() {
+        return lateSamples.sum();
+    }
+
+    public long getReleasedSamples() {
+        return releasedSamples.sum();
+    }
+
+    /**
+     * @return the number of samples released before the watermark since their maximum hold time expired
+     */
+    public long getForcedReleases() {
+        return forcedReleases.sum();
+    }
+
+    /**
+     * @return the number of samples dropped or rejected since the buffer of their key was full
+     */
+    public long getOverflowSamples() {
+        return overflowSamples.sum();
+    }
+
+    public long getCommittedBatches() {
+        return committedBatches.sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReorderStats{");
+        sb.append("bufferedSamples=").append(getBufferedSamples());
+        sb.append(", reorderedSamples=").append(getReorderedSamples());
+        sb.append(", lateSamples=").append(getLateSamples());
+        sb.append(", releasedSamples=").append(getReleasedSamples());
+        sb.append(", forcedReleases=").append(getForcedReleases());
+        sb.append(", overflowSamples=").append(getOverflowSamples());
+        sb.append(", committedBatches=").append(getCommittedBatches());
+        sb.append('}');
+        return sb.toString();
+    }
+}
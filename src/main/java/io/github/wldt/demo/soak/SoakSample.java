@@ -0,0 +1,71 @@
+package io.github.wldt.demo.soak;
+
+/**
+ * Resource usage of the process and size of the DT States observed at a point of a soak run
+ */
+public class SoakSample {
+
+    private final long elapsedMs;
+
+    private final long emulatedTimeMs;
+
+    private final long heapAfterGcBytes;
+
+    private final int threadCount;
+
+    private final int stateSize;
+
+    private final long stateUpdates;
+
+    public SoakSample(long elapsedMs, long emulatedTimeMs, long heapAfterGcBytes, int threadCount, int stateSize, long stateUpdates) {
+        this.elapsedMs = elapsedMs;
+        this.emulatedTimeMs = emulatedTimeMs;
+        this.heapAfterGcBytes = heapAfterGcBytes;
+        this.threadCount = threadCount;
+        this.stateSize = stateSize;
+        this.stateUpdates = stateUpdates;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * @return the time elapsed on the clock of the twins, longer than the wall-clock one on accelerated runs
+     */
+    public long getEmulatedTimeMs() {
+        return emulatedTimeMs;
+    }
+
+    public long getHeapAfterGcBytes() {
+        return heapAfterGcBytes;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return the number of properties and relationship instances held by the DT States of all the twins
+     */
+    public int getStateSize() {
+        return stateSize;
+    }
+
+    public long getStateUpdates() {
+        return stateUpdates;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SoakSample{");
+        sb.append("elapsedMs=").append(elapsedMs);
+        sb.append(", emulatedTimeMin=").append(emulatedTimeMs / 60000);
+        sb.append(", heapAfterGcKb=").append(heapAfterGcBytes / 1024);
+        sb.append(", threadCount=").append(threadCount);
+        sb.append(", stateSize=").append(stateSize);
+        sb.append(", stateUpdates=").append(stateUpdates);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.wldt.demo.soak;
+
+/**
+ * Configuration of a {@link SoakTestHarness} run and of the growth checks applied to its samples
+ */
+public class SoakTestConfiguration {
+
+    private long durationMs = 10 * 60 * 1000;
+
+    private long samplePeriodMs = 5000;
+
+    //Fraction of the samples discarded as warm-up (class loading, JIT, initial DT State creation)
+    private double warmupRatio = 0.25;
+
+    //Relative growth of the heap after GC tolerated between the beginning and the end of the run
+    private double heapGrowthTolerance = 0.2;
+
+    //Absolute heap growth always tolerated, to absorb the noise of small heaps
+    private long heapSlackBytes = 8L * 1024 * 1024;
+
+    private int threadSlack = 2;
+
+    public SoakTestConfiguration() {
+    }
+
+    public SoakTestConfiguration(long durationMs, long samplePeriodMs) {
+        this.durationMs = durationMs;
+        this.samplePeriodMs = samplePeriodMs;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public long getSamplePeriodMs() {
+        return samplePeriodMs;
+    }
+
+    public void setSamplePeriodMs(long samplePeriodMs) {
+        this.samplePeriodMs = samplePeriodMs;
+    }
+
+    public double getWarmupRatio() {
+        return warmupRatio;
+    }
+
+    public void setWarmupRatio(double warmupRatio) {
+        this.warmupRatio = warmupRatio;
+    }
+
+    public double getHeapGrowthTolerance() {
+        return heapGrowthTolerance;
+    }
+
+    public void setHeapGrowthTolerance(double heapGrowthTolerance) {
+        this.heapGrowthTolerance = heapGrowthTolerance;
+    }
+
+    public long getHeapSlackBytes() {
+        return heapSlackBytes;
+    }
+
+    public void setHeapSlackBytes(long heapSlackBytes) {
+        this.heapSlackBytes = heapSlackBytes;
+    }
+
+    public int getThreadSlack() {
+        return threadSlack;
+    }
+
+    public void setThreadSlack(int threadSlack) {
+        this.threadSlack = threadSlack;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SoakTestConfiguration{");
+        sb.append("durationMs=").append(durationMs);
+        sb.append(", samplePeriodMs=").append(samplePeriodMs);
+        sb.append(", warmupRatio=").append(warmupRatio);
+        sb.append(", heapGrowthTolerance=").append(heapGrowthTolerance);
+        sb.append(", heapSlackBytes=").append(heapSlackBytes);
+        sb.append(", threadSlack=").append(threadSlack);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.wldt.demo.soak;
+
+import io.github.wldt.demo.clock.DigitalTwinClock;
+import io.github.wldt.demo.digital.DemoConfDigitalAdapter;
+import io.github.wldt.demo.state.DigitalTwinStateView;
+import it.wldt.core.state.DigitalTwinStateRelationship;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * Harness sampling the resources of the process while a set of twins runs a long workload, failing when heap,
+ * threads or DT State sizes keep growing.
+ *
+ * The twins are created and started by the caller, usually with a {@link io.github.wldt.demo.clock.VirtualClock}
+ * to emulate hours of churn in a few minutes. Every sample forces a GC and reads the heap retained after the
+ * collection, the live thread count and the number of properties and relationship instances held by the DT State
+ * views of the registered Digital Adapters. At the end of the run the samples following the warm-up are split in
+ * thirds and the last third is compared with the first one, so a bounded workload with noisy samples passes
+ * while a steady leak fails.
+ */
+public class SoakTestHarness {
+
+    private final SoakTestConfiguration configuration;
+
+    private final DigitalTwinClock clock;
+
+    private final List<DemoConfDigitalAdapter> digitalAdapterList = new CopyOnWriteArrayList<>();
+
+    public SoakTestHarness(SoakTestConfiguration configuration, DigitalTwinClock clock) {
+        this.configuration = configuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Register a Digital Adapter whose DT State view is included in the state size of each sample
+     */
+    public void addDigitalAdapter(DemoConfDigitalAdapter digitalAdapter) {
+        this.digitalAdapterList.add(digitalAdapter);
+    }
+
+    /**
+     * Sample the process for the configured duration and check the collected samples
+     *
+     * @return the result of the run
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public SoakTestResult run() throws InterruptedException {
+
+        System.out.println("[SoakTestHarness] -> Starting Soak Test: " + this.configuration);
+
+        List<SoakSample> sampleList = new ArrayList<>();
+
+        long startMs = System.currentTimeMillis();
+        long clockStartMs = this.clock.currentTimeMillis();
+
+        while(System.currentTimeMillis() - startMs < this.configuration.getDurationMs()){
+            Thread.sleep(this.configuration.getSamplePeriodMs());
+            SoakSample sample = takeSample(System.currentTimeMillis() - startMs, this.clock.currentTimeMillis() - clockStartMs);
+            sampleList.add(sample);
+            System.out.println("[SoakTestHarness] -> " + sample);
+        }
+
+        SoakTestResult result = evaluate(sampleList);
+        System.out.println("[SoakTestHarness] -> Soak Test Completed: " + result);
+        return result;
+    }
+
+    /**
+     * Check the samples of a run for unbounded growths
+     *
+     * @param sampleList the samples in collection order
+     * @return the result listing the detected growths
+     */
+    public SoakTestResult evaluate(List<SoakSample> sampleList) {
+
+        SoakTestResult result = new SoakTestResult(sampleList);
+
+        int warmupCount = (int) (sampleList.size() * this.configuration.getWarmupRatio());
+        List<SoakSample> steadyList = sampleList.subList(warmupCount, sampleList.size());
+        if(steadyList.size() < 3){
+            result.addFailure(String.format("Not enough samples after the warm-up: %d", steadyList.size()));
+            return result;
+        }
+
+        int thirdSize = steadyList.size() / 3;
+        List<SoakSample> firstThird = steadyList.subList(0, thirdSize);
+        List<SoakSample> lastThird = steadyList.subList(steadyList.size() - thirdSize, steadyList.size());
+
+        //The minimum after GC filters the garbage not yet collected by a concurrent collector
+        long firstHeap = min(firstThird, SoakSample::getHeapAfterGcBytes);
+        long lastHeap = min(lastThird, SoakSample::getHeapAfterGcBytes);
+        if(lastHeap > firstHeap * (1.0 + this.configuration.getHeapGrowthTolerance()) + this.configuration.getHeapSlackBytes())
+            result.addFailure(String.format("Heap after GC grew from %d KB to %d KB", firstHeap / 1024, lastHeap / 1024));
+
+        long firstThreads = max(firstThird, SoakSample::getThreadCount);
+        long lastThreads = max(lastThird, SoakSample::getThreadCount);
+        if(lastThreads > firstThreads + this.configuration.getThreadSlack())
+            result.addFailure(String.format("Thread count grew from %d to %d", firstThreads, lastThreads));
+
+        long firstStateSize = max(firstThird, SoakSample::getStateSize);
+        long lastStateSize = max(lastThird, SoakSample::getStateSize);
+        if(lastStateSize > firstStateSize)
+            result.addFailure(String.format("DT State size grew from %d to %d", firstStateSize, lastStateSize));
+
+        //A stalled workload would trivially pass the previous checks
+        if(lastThird.get(lastThird.size() - 1).getStateUpdates() <= firstThird.get(0).getStateUpdates())
+            result.addFailure("No DT State update delivered during the run");
+
+        return result;
+    }
+
+    private SoakSample takeSample(long elapsedMs, long emulatedTimeMs) {
+
+        System.gc();
+
+        int stateSize = 0;
+        long stateUpdates = 0;
+        for(DemoConfDigitalAdapter digitalAdapter : this.digitalAdapterList){
+            stateUpdates += digitalAdapter.getDeliveredStateUpdates();
+            DigitalTwinStateView stateView = digitalAdapter.getDigitalTwinStateView();
+            if(stateView == null)
+                continue;
+            stateSize += stateView.getPropertyList().size();
+            for(DigitalTwinStateRelationship<?> relationship : stateView.getRelationshipList())
+                stateSize += relationship.getInstances().size();
+        }
+
+        return new SoakSample(elapsedMs, emulatedTimeMs, getHeapAfterGc(), ManagementFactory.getThreadMXBean().getThreadCount(), stateSize, stateUpdates);
+    }
+
+    /**
+     * @return the heap retained after the last collection of each heap pool, or the current heap usage if the
+     * collector does not report it
+     */
+    private static long getHeapAfterGc() {
+
+        long heapAfterGc = 0;
+        boolean collectionUsageAvailable = false;
+
+        for(MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()){
+            MemoryUsage collectionUsage = memoryPool.getCollectionUsage();
+            if(memoryPool.getType() == MemoryType.HEAP && collectionUsage != null){
+                heapAfterGc += collectionUsage.getUsed();
+                collectionUsageAvailable = true;
+            }
+        }
+
+        return collectionUsageAvailable ? heapAfterGc : ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long min(List<SoakSample> sampleList, ToLongFunction<SoakSample> metric) {
+        return sampleList.stream().mapToLong(metric).min().orElse(0);
+    }
+
+    private static long max(List<SoakSample> sampleList, ToLongFunction<SoakSample> metric) {
+        return sampleList.stream().mapToLong(metric).max().orElse(0);
+    }
+}
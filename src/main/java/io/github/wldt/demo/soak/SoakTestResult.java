@@ -0,0 +1,47 @@
+package io.github.wldt.demo.soak;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a soak run: the collected samples and the unbounded growths detected on them
+ */
+public class SoakTestResult {
+
+    private final List<SoakSample> sampleList;
+
+    private final List<String> failureList = new ArrayList<>();
+
+    SoakTestResult(List<SoakSample> sampleList) {
+        this.sampleList = Collections.unmodifiableList(new ArrayList<>(sampleList));
+    }
+
+    void addFailure(String failure) {
+        this.failureList.add(failure);
+    }
+
+    public boolean isPassed() {
+        return this.failureList.isEmpty();
+    }
+
+    public List<String> getFailureList() {
+        return Collections.unmodifiableList(failureList);
+    }
+
+    public List<SoakSample> getSampleList() {
+        return sampleList;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SoakTestResult{");
+        sb.append("passed=").append(isPassed());
+        sb.append(", samples=").append(sampleList.size());
+        if(!sampleList.isEmpty())
+            sb.append(", lastSample=").append(sampleList.get(sampleList.size() - 1));
+        sb.append(", failures=").append(failureList);
+        sb.append('}');
+        return sb.toString();
+    }
+}
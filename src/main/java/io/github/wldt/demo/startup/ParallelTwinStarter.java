@@ -0,0 +1,113 @@
+package io.github.wldt.demo.startup;
+
+import io.github.wldt.demo.digital.DemoDigitalAdapterConfiguration;
+import it.wldt.core.engine.DigitalTwin;
+import it.wldt.core.engine.DigitalTwinEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Starter of the Digital Twins of an engine driven by their readiness instead of fixed delays.
+ *
+ * Twins are started one after the other but their bind proceeds in parallel: a new twin is started as soon as
+ * one of the at most maxConcurrentBinds twins still binding notifies its synchronization (or exceeds the bind
+ * timeout), so the Shadowing Functions initializing their DT State never overload the engine. The startup of each
+ * twin is tracked by a {@link TwinStartupTracker} and summarized in a {@link StartupReport}.
+ */
+public class ParallelTwinStarter {
+
+    public static final int DEFAULT_MAX_CONCURRENT_BINDS = 64;
+
+    public static final long DEFAULT_BIND_TIMEOUT_MS = 30000;
+
+    private final DigitalTwinEngine digitalTwinEngine;
+
+    private final int maxConcurrentBinds;
+
+    private final long bindTimeoutMs;
+
+    private final List<TwinStartupTracker> trackerList = new ArrayList<>();
+
+    public ParallelTwinStarter(DigitalTwinEngine digitalTwinEngine) {
+        this(digitalTwinEngine, DEFAULT_MAX_CONCURRENT_BINDS, DEFAULT_BIND_TIMEOUT_MS);
+    }
+
+    public ParallelTwinStarter(DigitalTwinEngine digitalTwinEngine, int maxConcurrentBinds, long bindTimeoutMs) {
+        this.digitalTwinEngine = digitalTwinEngine;
+        this.maxConcurrentBinds = Math.max(1, maxConcurrentBinds);
+        this.bindTimeoutMs = bindTimeoutMs;
+    }
+
+    /**
+     * Register a twin to be started, it must be already added to the engine and not started
+     *
+     * @param digitalTwin the Digital Twin
+     * @param digitalAdapterConfiguration the configuration of the Digital Adapter observing its first update
+     * @return the tracker of the startup of the twin
+     */
+    public synchronized TwinStartupTracker register(DigitalTwin digitalTwin, DemoDigitalAdapterConfiguration digitalAdapterConfiguration) {
+        TwinStartupTracker tracker = new TwinStartupTracker(digitalTwin.getDigitalTwinId());
+        digitalTwin.addLifeCycleListener(tracker);
+        digitalAdapterConfiguration.addStateChangeListener(tracker);
+        this.trackerList.add(tracker);
+        return tracker;
+    }
+
+    /**
+     * Start all the registered twins and wait until each of them delivered its first update or the timeout expired
+     *
+     * @param firstUpdateTimeoutMs the maximum time to wait for the first updates once all the twins are started
+     * @return the startup report
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public synchronized StartupReport startAll(long firstUpdateTimeoutMs) throws InterruptedException {
+
+        long startMs = System.currentTimeMillis();
+
+        Semaphore bindPermits = new Semaphore(this.maxConcurrentBinds);
+
+        for(TwinStartupTracker tracker : this.trackerList){
+
+            //A twin not synchronized within the bind timeout gives back its permit
+            bindPermits.acquire();
+            tracker.getSyncFuture().copy()
+                    .orTimeout(this.bindTimeoutMs, TimeUnit.MILLISECONDS)
+                    .whenComplete((result, error) -> bindPermits.release());
+
+            try {
+                tracker.onStartRequested();
+                this.digitalTwinEngine.startDigitalTwin(tracker.getDigitalTwinId());
+            } catch (Exception e) {
+                e.printStackTrace();
+                tracker.getSyncFuture().completeExceptionally(e);
+            }
+        }
+
+        System.out.println(String.format("[ParallelTwinStarter] -> Started %d Digital Twins in %d ms, waiting for the first updates ...",
+                this.trackerList.size(), System.currentTimeMillis() - startMs));
+
+        try {
+            CompletableFuture.allOf(this.trackerList.stream().map(TwinStartupTracker::getFirstUpdateFuture).toArray(CompletableFuture[]::new))
+                    .get(firstUpdateTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("[ParallelTwinStarter] -> Timeout waiting for the first updates !");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return new StartupReport(new ArrayList<>(this.trackerList), System.currentTimeMillis() - startMs);
+    }
+
+    public int getMaxConcurrentBinds() {
+        return maxConcurrentBinds;
+    }
+
+    public long getBindTimeoutMs() {
+        return bindTimeoutMs;
+    }
+}
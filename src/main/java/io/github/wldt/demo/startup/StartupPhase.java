@@ -0,0 +1,23 @@
+package io.github.wldt.demo.startup;
+
+/**
+ * Phases of the startup of a Digital Twin tracked by the {@link TwinStartupTracker}, in their expected order
+ */
+public enum StartupPhase {
+
+    //The Digital Twin has been created by the engine
+    CREATE,
+
+    //The physical and digital adapters have been started
+    ADAPTER_START,
+
+    //All the adapters are bound and the Shadowing Function received the PADs
+    BIND,
+
+    //The Shadowing Function initialized the DT State and notified the synchronization
+    SYNC,
+
+    //The first property variation has been delivered to the Digital Adapter
+    FIRST_UPDATE
+
+}
@@ -0,0 +1,90 @@
+package io.github.wldt.demo.startup;
+
+import io.github.wldt.demo.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Breakdown of the startup time of a set of Digital Twins: for each phase the distribution of the time spent
+ * since the previous phase, together with the time-to-first-update measured from the start request
+ */
+public class StartupReport {
+
+    private final Map<StartupPhase, LatencyHistogram> phaseHistogramMap = new EnumMap<>(StartupPhase.class);
+
+    private final LatencyHistogram timeToFirstUpdateHistogram = new LatencyHistogram();
+
+    private final int twinCount;
+
+    private final long wallClockMs;
+
+    private int firstUpdateCount = 0;
+
+    public StartupReport(List<TwinStartupTracker> trackerList, long wallClockMs) {
+
+        this.twinCount = trackerList.size();
+        this.wallClockMs = wallClockMs;
+
+        for(StartupPhase phase : StartupPhase.values())
+            this.phaseHistogramMap.put(phase, new LatencyHistogram());
+
+        for(TwinStartupTracker tracker : trackerList){
+
+            for(StartupPhase phase : StartupPhase.values())
+                if(tracker.isReached(phase))
+                    this.phaseHistogramMap.get(phase).record(tracker.getPhaseDurationNanos(phase));
+
+            if(tracker.isReached(StartupPhase.FIRST_UPDATE)){
+                this.timeToFirstUpdateHistogram.record(tracker.getElapsedNanos(StartupPhase.FIRST_UPDATE));
+                this.firstUpdateCount++;
+            }
+        }
+    }
+
+    /**
+     * @return the number of twins that reached the phase
+     */
+    public long getReachedCount(StartupPhase phase) {
+        return this.phaseHistogramMap.get(phase).getCount();
+    }
+
+    public LatencyHistogram getPhaseHistogram(StartupPhase phase) {
+        return this.phaseHistogramMap.get(phase);
+    }
+
+    public LatencyHistogram getTimeToFirstUpdateHistogram() {
+        return timeToFirstUpdateHistogram;
+    }
+
+    public int getTwinCount() {
+        return twinCount;
+    }
+
+    public int getFirstUpdateCount() {
+        return firstUpdateCount;
+    }
+
+    public long getWallClockMs() {
+        return wallClockMs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StartupReport{");
+        sb.append("twinCount=").append(twinCount);
+        sb.append(", firstUpdateCount=").append(firstUpdateCount);
+        sb.append(", wallClockMs=").append(wallClockMs);
+        this.phaseHistogramMap.forEach((phase, histogram) -> sb.append(String.format(", %s={count=%d, p50Ms=%.1f, p99Ms=%.1f, maxMs=%.1f}",
+                phase, histogram.getCount(), toMs(histogram.getValueAtPercentile(50)), toMs(histogram.getValueAtPercentile(99)), toMs(histogram.getMaxValue()))));
+        sb.append(String.format(", TIME_TO_FIRST_UPDATE={p50Ms=%.1f, p99Ms=%.1f, maxMs=%.1f}",
+                toMs(timeToFirstUpdateHistogram.getValueAtPercentile(50)), toMs(timeToFirstUpdateHistogram.getValueAtPercentile(99)), toMs(timeToFirstUpdateHistogram.getMaxValue())));
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.wldt.demo.startup;
+
+import io.github.wldt.demo.digital.StateChangeListener;
+import it.wldt.adapter.physical.PhysicalAssetDescription;
+import it.wldt.core.engine.LifeCycleListener;
+import it.wldt.core.state.DigitalTwinState;
+import it.wldt.core.state.DigitalTwinStateChange;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracker of the startup phases of a single Digital Twin.
+ *
+ * The tracker is registered as life cycle listener of the twin to observe creation, start, bind and
+ * synchronization, and as {@link StateChangeListener} of its Digital Adapter to observe the first property
+ * update delivered after the synchronization. Each phase is timestamped only once with System.nanoTime().
+ */
+public class TwinStartupTracker implements LifeCycleListener, StateChangeListener {
+
+    private final String digitalTwinId;
+
+    private final AtomicLongArray phaseNanosArray = new AtomicLongArray(StartupPhase.values().length);
+
+    private final CompletableFuture<Void> syncFuture = new CompletableFuture<>();
+
+    private final CompletableFuture<Void> firstUpdateFuture = new CompletableFuture<>();
+
+    private volatile long startRequestNanos = 0;
+
+    public TwinStartupTracker(String digitalTwinId) {
+        this.digitalTwinId = digitalTwinId;
+    }
+
+    /**
+     * Mark the time at which the start of the twin has been requested, used as origin of the phases
+     */
+    public void onStartRequested() {
+        this.startRequestNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onCreate() {
+        recordPhase(StartupPhase.CREATE);
+    }
+
+    @Override
+    public void onStart() {
+        recordPhase(StartupPhase.ADAPTER_START);
+    }
+
+    @Override
+    public void onDigitalTwinBound(Map<String, PhysicalAssetDescription> adaptersPhysicalAssetDescriptionMap) {
+        recordPhase(StartupPhase.BIND);
+    }
+
+    @Override
+    public void onSync(DigitalTwinState digitalTwinState) {
+        recordPhase(StartupPhase.SYNC);
+        this.syncFuture.complete(null);
+    }
+
+    @Override
+    public void onStateChanges(String digitalTwinId, DigitalTwinState newDigitalTwinState, List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        //The DT State created at bind time is not a property update
+        if(!this.syncFuture.isDone() || this.firstUpdateFuture.isDone() || digitalTwinStateChangeList == null)
+            return;
+
+        for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList)
+            if(stateChange.getResourceType() == DigitalTwinStateChange.ResourceType.PROPERTY
+                    || stateChange.getResourceType() == DigitalTwinStateChange.ResourceType.PROPERTY_VALUE){
+                recordPhase(StartupPhase.FIRST_UPDATE);
+                this.firstUpdateFuture.complete(null);
+                return;
+            }
+    }
+
+    @Override
+    public void onPhysicalAdapterBound(String adapterId, PhysicalAssetDescription physicalAssetDescription) {
+    }
+
+    @Override
+    public void onPhysicalAdapterBindingUpdate(String adapterId, PhysicalAssetDescription physicalAssetDescription) {
+    }
+
+    @Override
+    public void onPhysicalAdapterUnBound(String adapterId, PhysicalAssetDescription physicalAssetDescription, String errorMessage) {
+    }
+
+    @Override
+    public void onDigitalAdapterBound(String adapterId) {
+    }
+
+    @Override
+    public void onDigitalAdapterUnBound(String adapterId, String errorMessage) {
+    }
+
+    @Override
+    public void onDigitalTwinUnBound(Map<String, PhysicalAssetDescription> adaptersPhysicalAssetDescriptionMap, String errorMessage) {
+    }
+
+    @Override
+    public void onUnSync(DigitalTwinState digitalTwinState) {
+    }
+
+    @Override
+    public void onStop() {
+    }
+
+    @Override
+    public void onDestroy() {
+    }
+
+    private void recordPhase(StartupPhase phase) {
+        this.phaseNanosArray.compareAndSet(phase.ordinal(), 0, System.nanoTime());
+    }
+
+    /**
+     * @return true if the phase has been reached
+     */
+    public boolean isReached(StartupPhase phase) {
+        return this.phaseNanosArray.get(phase.ordinal()) != 0;
+    }
+
+    /**
+     * @return the nanoseconds elapsed from the previous reached phase (or from the start request), -1 if the phase
+     * has not been reached
+     */
+    public long getPhaseDurationNanos(StartupPhase phase) {
+
+        long phaseNanos = this.phaseNanosArray.get(phase.ordinal());
+        if(phaseNanos == 0)
+            return -1;
+
+        long previousNanos = this.startRequestNanos;
+        for(int i = phase.ordinal() - 1; i >= 0; i--)
+            if(this.phaseNanosArray.get(i) != 0){
+                previousNanos = this.phaseNanosArray.get(i);
+                break;
+            }
+
+        return phaseNanos - previousNanos;
+    }
+
+    /**
+     * @return the nanoseconds elapsed from the start request to the phase, -1 if the phase has not been reached
+     */
+    public long getElapsedNanos(StartupPhase phase) {
+        long phaseNanos = this.phaseNanosArray.get(phase.ordinal());
+        return phaseNanos != 0 ? phaseNanos - this.startRequestNanos : -1;
+    }
+
+    public CompletableFuture<Void> getSyncFuture() {
+        return syncFuture;
+    }
+
+    public CompletableFuture<Void> getFirstUpdateFuture() {
+        return firstUpdateFuture;
+    }
+
+    public String getDigitalTwinId() {
+        return digitalTwinId;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TwinStartupTracker{");
+        sb.append("digitalTwinId='").append(digitalTwinId).append('\'');
+        for(StartupPhase phase : StartupPhase.values())
+            sb.append(", ").append(phase).append("Ms=").append(getPhaseDurationNanos(phase) / 1000000);
+        sb.append('}');
+        return sb.toString();
+    }
+}
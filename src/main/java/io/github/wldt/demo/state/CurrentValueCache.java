@@ -0,0 +1,119 @@
+package io.github.wldt.demo.state;
+
+import io.github.wldt.demo.digital.StateChangeListener;
+import io.github.wldt.demo.digital.StateSubscription;
+import io.github.wldt.demo.keys.KeyRegistry;
+import it.wldt.core.state.DigitalTwinState;
+import it.wldt.core.state.DigitalTwinStateChange;
+import it.wldt.core.state.DigitalTwinStateProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the current property values of a set of Digital Twins serving point reads from any number of threads.
+ *
+ * Registered as a {@link StateChangeListener} on the Digital Adapter of each twin (with {@link #newSubscription()}), it
+ * builds a new {@link CurrentValueSnapshot} for each committed transaction changing at least one property and
+ * publishes it with a single volatile write. Readers only perform a map lookup and a binary search on an
+ * immutable snapshot: they never lock, never block the commit of the twin and never copy the DT State. A commit
+ * copies the value array of the twin, whose size is bounded by the properties of that twin.
+ */
+public class CurrentValueCache implements StateChangeListener {
+
+    private final KeyRegistry keyRegistry = KeyRegistry.getInstance();
+
+    private final Map<String, CurrentValueSnapshot> snapshotMap = new ConcurrentHashMap<>();
+
+    private final LongAdder publishedSnapshots = new LongAdder();
+
+    /**
+     * @return the subscription to register the cache with, since only the property changes are required to keep it
+     * up to date
+     */
+    public static StateSubscription newSubscription() {
+        return StateSubscription.create().onResourceTypes(
+                DigitalTwinStateChange.ResourceType.PROPERTY,
+                DigitalTwinStateChange.ResourceType.PROPERTY_VALUE);
+    }
+
+    /**
+     * Apply the property changes of a committed transaction. The changes of a twin are delivered by its commit
+     * thread in commit order, so a single writer updates the snapshot of each twin.
+     */
+    @Override
+    public void onStateChanges(String digitalTwinId, DigitalTwinState newDigitalTwinState, List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        int[] keyIds = new int[digitalTwinStateChangeList.size()];
+        Object[] newValues = new Object[digitalTwinStateChangeList.size()];
+        int changeCount = 0;
+
+        for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList) {
+
+            if(!(stateChange.getResource() instanceof DigitalTwinStateProperty))
+                continue;
+
+            DigitalTwinStateProperty<?> property = (DigitalTwinStateProperty<?>) stateChange.getResource();
+
+            keyIds[changeCount] = this.keyRegistry.register(property.getKey());
+            newValues[changeCount] = stateChange.getOperation() == DigitalTwinStateChange.Operation.OPERATION_REMOVE
+                    ? null : CurrentValueSnapshot.wrapValue(property.getValue());
+            changeCount++;
+        }
+
+        if(changeCount == 0)
+            return;
+
+        CurrentValueSnapshot currentSnapshot = this.snapshotMap.getOrDefault(digitalTwinId, CurrentValueSnapshot.EMPTY);
+        this.snapshotMap.put(digitalTwinId, currentSnapshot.next(keyIds, newValues, changeCount, System.currentTimeMillis()));
+        this.publishedSnapshots.increment();
+    }
+
+    /**
+     * @param digitalTwinId the id of the Digital Twin
+     * @return the last published snapshot of the twin, empty if no property has been committed yet. Reading several
+     * values from the same snapshot returns a consistent view of a single commit.
+     */
+    public CurrentValueSnapshot getSnapshot(String digitalTwinId) {
+        return this.snapshotMap.getOrDefault(digitalTwinId, CurrentValueSnapshot.EMPTY);
+    }
+
+    /**
+     * @param digitalTwinId the id of the Digital Twin
+     * @param keyId the id of the property key in the {@link KeyRegistry}
+     * @return the current value of the property, null if not available
+     */
+    public Object getValue(String digitalTwinId, int keyId) {
+        return getSnapshot(digitalTwinId).getValue(keyId);
+    }
+
+    public Object getValue(String digitalTwinId, String propertyKey) {
+        return getSnapshot(digitalTwinId).getValue(this.keyRegistry.getId(propertyKey));
+    }
+
+    /**
+     * Remove the cached values of a twin (e.g., when it is removed from its engine)
+     */
+    public void removeDigitalTwin(String digitalTwinId) {
+        this.snapshotMap.remove(digitalTwinId);
+    }
+
+    public int getDigitalTwinCount() {
+        return this.snapshotMap.size();
+    }
+
+    public long getPublishedSnapshots() {
+        return publishedSnapshots.sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CurrentValueCache{");
+        sb.append("digitalTwins=").append(getDigitalTwinCount());
+        sb.append(", publishedSnapshots=").append(getPublishedSnapshots());
+        sb.append('}');
+        return sb.toString();
+    }
+}
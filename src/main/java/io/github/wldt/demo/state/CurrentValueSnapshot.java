@@ -0,0 +1,143 @@
+package io.github.wldt.demo.state;
+
+import io.github.wldt.demo.keys.KeyRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the current property values of a Digital Twin. A new snapshot is published for each committed
+ * DT State transaction, so all the values read from the same snapshot belong to the same commit.
+ *
+ * The snapshot stores only the properties of its twin, in a dense array of slots sorted by the ids of the
+ * {@link KeyRegistry}: its size does not grow with the keys registered by the other twins of the JVM, and a point read
+ * is a binary search on the key ids of the twin.
+ */
+public class CurrentValueSnapshot {
+
+    static final CurrentValueSnapshot EMPTY = new CurrentValueSnapshot(new int[0], new Object[0], 0, 0);
+
+    //Marker of a property whose current value is null, to distinguish it from a missing property
+    private static final Object NULL_VALUE = new Object();
+
+    //Sorted ids of the properties of the twin, the value of each property is in the slot with the same index
+    private final int[] keyIds;
+
+    private final Object[] values;
+
+    private final long version;
+
+    private final long commitTimestampMs;
+
+    private CurrentValueSnapshot(int[] keyIds, Object[] values, long version, long commitTimestampMs) {
+        this.keyIds = keyIds;
+        this.values = values;
+        this.version = version;
+        this.commitTimestampMs = commitTimestampMs;
+    }
+
+    /**
+     * @param keyId the id of the property key
+     * @return the current value of the property, null if the property is not available or its value is null
+     */
+    public Object getValue(int keyId) {
+        int slot = getSlot(keyId);
+        Object value = slot >= 0 ? this.values[slot] : null;
+        return value == NULL_VALUE ? null : value;
+    }
+
+    public Object getValue(String propertyKey) {
+        return getValue(KeyRegistry.getInstance().getId(propertyKey));
+    }
+
+    public boolean containsProperty(int keyId) {
+        return getSlot(keyId) >= 0;
+    }
+
+    public boolean containsProperty(String propertyKey) {
+        return containsProperty(KeyRegistry.getInstance().getId(propertyKey));
+    }
+
+    /**
+     * @return the number of properties of the twin in the snapshot
+     */
+    public int getPropertyCount() {
+        return this.keyIds.length;
+    }
+
+    /**
+     * @return the number of commits applied to the snapshot, 0 for a twin without committed properties
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCommitTimestampMs() {
+        return commitTimestampMs;
+    }
+
+    /**
+     * Create the snapshot of the next commit, copying the values of this snapshot
+     *
+     * @param keyIds the ids of the changed property keys
+     * @param newValues the new values of the changed keys, null for a removed property
+     * @param changeCount the number of changes to apply
+     * @param commitTimestampMs the time of the commit
+     * @return the new snapshot
+     */
+    CurrentValueSnapshot next(int[] keyIds, Object[] newValues, int changeCount, long commitTimestampMs) {
+
+        int[] nextKeyIds = Arrays.copyOf(this.keyIds, this.keyIds.length + changeCount);
+        Object[] nextValues = Arrays.copyOf(this.values, this.values.length + changeCount);
+        int size = this.keyIds.length;
+
+        for(int i = 0; i < changeCount; i++) {
+
+            int slot = Arrays.binarySearch(nextKeyIds, 0, size, keyIds[i]);
+
+            //New property of the twin, shift the following slots to keep the key ids sorted
+            if(slot < 0) {
+                slot = -slot - 1;
+                System.arraycopy(nextKeyIds, slot, nextKeyIds, slot + 1, size - slot);
+                System.arraycopy(nextValues, slot, nextValues, slot + 1, size - slot);
+                nextKeyIds[slot] = keyIds[i];
+                size++;
+            }
+
+            nextValues[slot] = newValues[i];
+        }
+
+        //Compact the slots, dropping the removed properties
+        int propertyCount = 0;
+        for(int slot = 0; slot < size; slot++) {
+            if(nextValues[slot] == null)
+                continue;
+            nextKeyIds[propertyCount] = nextKeyIds[slot];
+            nextValues[propertyCount] = nextValues[slot];
+            propertyCount++;
+        }
+
+        return new CurrentValueSnapshot(
+                Arrays.copyOf(nextKeyIds, propertyCount),
+                Arrays.copyOf(nextValues, propertyCount),
+                this.version + 1,
+                commitTimestampMs);
+    }
+
+    private int getSlot(int keyId) {
+        return keyId >= 0 ? Arrays.binarySearch(this.keyIds, keyId) : -1;
+    }
+
+    static Object wrapValue(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CurrentValueSnapshot{");
+        sb.append("version=").append(version);
+        sb.append(", commitTimestampMs=").append(commitTimestampMs);
+        sb.append(", properties=").append(keyIds.length);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.wldt.demo.state;
+
+import it.wldt.core.state.*;
+import it.wldt.exception.WldtDigitalTwinStateException;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Serializable snapshot of a {@link DigitalTwinState} together with the keys observed by the Shadowing Function.
+ * It is used to move a twin out of the heap (passivation) and to rebuild it later, on the same or on another engine,
+ * without losing the values computed before the snapshot.
+ *
+ * Only property values and relationship targets implementing {@link Serializable} are captured.
+ */
+public class DigitalTwinStateSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String digitalTwinId;
+
+    private final long snapshotTimestamp;
+
+    private final Map<String, Serializable> propertyValues = new LinkedHashMap<>();
+
+    private final Map<String, String> eventTypes = new LinkedHashMap<>();
+
+    private final Map<String, String[]> actions = new LinkedHashMap<>();
+
+    private final Map<String, String> relationshipTypes = new LinkedHashMap<>();
+
+    private final List<RelationshipInstanceSnapshot> relationshipInstances = new ArrayList<>();
+
+    private final Set<String> observedKeys = new LinkedHashSet<>();
+
+    public DigitalTwinStateSnapshot(String digitalTwinId) {
+        this.digitalTwinId = digitalTwinId;
+        this.snapshotTimestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Capture the target DT State
+     *
+     * @param digitalTwinId the id of the Digital Twin
+     * @param digitalTwinState the DT State to capture
+     * @param observedKeys the property, event and relationship keys observed by the Shadowing Function
+     * @return the snapshot
+     * @throws WldtDigitalTwinStateException if the DT State can not be read
+     */
+    public static DigitalTwinStateSnapshot from(String digitalTwinId, DigitalTwinState digitalTwinState, Collection<String> observedKeys) throws WldtDigitalTwinStateException {
+
+        DigitalTwinStateSnapshot snapshot = new DigitalTwinStateSnapshot(digitalTwinId);
+
+        if(observedKeys != null)
+            snapshot.observedKeys.addAll(observedKeys);
+
+        if(digitalTwinState == null)
+            return snapshot;
+
+        try {
+
+            digitalTwinState.getPropertyList().ifPresent(propertyList -> propertyList.forEach(property -> {
+                if(property.getValue() instanceof Serializable)
+                    snapshot.propertyValues.put(property.getKey(), (Serializable) property.getValue());
+            }));
+
+            digitalTwinState.getEventList().ifPresent(eventList -> eventList.forEach(event ->
+                    snapshot.eventTypes.put(event.getKey(), event.getType())));
+
+            digitalTwinState.getActionList().ifPresent(actionList -> actionList.forEach(action ->
+                    snapshot.actions.put(action.getKey(), new String[]{action.getType(), action.getContentType()})));
+
+        } catch (Exception e) {
+            throw new WldtDigitalTwinStateException(String.format("Error creating DT State Snapshot for %s ! Error: %s", digitalTwinId, e.getLocalizedMessage()));
+        }
+
+        digitalTwinState.getRelationshipList().ifPresent(relationshipList -> relationshipList.forEach(relationship -> {
+            snapshot.relationshipTypes.put(relationship.getName(), relationship.getType());
+            relationship.getInstances().forEach(instance -> {
+                if(instance.getTargetId() instanceof Serializable)
+                    snapshot.relationshipInstances.add(new RelationshipInstanceSnapshot(
+                            instance.getRelationshipName(),
+                            (Serializable) instance.getTargetId(),
+                            instance.getKey(),
+                            instance.getMetadata()));
+            });
+        }));
+
+        return snapshot;
+    }
+
+    /**
+     * Write the snapshot to a local file. The file is first written to a temporary file and then atomically moved.
+     *
+     * @param path the destination path
+     * @throws IOException if the snapshot can not be written
+     */
+    public void writeTo(Path path) throws IOException {
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+            outputStream.writeObject(this);
+        }
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static DigitalTwinStateSnapshot readFrom(Path path) throws IOException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return (DigitalTwinStateSnapshot) inputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(String.format("Wrong DT State Snapshot file %s ! Error: %s", path, e.getLocalizedMessage()));
+        }
+    }
+
+    public byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            outputStream.writeObject(this);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    public static DigitalTwinStateSnapshot fromByteArray(byte[] data) throws IOException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (DigitalTwinStateSnapshot) inputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(String.format("Wrong DT State Snapshot data ! Error: %s", e.getLocalizedMessage()));
+        }
+    }
+
+    public String getDigitalTwinId() {
+        return digitalTwinId;
+    }
+
+    public long getSnapshotTimestamp() {
+        return snapshotTimestamp;
+    }
+
+    public Optional<Serializable> getPropertyValue(String propertyKey) {
+        return Optional.ofNullable(this.propertyValues.get(propertyKey));
+    }
+
+    public Map<String, Serializable> getPropertyValues() {
+        return Collections.unmodifiableMap(propertyValues);
+    }
+
+    public Map<String, String> getEventTypes() {
+        return Collections.unmodifiableMap(eventTypes);
+    }
+
+    public Map<String, String[]> getActions() {
+        return Collections.unmodifiableMap(actions);
+    }
+
+    public Map<String, String> getRelationshipTypes() {
+        return Collections.unmodifiableMap(relationshipTypes);
+    }
+
+    public List<RelationshipInstanceSnapshot> getRelationshipInstances() {
+        return Collections.unmodifiableList(relationshipInstances);
+    }
+
+    public Set<String> getObservedKeys() {
+        return Collections.unmodifiableSet(observedKeys);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DigitalTwinStateSnapshot{");
+        sb.append("digitalTwinId='").append(digitalTwinId).append('\'');
+        sb.append(", snapshotTimestamp=").append(snapshotTimestamp);
+        sb.append(", propertyValues=").append(propertyValues);
+        sb.append(", eventTypes=").append(eventTypes.keySet());
+        sb.append(", actions=").append(actions.keySet());
+        sb.append(", relationshipTypes=").append(relationshipTypes);
+        sb.append(", relationshipInstances=").append(relationshipInstances.size());
+        sb.append(", observedKeys=").append(observedKeys);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Serializable description of a DT State Relationship Instance
+     */
+    public static class RelationshipInstanceSnapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String relationshipName;
+
+        private final Serializable targetId;
+
+        private final String instanceKey;
+
+        private final HashMap<String, Serializable> metadata = new HashMap<>();
+
+        public RelationshipInstanceSnapshot(String relationshipName, Serializable targetId, String instanceKey, Map<String, Object> metadata) {
+            this.relationshipName = relationshipName;
+            this.targetId = targetId;
+            this.instanceKey = instanceKey;
+            if(metadata != null)
+                metadata.forEach((key, value) -> {
+                    if(value instanceof Serializable)
+                        this.metadata.put(key, (Serializable) value);
+                });
+        }
+
+        public DigitalTwinStateRelationshipInstance<Object> toDigitalTwinStateRelationshipInstance() {
+            return new DigitalTwinStateRelationshipInstance<>(this.relationshipName, this.targetId, this.instanceKey, new HashMap<>(this.metadata));
+        }
+
+        public String getRelationshipName() {
+            return relationshipName;
+        }
+
+        public Serializable getTargetId() {
+            return targetId;
+        }
+
+        public String getInstanceKey() {
+            return instanceKey;
+        }
+
+        public Map<String, Serializable> getMetadata() {
+            return Collections.unmodifiableMap(metadata);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.wldt.demo.state;
+
+import it.wldt.core.state.*;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-only and lazily materialized view of a {@link DigitalTwinState} for Digital Adapters.
+ *
+ * Properties, events, actions and relationships are not copied when the view is created: each collection is
+ * built on first access and consecutive views created through {@link #next(DigitalTwinState, List)} share all the
+ * unchanged entries with the previous one, storing only the keys affected by the received change list.
+ * Consumers reading a few keys per update therefore never pay the cost of iterating or copying the whole state.
+ */
+public class DigitalTwinStateView {
+
+    private final LayeredResourceMap<DigitalTwinStateProperty<?>> properties;
+
+    private final LayeredResourceMap<DigitalTwinStateEvent> events;
+
+    private final LayeredResourceMap<DigitalTwinStateAction> actions;
+
+    private final LayeredResourceMap<DigitalTwinStateRelationship<?>> relationships;
+
+    private final Instant evaluationInstant;
+
+    private DigitalTwinStateView(LayeredResourceMap<DigitalTwinStateProperty<?>> properties,
+                                 LayeredResourceMap<DigitalTwinStateEvent> events,
+                                 LayeredResourceMap<DigitalTwinStateAction> actions,
+                                 LayeredResourceMap<DigitalTwinStateRelationship<?>> relationships,
+                                 Instant evaluationInstant) {
+        this.properties = properties;
+        this.events = events;
+        this.actions = actions;
+        this.relationships = relationships;
+        this.evaluationInstant = evaluationInstant;
+    }
+
+    /**
+     * Create a view whose collections are lazily built from the target DT State
+     *
+     * @param digitalTwinState the source DT State
+     * @return the new view
+     */
+    public static DigitalTwinStateView of(DigitalTwinState digitalTwinState) {
+        return new DigitalTwinStateView(
+                LayeredResourceMap.lazy(propertySupplier(digitalTwinState)),
+                LayeredResourceMap.lazy(eventSupplier(digitalTwinState)),
+                LayeredResourceMap.lazy(actionSupplier(digitalTwinState)),
+                LayeredResourceMap.lazy(relationshipSupplier(digitalTwinState)),
+                digitalTwinState.getEvaluationInstant());
+    }
+
+    /**
+     * Create the view of the next DT State sharing all the entries not affected by the change list
+     *
+     * @param newDigitalTwinState the new DT State
+     * @param digitalTwinStateChangeList the changes applied to compute the new DT State
+     * @return the new view
+     */
+    public DigitalTwinStateView next(DigitalTwinState newDigitalTwinState, List<DigitalTwinStateChange> digitalTwinStateChangeList) {
+
+        if(digitalTwinStateChangeList == null)
+            return of(newDigitalTwinState);
+
+        Map<String, DigitalTwinStateProperty<?>> changedProperties = new HashMap<>();
+        Set<String> removedProperties = new HashSet<>();
+        Map<String, DigitalTwinStateEvent> changedEvents = new HashMap<>();
+        Set<String> removedEvents = new HashSet<>();
+        Map<String, DigitalTwinStateAction> changedActions = new HashMap<>();
+        Set<String> removedActions = new HashSet<>();
+        Map<String, DigitalTwinStateRelationship<?>> changedRelationships = new HashMap<>();
+        Set<String> removedRelationships = new HashSet<>();
+
+        for(DigitalTwinStateChange stateChange : digitalTwinStateChangeList){
+
+            DigitalTwinStateResource resource = stateChange.getResource();
+            boolean isRemoved = stateChange.getOperation() == DigitalTwinStateChange.Operation.OPERATION_REMOVE;
+
+            if(resource instanceof DigitalTwinStateProperty)
+                applyChange(((DigitalTwinStateProperty<?>) resource).getKey(), (DigitalTwinStateProperty<?>) resource, isRemoved, changedProperties, removedProperties);
+            else if(resource instanceof DigitalTwinStateEvent)
+                applyChange(((DigitalTwinStateEvent) resource).getKey(), (DigitalTwinStateEvent) resource, isRemoved, changedEvents, removedEvents);
+            else if(resource instanceof DigitalTwinStateAction)
+                applyChange(((DigitalTwinStateAction) resource).getKey(), (DigitalTwinStateAction) resource, isRemoved, changedActions, removedActions);
+            else if(resource instanceof DigitalTwinStateRelationship)
+                applyChange(((DigitalTwinStateRelationship<?>) resource).getName(), (DigitalTwinStateRelationship<?>) resource, isRemoved, changedRelationships, removedRelationships);
+            else if(resource instanceof DigitalTwinStateRelationshipInstance) {
+                //An instance variation changes the owning relationship that is read from the new state
+                String relationshipName = ((DigitalTwinStateRelationshipInstance<?>) resource).getRelationshipName();
+                Optional<DigitalTwinStateRelationship<?>> relationship = newDigitalTwinState.getRelationship(relationshipName);
+                applyChange(relationshipName, relationship.orElse(null), relationship.isEmpty(), changedRelationships, removedRelationships);
+            }
+        }
+
+        return new DigitalTwinStateView(
+                this.properties.next(changedProperties, removedProperties, propertySupplier(newDigitalTwinState)),
+                this.events.next(changedEvents, removedEvents, eventSupplier(newDigitalTwinState)),
+                this.actions.next(changedActions, removedActions, actionSupplier(newDigitalTwinState)),
+                this.relationships.next(changedRelationships, removedRelationships, relationshipSupplier(newDigitalTwinState)),
+                newDigitalTwinState.getEvaluationInstant());
+    }
+
+    public Optional<DigitalTwinStateProperty<?>> getProperty(String propertyKey) {
+        return this.properties.get(propertyKey);
+    }
+
+    public Optional<Object> getPropertyValue(String propertyKey) {
+        return this.properties.get(propertyKey).map(DigitalTwinStateProperty::getValue);
+    }
+
+    public boolean containsProperty(String propertyKey) {
+        return this.properties.containsKey(propertyKey);
+    }
+
+    public Collection<DigitalTwinStateProperty<?>> getPropertyList() {
+        return this.properties.asMap().values();
+    }
+
+    public Optional<DigitalTwinStateEvent> getEvent(String eventKey) {
+        return this.events.get(eventKey);
+    }
+
+    public boolean containsEvent(String eventKey) {
+        return this.events.containsKey(eventKey);
+    }
+
+    public Set<String> getEventKeys() {
+        return this.events.asMap().keySet();
+    }
+
+    public Collection<DigitalTwinStateEvent> getEventList() {
+        return this.events.asMap().values();
+    }
+
+    public Optional<DigitalTwinStateAction> getAction(String actionKey) {
+        return this.actions.get(actionKey);
+    }
+
+    public boolean containsAction(String actionKey) {
+        return this.actions.containsKey(actionKey);
+    }
+
+    public Collection<DigitalTwinStateAction> getActionList() {
+        return this.actions.asMap().values();
+    }
+
+    public Optional<DigitalTwinStateRelationship<?>> getRelationship(String relationshipName) {
+        return this.relationships.get(relationshipName);
+    }
+
+    public boolean containsRelationship(String relationshipName) {
+        return this.relationships.containsKey(relationshipName);
+    }
+
+    public Collection<DigitalTwinStateRelationship<?>> getRelationshipList() {
+        return this.relationships.asMap().values();
+    }
+
+    public Instant getEvaluationInstant() {
+        return evaluationInstant;
+    }
+
+    private static <V> void applyChange(String key, V value, boolean isRemoved, Map<String, V> changedEntries, Set<String> removedKeys) {
+        if(key == null)
+            return;
+        if(isRemoved || value == null){
+            changedEntries.remove(key);
+            removedKeys.add(key);
+        }
+        else {
+            removedKeys.remove(key);
+            changedEntries.put(key, value);
+        }
+    }
+
+    private static Supplier<Map<String, DigitalTwinStateProperty<?>>> propertySupplier(DigitalTwinState digitalTwinState) {
+        return () -> {
+            try {
+                return toMap(digitalTwinState.getPropertyList(), DigitalTwinStateProperty::getKey);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return Collections.emptyMap();
+            }
+        };
+    }
+
+    private static Supplier<Map<String, DigitalTwinStateEvent>> eventSupplier(DigitalTwinState digitalTwinState) {
+        return () -> {
+            try {
+                return toMap(digitalTwinState.getEventList(), DigitalTwinStateEvent::getKey);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return Collections.emptyMap();
+            }
+        };
+    }
+
+    private static Supplier<Map<String, DigitalTwinStateAction>> actionSupplier(DigitalTwinState digitalTwinState) {
+        return () -> {
+            try {
+                return toMap(digitalTwinState.getActionList(), DigitalTwinStateAction::getKey);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return Collections.emptyMap();
+            }
+        };
+    }
+
+    private static Supplier<Map<String, DigitalTwinStateRelationship<?>>> relationshipSupplier(DigitalTwinState digitalTwinState) {
+        return () -> toMap(digitalTwinState.getRelationshipList(), DigitalTwinStateRelationship::getName);
+    }
+
+    private static <V> Map<String, V> toMap(Optional<? extends List<V>> resourceList, Function<V, String> keyFunction) {
+        Map<String, V> resourceMap = new LinkedHashMap<>();
+        resourceList.ifPresent(list -> list.forEach(resource -> resourceMap.put(keyFunction.apply(resource), resource)));
+        return resourceMap;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DigitalTwinStateView{");
+        sb.append("evaluationInstant=").append(evaluationInstant);
+        sb.append(", propertyLayerDepth=").append(properties.getDepth());
+        sb.append('}');
+        return sb.toString();
+    }
+}
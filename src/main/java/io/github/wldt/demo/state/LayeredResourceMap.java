@@ -0,0 +1,136 @@
+package io.github.wldt.demo.state;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Immutable and lazily materialized map of DT State resources used by {@link DigitalTwinStateView}.
+ *
+ * A map is either a base layer, whose content is built on first access through a supplier, or a delta layer
+ * containing only the keys changed (or removed) with respect to its parent. Consecutive states therefore share
+ * all the unchanged entries and a new layer only costs the changed keys (copy-on-write per key). The depth of the
+ * chain is bounded: when it exceeds {@link #MAX_LAYER_DEPTH} a new lazy base layer is created instead. The full
+ * content of a layer is built on demand with a single pass over the chain and memoized by that layer only.
+ */
+class LayeredResourceMap<V> {
+
+    static final int MAX_LAYER_DEPTH = 16;
+
+    private final LayeredResourceMap<V> parent;
+
+    private final Map<String, V> changedEntries;
+
+    private final Set<String> removedKeys;
+
+    private final int depth;
+
+    private final Supplier<Map<String, V>> baseSupplier;
+
+    private volatile Map<String, V> materializedMap = null;
+
+    private LayeredResourceMap(Supplier<Map<String, V>> baseSupplier) {
+        this.parent = null;
+        this.changedEntries = Collections.emptyMap();
+        this.removedKeys = Collections.emptySet();
+        this.depth = 0;
+        this.baseSupplier = baseSupplier;
+    }
+
+    private LayeredResourceMap(LayeredResourceMap<V> parent, Map<String, V> changedEntries, Set<String> removedKeys) {
+        this.parent = parent;
+        this.changedEntries = changedEntries;
+        this.removedKeys = removedKeys;
+        this.depth = parent.depth + 1;
+        this.baseSupplier = null;
+    }
+
+    static <V> LayeredResourceMap<V> lazy(Supplier<Map<String, V>> baseSupplier) {
+        return new LayeredResourceMap<>(baseSupplier);
+    }
+
+    /**
+     * Create the layer of the next state
+     *
+     * @param changedEntries the entries added or updated in the next state
+     * @param removedKeys the keys removed in the next state
+     * @param rebaseSupplier supplier used to create a new base layer if the chain becomes too deep
+     * @return the next layer, or this layer itself if nothing changed
+     */
+    LayeredResourceMap<V> next(Map<String, V> changedEntries, Set<String> removedKeys, Supplier<Map<String, V>> rebaseSupplier) {
+
+        if(changedEntries.isEmpty() && removedKeys.isEmpty())
+            return this;
+
+        if(this.depth >= MAX_LAYER_DEPTH)
+            return lazy(rebaseSupplier);
+
+        return new LayeredResourceMap<>(this, changedEntries, removedKeys);
+    }
+
+    Optional<V> get(String key) {
+
+        //Fast path when the full map has already been materialized
+        Map<String, V> materialized = this.materializedMap;
+        if(materialized != null)
+            return Optional.ofNullable(materialized.get(key));
+
+        LayeredResourceMap<V> layer = this;
+        while (layer.baseSupplier == null) {
+            V value = layer.changedEntries.get(key);
+            if(value != null)
+                return Optional.of(value);
+            if(layer.removedKeys.contains(key))
+                return Optional.empty();
+            layer = layer.parent;
+        }
+
+        return Optional.ofNullable(layer.asMap().get(key));
+    }
+
+    boolean containsKey(String key) {
+        return get(key).isPresent();
+    }
+
+    /**
+     * Build the full read-only content of the layer in a single pass over the chain: starting from the base layer
+     * (or the nearest layer already materialized) the removals and changes of the delta layers are applied oldest
+     * first. Only this layer and the base one memoize their content, the intermediate delta layers keep only
+     * their changed keys.
+     *
+     * @return the full read-only content of the layer, built and memoized on first access
+     */
+    Map<String, V> asMap() {
+
+        Map<String, V> materialized = this.materializedMap;
+        if(materialized != null)
+            return materialized;
+
+        Map<String, V> result;
+        if(this.baseSupplier != null)
+            result = new LinkedHashMap<>(this.baseSupplier.get());
+        else {
+
+            //Delta layers up to the nearest materialized or base layer, iterated oldest first
+            Deque<LayeredResourceMap<V>> deltaLayers = new ArrayDeque<>();
+            LayeredResourceMap<V> layer = this;
+            while (layer.materializedMap == null && layer.baseSupplier == null) {
+                deltaLayers.push(layer);
+                layer = layer.parent;
+            }
+
+            result = new LinkedHashMap<>(layer.asMap());
+            for(LayeredResourceMap<V> deltaLayer : deltaLayers) {
+                deltaLayer.removedKeys.forEach(result::remove);
+                result.putAll(deltaLayer.changedEntries);
+            }
+        }
+
+        materialized = Collections.unmodifiableMap(result);
+        this.materializedMap = materialized;
+        return materialized;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+}
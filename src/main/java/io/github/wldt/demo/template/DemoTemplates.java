@@ -0,0 +1,32 @@
+package io.github.wldt.demo.template;
+
+import io.github.wldt.demo.utils.GlobalKeywords;
+import it.wldt.adapter.physical.*;
+
+import java.util.Collections;
+
+/**
+ * Templates of the device models used in the demo
+ */
+public class DemoTemplates {
+
+    public static final String TEMPERATURE_SENSOR_TEMPLATE_ID = "temperature-sensor";
+
+    /**
+     * Emulated temperature sensor declaring a temperature property, an overheating event, a set temperature
+     * action and an insideIn relationship
+     */
+    public static final DigitalTwinTemplate TEMPERATURE_SENSOR_TEMPLATE = new DigitalTwinTemplate(
+            TEMPERATURE_SENSOR_TEMPLATE_ID,
+            //Property associated to the PAD with a key and a default value
+            Collections.singletonList(new PhysicalAssetProperty<>(GlobalKeywords.TEMPERATURE_PROPERTY_KEY, 0.0)),
+            //Declaration of the generated event associated to an event key and the content type of the payload
+            Collections.singletonList(new PhysicalAssetEvent(GlobalKeywords.OVERHEATING_EVENT_KEY, "text/plain")),
+            //Action characterized by a Key, an action type and the expected content type of the request body
+            Collections.singletonList(new PhysicalAssetAction(GlobalKeywords.SET_TEMPERATURE_ACTION_KEY, "temperature.actuation", "text/plain")),
+            //Relationship to describe that the Physical Device is inside a building
+            Collections.singletonList(new PhysicalAssetRelationship<String>(GlobalKeywords.INSIDE_IN_RELATIONSHIP_NAME, GlobalKeywords.INSIDE_IN_RELATIONSHIP_TYPE)));
+
+    private DemoTemplates() {
+    }
+}
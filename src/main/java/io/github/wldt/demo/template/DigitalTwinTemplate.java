@@ -0,0 +1,108 @@
+package io.github.wldt.demo.template;
+
+import it.wldt.adapter.physical.*;
+import it.wldt.core.state.DigitalTwinStateAction;
+import it.wldt.core.state.DigitalTwinStateEvent;
+import it.wldt.exception.WldtDigitalTwinStateException;
+
+import java.util.*;
+
+/**
+ * Immutable schema shared by all the Digital Twins of the same device model (flyweight).
+ *
+ * The template owns a single {@link PhysicalAssetDescription} together with the DT State Events and Actions
+ * derived from it. Physical Adapters publish the shared PAD and the Shadowing Function registers the shared
+ * DT State resources, so each twin only allocates its mutable values (property values and relationship
+ * instances). The shared objects must never be modified after the template has been created.
+ */
+public class DigitalTwinTemplate {
+
+    private final String templateId;
+
+    private final PhysicalAssetDescription physicalAssetDescription;
+
+    private final Map<String, DigitalTwinStateEvent> stateEventMap;
+
+    private final Map<String, DigitalTwinStateAction> stateActionMap;
+
+    private final Map<String, PhysicalAssetRelationship<?>> relationshipMap;
+
+    public DigitalTwinTemplate(String templateId,
+                               List<PhysicalAssetProperty<?>> propertyList,
+                               List<PhysicalAssetEvent> eventList,
+                               List<PhysicalAssetAction> actionList,
+                               List<PhysicalAssetRelationship<?>> relationshipList) {
+
+        this.templateId = templateId;
+
+        //The PAD lists can not be modified by any twin sharing the template
+        this.physicalAssetDescription = new PhysicalAssetDescription(
+                Collections.unmodifiableList(new ArrayList<>(actionList)),
+                Collections.unmodifiableList(new ArrayList<>(propertyList)),
+                Collections.unmodifiableList(new ArrayList<>(eventList)),
+                Collections.unmodifiableList(new ArrayList<>(relationshipList)));
+
+        Map<String, DigitalTwinStateEvent> stateEvents = new HashMap<>();
+        Map<String, DigitalTwinStateAction> stateActions = new HashMap<>();
+
+        try {
+
+            for(PhysicalAssetEvent event : eventList)
+                stateEvents.put(event.getKey(), new DigitalTwinStateEvent(event.getKey(), event.getType()));
+
+            for(PhysicalAssetAction action : actionList)
+                stateActions.put(action.getKey(), new DigitalTwinStateAction(action.getKey(), action.getType(), action.getContentType()));
+
+        } catch (WldtDigitalTwinStateException e) {
+            throw new IllegalArgumentException(String.format("Wrong declaration in Digital Twin Template %s ! Error: %s", templateId, e.getLocalizedMessage()));
+        }
+
+        this.stateEventMap = Collections.unmodifiableMap(stateEvents);
+        this.stateActionMap = Collections.unmodifiableMap(stateActions);
+
+        Map<String, PhysicalAssetRelationship<?>> relationships = new HashMap<>();
+        relationshipList.forEach(relationship -> relationships.put(relationship.getName(), relationship));
+        this.relationshipMap = Collections.unmodifiableMap(relationships);
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    /**
+     * @return the PAD shared by all the twins created from the template
+     */
+    public PhysicalAssetDescription getPhysicalAssetDescription() {
+        return physicalAssetDescription;
+    }
+
+    /**
+     * @param pad the PAD received by the Shadowing Function
+     * @return true if the PAD is the shared one of this template
+     */
+    public boolean isTemplateDescription(PhysicalAssetDescription pad) {
+        return pad == this.physicalAssetDescription;
+    }
+
+    public Optional<DigitalTwinStateEvent> getStateEvent(String eventKey) {
+        return Optional.ofNullable(this.stateEventMap.get(eventKey));
+    }
+
+    public Optional<DigitalTwinStateAction> getStateAction(String actionKey) {
+        return Optional.ofNullable(this.stateActionMap.get(actionKey));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<PhysicalAssetRelationship<T>> getRelationship(String relationshipName) {
+        return Optional.ofNullable((PhysicalAssetRelationship<T>) this.relationshipMap.get(relationshipName));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DigitalTwinTemplate{");
+        sb.append("templateId='").append(templateId).append('\'');
+        sb.append(", physicalAssetDescription=").append(physicalAssetDescription);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.wldt.demo.trace;
+
+import it.wldt.adapter.physical.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sequential reader of a physical trace file based on memory-mapped windows of the file.
+ *
+ * Records are decoded directly from the mapped pages without intermediate copies. Since every record is
+ * length-prefixed, a new window is mapped at the beginning of a record as soon as the current one does not
+ * contain it entirely, allowing traces larger than a single mapping.
+ */
+public class PhysicalTraceReader implements Closeable {
+
+    private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final Path tracePath;
+
+    private final FileChannel fileChannel;
+
+    private final long fileSize;
+
+    private final long windowSize;
+
+    private MappedByteBuffer window = null;
+
+    private long windowPosition = 0;
+
+    private long recordCount = 0;
+
+    public PhysicalTraceReader(Path tracePath) throws IOException {
+        this(tracePath, DEFAULT_WINDOW_SIZE);
+    }
+
+    public PhysicalTraceReader(Path tracePath, long windowSize) throws IOException {
+
+        this.tracePath = tracePath;
+        this.fileChannel = FileChannel.open(tracePath, StandardOpenOption.READ);
+        this.fileSize = this.fileChannel.size();
+        this.windowSize = Math.min(Integer.MAX_VALUE, Math.max(windowSize, TraceCodec.HEADER_SIZE));
+
+        mapWindow(0, TraceCodec.HEADER_SIZE);
+
+        if(this.window.getInt() != TraceCodec.MAGIC)
+            throw new IOException(String.format("Wrong Trace File %s: missing header !", tracePath));
+
+        short version = this.window.getShort();
+        if(version != TraceCodec.VERSION)
+            throw new IOException(String.format("Unsupported Trace File %s version: %d", tracePath, version));
+    }
+
+    /**
+     * Read the next record of the trace
+     *
+     * @return the next record or an empty Optional at the end of the trace
+     * @throws IOException if the record can not be read
+     */
+    public Optional<PhysicalTraceRecord> readNext() throws IOException {
+
+        long recordPosition = this.windowPosition + this.window.position();
+        if(recordPosition + Integer.BYTES > this.fileSize)
+            return Optional.empty();
+
+        if(this.window.remaining() < Integer.BYTES)
+            mapWindow(recordPosition, Integer.BYTES);
+
+        int bodyLength = this.window.getInt();
+        if(recordPosition + Integer.BYTES + bodyLength > this.fileSize)
+            throw new IOException(String.format("Truncated Trace File %s at position %d", this.tracePath, recordPosition));
+
+        if(this.window.remaining() < bodyLength){
+            mapWindow(recordPosition, Integer.BYTES + bodyLength);
+            this.window.position(Integer.BYTES);
+        }
+
+        //Decode the record from a slice to guarantee that a wrong record never consumes the following ones
+        ByteBuffer recordBuffer = this.window.slice();
+        recordBuffer.limit(bodyLength);
+        this.window.position(this.window.position() + bodyLength);
+
+        try {
+            this.recordCount++;
+            return Optional.of(decodeRecord(recordBuffer));
+        } catch (RuntimeException e) {
+            throw new IOException(String.format("Wrong record in Trace File %s at position %d ! Error: %s", this.tracePath, recordPosition, e.getLocalizedMessage()));
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public Path getTracePath() {
+        return tracePath;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        this.fileChannel.close();
+    }
+
+    private void mapWindow(long position, long minSize) throws IOException {
+
+        long size = Math.min(Math.max(this.windowSize, minSize), this.fileSize - position);
+        if(size < minSize)
+            throw new IOException(String.format("Truncated Trace File %s at position %d", this.tracePath, position));
+
+        this.window = this.fileChannel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        this.windowPosition = position;
+    }
+
+    private static PhysicalTraceRecord decodeRecord(ByteBuffer buffer) {
+
+        TraceRecordType recordType = TraceRecordType.fromCode(buffer.get());
+        long timestampMs = buffer.getLong();
+
+        switch (recordType) {
+            case PHYSICAL_ASSET_DESCRIPTION:
+                return PhysicalTraceRecord.ofPhysicalAssetDescription(timestampMs, decodePhysicalAssetDescription(buffer));
+            case PROPERTY:
+            case EVENT:
+                return PhysicalTraceRecord.ofValue(recordType, timestampMs, TraceCodec.readString(buffer), TraceCodec.readValue(buffer));
+            case RELATIONSHIP_CREATED:
+            case RELATIONSHIP_DELETED:
+                String relationshipName = TraceCodec.readString(buffer);
+                String relationshipType = TraceCodec.readString(buffer);
+                Object targetId = TraceCodec.readValue(buffer);
+                Map<String, Object> metadata = TraceCodec.readMetadata(buffer);
+                return PhysicalTraceRecord.ofRelationshipInstance(recordType, timestampMs, relationshipName, relationshipType, targetId, metadata);
+            default:
+                throw new IllegalArgumentException("Unsupported Trace Record Type: " + recordType);
+        }
+    }
+
+    private static PhysicalAssetDescription decodePhysicalAssetDescription(ByteBuffer buffer) {
+
+        PhysicalAssetDescription pad = new PhysicalAssetDescription();
+
+        int propertyCount = buffer.getInt();
+        for(int i = 0; i < propertyCount; i++)
+            pad.getProperties().add(new PhysicalAssetProperty<>(TraceCodec.readString(buffer), TraceCodec.readValue(buffer)));
+
+        int eventCount = buffer.getInt();
+        for(int i = 0; i < eventCount; i++)
+            pad.getEvents().add(new PhysicalAssetEvent(TraceCodec.readString(buffer), TraceCodec.readString(buffer)));
+
+        int actionCount = buffer.getInt();
+        for(int i = 0; i < actionCount; i++)
+            pad.getActions().add(new PhysicalAssetAction(TraceCodec.readString(buffer), TraceCodec.readString(buffer), TraceCodec.readString(buffer)));
+
+        int relationshipCount = buffer.getInt();
+        for(int i = 0; i < relationshipCount; i++)
+            pad.getRelationships().add(new PhysicalAssetRelationship<>(TraceCodec.readString(buffer), TraceCodec.readString(buffer)));
+
+        return pad;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PhysicalTraceReader{");
+        sb.append("tracePath=").append(tracePath);
+        sb.append(", fileSize=").append(fileSize);
+        sb.append(", recordCount=").append(recordCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
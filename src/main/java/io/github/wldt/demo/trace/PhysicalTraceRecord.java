@@ -0,0 +1,97 @@
+package io.github.wldt.demo.trace;
+
+import it.wldt.adapter.physical.PhysicalAssetDescription;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Record read from a physical trace file. According to its type it carries a PAD, a property value, an event
+ * body or a relationship instance description.
+ */
+public class PhysicalTraceRecord {
+
+    private final TraceRecordType recordType;
+
+    private final long timestampMs;
+
+    private final String key;
+
+    private final Object value;
+
+    private final String relationshipType;
+
+    private final Map<String, Object> metadata;
+
+    private final PhysicalAssetDescription physicalAssetDescription;
+
+    private PhysicalTraceRecord(TraceRecordType recordType, long timestampMs, String key, Object value,
+                                String relationshipType, Map<String, Object> metadata,
+                                PhysicalAssetDescription physicalAssetDescription) {
+        this.recordType = recordType;
+        this.timestampMs = timestampMs;
+        this.key = key;
+        this.value = value;
+        this.relationshipType = relationshipType;
+        this.metadata = metadata;
+        this.physicalAssetDescription = physicalAssetDescription;
+    }
+
+    static PhysicalTraceRecord ofPhysicalAssetDescription(long timestampMs, PhysicalAssetDescription pad) {
+        return new PhysicalTraceRecord(TraceRecordType.PHYSICAL_ASSET_DESCRIPTION, timestampMs, null, null, null, Collections.emptyMap(), pad);
+    }
+
+    static PhysicalTraceRecord ofValue(TraceRecordType recordType, long timestampMs, String key, Object value) {
+        return new PhysicalTraceRecord(recordType, timestampMs, key, value, null, Collections.emptyMap(), null);
+    }
+
+    static PhysicalTraceRecord ofRelationshipInstance(TraceRecordType recordType, long timestampMs, String relationshipName,
+                                                      String relationshipType, Object targetId, Map<String, Object> metadata) {
+        return new PhysicalTraceRecord(recordType, timestampMs, relationshipName, targetId, relationshipType, metadata, null);
+    }
+
+    public TraceRecordType getRecordType() {
+        return recordType;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    /**
+     * @return the property key, the event key or the relationship name according to the record type
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the property value, the event body or the relationship target id according to the record type
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    public String getRelationshipType() {
+        return relationshipType;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public PhysicalAssetDescription getPhysicalAssetDescription() {
+        return physicalAssetDescription;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PhysicalTraceRecord{");
+        sb.append("recordType=").append(recordType);
+        sb.append(", timestampMs=").append(timestampMs);
+        sb.append(", key='").append(key).append('\'');
+        sb.append(", value=").append(value);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.wldt.demo.trace;
+
+import it.wldt.adapter.physical.*;
+import it.wldt.adapter.physical.event.PhysicalAssetEventWldtEvent;
+import it.wldt.adapter.physical.event.PhysicalAssetPropertyWldtEvent;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writer recording the stream published by a Physical Adapter (PAD, property variations, events and relationship
+ * instances) into a compact binary trace file that can be replayed through a {@link ReplayPhysicalAdapter}.
+ *
+ * Records are encoded in a reusable buffer and appended to a buffered stream, so the publishing thread never
+ * performs a system call per record. The writer is thread safe.
+ */
+public class PhysicalTraceWriter implements Closeable {
+
+    private final Path tracePath;
+
+    private final DataOutputStream fileOutputStream;
+
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+
+    private final DataOutputStream recordOutputStream = new DataOutputStream(recordBuffer);
+
+    private long recordCount = 0;
+
+    public PhysicalTraceWriter(Path tracePath) throws IOException {
+        this.tracePath = tracePath;
+        this.fileOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tracePath), 64 * 1024));
+        this.fileOutputStream.writeInt(TraceCodec.MAGIC);
+        this.fileOutputStream.writeShort(TraceCodec.VERSION);
+    }
+
+    public synchronized void writePhysicalAssetDescription(long timestampMs, PhysicalAssetDescription pad) throws IOException {
+
+        startRecord(TraceRecordType.PHYSICAL_ASSET_DESCRIPTION, timestampMs);
+
+        this.recordOutputStream.writeInt(pad.getProperties().size());
+        for(PhysicalAssetProperty<?> property : pad.getProperties()){
+            TraceCodec.writeString(this.recordOutputStream, property.getKey());
+            TraceCodec.writeValue(this.recordOutputStream, property.getInitialValue());
+        }
+
+        this.recordOutputStream.writeInt(pad.getEvents().size());
+        for(PhysicalAssetEvent event : pad.getEvents()){
+            TraceCodec.writeString(this.recordOutputStream, event.getKey());
+            TraceCodec.writeString(this.recordOutputStream, event.getType());
+        }
+
+        this.recordOutputStream.writeInt(pad.getActions().size());
+        for(PhysicalAssetAction action : pad.getActions()){
+            TraceCodec.writeString(this.recordOutputStream, action.getKey());
+            TraceCodec.writeString(this.recordOutputStream, action.getType());
+            TraceCodec.writeString(this.recordOutputStream, action.getContentType());
+        }
+
+        this.recordOutputStream.writeInt(pad.getRelationships().size());
+        for(PhysicalAssetRelationship<?> relationship : pad.getRelationships()){
+            TraceCodec.writeString(this.recordOutputStream, relationship.getName());
+            TraceCodec.writeString(this.recordOutputStream, relationship.getType());
+        }
+
+        endRecord();
+    }
+
+    public synchronized void writeProperty(long timestampMs, PhysicalAssetPropertyWldtEvent<?> propertyWldtEvent) throws IOException {
+        startRecord(TraceRecordType.PROPERTY, timestampMs);
+        TraceCodec.writeString(this.recordOutputStream, propertyWldtEvent.getPhysicalPropertyId());
+        TraceCodec.writeValue(this.recordOutputStream, propertyWldtEvent.getBody());
+        endRecord();
+    }
+
+    public synchronized void writeEvent(long timestampMs, PhysicalAssetEventWldtEvent<?> eventWldtEvent) throws IOException {
+        startRecord(TraceRecordType.EVENT, timestampMs);
+        TraceCodec.writeString(this.recordOutputStream, eventWldtEvent.getPhysicalEventKey());
+        TraceCodec.writeValue(this.recordOutputStream, eventWldtEvent.getBody());
+        endRecord();
+    }
+
+    public synchronized void writeRelationshipCreated(long timestampMs, PhysicalAssetRelationshipInstance<?> relationshipInstance) throws IOException {
+        writeRelationshipInstance(TraceRecordType.RELATIONSHIP_CREATED, timestampMs, relationshipInstance);
+    }
+
+    public synchronized void writeRelationshipDeleted(long timestampMs, PhysicalAssetRelationshipInstance<?> relationshipInstance) throws IOException {
+        writeRelationshipInstance(TraceRecordType.RELATIONSHIP_DELETED, timestampMs, relationshipInstance);
+    }
+
+    public synchronized void flush() throws IOException {
+        this.fileOutputStream.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.fileOutputStream.close();
+    }
+
+    public Path getTracePath() {
+        return tracePath;
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    private void writeRelationshipInstance(TraceRecordType recordType, long timestampMs, PhysicalAssetRelationshipInstance<?> relationshipInstance) throws IOException {
+        startRecord(recordType, timestampMs);
+        TraceCodec.writeString(this.recordOutputStream, relationshipInstance.getRelationship().getName());
+        TraceCodec.writeString(this.recordOutputStream, relationshipInstance.getRelationship().getType());
+        TraceCodec.writeValue(this.recordOutputStream, relationshipInstance.getTargetId());
+        TraceCodec.writeMetadata(this.recordOutputStream, relationshipInstance.getMetadata().orElse(null));
+        endRecord();
+    }
+
+    private void startRecord(TraceRecordType recordType, long timestampMs) throws IOException {
+        this.recordBuffer.reset();
+        this.recordOutputStream.writeByte(recordType.getCode());
+        this.recordOutputStream.writeLong(timestampMs);
+    }
+
+    private void endRecord() throws IOException {
+        this.fileOutputStream.writeInt(this.recordBuffer.size());
+        this.recordBuffer.writeTo(this.fileOutputStream);
+        this.recordCount++;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PhysicalTraceWriter{");
+        sb.append("tracePath=").append(tracePath);
+        sb.append(", recordCount=").append(getRecordCount());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.wldt.demo.trace;
+
+import io.github.wldt.demo.utils.GlobalKeywords;
+import it.wldt.adapter.physical.*;
+import it.wldt.adapter.physical.event.*;
+import it.wldt.core.event.WldtEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Physical Adapter feeding back a trace recorded through a {@link PhysicalTraceWriter}.
+ *
+ * The PAD stored in the trace is notified to bind the Digital Twin, then property variations, events and
+ * relationship instances are published in the recorded order. The delay between two records is the recorded one
+ * divided by the configured speed factor, or zero when the trace is replayed at max speed, so the same workload
+ * can be reproduced across different builds.
+ */
+public class ReplayPhysicalAdapter extends ConfigurablePhysicalAdapter<ReplayPhysicalAdapterConfiguration> {
+
+    private final Map<String, PhysicalAssetRelationship<Object>> relationshipMap = new HashMap<>();
+
+    private Thread replayThread = null;
+
+    public ReplayPhysicalAdapter(String id, ReplayPhysicalAdapterConfiguration configuration) {
+        super(id, configuration);
+    }
+
+    @Override
+    public void onIncomingPhysicalAction(PhysicalAssetActionWldtEvent<?> physicalAssetActionWldtEvent) {
+        //Recorded devices can not be actuated, actions are only logged
+        System.out.println("[ReplayPhysicalAdapter] -> Received Action Request: " + physicalAssetActionWldtEvent);
+    }
+
+    @Override
+    public void onAdapterStart() {
+        this.replayThread = getConfiguration().getClock().newThread(replayTrace(), String.format("%s-trace-replay", getId()));
+        this.replayThread.start();
+    }
+
+    @Override
+    public void onAdapterStop() {
+        if(this.replayThread != null)
+            this.replayThread.interrupt();
+    }
+
+    private Runnable replayTrace(){
+        return () -> {
+
+            System.out.println("[ReplayPhysicalAdapter] -> Replaying Trace: " + getConfiguration());
+
+            long replayStartMs = System.currentTimeMillis();
+
+            try (PhysicalTraceReader traceReader = new PhysicalTraceReader(getConfiguration().getTracePath())) {
+
+                Long previousTimestampMs = null;
+
+                Optional<PhysicalTraceRecord> nextRecord;
+                while ((nextRecord = traceReader.readNext()).isPresent()) {
+
+                    PhysicalTraceRecord record = nextRecord.get();
+
+                    //Wait the recorded gap scaled by the speed factor
+                    if(previousTimestampMs != null)
+                        waitRecordGap(record.getTimestampMs() - previousTimestampMs);
+                    previousTimestampMs = record.getTimestampMs();
+
+                    replayRecord(record);
+                }
+
+                System.out.println(String.format("[ReplayPhysicalAdapter] -> Trace Replay Completed ! Records: %d Elapsed Time: %d ms",
+                        traceReader.getRecordCount(),
+                        System.currentTimeMillis() - replayStartMs));
+
+            } catch (InterruptedException e) {
+                System.out.println("[ReplayPhysicalAdapter] -> Trace Replay Interrupted !");
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        };
+    }
+
+    private void replayRecord(PhysicalTraceRecord record) throws Exception {
+        switch (record.getRecordType()) {
+            case PHYSICAL_ASSET_DESCRIPTION:
+                PhysicalAssetDescription pad = record.getPhysicalAssetDescription();
+                pad.getRelationships().forEach(relationship ->
+                        this.relationshipMap.put(relationship.getName(), new PhysicalAssetRelationship<>(relationship.getName(), relationship.getType())));
+                this.notifyPhysicalAdapterBound(pad);
+                //Give the Shadowing Function the time to observe the declared resources
+                getConfiguration().getClock().sleep(getConfiguration().getBindDelayMs());
+                break;
+            case PROPERTY:
+                publishPhysicalAssetPropertyWldtEvent(withSampleTimestamp(new PhysicalAssetPropertyWldtEvent<>(record.getKey(), record.getValue())));
+                break;
+            case EVENT:
+                publishPhysicalAssetEventWldtEvent(withSampleTimestamp(new PhysicalAssetEventWldtEvent<>(record.getKey(), record.getValue())));
+                break;
+            case RELATIONSHIP_CREATED:
+                publishPhysicalAssetRelationshipCreatedWldtEvent(withSampleTimestamp(new PhysicalAssetRelationshipInstanceCreatedWldtEvent<>(getRelationshipInstance(record))));
+                break;
+            case RELATIONSHIP_DELETED:
+                publishPhysicalAssetRelationshipDeletedWldtEvent(withSampleTimestamp(new PhysicalAssetRelationshipInstanceDeletedWldtEvent<>(getRelationshipInstance(record))));
+                break;
+            default:
+                System.err.println("[ReplayPhysicalAdapter] -> Unsupported Trace Record: " + record);
+        }
+    }
+
+    private PhysicalAssetRelationshipInstance<Object> getRelationshipInstance(PhysicalTraceRecord record) {
+        PhysicalAssetRelationship<Object> relationship = this.relationshipMap.computeIfAbsent(record.getKey(),
+                name -> new PhysicalAssetRelationship<>(name, record.getRelationshipType()));
+        return relationship.createRelationshipInstance(record.getValue(), new HashMap<>(record.getMetadata()));
+    }
+
+    private void waitRecordGap(long recordedGapMs) throws InterruptedException {
+        if(getConfiguration().isMaxSpeed() || recordedGapMs <= 0)
+            return;
+        getConfiguration().getClock().sleep((long) (recordedGapMs / getConfiguration().getSpeedFactor()));
+    }
+
+    private <E extends WldtEvent<?>> E withSampleTimestamp(E wldtEvent) {
+        wldtEvent.putMetadata(GlobalKeywords.SAMPLE_TIMESTAMP_METADATA_KEY, getConfiguration().getClock().currentTimeMillis());
+        return wldtEvent;
+    }
+}
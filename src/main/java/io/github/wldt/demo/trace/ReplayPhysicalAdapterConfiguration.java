@@ -0,0 +1,79 @@
+package io.github.wldt.demo.trace;
+
+import io.github.wldt.demo.clock.DigitalTwinClock;
+import io.github.wldt.demo.clock.SystemClock;
+
+import java.nio.file.Path;
+
+public class ReplayPhysicalAdapterConfiguration {
+
+    //Speed factor used to replay a trace as fast as possible
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    public static final long DEFAULT_BIND_DELAY_MS = 1000;
+
+    private Path tracePath;
+
+    //1.0 replays the trace with the recorded timing, N replays it N times faster
+    private double speedFactor = 1.0;
+
+    //Minimum time waited after the PAD publication to let the Shadowing Function observe the declared resources
+    private long bindDelayMs = DEFAULT_BIND_DELAY_MS;
+
+    private DigitalTwinClock clock = SystemClock.getInstance();
+
+    public ReplayPhysicalAdapterConfiguration() {
+    }
+
+    public ReplayPhysicalAdapterConfiguration(Path tracePath, double speedFactor) {
+        this.tracePath = tracePath;
+        this.speedFactor = speedFactor;
+    }
+
+    public Path getTracePath() {
+        return tracePath;
+    }
+
+    public void setTracePath(Path tracePath) {
+        this.tracePath = tracePath;
+    }
+
+    public double getSpeedFactor() {
+        return speedFactor;
+    }
+
+    public void setSpeedFactor(double speedFactor) {
+        this.speedFactor = speedFactor;
+    }
+
+    public boolean isMaxSpeed() {
+        return Double.isInfinite(speedFactor) || speedFactor <= 0;
+    }
+
+    public long getBindDelayMs() {
+        return bindDelayMs;
+    }
+
+    public void setBindDelayMs(long bindDelayMs) {
+        this.bindDelayMs = bindDelayMs;
+    }
+
+    public DigitalTwinClock getClock() {
+        return clock;
+    }
+
+    public void setClock(DigitalTwinClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReplayPhysicalAdapterConfiguration{");
+        sb.append("tracePath=").append(tracePath);
+        sb.append(", speedFactor=").append(speedFactor);
+        sb.append(", bindDelayMs=").append(bindDelayMs);
+        sb.append(", clock=").append(clock);
+        sb.append('}');
+        return sb.toString();
+    }
+}
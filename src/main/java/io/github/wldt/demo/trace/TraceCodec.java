@@ -0,0 +1,132 @@
+package io.github.wldt.demo.trace;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binary encoding shared by {@link PhysicalTraceWriter} and {@link PhysicalTraceReader}.
+ *
+ * The file starts with a header (magic number and format version) followed by length-prefixed records:
+ *
+ * <pre>
+ * record := int bodyLength | byte recordType | long timestampMs | body
+ * string := int byteLength | UTF-8 bytes (byteLength = -1 for null)
+ * value  := byte valueType | payload
+ * </pre>
+ *
+ * Values of types different from the supported primitive wrappers and String are stored through their
+ * string representation.
+ */
+final class TraceCodec {
+
+    static final int MAGIC = 0x574C5452;
+
+    static final short VERSION = 1;
+
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte DOUBLE_VALUE = 1;
+    private static final byte FLOAT_VALUE = 2;
+    private static final byte LONG_VALUE = 3;
+    private static final byte INTEGER_VALUE = 4;
+    private static final byte BOOLEAN_VALUE = 5;
+    private static final byte STRING_VALUE = 6;
+
+    private TraceCodec() {
+    }
+
+    static void writeString(DataOutputStream outputStream, String value) throws IOException {
+        if(value == null){
+            outputStream.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if(length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeValue(DataOutputStream outputStream, Object value) throws IOException {
+        if(value == null)
+            outputStream.writeByte(NULL_VALUE);
+        else if(value instanceof Double){
+            outputStream.writeByte(DOUBLE_VALUE);
+            outputStream.writeDouble((Double) value);
+        }
+        else if(value instanceof Float){
+            outputStream.writeByte(FLOAT_VALUE);
+            outputStream.writeFloat((Float) value);
+        }
+        else if(value instanceof Long){
+            outputStream.writeByte(LONG_VALUE);
+            outputStream.writeLong((Long) value);
+        }
+        else if(value instanceof Integer){
+            outputStream.writeByte(INTEGER_VALUE);
+            outputStream.writeInt((Integer) value);
+        }
+        else if(value instanceof Boolean){
+            outputStream.writeByte(BOOLEAN_VALUE);
+            outputStream.writeBoolean((Boolean) value);
+        }
+        else {
+            outputStream.writeByte(STRING_VALUE);
+            writeString(outputStream, value.toString());
+        }
+    }
+
+    static Object readValue(ByteBuffer buffer) {
+        byte valueType = buffer.get();
+        switch (valueType) {
+            case NULL_VALUE:
+                return null;
+            case DOUBLE_VALUE:
+                return buffer.getDouble();
+            case FLOAT_VALUE:
+                return buffer.getFloat();
+            case LONG_VALUE:
+                return buffer.getLong();
+            case INTEGER_VALUE:
+                return buffer.getInt();
+            case BOOLEAN_VALUE:
+                return buffer.get() != 0;
+            case STRING_VALUE:
+                return readString(buffer);
+            default:
+                throw new IllegalArgumentException(String.format("Unknown Trace Value Type: %d", valueType));
+        }
+    }
+
+    static void writeMetadata(DataOutputStream outputStream, Map<String, Object> metadata) throws IOException {
+        if(metadata == null){
+            outputStream.writeInt(0);
+            return;
+        }
+        outputStream.writeInt(metadata.size());
+        for(Map.Entry<String, Object> entry : metadata.entrySet()){
+            writeString(outputStream, entry.getKey());
+            writeValue(outputStream, entry.getValue());
+        }
+    }
+
+    static Map<String, Object> readMetadata(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for(int i = 0; i < size; i++)
+            metadata.put(readString(buffer), readValue(buffer));
+        return metadata;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.wldt.demo.trace;
+
+/**
+ * Types of the records stored in a physical trace file
+ */
+public enum TraceRecordType {
+
+    PHYSICAL_ASSET_DESCRIPTION((byte) 1),
+    PROPERTY((byte) 2),
+    EVENT((byte) 3),
+    RELATIONSHIP_CREATED((byte) 4),
+    RELATIONSHIP_DELETED((byte) 5);
+
+    private final byte code;
+
+    TraceRecordType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static TraceRecordType fromCode(byte code) {
+        for(TraceRecordType recordType : values())
+            if(recordType.code == code)
+                return recordType;
+        throw new IllegalArgumentException(String.format("Unknown Trace Record Type: %d", code));
+    }
+}
@@ -20,7 +20,33 @@ public class GlobalKeywords {
     public static final String INSIDE_IN_RELATIONSHIP_NAME = "insideIn";
     public static final String INSIDE_IN_RELATIONSHIP_TYPE = "inside_in_rel";
 
+    public static final String DEFAULT_BUILDING = "building-hq";
+    public static final String DEFAULT_FLOOR = "f0";
+    public static final String DEFAULT_ROOM = "r0";
+    public static final String FLOOR_METADATA_KEY = "floor";
+    public static final String ROOM_METADATA_KEY = "room";
+
+    public static final String AVERAGE_TEMPERATURE_PROPERTY_KEY = "average-temperature-property-key";
+    public static final String MAX_TEMPERATURE_PROPERTY_KEY = "max-temperature-property-key";
+    public static final String MEMBER_COUNT_PROPERTY_KEY = "member-count-property-key";
+    public static final String OVERHEATING_COUNT_PROPERTY_KEY = "overheating-count-property-key";
+
     public static final int ACTION_SLEEP_TIME_MS = 1000;
     public static final int EMULATED_ACTION_COUNT = 5;
 
+    public static final int PAD_PUBLICATION_DELAY_MS = 5000;
+    public static final int DEVICE_STARTUP_DELAY_MS = 10000;
+    public static final int RELATIONSHIP_CREATION_DELAY_MS = 10000;
+    public static final int ACTION_EMULATION_DELAY_MS = 5000;
+
+    public static final String SAMPLE_TIMESTAMP_METADATA_KEY = "sample-timestamp";
+    public static final String SAMPLE_COUNT_METADATA_KEY = "sample-count";
+    public static final String SAMPLE_WINDOW_PROPERTY_SUFFIX = "-window";
+
+    public static final int SAMPLE_WINDOW_MS = 1000;
+    public static final int MAX_SAMPLES_PER_WINDOW = 10000;
+
+    public static final int EVENT_BATCH_SIZE = 64;
+    public static final long EVENT_BATCH_MAX_DELAY_MS = 100;
+
 }